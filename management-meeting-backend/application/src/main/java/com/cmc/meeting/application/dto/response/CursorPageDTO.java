@@ -0,0 +1,37 @@
+package com.cmc.meeting.application.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Trang theo con trỏ (keyset): không có tổng số bản ghi / số trang (không chạy COUNT).
+ * Client gửi lại nextCursor để lấy trang kế tiếp; nextCursor = null nghĩa là đã hết.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    /**
+     * @param rows  kết quả truy vấn với limit = size + 1 (dòng dư dùng để biết còn trang sau)
+     */
+    public static <S, T> CursorPageDTO<T> of(List<S> rows, int size,
+            Function<S, KeysetCursor> cursorOf, Function<S, T> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<S> page = hasNext ? rows.subList(0, size) : rows;
+
+        List<T> content = new ArrayList<>(page.size());
+        page.forEach(row -> content.add(mapper.apply(row)));
+        String nextCursor = hasNext ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPageDTO<>(content, nextCursor, hasNext);
+    }
+}
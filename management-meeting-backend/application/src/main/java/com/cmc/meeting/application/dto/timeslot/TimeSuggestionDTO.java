@@ -0,0 +1,21 @@
+package com.cmc.meeting.application.dto.timeslot;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một gợi ý giờ họp đã xếp hạng (kèm phòng phù hợp nhất tại thời điểm đó, nếu có).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSuggestionDTO {
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Long roomId;        // null nếu không tìm theo phòng
+    private String roomName;
+    private int tentativeConflicts; // Số người / phòng đang vướng lịch CHỜ DUYỆT trong khung giờ này
+}
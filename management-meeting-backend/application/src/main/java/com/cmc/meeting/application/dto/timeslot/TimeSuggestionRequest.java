@@ -1,11 +1,13 @@
 package com.cmc.meeting.application.dto.timeslot;
 
 import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Set;
 
 @Data
@@ -24,4 +26,20 @@ public class TimeSuggestionRequest {
 
     @Min(value = 15, message = "Thời lượng họp phải ít nhất 15 phút")
     private int durationMinutes; // Thời lượng mong muốn (tính bằng phút)
-}
\ No newline at end of file
+
+    // --- Tùy chọn (không gửi thì dùng mặc định) ---
+
+    private Set<Long> roomIds; // Phòng ứng viên (gợi ý có xếp hạng); rỗng = mọi phòng đủ chỗ
+
+    private LocalTime workStart = LocalTime.of(8, 0); // Giờ làm việc
+    private LocalTime workEnd = LocalTime.of(18, 0);
+    private boolean includeWeekends = false;
+
+    @Min(value = 0, message = "Thời gian đệm không được âm")
+    @Max(value = 120, message = "Thời gian đệm tối đa 120 phút")
+    private int bufferMinutes = 0; // Khoảng nghỉ tối thiểu trước/sau các cuộc họp khác
+
+    @Min(1)
+    @Max(50)
+    private int maxResults = 10; // Số gợi ý tối đa (gợi ý có xếp hạng)
+}
@@ -0,0 +1,110 @@
+package com.cmc.meeting.application.mapper;
+
+import com.cmc.meeting.application.dto.device.DeviceDTO;
+import com.cmc.meeting.application.dto.notification.NotificationDTO;
+import com.cmc.meeting.application.dto.response.MeetingDTO;
+import com.cmc.meeting.application.dto.response.MeetingParticipantDTO;
+import com.cmc.meeting.domain.model.Device;
+import com.cmc.meeting.domain.model.Meeting;
+import com.cmc.meeting.domain.model.MeetingParticipant;
+import com.cmc.meeting.domain.model.Notification;
+import com.cmc.meeting.domain.model.User;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mapper viết tay Domain -> DTO cho các API danh sách (cuộc họp, thông báo).
+ * Thay cho modelMapper.map(...) (reflection) vốn chiếm nhiều CPU khi trả về hàng trăm bản ghi.
+ */
+@Component
+public class MeetingDtoMapper {
+
+    public MeetingDTO toDTO(Meeting meeting) {
+        if (meeting == null) return null;
+        MeetingDTO dto = new MeetingDTO();
+        dto.setId(meeting.getId());
+        dto.setTitle(meeting.getTitle());
+        dto.setDescription(meeting.getDescription());
+        dto.setStartTime(meeting.getStartTime());
+        dto.setEndTime(meeting.getEndTime());
+        dto.setStatus(meeting.getStatus());
+        dto.setSeriesId(meeting.getSeriesId());
+        dto.setCheckinCode(meeting.getCheckinCode());
+
+        if (meeting.getRoom() != null) {
+            MeetingDTO.RoomDTO room = new MeetingDTO.RoomDTO();
+            room.setId(meeting.getRoom().getId());
+            room.setName(meeting.getRoom().getName());
+            dto.setRoom(room);
+        }
+        dto.setCreator(toUserDTO(meeting.getCreator()));
+        dto.setOrganizer(toUserDTO(meeting.getOrganizer()));
+
+        if (meeting.getParticipants() != null) {
+            List<MeetingParticipantDTO> participants = new ArrayList<>(meeting.getParticipants().size());
+            for (MeetingParticipant participant : meeting.getParticipants()) {
+                participants.add(toParticipantDTO(participant));
+            }
+            dto.setParticipants(participants);
+        }
+        if (meeting.getDevices() != null) {
+            Set<DeviceDTO> devices = new HashSet<>();
+            for (Device device : meeting.getDevices()) {
+                devices.add(toDeviceDTO(device));
+            }
+            dto.setDevices(devices);
+        }
+        dto.setGuestEmails(meeting.getGuestEmails() != null ? new HashSet<>(meeting.getGuestEmails()) : null);
+        return dto;
+    }
+
+    public MeetingParticipantDTO toParticipantDTO(MeetingParticipant participant) {
+        if (participant == null) return null;
+        MeetingParticipantDTO dto = new MeetingParticipantDTO();
+        dto.setStatus(participant.getStatus());
+        if (participant.getUser() != null) {
+            dto.setId(participant.getUser().getId());
+            dto.setFullName(participant.getUser().getFullName());
+        }
+        return dto;
+    }
+
+    public NotificationDTO toDTO(Notification notification) {
+        if (notification == null) return null;
+        NotificationDTO dto = new NotificationDTO();
+        dto.setId(notification.getId());
+        dto.setMessage(notification.getMessage());
+        dto.setRead(notification.isRead());
+        dto.setCreatedAt(notification.getCreatedAt());
+        if (notification.getMeeting() != null) {
+            dto.setMeetingId(notification.getMeeting().getId());
+            if (notification.getMeeting().getStatus() != null) {
+                dto.setMeetingStatus(notification.getMeeting().getStatus().name());
+            }
+        }
+        return dto;
+    }
+
+    private MeetingDTO.UserDTO toUserDTO(User user) {
+        if (user == null) return null;
+        MeetingDTO.UserDTO dto = new MeetingDTO.UserDTO();
+        dto.setId(user.getId());
+        dto.setFullName(user.getFullName());
+        return dto;
+    }
+
+    private DeviceDTO toDeviceDTO(Device device) {
+        DeviceDTO dto = new DeviceDTO();
+        dto.setId(device.getId());
+        dto.setName(device.getName());
+        dto.setDescription(device.getDescription());
+        dto.setStatus(device.getStatus());
+        dto.setImages(device.getImages());
+        dto.setRoomId(device.getRoomId());
+        return dto;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cmc.meeting.application.port.cluster;
+
+import java.time.Duration;
+
+/**
+ * Khóa dùng chung giữa các replica (thuê theo thời hạn) để 1 tác vụ định kỳ chỉ chạy trên 1 node.
+ *
+ * - Node giữ khóa được tự gia hạn trong nền cho tới khi release() hoặc tắt ứng dụng.
+ * - Node chết: khóa hết hạn sau 'lease' và node khác giành được.
+ * - Lỗi kết nối kho khóa: trả false (thà bỏ 1 lượt còn hơn chạy trùng).
+ */
+public interface ClusterLockPort {
+
+    // true nếu node này đang (hoặc vừa) giữ khóa; gọi lại khi đang giữ gần như không tốn gì
+    boolean tryAcquire(String name, Duration lease);
+
+    // Ngừng gia hạn; khóa tự hết hạn sau 'lease' (node khác chạy cùng cron không chạy lại ngay)
+    void release(String name);
+}
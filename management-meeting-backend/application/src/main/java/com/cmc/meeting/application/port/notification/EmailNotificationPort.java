@@ -1,10 +1,17 @@
 package com.cmc.meeting.application.port.notification;
 import com.cmc.meeting.domain.model.Meeting;
 import com.cmc.meeting.domain.model.User;
+import java.util.Collection;
+import java.util.Map;
 public interface EmailNotificationPort {
+    // Email được đưa vào hàng đợi (outbox) trong transaction hiện tại, gửi SMTP ở nền
     void sendHtmlEmail(String to, String subject, String htmlBody);
+    // Cùng 1 nội dung cho nhiều người nhận
+    void sendHtmlEmail(Collection<String> recipients, String subject, String htmlBody);
+    // Nội dung riêng cho từng người nhận (email -> HTML), ghi 1 lô
+    void sendHtmlEmails(Map<String, String> htmlBodyByRecipient, String subject);
     void sendPasswordResetEmail(User user, String token);
     void sendWelcomeEmail(User user, String rawPassword);
-    // Hàm gửi nhắc nhở cuộc họp (Dùng chung cho cả User nội bộ và Guest)
-    void sendMeetingReminder(String toEmail, Meeting meeting, String timeLabel);
+    // Hàm gửi nhắc nhở cuộc họp (Dùng chung cho cả User nội bộ và Guest): render 1 lần, ghi 1 lô
+    void sendMeetingReminder(Collection<String> recipients, Meeting meeting, String timeLabel);
 }
\ No newline at end of file
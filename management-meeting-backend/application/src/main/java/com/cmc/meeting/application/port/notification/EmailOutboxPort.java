@@ -0,0 +1,22 @@
+package com.cmc.meeting.application.port.notification;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Hàng đợi email bền vững: enqueue tham gia transaction hiện tại (rollback thì không gửi),
+ * việc gửi SMTP thật do dispatcher chạy nền đảm nhận (gửi theo lô, thử lại có backoff).
+ */
+public interface EmailOutboxPort {
+
+    void enqueue(String to, String subject, String htmlBody);
+
+    // Cùng 1 nội dung cho nhiều người nhận (1 lệnh JDBC batch)
+    void enqueueAll(Collection<String> recipients, String subject, String htmlBody);
+
+    // Mỗi người nhận 1 nội dung riêng (email -> HTML), cũng 1 lệnh JDBC batch
+    void enqueueAll(Map<String, String> htmlBodyByRecipient, String subject);
+
+    // Độ sâu hàng đợi: số email theo trạng thái + tuổi (giây) của email chờ lâu nhất
+    Map<String, Long> getQueueStats();
+}
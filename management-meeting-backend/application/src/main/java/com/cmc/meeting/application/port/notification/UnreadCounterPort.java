@@ -0,0 +1,24 @@
+package com.cmc.meeting.application.port.notification;
+
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Bộ đếm số thông báo chưa đọc theo user (cache ngoài CSDL, vd: Redis).
+ * Mọi hàm đều "best effort": cache lỗi / chưa có giá trị thì nơi gọi tự đếm lại từ CSDL.
+ */
+public interface UnreadCounterPort {
+
+    // Rỗng khi chưa có giá trị hoặc cache đang không dùng được
+    OptionalLong get(Long userId);
+
+    // Nạp giá trị vừa đếm từ CSDL (không ghi đè nếu đã có giá trị mới hơn)
+    void seed(Long userId, long count);
+
+    // Cộng dồn theo user (chỉ áp dụng cho user đã có bộ đếm)
+    void increment(Map<Long, Long> deltasByUser);
+
+    void decrement(Long userId);
+
+    void reset(Long userId);
+}
@@ -11,6 +11,7 @@ import com.cmc.meeting.application.dto.meeting.MeetingCancelRequest;
 import com.cmc.meeting.application.dto.meeting.MeetingResponseRequest;
 import com.cmc.meeting.application.dto.request.MeetingCreationRequest;
 import com.cmc.meeting.application.dto.request.MeetingUpdateRequest;
+import com.cmc.meeting.application.dto.response.CursorPageDTO;
 import com.cmc.meeting.application.dto.response.MeetingDTO;
 import com.cmc.meeting.domain.model.ParticipantStatus;
 
@@ -36,6 +37,9 @@ public interface MeetingService {
     // CẬP NHẬT: (US-6) Thêm Pageable
     Page<MeetingDTO> getMyMeetings(Long currentUserId, Pageable pageable);
     Page<MeetingDTO> getAllMeetings(Pageable pageable);
+    // Phân trang keyset (cursor) - không COUNT / OFFSET
+    CursorPageDTO<MeetingDTO> getMyMeetingsByCursor(Long currentUserId, String cursor, Integer size);
+    CursorPageDTO<MeetingDTO> getAllMeetingsByCursor(String cursor, Integer size);
     List<BookedSlotDTO> getRoomSchedule(Long roomId, LocalDateTime startTime, LocalDateTime endTime);
     List<BookedSlotDTO> getDeviceSchedule(Long deviceId, LocalDateTime startTime, LocalDateTime endTime);
     void processMeetingApproval(Long meetingId, boolean isApproved, String reason, Long currentAdminId);
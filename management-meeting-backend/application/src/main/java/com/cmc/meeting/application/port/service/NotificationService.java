@@ -1,15 +1,20 @@
 package com.cmc.meeting.application.port.service;
 
 import com.cmc.meeting.application.dto.notification.NotificationDTO;
+import com.cmc.meeting.application.dto.response.CursorPageDTO;
 import com.cmc.meeting.domain.model.Meeting;
+import com.cmc.meeting.domain.model.Notification;
 import com.cmc.meeting.domain.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 public interface NotificationService {
     // API cho Frontend
     Page<NotificationDTO> getMyNotifications(Long currentUserId, Pageable pageable);
+    CursorPageDTO<NotificationDTO> getMyNotificationsByCursor(Long currentUserId, String cursor, Integer size);
     Map<String, Long> getUnreadCount(Long currentUserId);
     NotificationDTO markAsRead(Long notificationId, Long currentUserId);
     void markAllAsRead(Long currentUserId);
@@ -17,4 +22,8 @@ public interface NotificationService {
     // API cho Backend (Service nội bộ)
     void createNotification(User user, String message, Meeting meeting);
     void createNotification(User user, String message);
+    // Cùng 1 nội dung cho nhiều người nhận: 1 lệnh INSERT batch thay vì N lần save
+    void createNotifications(Collection<User> users, String message, Meeting meeting);
+    // Mỗi thông báo gắn với cuộc họp riêng (vd: các yêu cầu bị từ chối tự động): vẫn 1 lệnh INSERT batch
+    void createNotifications(List<Notification> notifications);
 }
\ No newline at end of file
@@ -2,10 +2,15 @@ package com.cmc.meeting.application.port.storage;
 
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 public interface FileStoragePort {
     // Trả về [fileUrl, publicId]
     Map<String, String> uploadFile(MultipartFile file) throws IOException;
+    // Tải nhiều file song song, kết quả đúng thứ tự đầu vào. 1 file lỗi -> xóa các file đã tải, ném IOException
+    List<Map<String, String>> uploadFiles(List<MultipartFile> files) throws IOException;
     void deleteFile(String publicId) throws IOException;
-}
\ No newline at end of file
+    // Dọn file đã tải nhưng không dùng đến (lưu CSDL thất bại); lỗi chỉ ghi log
+    void deleteFilesQuietly(List<String> publicIds);
+}
@@ -13,6 +13,7 @@ import org.modelmapper.ModelMapper;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import com.cmc.meeting.domain.model.Role;
 import com.cmc.meeting.application.port.service.MeetingService;
@@ -40,7 +41,7 @@ public class AdminUserServiceImpl implements AdminUserService {
     private final MeetingService meetingService;
     private final PasswordEncoder passwordEncoder;
     private final ApplicationEventPublisher eventPublisher;
-    private final com.cmc.meeting.application.port.storage.FileStoragePort fileStoragePort; // <-- THÊM MỚI
+    private final FileUploadStage fileUploadStage;
 
     // === CẬP NHẬT CONSTRUCTOR ===
     public AdminUserServiceImpl(UserRepository userRepository,
@@ -49,7 +50,7 @@ public class AdminUserServiceImpl implements AdminUserService {
             MeetingService meetingService,
             PasswordEncoder passwordEncoder,
             ApplicationEventPublisher eventPublisher,
-            com.cmc.meeting.application.port.storage.FileStoragePort fileStoragePort // <-- THÊM MỚI
+            FileUploadStage fileUploadStage
     ) {
         this.userRepository = userRepository;
         this.modelMapper = modelMapper;
@@ -57,7 +58,7 @@ public class AdminUserServiceImpl implements AdminUserService {
         this.meetingService = meetingService;
         this.passwordEncoder = passwordEncoder;
         this.eventPublisher = eventPublisher;
-        this.fileStoragePort = fileStoragePort; // <-- THÊM MỚI
+        this.fileUploadStage = fileUploadStage;
     }
 
     @Override
@@ -71,27 +72,25 @@ public class AdminUserServiceImpl implements AdminUserService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Upload avatar trước, transaction mở trong FileUploadStage
     public AdminUserDTO updateUser(Long userId, AdminUserUpdateRequest request,
             org.springframework.web.multipart.MultipartFile avatar) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy user: " + userId));
-
-        // Cập nhật quyền và trạng thái
-        user.setRoles(request.getRoles());
-        user.setActive(request.getIsActive());
-
-        // Xử lý avatar
-        if (avatar != null && !avatar.isEmpty()) {
-            try {
-                java.util.Map<String, String> result = fileStoragePort.uploadFile(avatar);
-                user.setAvatarUrl(result.get("url"));
-            } catch (java.io.IOException e) {
-                throw new RuntimeException("Upload failed: " + e.getMessage());
+        return fileUploadStage.uploadThenSave(avatar == null ? null : List.of(avatar), avatarUrls -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy user: " + userId));
+
+            // Cập nhật quyền và trạng thái
+            user.setRoles(request.getRoles());
+            user.setActive(request.getIsActive());
+
+            // Avatar đã upload
+            if (!avatarUrls.isEmpty()) {
+                user.setAvatarUrl(avatarUrls.get(0));
             }
-        }
 
-        User updatedUser = userRepository.save(user);
-        return modelMapper.map(updatedUser, AdminUserDTO.class);
+            User updatedUser = userRepository.save(user);
+            return modelMapper.map(updatedUser, AdminUserDTO.class);
+        });
     }
 
     /**
@@ -169,10 +168,21 @@ public class AdminUserServiceImpl implements AdminUserService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Upload avatar trước, transaction mở trong FileUploadStage
     public AdminUserDTO createUser(AdminUserCreationRequest request,
             org.springframework.web.multipart.MultipartFile avatar) {
 
-        // 1. Kiểm tra username (email) đã tồn tại chưa
+        // 1. Kiểm tra username (email) đã tồn tại chưa (trước khi upload avatar)
+        if (userRepository.findByUsername(request.getUsername()).isPresent()) {
+            throw new PolicyViolationException("Email (username) này đã được sử dụng.");
+        }
+
+        return fileUploadStage.uploadThenSave(avatar == null ? null : List.of(avatar),
+                avatarUrls -> saveNewUser(request, avatarUrls));
+    }
+
+    private AdminUserDTO saveNewUser(AdminUserCreationRequest request, List<String> avatarUrls) {
+        // Kiểm tra lại trong transaction (có thể đã bị tạo trong lúc upload)
         if (userRepository.findByUsername(request.getUsername()).isPresent()) {
             throw new PolicyViolationException("Email (username) này đã được sử dụng.");
         }
@@ -187,14 +197,9 @@ public class AdminUserServiceImpl implements AdminUserService {
         newUser.setRoles(request.getRoles());
         newUser.setActive(true); // Mặc định là active
 
-        // Xử lý avatar
-        if (avatar != null && !avatar.isEmpty()) {
-            try {
-                java.util.Map<String, String> result = fileStoragePort.uploadFile(avatar);
-                newUser.setAvatarUrl(result.get("url"));
-            } catch (java.io.IOException e) {
-                throw new RuntimeException("Upload failed: " + e.getMessage());
-            }
+        // Avatar đã upload
+        if (!avatarUrls.isEmpty()) {
+            newUser.setAvatarUrl(avatarUrls.get(0));
         }
 
         // 4. Băm (Hash) mật khẩu và lưu
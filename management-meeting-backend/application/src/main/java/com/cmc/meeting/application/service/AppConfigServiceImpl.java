@@ -2,6 +2,7 @@ package com.cmc.meeting.application.service;
 
 import com.cmc.meeting.application.dto.admin.AppConfigUpdateRequest;
 import com.cmc.meeting.application.port.service.AppConfigService;
+import com.cmc.meeting.domain.event.AppConfigUpdatedEvent;
 import com.cmc.meeting.domain.model.AppConfig;
 import com.cmc.meeting.domain.port.repository.AppConfigRepository;
 
@@ -9,6 +10,7 @@ import jakarta.persistence.EntityNotFoundException;
 
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,9 +19,11 @@ import java.util.List; // Bổ sung
 public class AppConfigServiceImpl implements AppConfigService {
 
     private final AppConfigRepository configRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AppConfigServiceImpl(AppConfigRepository configRepository) {
+    public AppConfigServiceImpl(AppConfigRepository configRepository, ApplicationEventPublisher eventPublisher) {
         this.configRepository = configRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -56,6 +60,8 @@ public class AppConfigServiceImpl implements AppConfigService {
 
         config.setConfigValue(request.getConfigValue());
 
-        return configRepository.save(config);
+        AppConfig saved = configRepository.save(config);
+        eventPublisher.publishEvent(new AppConfigUpdatedEvent(key)); // vd: bỏ template email đã parse
+        return saved;
     }
 }
\ No newline at end of file
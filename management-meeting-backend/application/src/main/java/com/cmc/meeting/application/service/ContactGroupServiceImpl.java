@@ -25,13 +25,16 @@ public class ContactGroupServiceImpl implements ContactGroupService {
     private final ContactGroupRepository groupRepository;
     private final UserRepository userRepository;
     private final ModelMapper modelMapper;
+    private final EntityResolver entityResolver;
 
     public ContactGroupServiceImpl(ContactGroupRepository groupRepository, 
                                  UserRepository userRepository, 
-                                 ModelMapper modelMapper) {
+                                 ModelMapper modelMapper,
+                                 EntityResolver entityResolver) {
         this.groupRepository = groupRepository;
         this.userRepository = userRepository;
         this.modelMapper = modelMapper;
+        this.entityResolver = entityResolver;
     }
 
     @Override
@@ -85,7 +88,7 @@ public class ContactGroupServiceImpl implements ContactGroupService {
 
     // --- Helpers ---
     private User findUserById(Long id) {
-        return userRepository.findById(id)
+        return entityResolver.findUser(id)
                 .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy User ID: " + id));
     }
 
@@ -96,9 +99,8 @@ public class ContactGroupServiceImpl implements ContactGroupService {
 
     private Set<User> findUsersByIds(Set<Long> ids) {
         if (ids == null) return Set.of();
-        return ids.stream()
-                .map(this::findUserById)
-                .collect(Collectors.toSet());
+        // 1 truy vấn cho cả danh sách, báo lỗi liệt kê mọi ID không tồn tại
+        return entityResolver.requireUsers(ids, "User");
     }
 
     // Helper map sang DTO
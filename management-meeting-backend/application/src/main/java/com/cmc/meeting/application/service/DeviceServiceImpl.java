@@ -11,6 +11,7 @@ import com.cmc.meeting.domain.port.repository.MeetingRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -25,15 +26,15 @@ public class DeviceServiceImpl implements DeviceService {
     private final DeviceRepository deviceRepository;
     private final ModelMapper modelMapper;
     private final MeetingRepository meetingRepository;
-    private final com.cmc.meeting.application.port.storage.FileStoragePort fileStoragePort;
+    private final FileUploadStage fileUploadStage;
 
     public DeviceServiceImpl(DeviceRepository deviceRepository, ModelMapper modelMapper,
             MeetingRepository meetingRepository,
-            com.cmc.meeting.application.port.storage.FileStoragePort fileStoragePort) {
+            FileUploadStage fileUploadStage) {
         this.deviceRepository = deviceRepository;
         this.modelMapper = modelMapper;
         this.meetingRepository = meetingRepository;
-        this.fileStoragePort = fileStoragePort;
+        this.fileUploadStage = fileUploadStage;
     }
 
     @Override
@@ -45,58 +46,44 @@ public class DeviceServiceImpl implements DeviceService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Upload ảnh trước, transaction mở trong FileUploadStage
     public DeviceDTO createDevice(DeviceRequest request, List<org.springframework.web.multipart.MultipartFile> images) {
-        Device newDevice = modelMapper.map(request, Device.class);
-
-        // Xử lý upload ảnh
-        if (images != null && !images.isEmpty()) {
-            java.util.List<String> imageUrls = new java.util.ArrayList<>();
-            for (org.springframework.web.multipart.MultipartFile image : images) {
-                if (!image.isEmpty()) {
-                    try {
-                        java.util.Map<String, String> result = fileStoragePort.uploadFile(image);
-                        imageUrls.add(result.get("url"));
-                    } catch (java.io.IOException e) {
-                        throw new RuntimeException("Upload failed: " + e.getMessage());
-                    }
-                }
+        return fileUploadStage.uploadThenSave(images, imageUrls -> {
+            Device newDevice = modelMapper.map(request, Device.class);
+
+            // Ảnh đã được upload (song song) trước khi mở transaction
+            if (images != null && !images.isEmpty()) {
+                newDevice.setImages(new java.util.ArrayList<>(imageUrls));
             }
-            newDevice.setImages(imageUrls);
-        }
 
-        Device savedDevice = deviceRepository.save(newDevice);
-        return modelMapper.map(savedDevice, DeviceDTO.class);
+            Device savedDevice = deviceRepository.save(newDevice);
+            return modelMapper.map(savedDevice, DeviceDTO.class);
+        });
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Upload ảnh trước, transaction mở trong FileUploadStage
     public DeviceDTO updateDevice(Long id, DeviceRequest request,
             List<org.springframework.web.multipart.MultipartFile> images) {
-        Device existingDevice = deviceRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy thiết bị: " + id));
-
-        existingDevice.setName(request.getName());
-        existingDevice.setDescription(request.getDescription());
-        existingDevice.setStatus(request.getStatus());
-
-        // Xử lý upload ảnh (cộng dồn)
-        if (images != null && !images.isEmpty()) {
-            if (existingDevice.getImages() == null) {
-                existingDevice.setImages(new java.util.ArrayList<>());
-            }
-            for (org.springframework.web.multipart.MultipartFile image : images) {
-                if (!image.isEmpty()) {
-                    try {
-                        java.util.Map<String, String> result = fileStoragePort.uploadFile(image);
-                        existingDevice.getImages().add(result.get("url"));
-                    } catch (java.io.IOException e) {
-                        throw new RuntimeException("Upload failed: " + e.getMessage());
-                    }
+        return fileUploadStage.uploadThenSave(images, imageUrls -> {
+            Device existingDevice = deviceRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy thiết bị: " + id));
+
+            existingDevice.setName(request.getName());
+            existingDevice.setDescription(request.getDescription());
+            existingDevice.setStatus(request.getStatus());
+
+            // Ảnh mới (cộng dồn)
+            if (images != null && !images.isEmpty()) {
+                if (existingDevice.getImages() == null) {
+                    existingDevice.setImages(new java.util.ArrayList<>());
                 }
+                existingDevice.getImages().addAll(imageUrls);
             }
-        }
 
-        Device updatedDevice = deviceRepository.save(existingDevice);
-        return modelMapper.map(updatedDevice, DeviceDTO.class);
+            Device updatedDevice = deviceRepository.save(existingDevice);
+            return modelMapper.map(updatedDevice, DeviceDTO.class);
+        });
     }
 
     @Override
@@ -0,0 +1,146 @@
+package com.cmc.meeting.application.service;
+
+import com.cmc.meeting.domain.model.Device;
+import com.cmc.meeting.domain.model.User;
+import com.cmc.meeting.domain.port.repository.DeviceRepository;
+import com.cmc.meeting.domain.port.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Tra cứu User / Device theo lô (1 câu SELECT ... IN thay vì N lần findById).
+ * Trong 1 transaction (= 1 request gọi service) có identity map: cùng 1 ID chỉ tải 1 lần,
+ * các lần sau lấy từ bộ nhớ. Ngoài transaction thì chỉ tra theo lô, không cache.
+ */
+@Component
+public class EntityResolver {
+
+    private final UserRepository userRepository;
+    private final DeviceRepository deviceRepository;
+
+    // Khóa gắn identity map vào transaction hiện tại
+    private final Object txResourceKey = new Object();
+
+    public EntityResolver(UserRepository userRepository, DeviceRepository deviceRepository) {
+        this.userRepository = userRepository;
+        this.deviceRepository = deviceRepository;
+    }
+
+    public Optional<User> findUser(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return getUsers(Set.of(id)).values().stream().findFirst();
+    }
+
+    /**
+     * Lấy tất cả User theo ID; thiếu ID nào thì báo lỗi liệt kê TẤT CẢ các ID thiếu.
+     */
+    public Set<User> requireUsers(Set<Long> ids, String label) {
+        Map<Long, User> found = getUsers(ids);
+        checkMissing(ids, found, label);
+        return new LinkedHashSet<>(found.values());
+    }
+
+    public Set<Device> requireDevices(Set<Long> ids, String label) {
+        Map<Long, Device> found = resolve(Device.class, ids, deviceRepository::findAllById, Device::getId);
+        checkMissing(ids, found, label);
+        return new LinkedHashSet<>(found.values());
+    }
+
+    private Map<Long, User> getUsers(Set<Long> ids) {
+        return resolve(User.class, ids, userRepository::findAllById, User::getId);
+    }
+
+    private <T> Map<Long, T> resolve(Class<T> type, Set<Long> ids,
+            Function<Set<Long>, List<T>> loader, Function<T, Long> idOf) {
+        Map<Long, T> result = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, T> cache = identityMap(type);
+        Set<Long> toLoad = new LinkedHashSet<>();
+        for (Long id : ids) {
+            T cached = cache.get(id);
+            if (cached != null) {
+                result.put(id, cached);
+            } else if (id != null) {
+                toLoad.add(id);
+            }
+        }
+
+        if (!toLoad.isEmpty()) {
+            for (T entity : loader.apply(toLoad)) {
+                cache.put(idOf.apply(entity), entity);
+                result.put(idOf.apply(entity), entity);
+            }
+        }
+        return result;
+    }
+
+    private void checkMissing(Set<Long> ids, Map<Long, ?> found, String label) {
+        if (ids == null) {
+            return;
+        }
+        List<Long> missing = ids.stream()
+                .filter(id -> !found.containsKey(id))
+                .sorted()
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new EntityNotFoundException(String.format("Không tìm thấy %s với ID: %s", label,
+                    missing.stream().map(String::valueOf).collect(Collectors.joining(", "))));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Map<Long, T> identityMap(Class<T> type) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new HashMap<>(); // Không có transaction: dùng tạm rồi bỏ
+        }
+        Map<Class<?>, Map<Long, Object>> maps =
+                (Map<Class<?>, Map<Long, Object>>) TransactionSynchronizationManager.getResource(txResourceKey);
+        if (maps == null) {
+            maps = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(txResourceKey, maps);
+            TransactionSynchronizationManager.registerSynchronization(new IdentityMapSynchronization(maps));
+        }
+        return (Map<Long, T>) maps.computeIfAbsent(type, k -> new HashMap<>());
+    }
+
+    // Gỡ identity map khi transaction kết thúc; tạm gỡ khi bị REQUIRES_NEW treo
+    private final class IdentityMapSynchronization implements TransactionSynchronization {
+
+        private final Map<Class<?>, Map<Long, Object>> maps;
+
+        IdentityMapSynchronization(Map<Class<?>, Map<Long, Object>> maps) {
+            this.maps = maps;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(txResourceKey);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(txResourceKey, maps);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(txResourceKey);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.cmc.meeting.application.service;
+
+import com.cmc.meeting.application.port.storage.FileStoragePort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Tải file lên kho lưu trữ TRƯỚC khi mở transaction: vài giây gọi mạng cho mỗi ảnh không còn giữ
+ * connection CSDL / row lock. Nhiều file được tải song song (FileStoragePort.uploadFiles).
+ * Phần ghi CSDL lỗi -> xóa các file vừa tải.
+ *
+ * Service gọi lớp này phải chạy NGOÀI transaction (@Transactional(propagation = NOT_SUPPORTED)).
+ */
+@Component
+public class FileUploadStage {
+
+    private final FileStoragePort fileStoragePort;
+    private final TransactionTemplate transactionTemplate;
+
+    public FileUploadStage(FileStoragePort fileStoragePort, PlatformTransactionManager transactionManager) {
+        this.fileStoragePort = fileStoragePort;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Tải các file không rỗng, rồi chạy 'save' trong 1 transaction với danh sách URL (đúng thứ tự file).
+     */
+    public <T> T uploadThenSave(List<MultipartFile> files, Function<List<String>, T> save) {
+        List<MultipartFile> nonEmpty = files == null ? List.of()
+                : files.stream().filter(Objects::nonNull).filter(file -> !file.isEmpty()).toList();
+        List<Map<String, String>> uploaded;
+        try {
+            uploaded = fileStoragePort.uploadFiles(nonEmpty);
+        } catch (IOException e) {
+            throw new RuntimeException("Upload failed: " + e.getMessage());
+        }
+
+        List<String> urls = uploaded.stream().map(result -> result.get("url")).toList();
+        try {
+            return transactionTemplate.execute(status -> save.apply(urls));
+        } catch (RuntimeException e) {
+            fileStoragePort.deleteFilesQuietly(uploaded.stream().map(result -> result.get("public_id")).toList());
+            throw e;
+        }
+    }
+}
@@ -7,12 +7,16 @@ import com.cmc.meeting.application.dto.meeting.MeetingResponseRequest;
 import com.cmc.meeting.application.dto.request.MeetingCreationRequest;
 import com.cmc.meeting.application.dto.request.MeetingUpdateRequest;
 import com.cmc.meeting.application.dto.response.BookedSlotDTO;
+import com.cmc.meeting.application.dto.response.CursorPageDTO;
+import com.cmc.meeting.application.dto.response.KeysetCursor;
 import com.cmc.meeting.application.dto.response.MeetingDTO;
-import com.cmc.meeting.application.dto.response.MeetingParticipantDTO;
 import com.cmc.meeting.application.dto.recurrence.FrequencyType;
 import com.cmc.meeting.application.dto.recurrence.RecurrenceRuleDTO;
 import com.cmc.meeting.application.dto.timeslot.TimeSlotDTO;
 
+// Imports cho Mapper
+import com.cmc.meeting.application.mapper.MeetingDtoMapper;
+
 // Imports cho Ports
 import com.cmc.meeting.application.port.service.MeetingService;
 import com.cmc.meeting.application.port.service.NotificationService;
@@ -22,8 +26,10 @@ import com.cmc.meeting.domain.port.repository.RoomRepository;
 import com.cmc.meeting.domain.port.repository.UserRepository;
 
 // Imports cho Domain & Events (QUAN TRỌNG)
+import com.cmc.meeting.domain.event.MeetingApprovedEvent;
 import com.cmc.meeting.domain.event.MeetingCancelledEvent; // Import mới
 import com.cmc.meeting.domain.event.MeetingCreatedEvent;
+import com.cmc.meeting.domain.event.MeetingSeriesCreatedEvent;
 import com.cmc.meeting.domain.event.MeetingUpdatedEvent;   // Import mới
 import com.cmc.meeting.domain.exception.MeetingConflictException;
 import com.cmc.meeting.domain.exception.PolicyViolationException;
@@ -31,7 +37,6 @@ import com.cmc.meeting.domain.model.*;
 
 // Imports cho Java & Spring
 import jakarta.persistence.EntityNotFoundException;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
@@ -48,9 +53,15 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -64,43 +75,57 @@ public class MeetingServiceImpl implements MeetingService {
     private final RoomRepository roomRepository;
     private final UserRepository userRepository;
     private final DeviceRepository deviceRepository;
-    private final ModelMapper modelMapper;
+    private final MeetingDtoMapper meetingDtoMapper;
     private final ApplicationEventPublisher eventPublisher;
     private final NotificationService notificationService;
+    private final EntityResolver entityResolver;
+    private final RoomBookingLock roomBookingLock;
 
     public MeetingServiceImpl(MeetingRepository meetingRepository,
                               RoomRepository roomRepository,
                               UserRepository userRepository,
-                              ModelMapper modelMapper,
+                              MeetingDtoMapper meetingDtoMapper,
                               ApplicationEventPublisher eventPublisher,
                               DeviceRepository deviceRepository,
-                              NotificationService notificationService) {
+                              NotificationService notificationService,
+                              EntityResolver entityResolver,
+                              RoomBookingLock roomBookingLock) {
         this.meetingRepository = meetingRepository;
         this.roomRepository = roomRepository;
         this.userRepository = userRepository;
-        this.modelMapper = modelMapper;
+        this.meetingDtoMapper = meetingDtoMapper;
         this.eventPublisher = eventPublisher;
         this.deviceRepository = deviceRepository;
         this.notificationService = notificationService;
+        this.entityResolver = entityResolver;
+        this.roomBookingLock = roomBookingLock;
     }
 
     /**
      * (US-1) Tạo cuộc họp
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Khóa đặt phòng trước, transaction mở trong RoomBookingLock
     public MeetingDTO createMeeting(MeetingCreationRequest request, Long currentUserId) {
+        Long organizerId = request.getOnBehalfOfUserId() != null ? request.getOnBehalfOfUserId() : currentUserId;
+        return roomBookingLock.inTransactionLocked(request.getRoomId(),
+                withUser(request.getParticipantIds(), organizerId), request.getDeviceIds(),
+                () -> createMeetingLocked(request, currentUserId));
+    }
+
+    private MeetingDTO createMeetingLocked(MeetingCreationRequest request, Long currentUserId) {
         if (request.getStartTime() != null) {
             request.setStartTime(request.getStartTime().withSecond(0).withNano(0));
         }
         if (request.getEndTime() != null) {
             request.setEndTime(request.getEndTime().withSecond(0).withNano(0));
         }
-        User creator = userRepository.findById(currentUserId)
+        User creator = entityResolver.findUser(currentUserId)
                 .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy người tạo (creator)"));
 
         User organizer;
         if (request.getOnBehalfOfUserId() != null) {
-            organizer = userRepository.findById(request.getOnBehalfOfUserId())
+            organizer = entityResolver.findUser(request.getOnBehalfOfUserId())
                     .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy người tổ chức (onBehalfOf)"));
         } else {
             organizer = creator;
@@ -109,18 +134,15 @@ public class MeetingServiceImpl implements MeetingService {
         Room room = roomRepository.findById(request.getRoomId())
                 .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy phòng họp"));
 
-        Set<User> participants = request.getParticipantIds().stream()
-                .map(id -> userRepository.findById(id)
-                        .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy người tham dự với ID: " + id)))
-                .collect(Collectors.toSet());
-
-        Set<Device> devices = request.getDeviceIds().stream()
-                .map(id -> deviceRepository.findById(id)
-                        .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy thiết bị với ID: " + id)))
-                .collect(Collectors.toSet());
+        // Tra theo lô: 1 truy vấn cho người tham dự, 1 cho thiết bị; báo hết các ID không tồn tại
+        Set<User> participants = entityResolver.requireUsers(request.getParticipantIds(), "người tham dự");
+        Set<Device> devices = entityResolver.requireDevices(request.getDeviceIds(), "thiết bị");
         Set<String> guestEmails = (request.getGuestEmails() != null) ? request.getGuestEmails() : new HashSet<>();
 
         if (request.getRecurrenceRule() == null) {
+            if (!room.isRequiresApproval()) {
+                lockRoomAndRecheck(room, List.of(new TimeSlotDTO(request.getStartTime(), request.getEndTime())), null);
+            }
             checkAccessAndConflicts(room, organizer, participants, devices,
                     request.getStartTime(), request.getEndTime(), null);
 
@@ -133,22 +155,14 @@ public class MeetingServiceImpl implements MeetingService {
                     request.getEndTime(),
                     request.getRecurrenceRule());
 
-            for (TimeSlotDTO slot : slots) {
-                checkAccessAndConflicts(room, organizer, participants, devices, slot.getStartTime(), slot.getEndTime(),
-                        null);
+            if (!room.isRequiresApproval()) {
+                lockRoomAndRecheck(room, slots, null);
             }
+            // Kiểm tra cả chuỗi một lần (thay vì 3 truy vấn mỗi buổi) và báo TẤT CẢ các buổi bị trùng
+            checkSeriesConflicts(room, organizer, participants, devices, slots);
 
-            List<MeetingDTO> createdMeetings = new ArrayList<>();
-            for (TimeSlotDTO slot : slots) {
-                MeetingCreationRequest singleRequest = modelMapper.map(request, MeetingCreationRequest.class);
-                singleRequest.setStartTime(slot.getStartTime());
-                singleRequest.setEndTime(slot.getEndTime());
-
-                createdMeetings.add(
-                        createSingleMeeting(singleRequest, room, creator, organizer, participants, devices, guestEmails,
-                                seriesId));
-            }
-            return createdMeetings.get(0);
+            return createMeetingSeries(request, room, creator, organizer,
+                    participants, devices, guestEmails, seriesId, slots);
         }
     }
 
@@ -161,7 +175,7 @@ public class MeetingServiceImpl implements MeetingService {
         Meeting meeting = meetingRepository.findById(meetingId)
                 .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy cuộc họp với ID: " + meetingId));
 
-        boolean isAdmin = userRepository.findById(currentUserId)
+        boolean isAdmin = entityResolver.findUser(currentUserId)
                 .map(u -> u.getRoles().contains(Role.ROLE_ADMIN))
                 .orElse(false);
 
@@ -169,32 +183,41 @@ public class MeetingServiceImpl implements MeetingService {
             throw new PolicyViolationException("Chỉ người tổ chức hoặc Admin mới có quyền hủy cuộc họp này.");
         }
 
+        BookingStatus previousStatus = meeting.getStatus();
         meeting.cancelMeeting(request.getReason());
         Meeting savedMeeting = meetingRepository.save(meeting);
 
-        // 1. Bắn sự kiện hủy để Google Calendar Adapter lắng nghe và xóa lịch
-        if (savedMeeting.getGoogleEventId() != null) {
-            eventPublisher.publishEvent(new MeetingCancelledEvent(
-                    savedMeeting.getId(),
-                    savedMeeting.getOrganizer().getId(),
-                    savedMeeting.getGoogleEventId()
-            ));
-        }
+        // 1. Bắn sự kiện hủy cho MỌI cuộc họp (nhắc họp, email, Google Calendar tự lọc theo googleEventId)
+        eventPublisher.publishEvent(new MeetingCancelledEvent(
+                savedMeeting.getId(),
+                savedMeeting.getOrganizer().getId(),
+                savedMeeting.getGoogleEventId(),
+                previousStatus
+        ));
 
         // 2. Gửi thông báo In-App
         String message = String.format("Cuộc họp '%s' (lúc %s) đã bị hủy.",
                 savedMeeting.getTitle(), savedMeeting.getStartTime().toLocalDate());
         
-        savedMeeting.getParticipants().stream()
-                .filter(p -> !p.getUser().getId().equals(currentUserId))
-                .forEach(p -> notificationService.createNotification(p.getUser(), message));
+        notificationService.createNotifications(savedMeeting.getParticipants().stream()
+                .map(MeetingParticipant::getUser)
+                .filter(u -> !u.getId().equals(currentUserId))
+                .collect(Collectors.toList()), message, null);
     }
 
     /**
      * (US-2) Sửa lịch họp (Có đồng bộ Google)
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Khóa đặt phòng trước, transaction mở trong RoomBookingLock
     public MeetingDTO updateMeeting(Long meetingId, MeetingUpdateRequest request, Long currentUserId) {
+        // Chỉ người tổ chức được sửa (kiểm tra trong transaction) nên khóa theo currentUserId
+        return roomBookingLock.inTransactionLocked(request.getRoomId(),
+                withUser(request.getParticipantIds(), currentUserId), request.getDeviceIds(),
+                () -> updateMeetingLocked(meetingId, request, currentUserId));
+    }
+
+    private MeetingDTO updateMeetingLocked(Long meetingId, MeetingUpdateRequest request, Long currentUserId) {
         if (request.getStartTime() != null) {
             request.setStartTime(request.getStartTime().withSecond(0).withNano(0));
         }
@@ -223,17 +246,14 @@ public class MeetingServiceImpl implements MeetingService {
         boolean isTimeChanged = !meeting.getStartTime().equals(request.getStartTime()) ||
                 !meeting.getEndTime().equals(request.getEndTime());
 
-        Set<User> newParticipantUsers = request.getParticipantIds().stream()
-                .map(id -> userRepository.findById(id)
-                        .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy người tham dự với ID: " + id)))
-                .collect(Collectors.toSet());
-
-        Set<Device> newDevices = request.getDeviceIds().stream()
-                .map(id -> deviceRepository.findById(id)
-                        .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy thiết bị với ID: " + id)))
-                .collect(Collectors.toSet());
+        Set<User> newParticipantUsers = entityResolver.requireUsers(request.getParticipantIds(), "người tham dự");
+        Set<Device> newDevices = entityResolver.requireDevices(request.getDeviceIds(), "thiết bị");
         Set<String> newGuestEmails = (request.getGuestEmails() != null) ? request.getGuestEmails() : new HashSet<>();
 
+        if (!newRoom.isRequiresApproval()) {
+            lockRoomAndRecheck(newRoom,
+                    List.of(new TimeSlotDTO(request.getStartTime(), request.getEndTime())), meetingId);
+        }
         checkAccessAndConflicts(newRoom, meeting.getOrganizer(), newParticipantUsers, newDevices,
                 request.getStartTime(), request.getEndTime(), meetingId);
 
@@ -272,20 +292,20 @@ public class MeetingServiceImpl implements MeetingService {
 
         if (updatedMeeting.getStatus() == BookingStatus.CONFIRMED) {
             String updateMsg = "Thông tin cuộc họp '" + updatedMeeting.getTitle() + "' đã được cập nhật.";
-            meeting.getParticipants().stream()
-                    .filter(p -> !p.getUser().getId().equals(currentUserId))
-                    .forEach(p -> notificationService.createNotification(p.getUser(), updateMsg, updatedMeeting));
-            
-            // === LOGIC MỚI: CẬP NHẬT LÊN GOOGLE CALENDAR ===
-            if (updatedMeeting.getGoogleEventId() != null) {
-                eventPublisher.publishEvent(new MeetingUpdatedEvent(
-                    updatedMeeting.getId(),
-                    updatedMeeting.getOrganizer().getId(),
-                    updatedMeeting.getGoogleEventId()
-                ));
-            }
+            notificationService.createNotifications(meeting.getParticipants().stream()
+                    .map(MeetingParticipant::getUser)
+                    .filter(u -> !u.getId().equals(currentUserId))
+                    .collect(Collectors.toList()), updateMsg, updatedMeeting);
         }
 
+        // Bắn cho MỌI lần sửa (kể cả chuyển sang chờ duyệt): nhắc họp xếp lại lịch,
+        // email / Google Calendar tự lọc theo trạng thái và googleEventId
+        eventPublisher.publishEvent(new MeetingUpdatedEvent(
+            updatedMeeting.getId(),
+            updatedMeeting.getOrganizer().getId(),
+            updatedMeeting.getGoogleEventId()
+        ));
+
         return convertMeetingToDTO(updatedMeeting);
     }
 
@@ -315,17 +335,17 @@ public class MeetingServiceImpl implements MeetingService {
 
             if (isFuture && isActive) {
                 log.info("-> Đang hủy Meeting ID: {}", meeting.getId());
+                BookingStatus previousStatus = meeting.getStatus();
                 meeting.cancelMeeting(request.getReason());
                 meetingRepository.save(meeting);
 
-                // Xóa trên Google (chỉ nếu đã sync)
-                if (meeting.getGoogleEventId() != null) {
-                    eventPublisher.publishEvent(new MeetingCancelledEvent(
-                        meeting.getId(), 
-                        meeting.getOrganizer().getId(), 
-                        meeting.getGoogleEventId()
-                    ));
-                }
+                // Nhắc họp / email / Google Calendar (listener tự lọc theo googleEventId)
+                eventPublisher.publishEvent(new MeetingCancelledEvent(
+                    meeting.getId(), 
+                    meeting.getOrganizer().getId(), 
+                    meeting.getGoogleEventId(),
+                    previousStatus
+                ));
             }
         }
     }
@@ -360,17 +380,17 @@ public class MeetingServiceImpl implements MeetingService {
 
             if (isFuture && isActive) {
                 log.info("-> (Update) Hủy Meeting ID: {}", meeting.getId());
+                BookingStatus previousStatus = meeting.getStatus();
                 meeting.cancelMeeting(reason);
                 meetingRepository.save(meeting);
 
-                // Xóa trên Google
-                if (meeting.getGoogleEventId() != null) {
-                    eventPublisher.publishEvent(new MeetingCancelledEvent(
-                        meeting.getId(), 
-                        meeting.getOrganizer().getId(), 
-                        meeting.getGoogleEventId()
-                    ));
-                }
+                // Nhắc họp / email / Google Calendar (listener tự lọc theo googleEventId)
+                eventPublisher.publishEvent(new MeetingCancelledEvent(
+                    meeting.getId(), 
+                    meeting.getOrganizer().getId(), 
+                    meeting.getGoogleEventId(),
+                    previousStatus
+                ));
             }
         }
 
@@ -413,7 +433,7 @@ public class MeetingServiceImpl implements MeetingService {
         Meeting meeting = meetingRepository.findById(meetingId)
                 .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy cuộc họp với ID: " + meetingId));
 
-        User currentUser = userRepository.findById(currentUserId)
+        User currentUser = entityResolver.findUser(currentUserId)
                 .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy user"));
 
         meeting.respondToInvitation(currentUser, request.getStatus());
@@ -475,7 +495,38 @@ public class MeetingServiceImpl implements MeetingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<MeetingDTO> getMyMeetingsByCursor(Long currentUserId, String cursor, Integer size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.clampSize(size);
+        List<Meeting> rows = meetingRepository.findMyMeetingsAfter(currentUserId,
+                after != null ? after.time() : null, after != null ? after.id() : null, pageSize + 1);
+        return CursorPageDTO.of(rows, pageSize, m -> new KeysetCursor(m.getStartTime(), m.getId()),
+                this::convertMeetingToDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<MeetingDTO> getAllMeetingsByCursor(String cursor, Integer size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.clampSize(size);
+        List<Meeting> rows = meetingRepository.findAllMeetingsAfter(
+                after != null ? after.time() : null, after != null ? after.id() : null, pageSize + 1);
+        return CursorPageDTO.of(rows, pageSize, m -> new KeysetCursor(m.getStartTime(), m.getId()),
+                this::convertMeetingToDTO);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Khóa phòng trước, transaction mở trong RoomBookingLock
     public void processMeetingApproval(Long meetingId, boolean isApproved, String reason, Long currentAdminId) {
+        Long roomId = meetingRepository.findById(meetingId).map(m -> m.getRoom().getId()).orElse(null);
+        roomBookingLock.inTransactionLocked(roomId, Set.of(), Set.of(), () -> {
+            processMeetingApprovalLocked(meetingId, isApproved, reason);
+            return null;
+        });
+    }
+
+    private void processMeetingApprovalLocked(Long meetingId, boolean isApproved, String reason) {
         Meeting meeting = meetingRepository.findById(meetingId)
                 .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy cuộc họp với ID: " + meetingId));
 
@@ -484,12 +535,12 @@ public class MeetingServiceImpl implements MeetingService {
         }
 
         if (isApproved) {
-            // 1. Kiểm tra lại lần cuối xem có ai nhanh tay CONFIRMED trước đó không (Double-check)
-            List<Meeting> confirmedBookings = meetingRepository.findConfirmedMeetingsInTimeRange(
-                    meeting.getRoom().getId(), meeting.getStartTime(), meeting.getEndTime(), meeting.getId());
-            
-            if (!confirmedBookings.isEmpty()) {
-                Meeting conflict = confirmedBookings.get(0);
+            // 1. Kiểm tra lại lần cuối xem có ai nhanh tay CONFIRMED trước đó không (Double-check, có khóa phòng)
+            Optional<ConfirmedBooking> confirmedConflict = lockRoomAndFindConflict(meeting.getRoom(),
+                    List.of(new TimeSlotDTO(meeting.getStartTime(), meeting.getEndTime())), meeting.getId());
+
+            if (confirmedConflict.isPresent()) {
+                ConfirmedBooking conflict = confirmedConflict.get();
                 java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter.ofPattern("HH:mm");
                 String startStr = conflict.getStartTime().format(formatter);
                 String endStr = conflict.getEndTime().format(formatter);
@@ -499,47 +550,24 @@ public class MeetingServiceImpl implements MeetingService {
             // 2. Chốt lịch này (Winner)
             meeting.setStatus(BookingStatus.CONFIRMED);
             meetingRepository.save(meeting);
-            
-            // Trigger Google Sync & Events
-            eventPublisher.publishEvent(new MeetingCreatedEvent(meeting.getId())); 
-
-            // Thông báo cho Organizer của lịch được duyệt
-            notificationService.createNotification(meeting.getOrganizer(),
-                    "Phòng họp '" + meeting.getRoom().getName() + "' đã được phê duyệt!", meeting);
-
-            // Gửi lời mời cho người tham gia
-            String inviteMsg = String.format("%s đã mời bạn tham gia cuộc họp: %s",
-                    meeting.getOrganizer().getFullName(), meeting.getTitle());
-            sendNotificationsToParticipants(meeting, inviteMsg);
-
-            // === [LOGIC MỚI] 3. TỰ ĐỘNG HỦY CÁC LỊCH PENDING TRÙNG (Losers) ===
-            // Tìm các lịch PENDING khác cùng phòng, cùng giờ
-            List<Meeting> pendingConflicts = meetingRepository.findPendingConflicts(
-                    meeting.getRoom().getId(), meeting.getStartTime(), meeting.getEndTime(), meeting.getId());
-
-            if (!pendingConflicts.isEmpty()) {
-                log.info("Admin duyệt meeting {}. Hệ thống tự động từ chối {} yêu cầu khác bị trùng.", meetingId, pendingConflicts.size());
-                
-                String autoRejectReason = String.format(
-                        "Hệ thống tự động từ chối do Admin đã duyệt ưu tiên cho cuộc họp: '%s' (%s - %s)",
-                        meeting.getTitle(), 
-                        meeting.getStartTime().toLocalTime(), 
-                        meeting.getEndTime().toLocalTime());
-
-                for (Meeting conflictingMeeting : pendingConflicts) {
-                    conflictingMeeting.setStatus(BookingStatus.REJECTED);
-                    conflictingMeeting.setCancelReason(autoRejectReason); 
-                    meetingRepository.save(conflictingMeeting);
-
-                    // Gửi thông báo cho người bị từ chối
-                    notificationService.createNotification(
-                            conflictingMeeting.getOrganizer(),
-                            "Yêu cầu đặt phòng '" + meeting.getRoom().getName() + "' của bạn bị TỪ CHỐI TỰ ĐỘNG. Lý do: Đã duyệt cho người khác.",
-                            conflictingMeeting
-                    );
-                }
+
+            // 3. TỰ ĐỘNG TỪ CHỐI CÁC LỊCH PENDING TRÙNG (Losers) - 1 câu UPDATE cho tất cả
+            String autoRejectReason = String.format(
+                    "Hệ thống tự động từ chối do Admin đã duyệt ưu tiên cho cuộc họp: '%s' (%s - %s)",
+                    meeting.getTitle(),
+                    meeting.getStartTime().toLocalTime(),
+                    meeting.getEndTime().toLocalTime());
+            List<Long> rejectedIds = meetingRepository.rejectPendingConflicts(
+                    meeting.getRoom().getId(), meeting.getStartTime(), meeting.getEndTime(), meeting.getId(),
+                    autoRejectReason);
+            if (!rejectedIds.isEmpty()) {
+                log.info("Admin duyệt meeting {}. Hệ thống tự động từ chối {} yêu cầu khác bị trùng.", meetingId, rejectedIds.size());
             }
 
+            // 4. Google Sync / Email và toàn bộ thông báo chạy nền sau khi commit
+            eventPublisher.publishEvent(new MeetingCreatedEvent(meeting.getId()));
+            eventPublisher.publishEvent(new MeetingApprovedEvent(meeting.getId(), rejectedIds));
+
         } else {
             // Trường hợp Admin từ chối thủ công
             meeting.setStatus(BookingStatus.REJECTED);
@@ -551,6 +579,14 @@ public class MeetingServiceImpl implements MeetingService {
     }
 
     // Helpers
+    private static Set<Long> withUser(Set<Long> userIds, Long userId) {
+        Set<Long> result = (userIds != null) ? new HashSet<>(userIds) : new HashSet<>();
+        if (userId != null) {
+            result.add(userId);
+        }
+        return result;
+    }
+
     private MeetingDTO createSingleMeeting(MeetingCreationRequest request, Room room,
             User creator, User organizer,
             Set<User> participants, Set<Device> devices, Set<String> guestEmails, String seriesId) {
@@ -579,30 +615,66 @@ public class MeetingServiceImpl implements MeetingService {
             List<User> admins = userRepository.findAllAdmins();
             String msgToAdmin = String.format("Yêu cầu duyệt phòng mới: %s muốn đặt phòng '%s' vào lúc %s.",
                     organizer.getFullName(), room.getName(), savedMeeting.getStartTime().toString().replace("T", " "));
-            for (User admin : admins) {
-                notificationService.createNotification(admin, msgToAdmin, savedMeeting);
-            }
+            notificationService.createNotifications(admins, msgToAdmin, savedMeeting);
         }
         return convertMeetingToDTO(savedMeeting);
     }
 
-    private void checkAccessAndConflicts(Room room, User organizer, Set<User> participants, Set<Device> devices,
-            LocalDateTime startTime, LocalDateTime endTime, Long meetingIdToIgnore) {
-        
-        // 1. Kiểm tra trạng thái phòng
-        if (room.getStatus() == RoomStatus.UNDER_MAINTENANCE) {
-            throw new PolicyViolationException(String.format("Phòng '%s' đang bảo trì, không thể đặt.", room.getName()));
+    /**
+     * (US-3) Tạo cả chuỗi định kỳ: 1 lần lưu hàng loạt (JDBC batch), 1 sự kiện cấp chuỗi
+     * và 1 thông báo cho mỗi người nhận (thay vì mỗi buổi một lần).
+     */
+    private MeetingDTO createMeetingSeries(MeetingCreationRequest request, Room room,
+            User creator, User organizer,
+            Set<User> participants, Set<Device> devices, Set<String> guestEmails, String seriesId,
+            List<TimeSlotDTO> slots) {
+
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("Quy tắc lặp lại không tạo ra buổi họp nào.");
         }
 
-        // 2. Kiểm tra quyền hạn (Role)
-        Set<Role> requiredRoles = room.getRequiredRoles();
-        if (requiredRoles != null && !requiredRoles.isEmpty()) {
-            boolean hasPermission = organizer.getRoles().stream().anyMatch(requiredRoles::contains);
-            if (!hasPermission) {
-                throw new PolicyViolationException(String.format("Người tổ chức (%s) không có quyền đặt phòng '%s'",
-                        organizer.getFullName(), room.getName()));
-            }
+        BookingStatus initialStatus = room.isRequiresApproval() 
+            ? BookingStatus.PENDING_APPROVAL 
+            : BookingStatus.CONFIRMED;
+
+        List<Meeting> occurrences = new ArrayList<>(slots.size());
+        for (TimeSlotDTO slot : slots) {
+            Meeting occurrence = new Meeting(
+                    request.getTitle(), slot.getStartTime(), slot.getEndTime(),
+                    room, creator, organizer, participants, devices, guestEmails, seriesId);
+            occurrence.setCheckinCode(UUID.randomUUID().toString());
+            occurrence.setStatus(initialStatus);
+            occurrences.add(occurrence);
+        }
+
+        List<Meeting> savedMeetings = meetingRepository.saveAll(occurrences);
+        Meeting firstMeeting = savedMeetings.get(0);
+
+        if (initialStatus == BookingStatus.CONFIRMED) {
+            List<Long> meetingIds = savedMeetings.stream().map(Meeting::getId).collect(Collectors.toList());
+            eventPublisher.publishEvent(new MeetingSeriesCreatedEvent(seriesId, meetingIds)); // Trigger Google Sync
+            String message = String.format("%s đã mời bạn tham gia chuỗi cuộc họp định kỳ: %s (%d buổi)",
+                    creator.getFullName(), firstMeeting.getTitle(), savedMeetings.size());
+            sendNotificationsToParticipants(firstMeeting, message);
+        } else {
+            String msgToOrganizer = String.format("Yêu cầu đặt phòng '%s' cho chuỗi %d buổi của bạn đang chờ Admin phê duyệt.",
+                    room.getName(), savedMeetings.size());
+            notificationService.createNotification(organizer, msgToOrganizer, firstMeeting);
+
+            List<User> admins = userRepository.findAllAdmins();
+            String msgToAdmin = String.format("Yêu cầu duyệt phòng mới: %s muốn đặt phòng '%s' cho chuỗi %d buổi, bắt đầu lúc %s.",
+                    organizer.getFullName(), room.getName(), savedMeetings.size(),
+                    firstMeeting.getStartTime().toString().replace("T", " "));
+            notificationService.createNotifications(admins, msgToAdmin, firstMeeting);
         }
+        return convertMeetingToDTO(firstMeeting);
+    }
+
+    private void checkAccessAndConflicts(Room room, User organizer, Set<User> participants, Set<Device> devices,
+            LocalDateTime startTime, LocalDateTime endTime, Long meetingIdToIgnore) {
+        
+        // 1 + 2. Trạng thái phòng & quyền hạn
+        checkRoomAccess(room, organizer);
 
         // 3. Kiểm tra Xung đột phòng (Logic Mới: Soft Lock)
         // Chỉ chặn nếu đã có lịch CONFIRMED. Nếu chỉ có lịch PENDING, vẫn cho đặt tiếp.
@@ -619,9 +691,14 @@ public class MeetingServiceImpl implements MeetingService {
                 room.getName(), startStr, endStr));
         }
 
-        // 4. Kiểm tra Xung đột người tham gia
+        // 4. Kiểm tra Xung đột người tham gia (khóa người / thiết bị trước: các node khác có thể vừa chốt lịch).
+        // Lịch chờ duyệt chưa giữ chỗ của ai nên không cần khóa dòng
         Set<Long> userIdsToCheck = participants.stream().map(User::getId).collect(Collectors.toSet());
         userIdsToCheck.add(organizer.getId());
+        Set<Long> deviceIds = devices.stream().map(Device::getId).collect(Collectors.toSet());
+        if (!room.isRequiresApproval()) {
+            meetingRepository.lockUsersAndDevices(userIdsToCheck, deviceIds);
+        }
         List<Meeting> conflictingMeetings = meetingRepository.findConflictingMeetingsForUsers(userIdsToCheck, startTime, endTime, meetingIdToIgnore);
         
         if (!conflictingMeetings.isEmpty()) {
@@ -631,12 +708,148 @@ public class MeetingServiceImpl implements MeetingService {
         }
 
         // 5. Kiểm tra Xung đột thiết bị
-        Set<Long> deviceIds = devices.stream().map(Device::getId).collect(Collectors.toSet());
         if (meetingRepository.isDeviceBusy(deviceIds, startTime, endTime, meetingIdToIgnore)) {
             throw new MeetingConflictException(String.format("Một hoặc nhiều thiết bị bạn chọn đã bị đặt vào lúc %s", startTime));
         }
     }
 
+    /**
+     * Chốt chống đặt trùng phòng khi nhiều request song song (check-then-insert không còn race):
+     * khóa phân dải trong JVM (RoomBookingLock, lấy trước transaction) + khóa dòng phòng ở CSDL giữ tới hết
+     * transaction, rồi kiểm tra lại bằng dữ liệu mới nhất (kiểm tra phòng trước đó có thể đọc snapshot / chỉ mục cũ).
+     * Người tham dự / thiết bị được khóa và kiểm tra lại bằng CSDL trong checkAccessAndConflicts / checkSeriesConflicts.
+     */
+    private void lockRoomAndRecheck(Room room, List<TimeSlotDTO> slots, Long meetingIdToIgnore) {
+        Optional<ConfirmedBooking> conflict = lockRoomAndFindConflict(room, slots, meetingIdToIgnore);
+        if (conflict.isPresent()) {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
+            throw new MeetingConflictException(String.format(
+                    "Phòng '%s' đã có lịch CHÍNH THỨC (CONFIRMED) bị trùng từ %s đến %s. Bạn không thể đặt chồng lên.",
+                    room.getName(), conflict.get().getStartTime().format(formatter),
+                    conflict.get().getEndTime().format(formatter)));
+        }
+    }
+
+    private Optional<ConfirmedBooking> lockRoomAndFindConflict(Room room, List<TimeSlotDTO> slots,
+            Long meetingIdToIgnore) {
+        LocalDateTime from = slots.stream().map(TimeSlotDTO::getStartTime)
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = slots.stream().map(TimeSlotDTO::getEndTime)
+                .max(Comparator.naturalOrder()).orElseThrow();
+        List<ConfirmedBooking> bookings = meetingRepository.lockRoomAndFindConfirmedBookings(room.getId(), from, to);
+
+        for (TimeSlotDTO slot : slots) {
+            for (ConfirmedBooking booking : bookings) {
+                if (!booking.getMeetingId().equals(meetingIdToIgnore)
+                        && booking.overlaps(slot.getStartTime(), slot.getEndTime())) {
+                    return Optional.of(booking);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void checkRoomAccess(Room room, User organizer) {
+        // 1. Kiểm tra trạng thái phòng
+        if (room.getStatus() == RoomStatus.UNDER_MAINTENANCE) {
+            throw new PolicyViolationException(String.format("Phòng '%s' đang bảo trì, không thể đặt.", room.getName()));
+        }
+
+        // 2. Kiểm tra quyền hạn (Role)
+        Set<Role> requiredRoles = room.getRequiredRoles();
+        if (requiredRoles != null && !requiredRoles.isEmpty()) {
+            boolean hasPermission = organizer.getRoles().stream().anyMatch(requiredRoles::contains);
+            if (!hasPermission) {
+                throw new PolicyViolationException(String.format("Người tổ chức (%s) không có quyền đặt phòng '%s'",
+                        organizer.getFullName(), room.getName()));
+            }
+        }
+    }
+
+    /**
+     * (US-3) Kiểm tra trùng cho CẢ chuỗi định kỳ.
+     * Lấy mọi lịch CONFIRMED liên quan (phòng / người / thiết bị) trong cửa sổ [buổi đầu, buổi cuối]
+     * bằng một lần gọi repository, rồi quét song song với danh sách buổi đã sắp xếp.
+     * Nếu có trùng: ném MeetingConflictException kèm danh sách TẤT CẢ các buổi bị trùng.
+     */
+    private void checkSeriesConflicts(Room room, User organizer, Set<User> participants, Set<Device> devices,
+            List<TimeSlotDTO> slots) {
+        checkRoomAccess(room, organizer);
+        if (slots.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> userNames = new HashMap<>();
+        participants.forEach(u -> userNames.put(u.getId(), u.getFullName()));
+        userNames.put(organizer.getId(), organizer.getFullName());
+        Map<Long, String> deviceNames = devices.stream()
+                .collect(Collectors.toMap(Device::getId, Device::getName, (a, b) -> a));
+
+        List<TimeSlotDTO> sortedSlots = new ArrayList<>(slots);
+        sortedSlots.sort(Comparator.comparing(TimeSlotDTO::getStartTime));
+        LocalDateTime windowStart = sortedSlots.get(0).getStartTime();
+        LocalDateTime windowEnd = sortedSlots.stream().map(TimeSlotDTO::getEndTime)
+                .max(Comparator.naturalOrder()).orElseThrow();
+
+        if (!room.isRequiresApproval()) {
+            meetingRepository.lockUsersAndDevices(userNames.keySet(), deviceNames.keySet());
+        }
+        List<ConfirmedBooking> bookings = new ArrayList<>(meetingRepository.findConfirmedBookingsInWindow(
+                room.getId(), userNames.keySet(), deviceNames.keySet(), windowStart, windowEnd));
+        if (bookings.isEmpty()) {
+            return;
+        }
+        bookings.sort(Comparator.comparing(ConfirmedBooking::getStartTime));
+        long maxDurationMinutes = bookings.stream()
+                .mapToLong(b -> java.time.Duration.between(b.getStartTime(), b.getEndTime()).toMinutes())
+                .max().orElse(0);
+
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+        List<String> conflicts = new ArrayList<>();
+        int first = 0;
+        for (TimeSlotDTO slot : sortedSlots) {
+            // Lịch bắt đầu trước (slot.start - thời lượng dài nhất) chắc chắn đã kết thúc -> bỏ qua vĩnh viễn
+            LocalDateTime scanFrom = slot.getStartTime().minusMinutes(maxDurationMinutes);
+            while (first < bookings.size() && bookings.get(first).getStartTime().isBefore(scanFrom)) {
+                first++;
+            }
+
+            boolean roomBusy = false;
+            Set<String> busyUsers = new TreeSet<>();
+            Set<String> busyDevices = new TreeSet<>();
+            for (int i = first; i < bookings.size() && bookings.get(i).getStartTime().isBefore(slot.getEndTime()); i++) {
+                ConfirmedBooking booking = bookings.get(i);
+                if (!booking.overlaps(slot.getStartTime(), slot.getEndTime())) {
+                    continue;
+                }
+                roomBusy |= room.getId().equals(booking.getRoomId());
+                booking.getUserIds().stream().map(userNames::get).filter(Objects::nonNull).forEach(busyUsers::add);
+                booking.getDeviceIds().stream().map(deviceNames::get).filter(Objects::nonNull).forEach(busyDevices::add);
+            }
+
+            List<String> reasons = new ArrayList<>();
+            if (roomBusy) {
+                reasons.add(String.format("phòng '%s' đã có lịch CONFIRMED", room.getName()));
+            }
+            if (!busyUsers.isEmpty()) {
+                reasons.add("người tham dự bị trùng (" + String.join(", ", busyUsers) + ")");
+            }
+            if (!busyDevices.isEmpty()) {
+                reasons.add("thiết bị đã bị đặt (" + String.join(", ", busyDevices) + ")");
+            }
+            if (!reasons.isEmpty()) {
+                conflicts.add(String.format("%s - %s: %s", slot.getStartTime().format(formatter),
+                        slot.getEndTime().toLocalTime(), String.join("; ", reasons)));
+            }
+        }
+
+        if (!conflicts.isEmpty()) {
+            throw new MeetingConflictException(String.format(
+                    "Chuỗi lịch định kỳ bị trùng ở %d/%d buổi (buổi đầu tiên: %s). Vui lòng điều chỉnh trước khi đặt.",
+                    conflicts.size(), slots.size(), conflicts.get(0)), conflicts);
+        }
+    }
+
     private List<TimeSlotDTO> calculateRecurrenceSlots(LocalDateTime firstStartTime,
             LocalDateTime firstEndTime, RecurrenceRuleDTO rule) {
         List<TimeSlotDTO> slots = new ArrayList<>();
@@ -675,40 +888,21 @@ public class MeetingServiceImpl implements MeetingService {
     }
 
     private MeetingDTO convertMeetingToDTO(Meeting meeting) {
-        if (meeting == null) return null;
-        MeetingDTO dto = modelMapper.map(meeting, MeetingDTO.class);
-        if (meeting.getParticipants() != null) {
-            List<MeetingParticipantDTO> participantDTOs = meeting.getParticipants().stream()
-                    .map(this::convertParticipantToDTO).collect(Collectors.toList());
-            dto.setParticipants(participantDTOs);
-        }
-        return dto;
-    }
-
-    private MeetingParticipantDTO convertParticipantToDTO(MeetingParticipant participant) {
-        if (participant == null) return null;
-        MeetingParticipantDTO dto = new MeetingParticipantDTO();
-        dto.setStatus(participant.getStatus());
-        if (participant.getUser() != null) {
-            dto.setId(participant.getUser().getId());
-            dto.setFullName(participant.getUser().getFullName());
-        }
-        return dto;
+        return meetingDtoMapper.toDTO(meeting);
     }
 
     private void notifyAdminsForApproval(Meeting meeting, User organizer) {
         List<User> admins = userRepository.findAllAdmins();
         String msgToAdmin = String.format("CẬP NHẬT: Yêu cầu duyệt lại. %s đã thay đổi lịch họp tại phòng '%s'.",
                 organizer.getFullName(), meeting.getRoom().getName());
-        for (User admin : admins) {
-            notificationService.createNotification(admin, msgToAdmin, meeting);
-        }
+        notificationService.createNotifications(admins, msgToAdmin, meeting);
     }
 
     private void sendNotificationsToParticipants(Meeting meeting, String message) {
-        meeting.getParticipants().stream()
+        notificationService.createNotifications(meeting.getParticipants().stream()
                 .filter(p -> p.getStatus() == ParticipantStatus.PENDING)
-                .forEach(p -> notificationService.createNotification(p.getUser(), message, meeting));
+                .map(MeetingParticipant::getUser)
+                .collect(Collectors.toList()), message, meeting);
     }
 
     @Override
@@ -1,31 +1,47 @@
 package com.cmc.meeting.application.service;
 
 import com.cmc.meeting.application.dto.notification.NotificationDTO;
+import com.cmc.meeting.application.dto.response.CursorPageDTO;
+import com.cmc.meeting.application.dto.response.KeysetCursor;
+import com.cmc.meeting.application.mapper.MeetingDtoMapper;
+import com.cmc.meeting.application.port.notification.UnreadCounterPort;
 import com.cmc.meeting.application.port.service.NotificationService;
+import com.cmc.meeting.domain.event.NotificationsCreatedEvent;
+import com.cmc.meeting.domain.event.NotificationsReadEvent;
 import com.cmc.meeting.domain.exception.PolicyViolationException;
 import com.cmc.meeting.domain.model.Meeting;
 import com.cmc.meeting.domain.model.Notification;
 import com.cmc.meeting.domain.model.User;
 import com.cmc.meeting.domain.port.repository.NotificationRepository;
 import jakarta.persistence.EntityNotFoundException;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationRepository notificationRepository;
-    private final ModelMapper modelMapper;
+    private final MeetingDtoMapper meetingDtoMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UnreadCounterPort unreadCounter;
 
-    public NotificationServiceImpl(NotificationRepository notificationRepository, ModelMapper modelMapper) {
+    public NotificationServiceImpl(NotificationRepository notificationRepository, MeetingDtoMapper meetingDtoMapper,
+            ApplicationEventPublisher eventPublisher, UnreadCounterPort unreadCounter) {
         this.notificationRepository = notificationRepository;
-        this.modelMapper = modelMapper;
+        this.meetingDtoMapper = meetingDtoMapper;
+        this.eventPublisher = eventPublisher;
+        this.unreadCounter = unreadCounter;
     }
 
     // Tạo thông báo (cho Service khác gọi)
@@ -33,7 +49,28 @@ public class NotificationServiceImpl implements NotificationService {
     public void createNotification(User user, String message, Meeting meeting) {
         Notification notification = new Notification(message, user, meeting);
         // Lỗi 'read: false' đã được sửa ở file Notification.java
-        notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        saved.setMeeting(meeting); // Giữ trạng thái cuộc họp cho bản tin đẩy realtime
+        eventPublisher.publishEvent(new NotificationsCreatedEvent(List.of(saved)));
+    }
+
+    @Override
+    public void createNotifications(Collection<User> users, String message, Meeting meeting) {
+        // Bỏ trùng người nhận (vd: organizer cũng nằm trong danh sách tham dự)
+        Map<Long, User> recipients = new LinkedHashMap<>();
+        users.stream().filter(u -> u != null && u.getId() != null).forEach(u -> recipients.putIfAbsent(u.getId(), u));
+
+        createNotifications(recipients.values().stream()
+                .map(u -> new Notification(message, u, meeting))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public void createNotifications(List<Notification> notifications) {
+        if (!notifications.isEmpty()) {
+            notificationRepository.saveAll(notifications);
+            eventPublisher.publishEvent(new NotificationsCreatedEvent(notifications));
+        }
     }
 
     // Lấy danh sách (có phân trang)
@@ -47,11 +84,28 @@ public class NotificationServiceImpl implements NotificationService {
         return page.map(this::convertNotificationToDTO);
     }
 
-    // Đếm số lượng chưa đọc
+    // Lấy danh sách theo con trỏ (keyset) - không COUNT / OFFSET
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<NotificationDTO> getMyNotificationsByCursor(Long currentUserId, String cursor, Integer size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.clampSize(size);
+        List<Notification> rows = notificationRepository.findByUserIdAfter(currentUserId,
+                after != null ? after.time() : null, after != null ? after.id() : null, pageSize + 1);
+        return CursorPageDTO.of(rows, pageSize, n -> new KeysetCursor(n.getCreatedAt(), n.getId()),
+                this::convertNotificationToDTO);
+    }
+
+    // Đếm số lượng chưa đọc: ưu tiên bộ đếm Redis, thiếu / Redis lỗi thì COUNT từ CSDL rồi nạp lại
     @Override
     @Transactional(readOnly = true)
     public Map<String, Long> getUnreadCount(Long currentUserId) {
+        OptionalLong cached = unreadCounter.get(currentUserId);
+        if (cached.isPresent()) {
+            return Map.of("unreadCount", cached.getAsLong());
+        }
         long count = notificationRepository.countByUserIdAndIsRead(currentUserId, false);
+        unreadCounter.seed(currentUserId, count);
         return Map.of("unreadCount", count);
     }
 
@@ -59,8 +113,12 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     public NotificationDTO markAsRead(Long notificationId, Long currentUserId) {
         Notification notification = findNotification(notificationId, currentUserId);
+        boolean wasUnread = !notification.isRead();
         notification.setRead(true);
         Notification saved = notificationRepository.save(notification);
+        if (wasUnread) {
+            eventPublisher.publishEvent(new NotificationsReadEvent(currentUserId, notificationId));
+        }
         
         // Dùng hàm helper mới để đảm bảo map dữ liệu chính xác
         return convertNotificationToDTO(saved);
@@ -70,6 +128,7 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     public void markAllAsRead(Long currentUserId) {
         notificationRepository.markAllAsReadByUserId(currentUserId);
+        eventPublisher.publishEvent(new NotificationsReadEvent(currentUserId, null));
     }
 
     // Helper kiểm tra quyền sở hữu
@@ -83,35 +142,18 @@ public class NotificationServiceImpl implements NotificationService {
         return notification;
     }
     
-    // ==========================================================
-    // HÀM HELPER MỚI (ĐỂ SỬA LỖI)
-    // ==========================================================
-    /**
-     * Ánh xạ (map) từ Notification (Domain) sang NotificationDTO (Data Transfer)
-     * Đảm bảo meetingId được gán chính xác.
-     */
+    // Mapper viết tay (thay ModelMapper) - danh sách thông báo được gọi rất thường xuyên
     private NotificationDTO convertNotificationToDTO(Notification notification) {
-        // 1. Dùng ModelMapper để map các trường cơ bản (id, message, read, createdAt)
-        NotificationDTO dto = modelMapper.map(notification, NotificationDTO.class);
-        
-        // 2. SỬA LỖI: Gán meetingId thủ công
-        // Lấy đối tượng Meeting từ Notification và lấy ID của nó
-        if (notification.getMeeting() != null) {
-            dto.setMeetingId(notification.getMeeting().getId());
-            if (notification.getMeeting().getStatus() != null) {
-                dto.setMeetingStatus(notification.getMeeting().getStatus().name());
-            }
-        }
-        // (Nếu notification.getMeeting() là null, meetingId của DTO sẽ tự động là null)
-        
-        return dto;
+        return meetingDtoMapper.toDTO(notification);
     }
+
     @Override
     public void createNotification(User user, String message) {
         // Gọi hàm khởi tạo, truyền 'meeting' là null
         Notification notification = new Notification(message, user, null);
         
         // (Hàm khởi tạo Notification.java đã tự động set read=false)
-        notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        eventPublisher.publishEvent(new NotificationsCreatedEvent(List.of(saved)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.cmc.meeting.application.service;
+
+import com.cmc.meeting.domain.exception.BookingLockTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Khóa phân dải (striped lock) theo phòng, người tham dự và thiết bị trong 1 instance: các request đặt
+ * chung phòng / người / thiết bị xếp hàng tại JVM (không tranh nhau khóa dòng ở CSDL), còn lại vẫn chạy song song.
+ *
+ * Khóa được lấy TRƯỚC khi mở transaction và nhả sau khi commit/rollback xong:
+ * - request đang chờ không giữ connection nào, nên không thể chiếm hết pool của request đang giữ khóa
+ *   (request đó còn cần thêm 1 connection để cấp khối ID mới ở id_generators);
+ * - request sau luôn thấy lịch vừa chốt (cả trong CSDL lẫn ConfirmedBookingIndex).
+ * Bảo đảm giữa nhiều instance vẫn là khóa dòng phòng / user / device ở CSDL, lấy bên trong transaction.
+ *
+ * Service gọi lớp này phải chạy NGOÀI transaction (@Transactional(propagation = NOT_SUPPORTED)).
+ */
+@Component
+public class RoomBookingLock {
+
+    private static final int STRIPES = 64;
+    // Request đang chờ không giữ connection nên chỉ cần giới hạn độ trễ của chính nó
+    // (vd: hàng trăm request cùng mời 1 người vào cùng giờ xếp hàng tại đây)
+    private static final long WAIT_SECONDS = 30;
+
+    private final ReentrantLock[] roomStripes = newStripes();
+    private final ReentrantLock[] userStripes = newStripes();
+    private final ReentrantLock[] deviceStripes = newStripes();
+
+    private final TransactionTemplate transactionTemplate;
+
+    public RoomBookingLock(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Khóa phòng, người tham dự rồi thiết bị (mỗi loại theo dải tăng dần), chạy 'work' trong 1 transaction,
+     * nhả khóa sau khi transaction kết thúc. Chờ quá WAIT_SECONDS -> BookingLockTimeoutException (thử lại được).
+     */
+    public <T> T inTransactionLocked(Long roomId, Collection<Long> userIds, Collection<Long> deviceIds,
+                                     Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Khóa đặt phòng phải được lấy trước khi mở transaction.");
+        }
+        List<ReentrantLock> locks = new ArrayList<>();
+        if (roomId != null) {
+            locks.add(roomStripes[stripeOf(roomId)]);
+        }
+        stripesOf(userIds).forEach(stripe -> locks.add(userStripes[stripe]));
+        stripesOf(deviceIds).forEach(stripe -> locks.add(deviceStripes[stripe]));
+
+        List<ReentrantLock> acquired = new ArrayList<>(locks.size());
+        try {
+            for (ReentrantLock lock : locks) {
+                acquire(lock);
+                acquired.add(lock);
+            }
+            return transactionTemplate.execute(status -> work.get());
+        } finally {
+            for (int i = acquired.size() - 1; i >= 0; i--) {
+                acquired.get(i).unlock();
+            }
+        }
+    }
+
+    private static void acquire(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(WAIT_SECONDS, TimeUnit.SECONDS)) {
+                throw new BookingLockTimeoutException(
+                        "Phòng, người tham dự hoặc thiết bị đang được đặt bởi một yêu cầu khác, vui lòng thử lại.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingLockTimeoutException("Yêu cầu đặt phòng bị gián đoạn, vui lòng thử lại.");
+        }
+    }
+
+    // Dải tăng dần, không trùng: mọi request khóa theo cùng 1 thứ tự
+    private static TreeSet<Integer> stripesOf(Collection<Long> ids) {
+        TreeSet<Integer> result = new TreeSet<>();
+        if (ids != null) {
+            ids.stream().filter(Objects::nonNull).forEach(id -> result.add(stripeOf(id)));
+        }
+        return result;
+    }
+
+    private static int stripeOf(Long id) {
+        return Math.floorMod(Long.hashCode(id), STRIPES);
+    }
+
+    private static ReentrantLock[] newStripes() {
+        ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock(true);
+        }
+        return locks;
+    }
+}
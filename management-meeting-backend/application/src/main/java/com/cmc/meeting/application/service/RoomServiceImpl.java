@@ -8,6 +8,7 @@ import com.cmc.meeting.domain.port.repository.RoomRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -20,15 +21,15 @@ public class RoomServiceImpl implements RoomService {
 
     private final RoomRepository roomRepository;
     private final ModelMapper modelMapper;
-    private final com.cmc.meeting.application.port.storage.FileStoragePort fileStoragePort;
+    private final FileUploadStage fileUploadStage;
     private final com.cmc.meeting.domain.port.repository.DeviceRepository deviceRepository; // Injected
 
     public RoomServiceImpl(RoomRepository roomRepository, ModelMapper modelMapper,
-            com.cmc.meeting.application.port.storage.FileStoragePort fileStoragePort,
+            FileUploadStage fileUploadStage,
             com.cmc.meeting.domain.port.repository.DeviceRepository deviceRepository) {
         this.roomRepository = roomRepository;
         this.modelMapper = modelMapper;
-        this.fileStoragePort = fileStoragePort;
+        this.fileUploadStage = fileUploadStage;
         this.deviceRepository = deviceRepository;
     }
 
@@ -99,6 +100,7 @@ public class RoomServiceImpl implements RoomService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Upload ảnh trước, transaction mở trong FileUploadStage
     public RoomDTO createRoom(RoomRequest request, List<org.springframework.web.multipart.MultipartFile> images) {
         if (request.getName() == null || request.getName().trim().isEmpty()) {
             throw new IllegalArgumentException("Tên phòng không được để trống");
@@ -110,122 +112,107 @@ public class RoomServiceImpl implements RoomService {
             throw new IllegalArgumentException("Trạng thái không được để trống");
         }
 
-        Room newRoom = modelMapper.map(request, Room.class);
+        return fileUploadStage.uploadThenSave(images, imageUrls -> {
+            Room newRoom = modelMapper.map(request, Room.class);
 
-        if (newRoom.getFloor() != null) {
-            newRoom.setLocation(buildLocationString(newRoom.getBuildingName(), newRoom.getFloor()));
-        } else if (newRoom.getLocation() != null) {
-            parseLocationToBuildingAndFloor(newRoom);
-        }
+            if (newRoom.getFloor() != null) {
+                newRoom.setLocation(buildLocationString(newRoom.getBuildingName(), newRoom.getFloor()));
+            } else if (newRoom.getLocation() != null) {
+                parseLocationToBuildingAndFloor(newRoom);
+            }
 
-        // Handle images
-        if (images != null && !images.isEmpty()) {
-            java.util.List<String> imageUrls = new java.util.ArrayList<>();
-            for (org.springframework.web.multipart.MultipartFile image : images) {
-                if (!image.isEmpty()) {
-                    try {
-                        java.util.Map<String, String> result = fileStoragePort.uploadFile(image);
-                        imageUrls.add(result.get("url"));
-                    } catch (java.io.IOException e) {
-                        throw new RuntimeException("Upload failed: " + e.getMessage());
-                    }
-                }
+            // Handle images
+            if (images != null && !images.isEmpty()) {
+                newRoom.setImages(new java.util.ArrayList<>(imageUrls));
             }
-            newRoom.setImages(imageUrls);
-        }
 
-        Room savedRoom = roomRepository.save(newRoom);
+            Room savedRoom = roomRepository.save(newRoom);
 
-        // Handle Devices
-        if (request.getDeviceIds() != null && !request.getDeviceIds().isEmpty()) {
-            for (Long deviceId : request.getDeviceIds()) {
-                deviceRepository.findById(deviceId).ifPresent(device -> {
-                    device.setRoomId(savedRoom.getId());
-                    deviceRepository.save(device);
-                });
+            // Handle Devices
+            if (request.getDeviceIds() != null && !request.getDeviceIds().isEmpty()) {
+                for (Long deviceId : request.getDeviceIds()) {
+                    deviceRepository.findById(deviceId).ifPresent(device -> {
+                        device.setRoomId(savedRoom.getId());
+                        deviceRepository.save(device);
+                    });
+                }
             }
-        }
 
-        return modelMapper.map(savedRoom, RoomDTO.class);
+            return modelMapper.map(savedRoom, RoomDTO.class);
+        });
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Upload ảnh trước, transaction mở trong FileUploadStage
     public RoomDTO updateRoom(Long id, RoomRequest request,
             List<org.springframework.web.multipart.MultipartFile> images) {
-        Room existingRoom = roomRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy phòng: " + id));
+        return fileUploadStage.uploadThenSave(images, imageUrls -> {
+            Room existingRoom = roomRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy phòng: " + id));
 
-        if (request.getName() != null && !request.getName().trim().isEmpty()) {
-            existingRoom.setName(request.getName());
-        }
-        if (request.getCapacity() != null && request.getCapacity() > 0) {
-            existingRoom.setCapacity(request.getCapacity());
-        }
-        // Handle Devices Update
-        if (request.getDeviceIds() != null) {
-            // 1. Unlink devices not in the new list
-            List<com.cmc.meeting.domain.model.Device> currentDevices = deviceRepository.findAllByRoomId(id);
-            for (com.cmc.meeting.domain.model.Device device : currentDevices) {
-                if (!request.getDeviceIds().contains(device.getId())) {
-                    device.setRoomId(null);
-                    deviceRepository.save(device);
-                }
+            if (request.getName() != null && !request.getName().trim().isEmpty()) {
+                existingRoom.setName(request.getName());
+            }
+            if (request.getCapacity() != null && request.getCapacity() > 0) {
+                existingRoom.setCapacity(request.getCapacity());
             }
-            // 2. Link devices in the new list
-            for (Long deviceId : request.getDeviceIds()) {
-                deviceRepository.findById(deviceId).ifPresent(device -> {
-                    if (!id.equals(device.getRoomId())) { // Only save if changed
-                        device.setRoomId(id);
+            // Handle Devices Update
+            if (request.getDeviceIds() != null) {
+                // 1. Unlink devices not in the new list
+                List<com.cmc.meeting.domain.model.Device> currentDevices = deviceRepository.findAllByRoomId(id);
+                for (com.cmc.meeting.domain.model.Device device : currentDevices) {
+                    if (!request.getDeviceIds().contains(device.getId())) {
+                        device.setRoomId(null);
                         deviceRepository.save(device);
                     }
-                });
+                }
+                // 2. Link devices in the new list
+                for (Long deviceId : request.getDeviceIds()) {
+                    deviceRepository.findById(deviceId).ifPresent(device -> {
+                        if (!id.equals(device.getRoomId())) { // Only save if changed
+                            device.setRoomId(id);
+                            deviceRepository.save(device);
+                        }
+                    });
+                }
             }
-        }
 
-        if (request.getRequiredRoles() != null) {
-            existingRoom.setRequiredRoles(request.getRequiredRoles());
-        }
-        if (request.getStatus() != null) {
-            existingRoom.setStatus(request.getStatus());
-        }
-        if (request.getRequiresApproval() != null) {
-            existingRoom.setRequiresApproval(request.getRequiresApproval());
-        }
+            if (request.getRequiredRoles() != null) {
+                existingRoom.setRequiredRoles(request.getRequiredRoles());
+            }
+            if (request.getStatus() != null) {
+                existingRoom.setStatus(request.getStatus());
+            }
+            if (request.getRequiresApproval() != null) {
+                existingRoom.setRequiresApproval(request.getRequiresApproval());
+            }
 
-        if (request.getFloor() != null) {
-            existingRoom.setFloor(request.getFloor());
-            existingRoom.setBuildingName(request.getBuildingName());
-            existingRoom.setLocation(buildLocationString(request.getBuildingName(), request.getFloor()));
-        }
-        if (request.getLocation() != null && !request.getLocation().equals(existingRoom.getLocation())) {
-            existingRoom.setLocation(request.getLocation());
-            parseLocationToBuildingAndFloor(existingRoom);
-        }
+            if (request.getFloor() != null) {
+                existingRoom.setFloor(request.getFloor());
+                existingRoom.setBuildingName(request.getBuildingName());
+                existingRoom.setLocation(buildLocationString(request.getBuildingName(), request.getFloor()));
+            }
+            if (request.getLocation() != null && !request.getLocation().equals(existingRoom.getLocation())) {
+                existingRoom.setLocation(request.getLocation());
+                parseLocationToBuildingAndFloor(existingRoom);
+            }
 
-        if (request.getDeleteImages() != null && !request.getDeleteImages().isEmpty()) {
-            if (existingRoom.getImages() != null) {
-                existingRoom.getImages().removeAll(request.getDeleteImages());
+            if (request.getDeleteImages() != null && !request.getDeleteImages().isEmpty()) {
+                if (existingRoom.getImages() != null) {
+                    existingRoom.getImages().removeAll(request.getDeleteImages());
+                }
             }
-        }
 
-        if (images != null && !images.isEmpty()) {
-            if (existingRoom.getImages() == null) {
-                existingRoom.setImages(new java.util.ArrayList<>());
-            }
-            for (org.springframework.web.multipart.MultipartFile image : images) {
-                if (!image.isEmpty()) {
-                    try {
-                        java.util.Map<String, String> result = fileStoragePort.uploadFile(image);
-                        existingRoom.getImages().add(result.get("url"));
-                    } catch (java.io.IOException e) {
-                        throw new RuntimeException("Upload failed: " + e.getMessage());
-                    }
+            if (images != null && !images.isEmpty()) {
+                if (existingRoom.getImages() == null) {
+                    existingRoom.setImages(new java.util.ArrayList<>());
                 }
+                existingRoom.getImages().addAll(imageUrls);
             }
-        }
 
-        Room updatedRoom = roomRepository.save(existingRoom);
-        return modelMapper.map(updatedRoom, RoomDTO.class);
+            Room updatedRoom = roomRepository.save(existingRoom);
+            return modelMapper.map(updatedRoom, RoomDTO.class);
+        });
     }
 
     // ... keep deleteRoom and findAvailableRooms
@@ -0,0 +1,91 @@
+package com.cmc.meeting.application.service.suggestion;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+
+/**
+ * Lưới thời gian chia ô 5 phút trên cửa sổ tìm kiếm: bit i = ô [origin + 5i, origin + 5(i+1)).
+ * Thời gian bận được "làm tròn ra ngoài" (đầu làm tròn xuống, cuối làm tròn lên) để không bao giờ gợi ý nhầm giờ bận.
+ */
+final class SlotGrid {
+
+    static final int CELL_MINUTES = 5;
+
+    private final LocalDateTime origin;
+    private final int cells;
+
+    SlotGrid(LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        // Gợi ý bắt đầu từ mốc 5 phút kế tiếp
+        LocalDateTime start = rangeStart.truncatedTo(ChronoUnit.MINUTES);
+        if (start.isBefore(rangeStart)) {
+            start = start.plusMinutes(1);
+        }
+        int remainder = start.getMinute() % CELL_MINUTES;
+        if (remainder != 0) {
+            start = start.plusMinutes(CELL_MINUTES - remainder);
+        }
+        this.origin = start;
+        this.cells = (int) Math.max(0, Duration.between(origin, rangeEnd).toMinutes() / CELL_MINUTES);
+    }
+
+    int size() {
+        return cells;
+    }
+
+    LocalDateTime timeOf(int index) {
+        return origin.plusMinutes((long) index * CELL_MINUTES);
+    }
+
+    static int cellsFor(int minutes) {
+        return (minutes + CELL_MINUTES - 1) / CELL_MINUTES;
+    }
+
+    /**
+     * Đánh dấu [start - buffer, end + buffer) là bận (cắt theo cửa sổ).
+     */
+    void mark(BitSet bits, LocalDateTime start, LocalDateTime end, int bufferMinutes) {
+        long from = Math.floorDiv(Duration.between(origin, start.minusMinutes(bufferMinutes)).toMinutes(), CELL_MINUTES);
+        long to = -Math.floorDiv(-Duration.between(origin, end.plusMinutes(bufferMinutes)).toMinutes(), CELL_MINUTES);
+        from = Math.max(0, from);
+        to = Math.min(cells, to);
+        if (from < to) {
+            bits.set((int) from, (int) to);
+        }
+    }
+
+    /**
+     * Các ô nằm trọn trong giờ làm việc (bỏ cuối tuần nếu không cho phép).
+     */
+    BitSet workingHours(LocalTime workStart, LocalTime workEnd, boolean includeWeekends) {
+        BitSet bits = new BitSet(cells);
+        if (cells == 0 || !workStart.isBefore(workEnd)) {
+            return bits;
+        }
+        LocalDate lastDay = timeOf(cells - 1).toLocalDate();
+        for (LocalDate day = origin.toLocalDate(); !day.isAfter(lastDay); day = day.plusDays(1)) {
+            if (!includeWeekends && (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY)) {
+                continue;
+            }
+            // Ngược với mark(): làm tròn VÀO TRONG giờ làm việc
+            long from = -Math.floorDiv(-Duration.between(origin, day.atTime(workStart)).toMinutes(), CELL_MINUTES);
+            long to = Math.floorDiv(Duration.between(origin, day.atTime(workEnd)).toMinutes(), CELL_MINUTES);
+            from = Math.max(0, from);
+            to = Math.min(cells, to);
+            if (from < to) {
+                bits.set((int) from, (int) to);
+            }
+        }
+        return bits;
+    }
+
+    // Có bit nào được bật trong [from, to) không
+    static boolean anySet(BitSet bits, int from, int to) {
+        int next = bits.nextSetBit(from);
+        return next >= 0 && next < to;
+    }
+}
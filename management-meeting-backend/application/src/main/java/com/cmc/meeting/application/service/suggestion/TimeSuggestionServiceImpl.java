@@ -1,136 +1,196 @@
 package com.cmc.meeting.application.service.suggestion;
 
 import com.cmc.meeting.application.dto.timeslot.TimeSlotDTO;
+import com.cmc.meeting.application.dto.timeslot.TimeSuggestionDTO;
 import com.cmc.meeting.application.dto.timeslot.TimeSuggestionRequest;
 import com.cmc.meeting.application.port.service.TimeSuggestionService;
-import com.cmc.meeting.domain.model.Meeting;
+import com.cmc.meeting.domain.model.BusySlot;
+import com.cmc.meeting.domain.model.Room;
+import com.cmc.meeting.domain.model.RoomStatus;
 import com.cmc.meeting.domain.port.repository.MeetingRepository;
+import com.cmc.meeting.domain.port.repository.RoomRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Comparator;
-import java.util.LinkedList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Gợi ý giờ họp bằng bitset: mỗi người / mỗi phòng là 1 BitSet các ô 5 phút bận trong cửa sổ tìm kiếm.
+ * Giờ trống chung = giờ làm việc AND NOT (OR các bitset bận) -> vài phép toán trên mảng long,
+ * thay vì nạp cả aggregate Meeting rồi sắp xếp / gộp danh sách khoảng thời gian.
+ */
 @Service
 @Transactional(readOnly = true)
 public class TimeSuggestionServiceImpl implements TimeSuggestionService {
 
+    private static final int MAX_RANGE_DAYS = 31;
+    private static final int CANDIDATE_STEP_MINUTES = 15; // Gợi ý bắt đầu ở các mốc :00, :15, :30, :45
+
     private final MeetingRepository meetingRepository;
+    private final RoomRepository roomRepository;
 
-    public TimeSuggestionServiceImpl(MeetingRepository meetingRepository) {
+    public TimeSuggestionServiceImpl(MeetingRepository meetingRepository, RoomRepository roomRepository) {
         this.meetingRepository = meetingRepository;
+        this.roomRepository = roomRepository;
     }
 
+    /**
+     * Các khoảng trống chung (trong giờ làm việc) đủ dài cho cuộc họp.
+     */
     @Override
     public List<TimeSlotDTO> suggestTime(TimeSuggestionRequest request) {
+        validate(request);
+        SlotGrid grid = new SlotGrid(request.getRangeStart(), request.getRangeEnd());
+        AttendeeGrid attendees = loadAttendees(request, grid);
+        int durationCells = SlotGrid.cellsFor(request.getDurationMinutes());
 
-        // 1. Lấy tất cả các cuộc họp "BẬN" của nhóm người này
-        List<Meeting> busyMeetings = meetingRepository.findMeetingsForUsersInDateRange(
-                request.getParticipantIds(), 
-                request.getRangeStart(), 
-                request.getRangeEnd()
-        );
-
-        // 2. Chuyển đổi sang các "Slot Bận" (TimeSlotDTO)
-        List<TimeSlotDTO> busySlots = busyMeetings.stream()
-                .map(m -> new TimeSlotDTO(m.getStartTime(), m.getEndTime()))
-                .sorted(Comparator.comparing(TimeSlotDTO::getStartTime)) // Sắp xếp
-                .collect(Collectors.toList());
-
-        // 3. Gộp các "Slot Bận" bị chồng chéo
-        List<TimeSlotDTO> mergedBusySlots = mergeOverlappingSlots(busySlots);
-
-        // 4. "Đảo ngược" (Invert) để tìm các "Slot Trống"
-        return findFreeSlots(
-                mergedBusySlots, 
-                request.getRangeStart(), 
-                request.getRangeEnd(), 
-                request.getDurationMinutes()
-        );
+        List<TimeSlotDTO> freeSlots = new ArrayList<>();
+        BitSet free = attendees.free;
+        for (int i = free.nextSetBit(0); i >= 0; i = free.nextSetBit(i)) {
+            int end = free.nextClearBit(i);
+            if (end - i >= durationCells) {
+                freeSlots.add(new TimeSlotDTO(grid.timeOf(i), grid.timeOf(end)));
+            }
+            i = end;
+        }
+        return freeSlots;
     }
 
     /**
-     * Thuật toán Gộp các khoảng thời gian bận
-     * (Ví dụ: [9:00-10:00] và [9:30-10:30] -> [9:00-10:30])
+     * Gợi ý cụ thể (đúng thời lượng) kèm phòng, xếp hạng theo:
+     * ít vướng lịch chờ duyệt nhất -> sớm nhất -> phòng vừa vặn nhất (ít ghế thừa).
      */
-    private List<TimeSlotDTO> mergeOverlappingSlots(List<TimeSlotDTO> busySlots) {
-        if (busySlots.isEmpty()) {
-            return busySlots;
+    @Override
+    public List<TimeSuggestionDTO> suggestRankedSlots(TimeSuggestionRequest request) {
+        validate(request);
+        SlotGrid grid = new SlotGrid(request.getRangeStart(), request.getRangeEnd());
+        AttendeeGrid attendees = loadAttendees(request, grid);
+        int durationCells = SlotGrid.cellsFor(request.getDurationMinutes());
+        int headcount = request.getParticipantIds().size();
+
+        // Phòng ứng viên và bitset bận của từng phòng
+        List<Room> rooms = candidateRooms(request, headcount);
+        Map<Long, BitSet> roomBusy = new HashMap<>();
+        Map<Long, BitSet> roomTentative = new HashMap<>();
+        if (!rooms.isEmpty()) {
+            Set<Long> roomIds = rooms.stream().map(Room::getId).collect(Collectors.toSet());
+            for (BusySlot slot : meetingRepository.findRoomBusySlots(roomIds, grid.timeOf(0), grid.timeOf(grid.size()))) {
+                Map<Long, BitSet> target = slot.isTentative() ? roomTentative : roomBusy;
+                // Đệm áp dụng cho người, không áp cho phòng
+                grid.mark(target.computeIfAbsent(slot.getOwnerId(), k -> new BitSet(grid.size())),
+                        slot.getStartTime(), slot.getEndTime(), 0);
+            }
         }
+        BitSet none = new BitSet();
+
+        List<TimeSuggestionDTO> candidates = new ArrayList<>();
+        BitSet free = attendees.free;
+        for (int s = free.nextSetBit(0); s >= 0 && s + durationCells <= grid.size(); s = free.nextSetBit(s + 1)) {
+            if (grid.timeOf(s).getMinute() % CANDIDATE_STEP_MINUTES != 0
+                    || free.nextClearBit(s) < s + durationCells) {
+                continue;
+            }
+            int e = s + durationCells;
+            int attendeeTentative = 0;
+            for (BitSet tentative : attendees.tentative) {
+                if (SlotGrid.anySet(tentative, s, e)) {
+                    attendeeTentative++;
+                }
+            }
+
+            if (rooms.isEmpty()) {
+                candidates.add(new TimeSuggestionDTO(grid.timeOf(s), grid.timeOf(e), null, null, attendeeTentative));
+                continue;
+            }
 
-        LinkedList<TimeSlotDTO> merged = new LinkedList<>();
-        merged.add(busySlots.get(0));
-
-        for (int i = 1; i < busySlots.size(); i++) {
-            TimeSlotDTO current = busySlots.get(i);
-            TimeSlotDTO last = merged.getLast();
-
-            // Nếu slot hiện tại chồng lên slot cuối cùng
-            if (current.getStartTime().isBefore(last.getEndTime())) {
-                // Mở rộng slot cuối cùng
-                last.setEndTime(
-                    current.getEndTime().isAfter(last.getEndTime()) ? 
-                    current.getEndTime() : 
-                    last.getEndTime()
-                );
-            } else {
-                merged.add(current);
+            // Chọn phòng tốt nhất cho thời điểm này
+            Room bestRoom = null;
+            int bestTentative = Integer.MAX_VALUE;
+            for (Room room : rooms) {
+                if (SlotGrid.anySet(roomBusy.getOrDefault(room.getId(), none), s, e)) {
+                    continue;
+                }
+                int tentative = SlotGrid.anySet(roomTentative.getOrDefault(room.getId(), none), s, e) ? 1 : 0;
+                if (bestRoom == null || tentative < bestTentative
+                        || (tentative == bestTentative && room.getCapacity() < bestRoom.getCapacity())) {
+                    bestRoom = room;
+                    bestTentative = tentative;
+                }
+            }
+            if (bestRoom != null) {
+                candidates.add(new TimeSuggestionDTO(grid.timeOf(s), grid.timeOf(e),
+                        bestRoom.getId(), bestRoom.getName(), attendeeTentative + bestTentative));
             }
         }
-        return merged;
+
+        Map<Long, Integer> capacities = new HashMap<>();
+        rooms.forEach(r -> capacities.put(r.getId(), r.getCapacity()));
+        return candidates.stream()
+                .sorted(Comparator.comparingInt(TimeSuggestionDTO::getTentativeConflicts)
+                        .thenComparing(TimeSuggestionDTO::getStartTime)
+                        .thenComparingInt(c -> c.getRoomId() != null ? capacities.get(c.getRoomId()) : 0))
+                .limit(request.getMaxResults())
+                .collect(Collectors.toList());
     }
 
-    /**
-     * Thuật toán Đảo ngược (Invert) để tìm slot trống
-     */
-    private List<TimeSlotDTO> findFreeSlots(List<TimeSlotDTO> mergedBusySlots, 
-                                            LocalDateTime rangeStart, 
-                                            LocalDateTime rangeEnd, 
-                                            int durationMinutes) {
+    // Bitset của nhóm người tham dự: giờ trống chung + bitset "chờ duyệt" của từng người
+    private static final class AttendeeGrid {
+        final BitSet free;
+        final List<BitSet> tentative;
 
-        List<TimeSlotDTO> freeSlots = new ArrayList<>();
-        LocalDateTime currentFreeStart = rangeStart;
-
-        // Lặp qua các slot bận đã gộp
-        for (TimeSlotDTO busySlot : mergedBusySlots) {
-            if (currentFreeStart.isBefore(busySlot.getStartTime())) {
-                // Tìm thấy 1 slot trống (từ currentFreeStart -> busySlot.getStartTime)
-                addIfSlotIsLongEnough(
-                    freeSlots, 
-                    currentFreeStart, 
-                    busySlot.getStartTime(), 
-                    durationMinutes);
-            }
-            // Cập nhật điểm bắt đầu trống tiếp theo
-            currentFreeStart = busySlot.getEndTime();
+        AttendeeGrid(BitSet free, List<BitSet> tentative) {
+            this.free = free;
+            this.tentative = tentative;
         }
+    }
 
-        // Kiểm tra slot trống cuối cùng (từ slot bận cuối -> rangeEnd)
-        if (currentFreeStart.isBefore(rangeEnd)) {
-            addIfSlotIsLongEnough(
-                freeSlots, 
-                currentFreeStart, 
-                rangeEnd, 
-                durationMinutes);
+    private AttendeeGrid loadAttendees(TimeSuggestionRequest request, SlotGrid grid) {
+        BitSet busy = new BitSet(grid.size());
+        Map<Long, BitSet> tentativeByUser = new HashMap<>();
+        if (grid.size() > 0) {
+            List<BusySlot> slots = meetingRepository.findUserBusySlots(request.getParticipantIds(),
+                    grid.timeOf(0).minusMinutes(request.getBufferMinutes()),
+                    grid.timeOf(grid.size()).plusMinutes(request.getBufferMinutes()));
+            for (BusySlot slot : slots) {
+                BitSet target = slot.isTentative()
+                        ? tentativeByUser.computeIfAbsent(slot.getOwnerId(), k -> new BitSet(grid.size()))
+                        : busy;
+                grid.mark(target, slot.getStartTime(), slot.getEndTime(), request.getBufferMinutes());
+            }
         }
 
-        return freeSlots;
+        BitSet free = grid.workingHours(request.getWorkStart(), request.getWorkEnd(), request.isIncludeWeekends());
+        free.andNot(busy);
+        return new AttendeeGrid(free, new ArrayList<>(tentativeByUser.values()));
     }
 
-    /**
-     * Helper: Chỉ thêm slot nếu nó đủ dài
-     */
-    private void addIfSlotIsLongEnough(List<TimeSlotDTO> freeSlots, 
-                                       LocalDateTime start, 
-                                       LocalDateTime end, 
-                                       int durationMinutes) {
+    private List<Room> candidateRooms(TimeSuggestionRequest request, int headcount) {
+        Set<Long> requested = request.getRoomIds() != null ? request.getRoomIds() : new HashSet<>();
+        return roomRepository.findAll().stream()
+                .filter(r -> r.getStatus() != RoomStatus.UNDER_MAINTENANCE)
+                .filter(r -> requested.isEmpty() ? r.getCapacity() >= headcount : requested.contains(r.getId()))
+                .collect(Collectors.toList());
+    }
 
-        if (java.time.Duration.between(start, end).toMinutes() >= durationMinutes) {
-            freeSlots.add(new TimeSlotDTO(start, end));
+    private void validate(TimeSuggestionRequest request) {
+        if (!request.getRangeEnd().isAfter(request.getRangeStart())) {
+            throw new IllegalArgumentException("Thời điểm kết thúc tìm kiếm phải sau thời điểm bắt đầu.");
+        }
+        if (Duration.between(request.getRangeStart(), request.getRangeEnd()).toDays() > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Chỉ tìm gợi ý trong tối đa " + MAX_RANGE_DAYS + " ngày.");
+        }
+        if (request.getWorkStart() == null || request.getWorkEnd() == null
+                || !request.getWorkStart().isBefore(request.getWorkEnd())) {
+            throw new IllegalArgumentException("Giờ làm việc không hợp lệ.");
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,246 @@
+package com.cmc.meeting.application.task;
+
+import com.cmc.meeting.application.port.cluster.ClusterLockPort;
+import com.cmc.meeting.application.port.service.AppConfigService;
+import com.cmc.meeting.domain.event.MeetingCancelledEvent;
+import com.cmc.meeting.domain.event.MeetingCreatedEvent;
+import com.cmc.meeting.domain.event.MeetingSeriesCreatedEvent;
+import com.cmc.meeting.domain.event.MeetingUpdatedEvent;
+import com.cmc.meeting.domain.port.repository.MeetingReminderRepository;
+import com.cmc.meeting.domain.port.repository.MeetingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Lịch nhắc họp trong bộ nhớ (hàng đợi ưu tiên theo thời điểm gửi), thay cho việc mỗi phút
+ * quét CSDL với cửa sổ ±30s (chạy trễ là lỡ hoặc gửi trùng).
+ *
+ * - Mỗi cuộc họp CONFIRMED có 1 mốc nhắc cho mỗi offset trong "reminder.offsets.minutes" (vd: 30,15).
+ * - Nạp dần: sự kiện tạo / sửa / hủy cuộc họp cập nhật ngay; định kỳ nạp bổ sung các cuộc họp
+ *   sắp tới trong HORIZON (và khi khởi động) - chỉ đọc (id, giờ bắt đầu).
+ * - Mỗi giây lấy các mốc đến hạn và gửi; ScheduledTaskService kiểm tra lại trạng thái + giờ họp
+ *   và ghi sổ nhắc nhở (meeting_reminder_log) nên không gửi trùng kể cả sau khi khởi động lại.
+ * - Mốc đã trễ quá LATE_TOLERANCE (vd: cuộc họp tạo sát giờ) thì bỏ qua thay vì gửi nhãn sai.
+ * - Nhiều replica: node giữ khóa FIRE_LOCK gửi đúng giờ; các node khác chỉ gửi dự phòng sau
+ *   BACKUP_DELAY (trường hợp sự kiện tạo/sửa họp rơi vào node khác mà node giữ khóa chưa nạp tới).
+ *   Sổ nhắc nhở đảm bảo dù node nào gửi thì mỗi mốc cũng chỉ gửi 1 lần.
+ */
+@Component
+public class MeetingReminderScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(MeetingReminderScheduler.class);
+
+    // Flyway đang tắt nên không có dòng cấu hình seed sẵn: chưa có khóa này trong app_configuration
+    // thì dùng mặc định trong code (30 và 15 phút). Muốn đổi: thêm dòng này vào app_configuration
+    // (API /admin/configs chỉ sửa được khóa đã có).
+    static final String KEY_OFFSETS = "reminder.offsets.minutes";
+    private static final String DEFAULT_OFFSETS = "30,15";
+
+    private static final Duration HORIZON = Duration.ofHours(6);
+    private static final Duration LATE_TOLERANCE = Duration.ofMinutes(5);
+    private static final int LEDGER_RETENTION_DAYS = 30;
+
+    static final String FIRE_LOCK = "meeting-reminders";
+    static final String LEDGER_CLEANUP_LOCK = "meeting-reminder-ledger-cleanup";
+    private static final Duration FIRE_LEASE = Duration.ofMinutes(1);
+    private static final Duration CLEANUP_LEASE = Duration.ofMinutes(10);
+    private static final Duration BACKUP_DELAY = Duration.ofSeconds(30);
+
+    private static final Comparator<Reminder> BY_FIRE_TIME = Comparator.comparing(Reminder::fireAt)
+            .thenComparing(Reminder::meetingId)
+            .thenComparingInt(Reminder::offsetMinutes);
+
+    private final MeetingRepository meetingRepository;
+    private final MeetingReminderRepository meetingReminderRepository;
+    private final ScheduledTaskService scheduledTaskService;
+    private final AppConfigService appConfigService;
+    private final ClusterLockPort clusterLock;
+
+    // --- Được bảo vệ bởi 'this' ---
+    private final NavigableSet<Reminder> queue = new TreeSet<>(BY_FIRE_TIME);
+    private final Map<Long, List<Reminder>> byMeeting = new HashMap<>();
+
+    record Reminder(Long meetingId, int offsetMinutes, LocalDateTime startTime, LocalDateTime fireAt) {
+    }
+
+    public MeetingReminderScheduler(MeetingRepository meetingRepository,
+                                    MeetingReminderRepository meetingReminderRepository,
+                                    ScheduledTaskService scheduledTaskService,
+                                    AppConfigService appConfigService,
+                                    ClusterLockPort clusterLock) {
+        this.meetingRepository = meetingRepository;
+        this.meetingReminderRepository = meetingReminderRepository;
+        this.scheduledTaskService = scheduledTaskService;
+        this.appConfigService = appConfigService;
+        this.clusterLock = clusterLock;
+    }
+
+    // ==================== GỬI ====================
+
+    @Scheduled(fixedDelay = 1000)
+    public void fireDueReminders() {
+        LocalDateTime now = LocalDateTime.now();
+        boolean primary = clusterLock.tryAcquire(FIRE_LOCK, FIRE_LEASE);
+        List<Reminder> due = pollDue(primary ? now : now.minus(BACKUP_DELAY));
+        for (Reminder reminder : due) {
+            if (reminder.fireAt().plus(LATE_TOLERANCE).isBefore(now)) {
+                log.warn("REMINDER: Bỏ qua mốc {} phút của meeting {} (trễ quá {} phút).",
+                        reminder.offsetMinutes(), reminder.meetingId(), LATE_TOLERANCE.toMinutes());
+                continue;
+            }
+            try {
+                scheduledTaskService.sendMeetingReminder(reminder.meetingId(), reminder.offsetMinutes(),
+                        reminder.startTime());
+            } catch (Exception e) {
+                // Sổ nhắc nhở đã rollback: lần nạp bổ sung kế tiếp sẽ xếp lại nếu còn trong hạn
+                log.error("REMINDER: Lỗi gửi nhắc cho meeting " + reminder.meetingId(), e);
+            }
+        }
+    }
+
+    private synchronized List<Reminder> pollDue(LocalDateTime now) {
+        List<Reminder> due = new ArrayList<>();
+        while (!queue.isEmpty() && !queue.first().fireAt().isAfter(now)) {
+            Reminder reminder = queue.pollFirst();
+            due.add(reminder);
+            List<Reminder> ofMeeting = byMeeting.get(reminder.meetingId());
+            if (ofMeeting != null) {
+                ofMeeting.remove(reminder);
+                if (ofMeeting.isEmpty()) {
+                    byMeeting.remove(reminder.meetingId());
+                }
+            }
+        }
+        return due;
+    }
+
+    // ==================== NẠP LỊCH ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        refill();
+    }
+
+    // Nạp bổ sung các cuộc họp sắp tới (và các mốc bị lỗi cần xếp lại)
+    @Scheduled(initialDelayString = "${app.reminders.refill-ms:300000}",
+               fixedDelayString = "${app.reminders.refill-ms:300000}")
+    public void refill() {
+        List<Integer> offsets = offsets();
+        int maxOffset = offsets.stream().mapToInt(Integer::intValue).max().orElse(0);
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, LocalDateTime> startTimes = meetingRepository.findConfirmedStartTimes(
+                now.minus(LATE_TOLERANCE), now.plus(HORIZON).plusMinutes(maxOffset));
+        startTimes.forEach((meetingId, startTime) -> schedule(meetingId, startTime, offsets, now));
+        log.debug("REMINDER: Đã nạp {} cuộc họp, {} mốc nhắc đang chờ.", startTimes.size(), size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMeetingCreated(MeetingCreatedEvent event) {
+        reschedule(List.of(event.getMeetingId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMeetingSeriesCreated(MeetingSeriesCreatedEvent event) {
+        reschedule(event.getMeetingIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMeetingUpdated(MeetingUpdatedEvent event) {
+        reschedule(List.of(event.getMeetingId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMeetingCancelled(MeetingCancelledEvent event) {
+        unschedule(event.getMeetingId());
+    }
+
+    // Ngoài HORIZON thì để lần nạp bổ sung lo (không giữ cả năm lịch định kỳ trong bộ nhớ)
+    private void reschedule(List<Long> meetingIds) {
+        try {
+            List<Integer> offsets = offsets();
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, LocalDateTime> startTimes = meetingRepository.findConfirmedStartTimesByIds(meetingIds);
+            for (Long meetingId : meetingIds) {
+                LocalDateTime startTime = startTimes.get(meetingId);
+                if (startTime != null) {
+                    schedule(meetingId, startTime, offsets, now);
+                } else {
+                    unschedule(meetingId); // Chờ duyệt / đã hủy
+                }
+            }
+        } catch (Exception e) {
+            log.error("REMINDER: Không cập nhật được lịch nhắc cho {}: {}", meetingIds, e.getMessage());
+        }
+    }
+
+    private synchronized void schedule(Long meetingId, LocalDateTime startTime, List<Integer> offsets,
+            LocalDateTime now) {
+        unschedule(meetingId);
+        List<Reminder> reminders = new ArrayList<>();
+        for (int offset : offsets) {
+            LocalDateTime fireAt = startTime.minusMinutes(offset);
+            if (fireAt.plus(LATE_TOLERANCE).isBefore(now) || fireAt.isAfter(now.plus(HORIZON))) {
+                continue;
+            }
+            Reminder reminder = new Reminder(meetingId, offset, startTime, fireAt);
+            queue.add(reminder);
+            reminders.add(reminder);
+        }
+        if (!reminders.isEmpty()) {
+            byMeeting.put(meetingId, reminders);
+        }
+    }
+
+    private synchronized void unschedule(Long meetingId) {
+        List<Reminder> removed = byMeeting.remove(meetingId);
+        if (removed != null) {
+            removed.forEach(queue::remove);
+        }
+    }
+
+    private synchronized int size() {
+        return queue.size();
+    }
+
+    // "30,15" -> [30, 15]; cấu hình sai thì dùng mặc định
+    private List<Integer> offsets() {
+        String raw = appConfigService.getValue(KEY_OFFSETS, DEFAULT_OFFSETS);
+        try {
+            return Arrays.stream(raw.split(","))
+                    .map(String::trim)
+                    .filter(s -> !s.isEmpty())
+                    .map(Integer::valueOf)
+                    .filter(m -> m > 0)
+                    .distinct()
+                    .toList();
+        } catch (NumberFormatException e) {
+            log.warn("REMINDER: Cấu hình {} không hợp lệ ('{}'), dùng mặc định {}.", KEY_OFFSETS, raw, DEFAULT_OFFSETS);
+            return Arrays.stream(DEFAULT_OFFSETS.split(",")).map(Integer::valueOf).toList();
+        }
+    }
+
+    // ==================== DỌN SỔ NHẮC NHỞ ====================
+
+    @Scheduled(cron = "0 45 3 * * *")
+    public void cleanupLedger() {
+        if (!clusterLock.tryAcquire(LEDGER_CLEANUP_LOCK, CLEANUP_LEASE)) {
+            return;
+        }
+        try {
+            int deleted = meetingReminderRepository.deleteSentBefore(
+                    LocalDateTime.now().minusDays(LEDGER_RETENTION_DAYS));
+            log.info("REMINDER: Đã xóa {} dòng sổ nhắc nhở cũ.", deleted);
+        } finally {
+            clusterLock.release(LEDGER_CLEANUP_LOCK);
+        }
+    }
+}
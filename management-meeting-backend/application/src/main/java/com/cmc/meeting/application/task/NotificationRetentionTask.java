@@ -0,0 +1,86 @@
+package com.cmc.meeting.application.task;
+
+import com.cmc.meeting.application.port.cluster.ClusterLockPort;
+import com.cmc.meeting.application.port.service.AppConfigService;
+import com.cmc.meeting.domain.port.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Giữ bảng notifications nhỏ: thông báo ĐÃ ĐỌC quá N ngày được chuyển sang bảng lưu trữ,
+ * dữ liệu lưu trữ quá M ngày bị xóa hẳn. Thông báo chưa đọc không bao giờ bị động tới.
+ *
+ * Các tham số đọc từ app_configuration (admin chỉnh được, không cần deploy lại).
+ * Flyway đang tắt nên các khóa này không được seed sẵn: chưa có dòng nào thì dùng các giá trị DEFAULT_* bên dưới
+ * (90 ngày / 365 ngày / lô 1000 / tối đa 500000 dòng mỗi lần). Muốn đổi thì thêm dòng vào app_configuration
+ * (API /admin/configs chỉ sửa được khóa đã có).
+ * Không đặt @Transactional: repository tự chia lô, mỗi lô 1 transaction ngắn.
+ * Nhiều replica: chỉ node giữ khóa RETENTION_LOCK chạy (khóa được gia hạn trong lúc chạy).
+ */
+@Service
+public class NotificationRetentionTask {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRetentionTask.class);
+
+    static final String KEY_RETENTION_DAYS = "notification.retention.days";
+    static final String KEY_ARCHIVE_RETENTION_DAYS = "notification.archive.retention.days";
+    static final String KEY_CHUNK_SIZE = "notification.retention.chunk-size";
+    static final String KEY_MAX_ROWS = "notification.retention.max-rows-per-run";
+
+    private static final int DEFAULT_RETENTION_DAYS = 90;
+    private static final int DEFAULT_ARCHIVE_RETENTION_DAYS = 365;
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+    private static final int DEFAULT_MAX_ROWS = 500_000;
+
+    static final String RETENTION_LOCK = "notification-retention";
+    private static final Duration RETENTION_LEASE = Duration.ofMinutes(10);
+
+    private final NotificationRepository notificationRepository;
+    private final AppConfigService appConfigService;
+    private final ClusterLockPort clusterLock;
+
+    public NotificationRetentionTask(NotificationRepository notificationRepository,
+                                     AppConfigService appConfigService,
+                                     ClusterLockPort clusterLock) {
+        this.notificationRepository = notificationRepository;
+        this.appConfigService = appConfigService;
+        this.clusterLock = clusterLock;
+    }
+
+    // Chạy lúc vắng người (mặc định 2h30 sáng)
+    @Scheduled(cron = "${app.notification-retention.cron:0 30 2 * * *}")
+    public void archiveAndPurge() {
+        if (!clusterLock.tryAcquire(RETENTION_LOCK, RETENTION_LEASE)) {
+            return;
+        }
+        try {
+            archiveAndPurgeNow();
+        } finally {
+            clusterLock.release(RETENTION_LOCK);
+        }
+    }
+
+    private void archiveAndPurgeNow() {
+        int retentionDays = appConfigService.getIntValue(KEY_RETENTION_DAYS, DEFAULT_RETENTION_DAYS);
+        int archiveDays = appConfigService.getIntValue(KEY_ARCHIVE_RETENTION_DAYS, DEFAULT_ARCHIVE_RETENTION_DAYS);
+        int chunkSize = Math.max(100, appConfigService.getIntValue(KEY_CHUNK_SIZE, DEFAULT_CHUNK_SIZE));
+        int maxRows = appConfigService.getIntValue(KEY_MAX_ROWS, DEFAULT_MAX_ROWS);
+
+        if (retentionDays > 0) {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+            int moved = notificationRepository.archiveReadBefore(cutoff, chunkSize, maxRows);
+            log.info("RETENTION: Đã chuyển {} thông báo đã đọc (trước {}) sang lưu trữ.", moved, cutoff);
+        }
+        // archiveDays <= 0: giữ dữ liệu lưu trữ vĩnh viễn
+        if (archiveDays > 0) {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveDays);
+            int purged = notificationRepository.purgeArchivedBefore(cutoff, chunkSize);
+            log.info("RETENTION: Đã xóa {} thông báo lưu trữ (trước {}).", purged, cutoff);
+        }
+    }
+}
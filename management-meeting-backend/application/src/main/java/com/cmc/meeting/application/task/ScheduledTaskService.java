@@ -1,10 +1,14 @@
 package com.cmc.meeting.application.task;
 
+import com.cmc.meeting.application.port.cluster.ClusterLockPort;
 import com.cmc.meeting.application.port.notification.EmailNotificationPort; // Import Port Email
 import com.cmc.meeting.application.port.service.AppConfigService;
 import com.cmc.meeting.application.port.service.NotificationService;
+import com.cmc.meeting.domain.model.BookingStatus;
 import com.cmc.meeting.domain.model.Meeting;
 import com.cmc.meeting.domain.model.MeetingParticipant;
+import com.cmc.meeting.domain.model.User;
+import com.cmc.meeting.domain.port.repository.MeetingReminderRepository;
 import com.cmc.meeting.domain.port.repository.MeetingRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,8 +16,13 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class ScheduledTaskService {
@@ -23,26 +32,39 @@ public class ScheduledTaskService {
     private final MeetingRepository meetingRepository;
     private final AppConfigService appConfigService;
     private final NotificationService notificationService;
+    private final MeetingReminderRepository meetingReminderRepository;
+    private final ClusterLockPort clusterLock;
     
     // 1. Thêm Port xử lý Email
     private final EmailNotificationPort emailNotificationPort;
 
     private static final int DEFAULT_GRACE_PERIOD_MINUTES = 5;
 
+    // Chỉ 1 replica hủy cuộc họp ma (các replica khác bỏ qua, tránh UPDATE + thông báo trùng)
+    static final String GHOST_RELEASE_LOCK = "ghost-meeting-release";
+    private static final Duration GHOST_RELEASE_LEASE = Duration.ofMinutes(2);
+
     public ScheduledTaskService(MeetingRepository meetingRepository,
                                 AppConfigService appConfigService,
                                 NotificationService notificationService,
-                                EmailNotificationPort emailNotificationPort) { // Inject vào Constructor
+                                EmailNotificationPort emailNotificationPort, // Inject vào Constructor
+                                MeetingReminderRepository meetingReminderRepository,
+                                ClusterLockPort clusterLock) {
         this.meetingRepository = meetingRepository;
         this.appConfigService = appConfigService;
         this.notificationService = notificationService;
         this.emailNotificationPort = emailNotificationPort;
+        this.meetingReminderRepository = meetingReminderRepository;
+        this.clusterLock = clusterLock;
     }
 
     // --- TÁC VỤ 1: TỰ ĐỘNG HỦY CUỘC HỌP MA (Chạy mỗi 1 phút) ---
     @Scheduled(cron = "0 * * * * *")
     @Transactional
     public void autoReleaseGhostMeetings() {
+        if (!clusterLock.tryAcquire(GHOST_RELEASE_LOCK, GHOST_RELEASE_LEASE)) {
+            return;
+        }
         log.info("SCHEDULER: Đang chạy tác vụ tự động giải phóng phòng...");
 
         int gracePeriodMinutes = appConfigService.getIntValue(
@@ -81,61 +103,50 @@ public class ScheduledTaskService {
         }
     }
 
-    // --- TÁC VỤ 2: GỬI THÔNG BÁO NHẮC NHỞ (Chạy mỗi 1 phút) ---
-    @Scheduled(cron = "0 * * * * *")
+    // --- TÁC VỤ 2: GỬI THÔNG BÁO NHẮC NHỞ ---
+    // Thời điểm gửi do MeetingReminderScheduler quyết định (đúng mốc, không quét mỗi phút).
+    // Trả về false nếu không cần gửi nữa (đã hủy / đổi giờ) hoặc mốc này đã được gửi (sổ nhắc nhở).
     @Transactional
-    public void sendMeetingReminders() {
-        LocalDateTime now = LocalDateTime.now();
-        // 1. Nhắc trước 30 phút
-        checkAndSendReminder(now.plusMinutes(30), "30 phút");
-        // 2. Nhắc trước 15 phút
-        checkAndSendReminder(now.plusMinutes(15), "15 phút");
-    }
+    public boolean sendMeetingReminder(Long meetingId, int offsetMinutes, LocalDateTime expectedStartTime) {
+        Meeting meeting = meetingRepository.findById(meetingId).orElse(null);
+        if (meeting == null || meeting.getStatus() != BookingStatus.CONFIRMED
+                || !expectedStartTime.equals(meeting.getStartTime())) {
+            return false;
+        }
+        if (!meetingReminderRepository.markSent(meetingId, offsetMinutes, expectedStartTime)) {
+            return false;
+        }
 
-    private void checkAndSendReminder(LocalDateTime targetTime, String timeLabel) {
-        LocalDateTime startRange = targetTime.minusSeconds(30);
-        LocalDateTime endRange = targetTime.plusSeconds(29);
+        String timeLabel = offsetMinutes % 60 == 0 ? (offsetMinutes / 60) + " giờ" : offsetMinutes + " phút";
+        String inAppMessage = String.format("Nhắc nhở: Cuộc họp '%s' sẽ bắt đầu sau %s tại phòng %s.",
+                meeting.getTitle(), timeLabel, meeting.getRoom().getName());
 
-        List<Meeting> meetings = meetingRepository.findByStartTimeBetween(startRange, endRange);
+        // Lỗi (kể cả khi ghi outbox) được ném ra: sổ nhắc nhở rollback cùng, mốc này sẽ được xếp lại
+        Set<String> emails = new LinkedHashSet<>();
 
-        for (Meeting meeting : meetings) {
-            String inAppMessage = String.format("Nhắc nhở: Cuộc họp '%s' sẽ bắt đầu sau %s tại phòng %s.",
-                    meeting.getTitle(), timeLabel, meeting.getRoom().getName());
+        // 1. Gửi cho thành viên nội bộ (Internal Users)
+        if (meeting.getParticipants() != null) {
+            List<User> users = meeting.getParticipants().stream()
+                    .map(MeetingParticipant::getUser)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
 
-            try {
-                // 1. Gửi cho thành viên nội bộ (Internal Users)
-                if (meeting.getParticipants() != null) {
-                    for (MeetingParticipant participant : meeting.getParticipants()) {
-                        if (participant.getUser() != null) {
-                            // A. Gửi In-App Notification
-                            notificationService.createNotification(
-                                participant.getUser(), 
-                                inAppMessage, 
-                                meeting
-                            );
-
-                            // B. Gửi Email (Dùng hàm mới)
-                            // Giả định username là email (hoặc dùng participant.getUser().getEmail() nếu có)
-                            String email = participant.getUser().getUsername();
-                            emailNotificationPort.sendMeetingReminder(email, meeting, timeLabel);
-                        }
-                    }
-                }
-
-                // 2. Gửi cho khách mời ngoài (Guest Emails)
-                if (meeting.getGuestEmails() != null && !meeting.getGuestEmails().isEmpty()) {
-                    for (String guestEmail : meeting.getGuestEmails()) {
-                        // Chỉ cần gọi hàm gửi mail, không cần tạo In-App notif vì họ không có tài khoản
-                        emailNotificationPort.sendMeetingReminder(guestEmail, meeting, timeLabel);
-                        log.info("Đã gửi email nhắc nhở tới khách mời: {}", guestEmail);
-                    }
-                }
-
-                log.info("Đã xử lý reminder {} cho meeting ID: {}", timeLabel, meeting.getId());
+            // A. Gửi In-App Notification (1 lệnh batch cho cả cuộc họp)
+            notificationService.createNotifications(users, inAppMessage, meeting);
 
-            } catch (Exception e) {
-                log.error("Lỗi gửi reminder cho meeting " + meeting.getId(), e);
-            }
+            // B. Email: username là email
+            users.forEach(user -> emails.add(user.getUsername()));
         }
+
+        // 2. Khách mời ngoài (Guest Emails): chỉ email, không có In-App notif vì họ không có tài khoản
+        if (meeting.getGuestEmails() != null) {
+            emails.addAll(meeting.getGuestEmails());
+        }
+
+        // Cùng 1 mẫu cho nội bộ và khách mời: render 1 lần, ghi outbox 1 lô
+        emailNotificationPort.sendMeetingReminder(emails, meeting, timeLabel);
+
+        log.info("Đã xử lý reminder {} cho meeting ID: {}", timeLabel, meeting.getId());
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package com.cmc.meeting.domain.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Admin vừa đổi giá trị 1 tham số cấu hình (vd: template email) - để các cache phụ thuộc tự làm mới.
+ */
+public class AppConfigUpdatedEvent {
+
+    private final String configKey;
+    private final LocalDateTime timestamp;
+
+    public AppConfigUpdatedEvent(String configKey) {
+        this.configKey = configKey;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    // Getters
+    public String getConfigKey() {
+        return configKey;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+}
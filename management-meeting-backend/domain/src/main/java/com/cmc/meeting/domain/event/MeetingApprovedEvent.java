@@ -0,0 +1,34 @@
+package com.cmc.meeting.domain.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Admin đã duyệt 1 cuộc họp; rejectedMeetingIds là các yêu cầu PENDING trùng giờ đã bị từ chối tự động.
+ * Phát ra để gửi thông báo (organizer, khách mời, người bị từ chối) ở luồng nền sau khi commit.
+ */
+public class MeetingApprovedEvent {
+
+    private final Long meetingId;
+    private final List<Long> rejectedMeetingIds;
+    private final LocalDateTime timestamp;
+
+    public MeetingApprovedEvent(Long meetingId, List<Long> rejectedMeetingIds) {
+        this.meetingId = meetingId;
+        this.rejectedMeetingIds = List.copyOf(rejectedMeetingIds);
+        this.timestamp = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getMeetingId() {
+        return meetingId;
+    }
+
+    public List<Long> getRejectedMeetingIds() {
+        return rejectedMeetingIds;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+}
@@ -1,5 +1,6 @@
 package com.cmc.meeting.domain.event;
 
+import com.cmc.meeting.domain.model.BookingStatus;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -8,5 +9,6 @@ import lombok.Getter;
 public class MeetingCancelledEvent {
     private Long meetingId;
     private Long userId;          // Người thực hiện hủy
-    private String googleEventId; // ID sự kiện trên Google cần xóa
-}
\ No newline at end of file
+    private String googleEventId; // ID sự kiện trên Google cần xóa (null nếu chưa đồng bộ)
+    private BookingStatus previousStatus; // Trạng thái trước khi hủy (CONFIRMED thì người tham dự đã được mời)
+}
@@ -0,0 +1,33 @@
+package com.cmc.meeting.domain.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sự kiện cấp CHUỖI: phát 1 lần khi cả chuỗi định kỳ đã được lưu (thay vì 1 MeetingCreatedEvent mỗi buổi).
+ */
+public class MeetingSeriesCreatedEvent {
+
+    private final String seriesId;
+    private final List<Long> meetingIds;
+    private final LocalDateTime timestamp;
+
+    public MeetingSeriesCreatedEvent(String seriesId, List<Long> meetingIds) {
+        this.seriesId = seriesId;
+        this.meetingIds = List.copyOf(meetingIds);
+        this.timestamp = LocalDateTime.now();
+    }
+
+    // Getters
+    public String getSeriesId() {
+        return seriesId;
+    }
+
+    public List<Long> getMeetingIds() {
+        return meetingIds;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+}
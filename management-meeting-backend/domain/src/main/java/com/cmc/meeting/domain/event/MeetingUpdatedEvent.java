@@ -8,5 +8,5 @@ import lombok.Getter;
 public class MeetingUpdatedEvent {
     private Long meetingId;
     private Long userId;          // Người thực hiện sửa (Organizer)
-    private String googleEventId; // ID sự kiện trên Google cần sửa
+    private String googleEventId; // ID sự kiện trên Google cần sửa (null nếu chưa đồng bộ)
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.cmc.meeting.domain.event;
+
+import com.cmc.meeting.domain.model.Notification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Các thông báo in-app vừa được ghi (đã có ID). Dùng để đẩy realtime tới trình duyệt sau khi commit.
+ */
+public class NotificationsCreatedEvent {
+
+    private final List<Notification> notifications;
+    private final LocalDateTime timestamp;
+
+    public NotificationsCreatedEvent(List<Notification> notifications) {
+        this.notifications = List.copyOf(notifications);
+        this.timestamp = LocalDateTime.now();
+    }
+
+    // Getters
+    public List<Notification> getNotifications() {
+        return notifications;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,36 @@
+package com.cmc.meeting.domain.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Người dùng đã đọc thông báo: notificationId = null nghĩa là "đánh dấu tất cả đã đọc".
+ */
+public class NotificationsReadEvent {
+
+    private final Long userId;
+    private final Long notificationId;
+    private final LocalDateTime timestamp;
+
+    public NotificationsReadEvent(Long userId, Long notificationId) {
+        this.userId = userId;
+        this.notificationId = notificationId;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getNotificationId() {
+        return notificationId;
+    }
+
+    public boolean isAll() {
+        return notificationId == null;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,8 @@
+package com.cmc.meeting.domain.exception;
+
+// Chờ khóa đặt phòng quá lâu (nhiều request cùng phòng / người / thiết bị): chưa có gì bị trùng, client thử lại được
+public class BookingLockTimeoutException extends RuntimeException {
+    public BookingLockTimeoutException(String message) {
+        super(message);
+    }
+}
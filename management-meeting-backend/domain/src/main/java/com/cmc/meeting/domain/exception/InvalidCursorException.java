@@ -0,0 +1,8 @@
+package com.cmc.meeting.domain.exception;
+
+// Cursor phân trang keyset bị sửa / hỏng (client gửi lại chuỗi không do server cấp)
+public class InvalidCursorException extends IllegalArgumentException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
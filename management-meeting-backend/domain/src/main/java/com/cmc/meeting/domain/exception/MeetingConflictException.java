@@ -1,8 +1,23 @@
 package com.cmc.meeting.domain.exception;
 
+import java.util.List;
+
 // Exception nghiệp vụ tùy chỉnh cho lỗi trùng lịch
 public class MeetingConflictException extends RuntimeException {
+
+    // (Tùy chọn) Danh sách chi tiết từng buổi bị trùng (vd: khi đặt chuỗi định kỳ)
+    private final List<String> conflicts;
+
     public MeetingConflictException(String message) {
+        this(message, List.of());
+    }
+
+    public MeetingConflictException(String message, List<String> conflicts) {
         super(message);
+        this.conflicts = conflicts;
+    }
+
+    public List<String> getConflicts() {
+        return conflicts;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package com.cmc.meeting.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một khoảng bận của 1 người hoặc 1 phòng (dùng cho gợi ý giờ họp).
+ * tentative = true: chưa chắc chắn (cuộc họp đang CHỜ DUYỆT) - không chặn, chỉ làm giảm thứ hạng gợi ý.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusySlot {
+    private Long ownerId; // userId hoặc roomId
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private boolean tentative;
+}
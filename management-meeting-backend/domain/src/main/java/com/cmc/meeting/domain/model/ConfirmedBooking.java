@@ -0,0 +1,29 @@
+package com.cmc.meeting.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Bản rút gọn của một lịch họp ĐÃ CHỐT (CONFIRMED).
+ * Chỉ chứa những gì cần để kiểm tra trùng lịch hàng loạt (vd: cả chuỗi định kỳ).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfirmedBooking {
+    private Long meetingId;
+    private Long roomId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Set<Long> userIds = new HashSet<>();   // Người tham dự (gồm cả organizer)
+    private Set<Long> deviceIds = new HashSet<>();
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return startTime.isBefore(end) && endTime.isAfter(start);
+    }
+}
@@ -5,12 +5,15 @@ import com.cmc.meeting.domain.model.DeviceStatus;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface DeviceRepository {
     List<Device> findAll();
 
     Optional<Device> findById(Long id);
 
+    List<Device> findAllById(Set<Long> ids);
+
     Device save(Device device);
 
     void deleteById(Long id);
@@ -0,0 +1,15 @@
+package com.cmc.meeting.domain.port.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sổ ghi nhắc nhở đã gửi (meeting, số phút trước giờ họp, giờ bắt đầu) - bảo đảm mỗi mốc chỉ gửi 1 lần,
+ * kể cả khi khởi động lại hay chạy nhiều node. Đổi giờ họp = bộ khóa mới = được nhắc lại.
+ */
+public interface MeetingReminderRepository {
+
+    // true nếu vừa ghi nhận (được phép gửi); false nếu mốc này đã được gửi trước đó
+    boolean markSent(Long meetingId, int offsetMinutes, LocalDateTime startTime);
+
+    int deleteSentBefore(LocalDateTime cutoff);
+}
@@ -1,9 +1,13 @@
 package com.cmc.meeting.domain.port.repository;
 
+import com.cmc.meeting.domain.model.BusySlot;
+import com.cmc.meeting.domain.model.ConfirmedBooking;
 import com.cmc.meeting.domain.model.Meeting;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -16,8 +20,20 @@ public interface MeetingRepository {
 
     Meeting save(Meeting meeting);
 
+    // Lưu hàng loạt (vd: cả chuỗi định kỳ) trong 1 lần flush -> INSERT được gộp lô
+    List<Meeting> saveAll(List<Meeting> meetings);
+
+    // Chỉ ghi Google Event ID (meetingId -> eventId) sau khi đồng bộ, không lưu lại cả aggregate
+    void updateGoogleEventIds(Map<Long, String> googleEventIdByMeetingId);
+
     Optional<Meeting> findById(Long id);
 
+    // Nạp nhiều cuộc họp (kèm phòng, người tổ chức, người tham dự) bằng 1 truy vấn
+    List<Meeting> findAllByIds(List<Long> ids);
+
+    // Đối chiếu thay đổi từ Google Calendar
+    List<Meeting> findAllByGoogleEventIds(Collection<String> googleEventIds);
+
     // Sẽ cần thêm các method phức tạp sau
     // ví dụ: boolean isRoomBusy(Long roomId, LocalDateTime start, LocalDateTime
     // end);
@@ -35,6 +51,12 @@ public interface MeetingRepository {
 
     List<Meeting> findMeetingsForUsersInDateRange(Set<Long> userIds, LocalDateTime from, LocalDateTime to);
 
+    // Gợi ý giờ họp: chỉ lấy khoảng thời gian (không nạp aggregate Meeting).
+    // CONFIRMED = bận chắc chắn, PENDING_APPROVAL = tentative; người đã từ chối lời mời không tính là bận.
+    List<BusySlot> findUserBusySlots(Set<Long> userIds, LocalDateTime from, LocalDateTime to);
+
+    List<BusySlot> findRoomBusySlots(Set<Long> roomIds, LocalDateTime from, LocalDateTime to);
+
     List<Meeting> findCanceledMeetingsInDateRange(LocalDateTime from, LocalDateTime to);
 
     List<Meeting> findAllBySeriesId(String seriesId);
@@ -45,6 +67,8 @@ public interface MeetingRepository {
 
     Page<Meeting> findAllByUserId(Long userId, Pageable pageable);
 
+    // Kiểm tra trùng người / thiết bị khi ghi: luôn xác nhận bằng CSDL (đọc có khóa), không tin riêng chỉ mục trong bộ nhớ.
+    // Gọi sau lockUsersAndDevices để thấy cả lịch vừa chốt ở instance khác.
     List<Meeting> findConflictingMeetingsForUsers(Set<Long> userIds, LocalDateTime startTime, LocalDateTime endTime,
             Long meetingIdToIgnore);
 
@@ -52,6 +76,12 @@ public interface MeetingRepository {
 
     Page<Meeting> findAllMeetings(Pageable pageable);
 
+    // Phân trang keyset (không COUNT / OFFSET): các cuộc họp xếp sau (cursorStartTime, cursorId)
+    // theo thứ tự startTime DESC, id DESC. cursorStartTime = null -> trang đầu.
+    List<Meeting> findMyMeetingsAfter(Long userId, LocalDateTime cursorStartTime, Long cursorId, int limit);
+
+    List<Meeting> findAllMeetingsAfter(LocalDateTime cursorStartTime, Long cursorId, int limit);
+
     boolean isDeviceBusy(Set<Long> deviceIds, LocalDateTime startTime, LocalDateTime endTime, Long meetingIdToIgnore);
 
     List<Meeting> findFutureMeetingsByOrganizerId(Long organizerId, LocalDateTime now);
@@ -60,10 +90,34 @@ public interface MeetingRepository {
     List<Meeting> findMeetingsByDeviceAndTimeRange(Long deviceId, LocalDateTime startTime, LocalDateTime endTime);
     List<Meeting> findByStartTimeBetween(LocalDateTime start, LocalDateTime end);
 
+    // Lịch nhắc họp: ID -> giờ bắt đầu của các cuộc họp CONFIRMED bắt đầu trong [from, to) (không tải chi tiết)
+    Map<Long, LocalDateTime> findConfirmedStartTimes(LocalDateTime from, LocalDateTime to);
+
+    // Như trên nhưng theo danh sách ID (ID không CONFIRMED thì không có trong Map)
+    Map<Long, LocalDateTime> findConfirmedStartTimesByIds(List<Long> ids);
+
     Optional<Meeting> findCurrentMeetingAtRoom(Long roomId, LocalDateTime checkTime);
     Optional<Meeting> findByCheckinCode(String checkinCode);
 
     List<Meeting> findConfirmedMeetingsInTimeRange(Long roomId, LocalDateTime startTime, LocalDateTime endTime, Long meetingIdToIgnore);
 
     List<Meeting> findPendingConflicts(Long roomId, LocalDateTime startTime, LocalDateTime endTime, Long excludedMeetingId);
+
+    // Từ chối hàng loạt các yêu cầu PENDING trùng giờ (1 câu UPDATE), trả về ID các cuộc họp đã bị từ chối
+    List<Long> rejectPendingConflicts(Long roomId, LocalDateTime startTime, LocalDateTime endTime,
+            Long excludedMeetingId, String reason);
+
+    // Kiểm tra trùng hàng loạt (chuỗi định kỳ): mọi lịch CONFIRMED chồng lấn cửa sổ [from, to)
+    // mà dùng phòng này, HOẶC có người trong userIds, HOẶC dùng thiết bị trong deviceIds
+    List<ConfirmedBooking> findConfirmedBookingsInWindow(Long roomId, Set<Long> userIds, Set<Long> deviceIds,
+            LocalDateTime from, LocalDateTime to);
+
+    // Chốt đặt phòng an toàn khi nhiều request song song: khóa dòng phòng (FOR UPDATE) tới hết transaction,
+    // rồi đọc bản mới nhất (không theo snapshot) các lịch CONFIRMED của phòng trong cửa sổ [from, to).
+    // Chỉ có roomId / thời gian, không kèm userIds / deviceIds.
+    List<ConfirmedBooking> lockRoomAndFindConfirmedBookings(Long roomId, LocalDateTime from, LocalDateTime to);
+
+    // Như trên cho người tham dự / thiết bị: khóa dòng user, device (FOR UPDATE, theo thứ tự id) tới hết transaction.
+    // Gọi sau khi khóa phòng; các kiểm tra trùng người / thiết bị sau đó mới thấy lịch vừa chốt ở request khác.
+    void lockUsersAndDevices(Set<Long> userIds, Set<Long> deviceIds);
 }
\ No newline at end of file
@@ -4,18 +4,38 @@ import com.cmc.meeting.domain.model.Notification;
 import org.springframework.data.domain.Page; // Import
 import org.springframework.data.domain.Pageable; // Import
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface NotificationRepository {
     Notification save(Notification notification);
     Optional<Notification> findById(Long id);
 
+    // Ghi nhiều thông báo bằng 1 lệnh JDBC batch, gán lại ID sinh ra vào từng đối tượng
+    List<Notification> saveAll(List<Notification> notifications);
+
     // (API: GET /notifications)
     Page<Notification> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
 
+    // (API: GET /notifications/cursor) keyset theo (createdAt DESC, id DESC)
+    List<Notification> findByUserIdAfter(Long userId, LocalDateTime cursorCreatedAt, Long cursorId, int limit);
+
     // (API: GET /unread-count)
     long countByUserIdAndIsRead(Long userId, boolean isRead);
 
+    // Đối soát bộ đếm chưa đọc: userId -> số chưa đọc (user không có dòng nào thì không có trong Map)
+    Map<Long, Long> countUnreadByUserIds(Collection<Long> userIds);
+
     // (API: POST /read-all)
     void markAllAsReadByUserId(Long userId);
+
+    // Lưu trữ: chuyển thông báo ĐÃ ĐỌC tạo trước 'cutoff' sang bảng archive theo từng lô nhỏ
+    // (mỗi lô 1 transaction ngắn), tối đa 'maxRows' dòng. Trả về số dòng đã chuyển.
+    int archiveReadBefore(LocalDateTime cutoff, int chunkSize, int maxRows);
+
+    // Xóa hẳn dữ liệu lưu trữ tạo trước 'cutoff'. Trả về số dòng xóa bằng DELETE (không tính phân vùng bị DROP).
+    int purgeArchivedBefore(LocalDateTime cutoff, int chunkSize);
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.cmc.meeting.infrastructure.async;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executor cho 1 loại công việc nền (email, đồng bộ lịch, thông báo...): mỗi task chạy trên 1 virtual thread,
+ * nhưng chỉ tối đa 'maxConcurrency' task chạy cùng lúc (Semaphore) - tránh dồn hàng trăm lời gọi
+ * vào Google/SMTP cùng một lúc.
+ *
+ * Backpressure: đã có 'queueCapacity' task đang chờ thì task mới chạy luôn trên luồng gọi
+ * (giống CallerRunsPolicy) và được đếm vào 'rejected' - không mất việc, nhưng bên gửi tự chậm lại.
+ */
+public class BoundedVirtualThreadExecutor implements TaskExecutor, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BoundedVirtualThreadExecutor.class);
+
+    private static final long SHUTDOWN_WAIT_MS = 10_000;
+
+    private final String name;
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final Semaphore permits;
+    private final ThreadFactory threadFactory;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Số liệu tại 1 thời điểm (API admin).
+     */
+    public record Stats(String name, int maxConcurrency, int queueCapacity, int active, int queued,
+                        long completed, long failed, long rejected) {
+    }
+
+    public BoundedVirtualThreadExecutor(String name, int maxConcurrency, int queueCapacity) {
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.threadFactory = Thread.ofVirtual().name(name + "-", 0).factory();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            rejected.increment();
+            log.warn("EXECUTOR [{}]: Hàng đợi đầy ({}), chạy task trên luồng gọi.", name, queueCapacity);
+            runTracked(task);
+            return;
+        }
+        threadFactory.newThread(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                queued.decrementAndGet();
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queued.decrementAndGet();
+            try {
+                runTracked(task);
+            } finally {
+                permits.release();
+            }
+        }).start();
+    }
+
+    private void runTracked(Runnable task) {
+        active.incrementAndGet();
+        try {
+            task.run();
+        } catch (Throwable t) {
+            failed.increment();
+            log.error("EXECUTOR [{}]: Task lỗi: ", name, t);
+        } finally {
+            active.decrementAndGet();
+            completed.increment();
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(name, maxConcurrency, queueCapacity, active.get(), queued.get(),
+                completed.sum(), failed.sum(), rejected.sum());
+    }
+
+    // Virtual thread là daemon: chờ các task đang dở (tối đa 10s) trước khi tắt ứng dụng
+    @Override
+    public void destroy() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + SHUTDOWN_WAIT_MS;
+        while ((active.get() > 0 || queued.get() > 0) && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        if (active.get() > 0 || queued.get() > 0) {
+            log.warn("EXECUTOR [{}]: Tắt khi còn {} task đang chạy, {} task chờ.", name, active.get(), queued.get());
+        }
+    }
+}
@@ -0,0 +1,533 @@
+package com.cmc.meeting.infrastructure.booking;
+
+import com.cmc.meeting.domain.model.BookingStatus;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.DeviceEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.MeetingEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.MeetingParticipantEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataDeviceRepository;
+import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataMeetingRepository;
+import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Chỉ mục trong bộ nhớ của các lịch họp ĐÃ CHỐT (CONFIRMED) còn hiệu lực,
+ * đánh theo phòng, người tham dự và thiết bị.
+ *
+ * - Nạp toàn bộ từ CSDL khi ứng dụng khởi động, đối soát lại định kỳ.
+ * - Mỗi lần MeetingRepositoryAdapter.save() được gọi, bản ghi được "stage" theo transaction
+ *   hiện tại: các truy vấn trong cùng transaction thấy ngay thay đổi, còn các luồng khác
+ *   chỉ thấy sau khi COMMIT (rollback thì bỏ qua).
+ * - Trùng phòng luôn được chốt lại dưới khóa dòng phòng bằng CSDL (MeetingRepositoryAdapter).
+ * - Trùng người / thiết bị: mỗi lần ghi lịch CONFIRMED làm tăng booking_version của các user / thiết bị liên quan
+ *   (giữ khóa dòng tới hết transaction), chỉ mục nhớ phiên bản mà nó đã theo kịp. Khi đã khóa dòng
+ *   (lockBookingVersions) và phiên bản đọc được khớp phiên bản chỉ mục biết, không node nào khác có thể đã chốt
+ *   lịch cho các khóa đó mà chỉ mục chưa thấy -> chỉ mục trả lời một mình, không cần hỏi CSDL.
+ *   Lệch phiên bản (vd: vừa chốt ở node khác) thì hỏi CSDL tới lần đối soát sau.
+ * - Lịch bị hủy / dời ở node khác có thể còn trong chỉ mục: xung đột chỉ mục báo luôn được xác nhận theo khóa chính.
+ */
+@Component
+public class ConfirmedBookingIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfirmedBookingIndex.class);
+
+    private static final Comparator<Booking> BY_START =
+            Comparator.comparing(Booking::startTime).thenComparing(Booking::meetingId);
+
+    // Phiên bản chưa theo kịp (lệch với CSDL tới lần đối soát sau)
+    private static final long STALE = -1;
+
+    private final SpringDataMeetingRepository jpaRepository;
+    private final SpringDataUserRepository userJpaRepository;
+    private final SpringDataDeviceRepository deviceJpaRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object txResourceKey = new Object();
+
+    // --- Dữ liệu được bảo vệ bởi 'lock' ---
+    private final Map<Long, Booking> bookingsById = new HashMap<>();
+    private final Map<Long, Bucket> roomBuckets = new HashMap<>();
+    private final Map<Long, Bucket> userBuckets = new HashMap<>();
+    private final Map<Long, Bucket> deviceBuckets = new HashMap<>();
+    // booking_version đã theo kịp của từng user / thiết bị (không có = 0)
+    private final Map<Long, Long> userVersions = new HashMap<>();
+    private final Map<Long, Long> deviceVersions = new HashMap<>();
+    // Ghi lại các thay đổi xảy ra trong lúc reload để không bị snapshot cũ ghi đè
+    private List<TxChanges> writesDuringReload;
+
+    private volatile boolean ready = false;
+
+    public ConfirmedBookingIndex(SpringDataMeetingRepository jpaRepository,
+                                 SpringDataUserRepository userJpaRepository,
+                                 SpringDataDeviceRepository deviceJpaRepository) {
+        this.jpaRepository = jpaRepository;
+        this.userJpaRepository = userJpaRepository;
+        this.deviceJpaRepository = deviceJpaRepository;
+    }
+
+    /**
+     * Một lịch họp CONFIRMED đã được rút gọn (chỉ giữ những gì cần để kiểm tra trùng).
+     */
+    public record Booking(Long meetingId, Long roomId, LocalDateTime startTime, LocalDateTime endTime,
+                          Set<Long> userIds, Set<Long> deviceIds) {
+
+        static Booking probe(LocalDateTime startTime) {
+            return new Booking(Long.MIN_VALUE, null, startTime, startTime, Set.of(), Set.of());
+        }
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            return startTime.isBefore(end) && endTime.isAfter(start);
+        }
+    }
+
+    /**
+     * Danh sách lịch của 1 khóa (phòng/user/thiết bị) sắp theo giờ bắt đầu.
+     * maxDurationMinutes giúp giới hạn đoạn cần quét khi tìm chồng lấn.
+     */
+    private static final class Bucket {
+        private final NavigableSet<Booking> byStart = new TreeSet<>(BY_START);
+        private long maxDurationMinutes = 0;
+
+        void add(Booking booking) {
+            byStart.add(booking);
+            long minutes = Duration.between(booking.startTime(), booking.endTime()).toMinutes();
+            maxDurationMinutes = Math.max(maxDurationMinutes, minutes);
+        }
+
+        boolean remove(Booking booking) {
+            byStart.remove(booking);
+            return byStart.isEmpty();
+        }
+    }
+
+    /**
+     * Thay đổi của 1 transaction: lịch vừa lưu, phiên bản đọc được khi khóa dòng user / thiết bị,
+     * và phiên bản do chính transaction tăng ([trước lần tăng đầu, sau lần tăng cuối]).
+     */
+    private static final class TxChanges {
+        private final Map<Long, Booking> staged = new LinkedHashMap<>(); // null = không còn CONFIRMED
+        private final Map<Long, Long> lockedUserVersions = new HashMap<>();
+        private final Map<Long, Long> lockedDeviceVersions = new HashMap<>();
+        private final Map<Long, long[]> bumpedUserVersions = new HashMap<>();
+        private final Map<Long, long[]> bumpedDeviceVersions = new HashMap<>();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ==========================================================
+    // NẠP DỮ LIỆU
+    // ==========================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    // Đối soát định kỳ: dọn lịch đã kết thúc và bắt kịp thay đổi từ các replica khác
+    @Scheduled(initialDelayString = "${app.booking-index.resync-ms:300000}",
+               fixedDelayString = "${app.booking-index.resync-ms:300000}")
+    public void resync() {
+        reload();
+    }
+
+    public synchronized void reload() {
+        lock.writeLock().lock();
+        try {
+            writesDuringReload = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, Booking> snapshot;
+        Map<Long, Long> loadedUserVersions;
+        Map<Long, Long> loadedDeviceVersions;
+        try {
+            // Đọc phiên bản TRƯỚC lịch: lịch chốt xen giữa 2 lần đọc chỉ làm phiên bản cũ hơn (hỏi CSDL), không bị bỏ sót
+            loadedUserVersions = toVersions(userJpaRepository.findAllBookingVersions());
+            loadedDeviceVersions = toVersions(deviceJpaRepository.findAllBookingVersions());
+            snapshot = loadSnapshot(LocalDateTime.now());
+        } catch (Exception e) {
+            log.error("Không nạp được chỉ mục lịch họp CONFIRMED, tiếp tục dùng dữ liệu cũ.", e);
+            lock.writeLock().lock();
+            try {
+                writesDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            List<TxChanges> pendingWrites = writesDuringReload;
+            writesDuringReload = null;
+
+            bookingsById.clear();
+            roomBuckets.clear();
+            userBuckets.clear();
+            deviceBuckets.clear();
+            userVersions.clear();
+            userVersions.putAll(loadedUserVersions);
+            deviceVersions.clear();
+            deviceVersions.putAll(loadedDeviceVersions);
+            snapshot.values().forEach(this::index);
+            pendingWrites.forEach(this::replay);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Đã nạp chỉ mục lịch họp CONFIRMED: {} lịch.", snapshot.size());
+    }
+
+    private static Map<Long, Long> toVersions(List<Object[]> rows) {
+        Map<Long, Long> versions = new HashMap<>();
+        for (Object[] row : rows) {
+            versions.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return versions;
+    }
+
+    private Map<Long, Booking> loadSnapshot(LocalDateTime now) {
+        Map<Long, Booking> snapshot = new HashMap<>();
+        for (Object[] row : jpaRepository.findConfirmedBookingSlots(now)) {
+            Long meetingId = (Long) row[0];
+            snapshot.put(meetingId, new Booking(meetingId, (Long) row[1],
+                    (LocalDateTime) row[2], (LocalDateTime) row[3], new HashSet<>(), new HashSet<>()));
+        }
+        for (Object[] row : jpaRepository.findConfirmedBookingParticipants(now)) {
+            Booking booking = snapshot.get((Long) row[0]);
+            if (booking != null) {
+                booking.userIds().add((Long) row[1]);
+            }
+        }
+        for (Object[] row : jpaRepository.findConfirmedBookingDevices(now)) {
+            Booking booking = snapshot.get((Long) row[0]);
+            if (booking != null) {
+                booking.deviceIds().add((Long) row[1]);
+            }
+        }
+        return snapshot;
+    }
+
+    // ==========================================================
+    // GHI (gọi từ MeetingRepositoryAdapter sau khi save)
+    // ==========================================================
+
+    /**
+     * Ghi nhận trạng thái mới nhất của 1 cuộc họp vừa được lưu.
+     * Nếu đang trong transaction: chỉ áp dụng vào chỉ mục chung sau khi COMMIT.
+     */
+    public void stage(MeetingEntity entity) {
+        if (entity == null || entity.getId() == null) {
+            return;
+        }
+        Booking booking = (entity.getStatus() == BookingStatus.CONFIRMED) ? toBooking(entity) : null;
+        record(changes -> changes.staged.put(entity.getId(), booking));
+    }
+
+    /**
+     * Lịch CONFIRMED này có làm đổi chỗ bận của user / thiết bị so với chỉ mục không
+     * (mới, đổi giờ, đổi phòng / người / thiết bị) -> phải tăng booking_version.
+     */
+    public boolean changesConfirmedBooking(MeetingEntity entity) {
+        if (entity == null || entity.getId() == null || entity.getStatus() != BookingStatus.CONFIRMED) {
+            return false;
+        }
+        Booking booking = toBooking(entity);
+        lock.readLock().lock();
+        try {
+            return !booking.equals(bookingsById.get(entity.getId()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Phiên bản [id -> booking_version] đọc được khi khóa dòng user / thiết bị trong transaction hiện tại.
+     */
+    public void recordLockedVersions(Map<Long, Long> userVersionsRead, Map<Long, Long> deviceVersionsRead) {
+        record(changes -> {
+            changes.lockedUserVersions.putAll(userVersionsRead);
+            changes.lockedDeviceVersions.putAll(deviceVersionsRead);
+        });
+    }
+
+    /**
+     * Phiên bản [id -> booking_version] ngay sau khi transaction hiện tại tăng (đang giữ khóa dòng).
+     */
+    public void recordBumpedVersions(Map<Long, Long> userVersionsAfter, Map<Long, Long> deviceVersionsAfter) {
+        record(changes -> {
+            userVersionsAfter.forEach((id, v) -> changes.bumpedUserVersions
+                    .computeIfAbsent(id, k -> new long[] { v - 1, v })[1] = v);
+            deviceVersionsAfter.forEach((id, v) -> changes.bumpedDeviceVersions
+                    .computeIfAbsent(id, k -> new long[] { v - 1, v })[1] = v);
+        });
+    }
+
+    // Trong transaction: gom lại, chỉ áp dụng vào chỉ mục chung sau khi COMMIT. Ngoài transaction: áp dụng ngay
+    private void record(Consumer<TxChanges> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            TxChanges changes = new TxChanges();
+            change.accept(changes);
+            apply(changes);
+            return;
+        }
+        TxChanges changes = (TxChanges) TransactionSynchronizationManager.getResource(txResourceKey);
+        if (changes == null) {
+            changes = new TxChanges();
+            TransactionSynchronizationManager.bindResource(txResourceKey, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TxChangesSynchronization(changes));
+        }
+        change.accept(changes);
+    }
+
+    private Booking toBooking(MeetingEntity entity) {
+        Set<Long> userIds = new HashSet<>();
+        if (entity.getParticipants() != null) {
+            for (MeetingParticipantEntity p : entity.getParticipants()) {
+                if (p.getUser() != null) {
+                    userIds.add(p.getUser().getId());
+                }
+            }
+        }
+        Set<Long> deviceIds = new HashSet<>();
+        if (entity.getDevices() != null) {
+            for (DeviceEntity d : entity.getDevices()) {
+                deviceIds.add(d.getId());
+            }
+        }
+        return new Booking(entity.getId(), entity.getRoom().getId(),
+                entity.getStartTime(), entity.getEndTime(), userIds, deviceIds);
+    }
+
+    private void apply(TxChanges changes) {
+        lock.writeLock().lock();
+        try {
+            replay(changes);
+            if (writesDuringReload != null) {
+                writesDuringReload.add(changes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Phải giữ write lock khi gọi
+    private void replay(TxChanges changes) {
+        changes.staged.forEach(this::replace);
+        advance(userVersions, changes.bumpedUserVersions);
+        advance(deviceVersions, changes.bumpedDeviceVersions);
+    }
+
+    // Chỉ theo kịp khi chỉ mục đang ở đúng phiên bản trước lần tăng; hụt 1 lần chốt nào đó (node khác) -> STALE
+    private static void advance(Map<Long, Long> versions, Map<Long, long[]> bumped) {
+        bumped.forEach((id, range) ->
+                versions.put(id, versions.getOrDefault(id, 0L) == range[0] ? range[1] : STALE));
+    }
+
+    // Phải giữ write lock khi gọi
+    private void replace(Long meetingId, Booking booking) {
+        Booking previous = bookingsById.remove(meetingId);
+        if (previous != null) {
+            unindex(previous);
+        }
+        if (booking != null) {
+            index(booking);
+        }
+    }
+
+    // Phải giữ write lock khi gọi
+    private void index(Booking booking) {
+        if (!booking.endTime().isAfter(LocalDateTime.now())) {
+            return; // Lịch đã kết thúc không còn gây xung đột
+        }
+        bookingsById.put(booking.meetingId(), booking);
+        roomBuckets.computeIfAbsent(booking.roomId(), k -> new Bucket()).add(booking);
+        booking.userIds().forEach(id -> userBuckets.computeIfAbsent(id, k -> new Bucket()).add(booking));
+        booking.deviceIds().forEach(id -> deviceBuckets.computeIfAbsent(id, k -> new Bucket()).add(booking));
+    }
+
+    // Phải giữ write lock khi gọi
+    private void unindex(Booking booking) {
+        removeFrom(roomBuckets, booking.roomId(), booking);
+        booking.userIds().forEach(id -> removeFrom(userBuckets, id, booking));
+        booking.deviceIds().forEach(id -> removeFrom(deviceBuckets, id, booking));
+    }
+
+    private void removeFrom(Map<Long, Bucket> buckets, Long key, Booking booking) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null && bucket.remove(booking)) {
+            buckets.remove(key);
+        }
+    }
+
+    // ==========================================================
+    // ĐỌC (kiểm tra xung đột)
+    // ==========================================================
+
+    public Set<Long> findRoomConflicts(Long roomId, LocalDateTime startTime, LocalDateTime endTime,
+                                       Long meetingIdToIgnore) {
+        return findRoomBookings(roomId, startTime, endTime, meetingIdToIgnore).keySet();
+    }
+
+    public Set<Long> findUserConflicts(Collection<Long> userIds, LocalDateTime startTime, LocalDateTime endTime,
+                                       Long meetingIdToIgnore) {
+        return findUserBookings(userIds, startTime, endTime, meetingIdToIgnore).keySet();
+    }
+
+    public Set<Long> findDeviceConflicts(Collection<Long> deviceIds, LocalDateTime startTime, LocalDateTime endTime,
+                                         Long meetingIdToIgnore) {
+        return findDeviceBookings(deviceIds, startTime, endTime, meetingIdToIgnore).keySet();
+    }
+
+    /**
+     * Chỉ mục có đủ mọi lịch CONFIRMED của các user này không: mọi user phải đã được khóa dòng trong
+     * transaction hiện tại và phiên bản đọc được khớp phiên bản chỉ mục đã theo kịp.
+     */
+    public boolean isCurrentForUsers(Collection<Long> userIds) {
+        return isCurrent(userIds, userVersions, changes -> changes.lockedUserVersions);
+    }
+
+    public boolean isCurrentForDevices(Collection<Long> deviceIds) {
+        return isCurrent(deviceIds, deviceVersions, changes -> changes.lockedDeviceVersions);
+    }
+
+    private boolean isCurrent(Collection<Long> keys, Map<Long, Long> versions,
+                              Function<TxChanges, Map<Long, Long>> lockedVersionsOf) {
+        if (!ready || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TxChanges changes = (TxChanges) TransactionSynchronizationManager.getResource(txResourceKey);
+        if (changes == null) {
+            return false;
+        }
+        Map<Long, Long> locked = lockedVersionsOf.apply(changes);
+        lock.readLock().lock();
+        try {
+            for (Long key : keys) {
+                Long lockedVersion = locked.get(key);
+                if (lockedVersion == null || lockedVersion.longValue() != versions.getOrDefault(key, 0L)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Các hàm find*Bookings trả về (meetingId -> Booking), sắp theo thứ tự tìm thấy
+
+    public Map<Long, Booking> findRoomBookings(Long roomId, LocalDateTime startTime, LocalDateTime endTime,
+                                               Long meetingIdToIgnore) {
+        return findConflicts(roomBuckets, Set.of(roomId), b -> Set.of(b.roomId()),
+                startTime, endTime, meetingIdToIgnore);
+    }
+
+    public Map<Long, Booking> findUserBookings(Collection<Long> userIds, LocalDateTime startTime,
+                                               LocalDateTime endTime, Long meetingIdToIgnore) {
+        return findConflicts(userBuckets, userIds, Booking::userIds, startTime, endTime, meetingIdToIgnore);
+    }
+
+    public Map<Long, Booking> findDeviceBookings(Collection<Long> deviceIds, LocalDateTime startTime,
+                                                 LocalDateTime endTime, Long meetingIdToIgnore) {
+        return findConflicts(deviceBuckets, deviceIds, Booking::deviceIds, startTime, endTime, meetingIdToIgnore);
+    }
+
+    private Map<Long, Booking> findConflicts(Map<Long, Bucket> buckets, Collection<Long> keys,
+                                             Function<Booking, Set<Long>> keysOf,
+                                             LocalDateTime startTime, LocalDateTime endTime, Long meetingIdToIgnore) {
+        Map<Long, Booking> result = new LinkedHashMap<>();
+        if (keys == null || keys.isEmpty()) {
+            return result;
+        }
+        Map<Long, Booking> staged = currentStaged();
+
+        lock.readLock().lock();
+        try {
+            for (Long key : keys) {
+                Bucket bucket = buckets.get(key);
+                if (bucket == null) {
+                    continue;
+                }
+                Booking from = Booking.probe(startTime.minusMinutes(bucket.maxDurationMinutes));
+                Booking to = Booking.probe(endTime);
+                for (Booking booking : bucket.byStart.subSet(from, true, to, false)) {
+                    if (booking.endTime().isAfter(startTime)
+                            && !booking.meetingId().equals(meetingIdToIgnore)
+                            && !staged.containsKey(booking.meetingId())) {
+                        result.put(booking.meetingId(), booking);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Thay đổi chưa commit của chính transaction này
+        for (Booking booking : staged.values()) {
+            if (booking != null
+                    && !booking.meetingId().equals(meetingIdToIgnore)
+                    && booking.overlaps(startTime, endTime)
+                    && !Collections.disjoint(keysOf.apply(booking), keys)) {
+                result.put(booking.meetingId(), booking);
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, Booking> currentStaged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Collections.emptyMap();
+        }
+        TxChanges changes = (TxChanges) TransactionSynchronizationManager.getResource(txResourceKey);
+        return (changes != null) ? changes.staged : Collections.emptyMap();
+    }
+
+    /**
+     * Gắn danh sách thay đổi vào vòng đời transaction: hỗ trợ suspend/resume
+     * (REQUIRES_NEW) và chỉ đẩy vào chỉ mục chung khi COMMIT thành công.
+     */
+    private final class TxChangesSynchronization implements TransactionSynchronization {
+
+        private final TxChanges changes;
+
+        TxChangesSynchronization(TxChanges changes) {
+            this.changes = changes;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(txResourceKey);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(txResourceKey, changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(txResourceKey);
+            if (status == STATUS_COMMITTED) {
+                apply(changes);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.cmc.meeting.infrastructure.calendar;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Nguồn thay đổi trên lịch của user (chiều Google -> hệ thống).
+ * Bản chạy thật: GoogleCalendarChangeFeed. Tách interface để chạy CalendarPullJob với nguồn giả lập.
+ */
+public interface CalendarChangeFeed {
+
+    /**
+     * Thay đổi kể từ mốc 'syncToken'.
+     * syncToken = null: chỉ lấy mốc hiện tại (không trả thay đổi nào) - lần kéo sau bắt đầu từ đây.
+     *
+     * @throws SyncTokenExpiredException mốc quá cũ / không còn hợp lệ -> bỏ mốc, lấy mốc mới
+     */
+    ChangePage fetchChanges(Long userId, String syncToken) throws IOException, SyncTokenExpiredException;
+
+    /**
+     * 1 sự kiện bị thay đổi. cancelled = đã bị xóa; start/end = null khi sự kiện cả ngày hoặc đã xóa.
+     */
+    record EventChange(String googleEventId, boolean cancelled, LocalDateTime startTime, LocalDateTime endTime) {
+    }
+
+    /**
+     * nextSyncToken = null khi user chưa liên kết Google (không có gì để lưu).
+     */
+    record ChangePage(List<EventChange> changes, String nextSyncToken) {
+    }
+
+    class SyncTokenExpiredException extends Exception {
+        public SyncTokenExpiredException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.cmc.meeting.infrastructure.calendar;
+
+import com.cmc.meeting.application.dto.meeting.MeetingCancelRequest;
+import com.cmc.meeting.application.dto.request.MeetingUpdateRequest;
+import com.cmc.meeting.application.port.cluster.ClusterLockPort;
+import com.cmc.meeting.application.port.service.MeetingService;
+import com.cmc.meeting.application.port.service.NotificationService;
+import com.cmc.meeting.domain.exception.MeetingConflictException;
+import com.cmc.meeting.domain.exception.PolicyViolationException;
+import com.cmc.meeting.domain.model.BookingStatus;
+import com.cmc.meeting.domain.model.Device;
+import com.cmc.meeting.domain.model.Meeting;
+import com.cmc.meeting.domain.port.repository.MeetingRepository;
+import com.cmc.meeting.infrastructure.calendar.CalendarChangeFeed.ChangePage;
+import com.cmc.meeting.infrastructure.calendar.CalendarChangeFeed.EventChange;
+import com.cmc.meeting.infrastructure.calendar.CalendarChangeFeed.SyncTokenExpiredException;
+import com.cmc.meeting.infrastructure.config.AsyncExecutorConfig;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.CalendarPullStateEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.CalendarSyncJobEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataCalendarPullStateRepository;
+import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Đồng bộ chiều Google -> hệ thống: kéo định kỳ các thay đổi user tự làm trên Google Calendar
+ * (dời giờ, xóa sự kiện) của những cuộc họp do hệ thống tạo.
+ *
+ * - Mỗi user lưu 1 syncToken (calendar_pull_state): mỗi lần chỉ lấy phần thay đổi, không đọc lại cả lịch.
+ *   Chưa có mốc / mốc hết hiệu lực (410) -> lấy mốc mới, bỏ qua thay đổi trước đó.
+ * - Thay đổi được đối chiếu với Meeting qua googleEventId, chỉ xét cuộc họp CONFIRMED của chính user (người tổ chức).
+ * - Dời giờ đi qua MeetingService.updateMeeting (đủ kiểm tra trùng phòng / người / thiết bị, thông báo, email).
+ *   Bị từ chối -> đẩy lại giờ của hệ thống lên Google và báo người tổ chức.
+ * - Xóa trên Google -> MeetingService.cancelMeeting.
+ * - Thay đổi do chính hệ thống đẩy lên (giờ trùng với dữ liệu hiện tại) được bỏ qua.
+ * Chỉ 1 node chạy (khóa cụm), các user được kéo song song trên calendarExecutor.
+ */
+@Component
+public class CalendarPullJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarPullJob.class);
+
+    private static final String PULL_LOCK = "calendar-pull";
+    private static final Duration PULL_LEASE = Duration.ofMinutes(10);
+    private static final String CANCEL_REASON = "Đã bị xóa trên Google Calendar";
+
+    private final CalendarChangeFeed changeFeed;
+    private final SpringDataCalendarPullStateRepository pullStateRepository;
+    private final SpringDataUserRepository userRepository;
+    private final MeetingRepository meetingRepository;
+    private final MeetingService meetingService;
+    private final NotificationService notificationService;
+    private final CalendarSyncOutboxAdapter calendarSyncOutbox;
+    private final ClusterLockPort clusterLock;
+    private final TaskExecutor calendarExecutor;
+    private final TransactionTemplate readOnlyTx;
+
+    public CalendarPullJob(CalendarChangeFeed changeFeed,
+                           SpringDataCalendarPullStateRepository pullStateRepository,
+                           SpringDataUserRepository userRepository,
+                           MeetingRepository meetingRepository,
+                           MeetingService meetingService,
+                           NotificationService notificationService,
+                           CalendarSyncOutboxAdapter calendarSyncOutbox,
+                           ClusterLockPort clusterLock,
+                           @Qualifier(AsyncExecutorConfig.CALENDAR_EXECUTOR) TaskExecutor calendarExecutor,
+                           PlatformTransactionManager transactionManager) {
+        this.changeFeed = changeFeed;
+        this.pullStateRepository = pullStateRepository;
+        this.userRepository = userRepository;
+        this.meetingRepository = meetingRepository;
+        this.meetingService = meetingService;
+        this.notificationService = notificationService;
+        this.calendarSyncOutbox = calendarSyncOutbox;
+        this.clusterLock = clusterLock;
+        this.calendarExecutor = calendarExecutor;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @Scheduled(fixedDelayString = "${app.calendar-pull.interval-ms:300000}",
+               initialDelayString = "${app.calendar-pull.initial-delay-ms:60000}")
+    public void pullAll() {
+        if (!clusterLock.tryAcquire(PULL_LOCK, PULL_LEASE)) {
+            return;
+        }
+        List<Long> userIds = userRepository.findGoogleLinkedUserIds();
+        CompletableFuture.allOf(userIds.stream()
+                .map(userId -> CompletableFuture.runAsync(() -> pullUser(userId), calendarExecutor))
+                .toArray(CompletableFuture[]::new)).join();
+    }
+
+    void pullUser(Long userId) {
+        CalendarPullStateEntity state = pullStateRepository.findById(userId)
+                .orElseGet(() -> new CalendarPullStateEntity(userId));
+        ChangePage page;
+        try {
+            page = changeFeed.fetchChanges(userId, state.getSyncToken());
+        } catch (SyncTokenExpiredException e) {
+            log.info("CALENDAR-PULL: {} -> lấy mốc mới.", e.getMessage());
+            state.setSyncToken(null);
+            pullStateRepository.save(state);
+            return;
+        } catch (Exception e) {
+            log.warn("CALENDAR-PULL: Không đọc được thay đổi của user {}: {}", userId, e.getMessage());
+            return;
+        }
+        if (page.nextSyncToken() == null) {
+            return;
+        }
+
+        if (!page.changes().isEmpty()) {
+            applyChanges(userId, page.changes());
+        }
+        // Lưu mốc sau khi xử lý: thay đổi lỗi bất thường không chặn các lần kéo sau
+        state.setSyncToken(page.nextSyncToken());
+        state.setLastPulledAt(LocalDateTime.now());
+        pullStateRepository.save(state);
+    }
+
+    private void applyChanges(Long userId, List<EventChange> changes) {
+        Map<String, EventChange> byEventId = changes.stream()
+                .collect(Collectors.toMap(EventChange::googleEventId, Function.identity(), (a, b) -> b));
+        List<Meeting> meetings = readOnlyTx.execute(status ->
+                meetingRepository.findAllByGoogleEventIds(byEventId.keySet()));
+
+        for (Meeting meeting : meetings) {
+            // Chỉ lịch đang hiệu lực trên Google Calendar của chính người tổ chức
+            if (meeting.getStatus() != BookingStatus.CONFIRMED || !meeting.getOrganizer().getId().equals(userId)) {
+                continue;
+            }
+            EventChange change = byEventId.get(meeting.getGoogleEventId());
+            try {
+                if (change.cancelled()) {
+                    applyDeletion(userId, meeting);
+                } else {
+                    applyMove(userId, meeting, change);
+                }
+            } catch (Exception e) {
+                log.error("CALENDAR-PULL: Lỗi áp dụng thay đổi Google cho meeting " + meeting.getId(), e);
+            }
+        }
+    }
+
+    private void applyDeletion(Long userId, Meeting meeting) {
+        if (meeting.getEndTime().isBefore(LocalDateTime.now())) {
+            return; // Dọn lịch cũ trên Google không ảnh hưởng cuộc họp đã diễn ra
+        }
+        MeetingCancelRequest request = new MeetingCancelRequest();
+        request.setReason(CANCEL_REASON);
+        meetingService.cancelMeeting(meeting.getId(), request, userId);
+        log.info("CALENDAR-PULL: Hủy meeting {} (đã xóa trên Google).", meeting.getId());
+    }
+
+    private void applyMove(Long userId, Meeting meeting, EventChange change) {
+        LocalDateTime start = change.startTime() != null ? change.startTime().withSecond(0).withNano(0) : null;
+        LocalDateTime end = change.endTime() != null ? change.endTime().withSecond(0).withNano(0) : null;
+        if (start != null && start.equals(meeting.getStartTime()) && end != null && end.equals(meeting.getEndTime())) {
+            return; // Không đổi giờ (vd: chính lần đẩy lên của hệ thống, hoặc chỉ sửa nội dung)
+        }
+        if (meeting.getStartTime().isBefore(LocalDateTime.now())) {
+            return;
+        }
+
+        String rejection;
+        if (start == null || end == null) {
+            rejection = "Không hỗ trợ chuyển thành sự kiện cả ngày";
+        } else if (!end.isAfter(start) || start.isBefore(LocalDateTime.now())) {
+            rejection = "Khung giờ mới không hợp lệ";
+        } else {
+            try {
+                meetingService.updateMeeting(meeting.getId(), toUpdateRequest(meeting, start, end), userId);
+                log.info("CALENDAR-PULL: Meeting {} dời sang {} - {} theo Google.", meeting.getId(), start, end);
+                return;
+            } catch (MeetingConflictException | PolicyViolationException e) {
+                rejection = e.getMessage();
+            }
+        }
+
+        // Giữ giờ của hệ thống: ghi đè lại sự kiện trên Google, báo người tổ chức
+        calendarSyncOutbox.enqueue(meeting.getId(), userId, CalendarSyncJobEntity.OP_UPDATE, meeting.getGoogleEventId());
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm dd/MM/yyyy");
+        notificationService.createNotification(meeting.getOrganizer(), String.format(
+                "Không thể dời cuộc họp '%s' theo Google Calendar (%s). Lịch được giữ lúc %s.",
+                meeting.getTitle(), rejection, meeting.getStartTime().format(formatter)), meeting);
+        log.info("CALENDAR-PULL: Từ chối dời meeting {}: {}", meeting.getId(), rejection);
+    }
+
+    // Giữ nguyên mọi thông tin khác, chỉ đổi giờ
+    private static MeetingUpdateRequest toUpdateRequest(Meeting meeting, LocalDateTime start, LocalDateTime end) {
+        MeetingUpdateRequest request = new MeetingUpdateRequest();
+        request.setTitle(meeting.getTitle());
+        request.setDescription(meeting.getDescription());
+        request.setStartTime(start);
+        request.setEndTime(end);
+        request.setRoomId(meeting.getRoom().getId());
+        request.setParticipantIds(meeting.getParticipants().stream()
+                .map(p -> p.getUser().getId())
+                .collect(Collectors.toSet()));
+        request.setDeviceIds(meeting.getDevices() == null ? null
+                : meeting.getDevices().stream().map(Device::getId).collect(Collectors.toSet()));
+        request.setGuestEmails(meeting.getGuestEmails());
+        return request;
+    }
+}
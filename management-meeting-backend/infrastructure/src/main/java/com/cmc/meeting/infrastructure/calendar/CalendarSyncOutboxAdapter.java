@@ -0,0 +1,104 @@
+package com.cmc.meeting.infrastructure.calendar;
+
+import com.cmc.meeting.infrastructure.outbox.JdbcOutboxTable;
+import com.cmc.meeting.infrastructure.outbox.JdbcOutboxTable.GroupLease;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static com.cmc.meeting.infrastructure.persistence.jpa.entity.CalendarSyncJobEntity.STATUS_DONE;
+import static com.cmc.meeting.infrastructure.persistence.jpa.entity.CalendarSyncJobEntity.STATUS_FAILED;
+import static com.cmc.meeting.infrastructure.persistence.jpa.entity.CalendarSyncJobEntity.STATUS_PENDING;
+
+/**
+ * Đọc/ghi bảng calendar_sync_job bằng JDBC (cùng connection / transaction với JPA).
+ */
+@Component
+public class CalendarSyncOutboxAdapter {
+
+    private static final String INSERT_SQL = "INSERT INTO calendar_sync_job " +
+            "(meeting_id, user_id, operation, google_event_id, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, 0, ?, ?)";
+
+    private static final String CLAIM_LOCK = "calendar-sync-claim";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcOutboxTable table;
+
+    public CalendarSyncOutboxAdapter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = new JdbcOutboxTable(jdbcTemplate, transactionManager, "calendar_sync_job",
+                STATUS_PENDING, STATUS_DONE, STATUS_FAILED, "done_at",
+                new GroupLease("leased_until", "meeting_id", CLAIM_LOCK));
+    }
+
+    /**
+     * 1 việc đồng bộ; attempts đã tính cả lần đang chạy.
+     */
+    public record SyncJob(Long id, Long meetingId, Long userId, String operation, String googleEventId, int attempts) {
+    }
+
+    // Gọi trong transaction nghiệp vụ: rollback thì không có việc nào
+    public void enqueue(Long meetingId, Long userId, String operation, String googleEventId) {
+        enqueueAll(List.of(new SyncJob(null, meetingId, userId, operation, googleEventId, 0)));
+    }
+
+    public void enqueueAll(List<SyncJob> jobs) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, jobs.stream()
+                .map(j -> new Object[] { j.meetingId(), j.userId(), j.operation(), j.googleEventId(),
+                        STATUS_PENDING, now, now })
+                .toList());
+    }
+
+    /**
+     * Lấy tối đa 'limit' việc đến hạn và thuê chúng thêm 'lease'.
+     * Theo cuộc họp: cuộc họp còn việc đang được thuê (node khác / lượt trước đang gọi Google, hoặc chưa rõ
+     * kết quả) thì không lấy thêm việc của nó -> không có 2 lời gọi Google song song cho cùng 1 cuộc họp
+     * (vd: DELETE chạy trước khi CREATE kịp lưu Event ID).
+     */
+    public List<SyncJob> claimDue(int limit, Duration lease) {
+        return table.claimDue("id, meeting_id, user_id, operation, google_event_id, attempts",
+                (rs, i) -> new SyncJob(rs.getLong("id"), rs.getLong("meeting_id"), rs.getLong("user_id"),
+                        rs.getString("operation"), rs.getString("google_event_id"), rs.getInt("attempts") + 1),
+                SyncJob::id, limit, lease);
+    }
+
+    public void markDone(Collection<Long> ids) {
+        table.markDone(ids);
+    }
+
+    // Còn lượt -> hẹn lần sau
+    public void markRetry(Collection<Long> ids, String error, LocalDateTime retryAt) {
+        table.markRetry(ids, error, retryAt);
+    }
+
+    // Hết lượt / lỗi không thể thử lại -> FAILED (giữ lại để tra cứu)
+    public void markFailed(Collection<Long> ids, String error) {
+        table.markFailed(ids, error);
+    }
+
+    // Bị giới hạn tần suất: dời lịch, trả lại lượt thử vừa tính khi claim
+    public void reschedule(Collection<Long> ids, LocalDateTime at) {
+        table.reschedule(ids, at);
+    }
+
+    // Dọn việc đã xong quá hạn lưu, theo lô nhỏ
+    public int deleteDoneBefore(LocalDateTime cutoff, int chunkSize) {
+        return table.deleteDoneBefore(cutoff, chunkSize);
+    }
+
+    public Map<String, Long> getQueueStats() {
+        return table.getQueueStats();
+    }
+}
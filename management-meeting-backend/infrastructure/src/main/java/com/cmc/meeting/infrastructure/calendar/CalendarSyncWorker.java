@@ -0,0 +1,281 @@
+package com.cmc.meeting.infrastructure.calendar;
+
+import com.cmc.meeting.application.port.cluster.ClusterLockPort;
+import com.cmc.meeting.domain.model.BookingStatus;
+import com.cmc.meeting.domain.model.Meeting;
+import com.cmc.meeting.domain.port.repository.MeetingRepository;
+import com.cmc.meeting.infrastructure.calendar.CalendarSyncOutboxAdapter.SyncJob;
+import com.cmc.meeting.infrastructure.config.AsyncExecutorConfig;
+import com.cmc.meeting.infrastructure.outbox.JdbcOutboxTable.RetryBackoff;
+import com.cmc.meeting.infrastructure.persistence.jpa.adapter.GoogleCalendarAdapter;
+import com.cmc.meeting.infrastructure.persistence.jpa.adapter.GoogleCalendarAdapter.SyncResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.cmc.meeting.infrastructure.persistence.jpa.entity.CalendarSyncJobEntity.OP_CREATE;
+import static com.cmc.meeting.infrastructure.persistence.jpa.entity.CalendarSyncJobEntity.OP_DELETE;
+import static com.cmc.meeting.infrastructure.persistence.jpa.entity.CalendarSyncJobEntity.OP_UPDATE;
+
+/**
+ * Xử lý hàng đợi calendar_sync_job.
+ *
+ * - Mỗi lượt lấy 1 lô việc đến hạn, chia theo user (chủ lịch) và chạy song song trên calendarExecutor.
+ *   Cuộc họp còn việc đang được thuê thì chưa lấy thêm (xem CalendarSyncOutboxAdapter.claimDue).
+ * - Gộp theo cuộc họp: nhiều việc chờ của cùng 1 cuộc họp chỉ thành 1 lời gọi
+ *   (có DELETE -> chỉ xóa; có CREATE -> tạo với dữ liệu mới nhất; còn lại nhiều UPDATE -> 1 PATCH).
+ *   CREATE / UPDATE luôn đọc trạng thái cuộc họp lúc chạy, nên việc cũ không ghi đè dữ liệu mới.
+ * - Token bucket theo user: phần vượt hạn mức được dời lịch (không tính là 1 lần thử).
+ * - Lỗi tạm thời (429, 5xx, mất kết nối...): thử lại với backoff lũy thừa (30s, 1m, 2m... tối đa 1h),
+ *   hết lượt hoặc lỗi không thể thử lại (400, 403...) -> FAILED.
+ */
+@Component
+public class CalendarSyncWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarSyncWorker.class);
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final RetryBackoff BACKOFF = new RetryBackoff(Duration.ofSeconds(30), Duration.ofHours(1));
+    private static final int MAX_BATCHES_PER_RUN = 10;
+    private static final String CLEANUP_LOCK = "calendar-sync-cleanup";
+    private static final Duration CLEANUP_LEASE = Duration.ofMinutes(10);
+
+    private final CalendarSyncOutboxAdapter outbox;
+    private final GoogleCalendarAdapter calendar;
+    private final MeetingRepository meetingRepository;
+    private final TaskExecutor calendarExecutor;
+    private final ClusterLockPort clusterLock;
+    private final TransactionTemplate readOnlyTx;
+    private final PerUserRateLimiter rateLimiter;
+
+    @Value("${app.calendar-sync.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.calendar-sync.max-attempts:10}")
+    private int maxAttempts;
+
+    public CalendarSyncWorker(CalendarSyncOutboxAdapter outbox,
+                              GoogleCalendarAdapter calendar,
+                              MeetingRepository meetingRepository,
+                              @Qualifier(AsyncExecutorConfig.CALENDAR_EXECUTOR) TaskExecutor calendarExecutor,
+                              ClusterLockPort clusterLock,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.calendar-sync.user-rate-per-second:5}") double userRatePerSecond,
+                              @Value("${app.calendar-sync.user-burst:20}") int userBurst) {
+        this.outbox = outbox;
+        this.calendar = calendar;
+        this.meetingRepository = meetingRepository;
+        this.calendarExecutor = calendarExecutor;
+        this.clusterLock = clusterLock;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.rateLimiter = new PerUserRateLimiter(userRatePerSecond, userBurst);
+    }
+
+    @Scheduled(fixedDelayString = "${app.calendar-sync.poll-ms:2000}")
+    public void drain() {
+        for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+            List<SyncJob> batch;
+            try {
+                batch = outbox.claimDue(batchSize, LEASE);
+            } catch (Exception e) {
+                log.error("CALENDAR-SYNC: Không đọc được hàng đợi: {}", e.getMessage());
+                return;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            Map<Long, List<SyncJob>> byUser = batch.stream()
+                    .collect(Collectors.groupingBy(SyncJob::userId, LinkedHashMap::new, Collectors.toList()));
+            CompletableFuture.allOf(byUser.entrySet().stream()
+                    .map(e -> CompletableFuture.runAsync(() -> syncUser(e.getKey(), e.getValue()), calendarExecutor))
+                    .toArray(CompletableFuture[]::new)).join();
+
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(cron = "0 20 3 * * *")
+    public void cleanupDone() {
+        if (!clusterLock.tryAcquire(CLEANUP_LOCK, CLEANUP_LEASE)) {
+            return;
+        }
+        try {
+            int deleted = outbox.deleteDoneBefore(LocalDateTime.now().minusDays(7), 1000);
+            log.info("CALENDAR-SYNC: Đã xóa {} việc đồng bộ đã xong quá 7 ngày.", deleted);
+        } finally {
+            clusterLock.release(CLEANUP_LOCK);
+        }
+    }
+
+    // ==================== XỬ LÝ THEO USER ====================
+
+    // 1 thao tác thực sự gửi lên Google, đại diện cho mọi việc chờ của 1 cuộc họp
+    private record Action(Long meetingId, String operation, String googleEventId, List<SyncJob> jobs) {
+
+        List<Long> jobIds() {
+            return jobs.stream().map(SyncJob::id).toList();
+        }
+
+        int attempts() {
+            return jobs.stream().mapToInt(SyncJob::attempts).max().orElse(1);
+        }
+    }
+
+    private void syncUser(Long userId, List<SyncJob> jobs) {
+        try {
+            if (!calendar.isLinked(userId)) {
+                // Đã hủy liên kết Google: không còn gì để đồng bộ
+                outbox.markDone(jobs.stream().map(SyncJob::id).toList());
+                return;
+            }
+
+            List<Action> actions = coalesce(jobs);
+            int granted = rateLimiter.acquireUpTo(userId, actions.size());
+            if (granted < actions.size()) {
+                List<Action> deferred = actions.subList(granted, actions.size());
+                outbox.reschedule(deferred.stream().flatMap(a -> a.jobIds().stream()).toList(),
+                        LocalDateTime.now().plus(rateLimiter.timeFor(deferred.size())));
+                actions = actions.subList(0, granted);
+            }
+            if (actions.isEmpty()) {
+                return;
+            }
+            execute(userId, actions);
+        } catch (Exception e) {
+            // Việc chưa đánh dấu sẽ tự quay lại hàng đợi khi hết hạn thuê
+            log.error("CALENDAR-SYNC: Lỗi xử lý việc của user " + userId, e);
+        }
+    }
+
+    private List<Action> coalesce(List<SyncJob> jobs) {
+        Map<Long, List<SyncJob>> byMeeting = jobs.stream()
+                .collect(Collectors.groupingBy(SyncJob::meetingId, LinkedHashMap::new, Collectors.toList()));
+        List<Action> actions = new ArrayList<>(byMeeting.size());
+        byMeeting.forEach((meetingId, meetingJobs) -> {
+            SyncJob delete = null;
+            boolean create = false;
+            for (SyncJob job : meetingJobs) {
+                if (OP_DELETE.equals(job.operation())) {
+                    delete = job;
+                } else if (OP_CREATE.equals(job.operation())) {
+                    create = true;
+                }
+            }
+            if (delete != null) {
+                actions.add(new Action(meetingId, OP_DELETE, delete.googleEventId(), meetingJobs));
+            } else {
+                // CREATE cũng tính là UPDATE khi cuộc họp đã có Google Event ID (xem execute)
+                actions.add(new Action(meetingId, create ? OP_CREATE : OP_UPDATE, null, meetingJobs));
+            }
+        });
+        return actions;
+    }
+
+    private void execute(Long userId, List<Action> actions) {
+        // DELETE không kèm Event ID -> lấy ID đã lưu trên cuộc họp (nếu lệnh tạo đã chạy xong)
+        List<Long> meetingIds = actions.stream()
+                .filter(a -> !OP_DELETE.equals(a.operation()) || a.googleEventId() == null)
+                .map(Action::meetingId)
+                .toList();
+        Map<Long, Meeting> meetings = meetingIds.isEmpty() ? Map.of()
+                : readOnlyTx.execute(status -> meetingRepository.findAllByIds(meetingIds).stream()
+                        .collect(Collectors.toMap(Meeting::getId, Function.identity())));
+
+        List<Action> deletes = new ArrayList<>();
+        Map<Long, Action> creates = new LinkedHashMap<>();
+        Map<Long, Action> updates = new LinkedHashMap<>();
+        List<Long> skipped = new ArrayList<>();
+        for (Action action : actions) {
+            Meeting meeting = meetings.get(action.meetingId());
+            if (OP_DELETE.equals(action.operation())) {
+                String eventId = action.googleEventId() != null ? action.googleEventId()
+                        : meeting != null ? meeting.getGoogleEventId() : null;
+                if (eventId == null) {
+                    skipped.addAll(action.jobIds());
+                } else {
+                    deletes.add(new Action(action.meetingId(), OP_DELETE, eventId, action.jobs()));
+                }
+                continue;
+            }
+            if (meeting == null || meeting.getStatus() != BookingStatus.CONFIRMED) {
+                // Đã bị xóa / hủy / chưa duyệt: không tạo hay sửa gì trên Google
+                skipped.addAll(action.jobIds());
+            } else if (meeting.getGoogleEventId() != null) {
+                updates.put(meeting.getId(), action);
+            } else if (OP_CREATE.equals(action.operation())) {
+                creates.put(meeting.getId(), action);
+            } else {
+                skipped.addAll(action.jobIds()); // Chưa từng tạo được trên Google thì không có gì để sửa
+            }
+        }
+        outbox.markDone(skipped);
+
+        if (!creates.isEmpty()) {
+            Map<Long, SyncResult> results = calendar.createEvents(userId,
+                    creates.keySet().stream().map(meetings::get).toList());
+            Map<Long, String> createdEventIds = new HashMap<>();
+            results.forEach((meetingId, result) -> {
+                if (result.isOk() && result.googleEventId() != null) {
+                    createdEventIds.put(meetingId, result.googleEventId());
+                }
+            });
+            if (!createdEventIds.isEmpty()) {
+                meetingRepository.updateGoogleEventIds(createdEventIds);
+            }
+            applyResults(creates, results, false);
+        }
+        if (!updates.isEmpty()) {
+            applyResults(updates, calendar.updateEvents(userId,
+                    updates.keySet().stream().map(meetings::get).toList()), true);
+        }
+        if (!deletes.isEmpty()) {
+            Map<String, Action> byEventId = new LinkedHashMap<>();
+            deletes.forEach(a -> byEventId.put(a.googleEventId(), a));
+            applyResults(byEventId, calendar.deleteEvents(userId, new ArrayList<>(byEventId.keySet())), true);
+        }
+    }
+
+    private <K> void applyResults(Map<K, Action> actions, Map<K, SyncResult> results, boolean goneIsDone) {
+        List<Long> done = new ArrayList<>();
+        actions.forEach((key, action) -> {
+            SyncResult result = results.get(key);
+            if (result == null) {
+                return; // Không có phản hồi cho thao tác này: hết hạn thuê sẽ chạy lại
+            }
+            if (result.isOk() || (goneIsDone && result.isGone())) {
+                done.addAll(action.jobIds());
+                return;
+            }
+            LocalDateTime retryAt = result.retryable() ? BACKOFF.retryAt(action.attempts(), maxAttempts) : null;
+            if (retryAt == null) {
+                log.warn("CALENDAR-SYNC: {} meeting {} thất bại (HTTP {}): {}", action.operation(),
+                        action.meetingId(), result.status(), result.error());
+                outbox.markFailed(action.jobIds(), result.error());
+            } else {
+                outbox.markRetry(action.jobIds(), result.error(), retryAt);
+            }
+        });
+        outbox.markDone(done);
+    }
+}
@@ -0,0 +1,65 @@
+package com.cmc.meeting.infrastructure.calendar;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token bucket theo user: mỗi user được tối đa 'burst' request dồn dập, sau đó 'ratePerSecond' request / giây.
+ * Giữ trong bộ nhớ từng node (hạn mức Google tính theo user; với N replica tổng tối đa là N lần).
+ */
+public class PerUserRateLimiter {
+
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final double ratePerSecond;
+    private final int burst;
+    private final Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public PerUserRateLimiter(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("ratePerSecond và burst phải > 0");
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+    }
+
+    private final class Bucket {
+        private double tokens = burst;
+        private long refilledAtNanos = System.nanoTime();
+
+        synchronized int take(int wanted, long now) {
+            refill(now);
+            int granted = (int) Math.min(wanted, Math.floor(tokens));
+            tokens -= granted;
+            return granted;
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= burst;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(burst, tokens + (now - refilledAtNanos) / 1e9 * ratePerSecond);
+            refilledAtNanos = now;
+        }
+    }
+
+    /**
+     * Lấy tối đa 'wanted' lượt; trả về số lượt được cấp (có thể 0).
+     */
+    public int acquireUpTo(Long userId, int wanted) {
+        long now = System.nanoTime();
+        if (buckets.size() > PRUNE_THRESHOLD) {
+            // Bucket đầy = user lâu không gọi, bỏ đi cũng không đổi kết quả
+            buckets.values().removeIf(b -> b.isFull(now));
+        }
+        return buckets.computeIfAbsent(userId, k -> new Bucket()).take(wanted, now);
+    }
+
+    // Thời gian chờ tới khi đủ 'permits' lượt (tính từ bucket rỗng)
+    public Duration timeFor(int permits) {
+        return Duration.ofMillis((long) Math.ceil(permits * 1000.0 / ratePerSecond));
+    }
+}
@@ -0,0 +1,159 @@
+package com.cmc.meeting.infrastructure.cluster;
+
+import com.cmc.meeting.application.port.cluster.ClusterLockPort;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ClusterLockPort trên bảng scheduler_lock (MySQL là nguồn sự thật chung của mọi replica, không cần thêm hạ tầng).
+ *
+ * - Giành khóa: INSERT IGNORE (chưa có dòng) hoặc UPDATE khi khóa của chính mình / đã hết hạn.
+ *   Thời hạn tính bằng NOW(6) của CSDL nên không phụ thuộc đồng hồ từng pod.
+ * - Luôn chạy transaction riêng (REQUIRES_NEW): không giữ row lock suốt transaction của tác vụ.
+ * - Khóa đang giữ được gia hạn mỗi RENEW_INTERVAL; trong khoảng lease/2 kể từ lần gia hạn cuối,
+ *   tryAcquire trả true ngay không cần truy vấn. Giành hụt thì lease/3 sau mới thử lại.
+ */
+@Component
+public class JdbcClusterLockAdapter implements ClusterLockPort {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcClusterLockAdapter.class);
+
+    private static final long RENEW_INTERVAL_MS = 10_000;
+    private static final Duration MIN_LEASE = Duration.ofSeconds(30);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+
+    private final Map<String, Held> held = new ConcurrentHashMap<>();
+    private final Map<String, Long> retryAfterNanos = new ConcurrentHashMap<>();
+
+    public JdbcClusterLockAdapter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  @Value("${app.cluster.node-id:${HOSTNAME:local}}") String nodeName) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Thêm hậu tố ngẫu nhiên: pod khởi động lại cùng tên không "thừa kế" khóa của bản cũ
+        this.nodeId = nodeName + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static final class Held {
+        final Duration lease;
+        volatile long renewedAtNanos;
+
+        Held(Duration lease, long renewedAtNanos) {
+            this.lease = lease;
+            this.renewedAtNanos = renewedAtNanos;
+        }
+
+        boolean isFresh(long now) {
+            return now - renewedAtNanos < lease.toNanos() / 2;
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(String name, Duration lease) {
+        Duration effectiveLease = lease.compareTo(MIN_LEASE) < 0 ? MIN_LEASE : lease;
+        long now = System.nanoTime();
+        Held current = held.get(name);
+        if (current != null && current.isFresh(now)) {
+            return true;
+        }
+        Long retryAfter = retryAfterNanos.get(name);
+        if (current == null && retryAfter != null && now - retryAfter < 0) {
+            return false;
+        }
+
+        boolean acquired;
+        try {
+            acquired = Boolean.TRUE.equals(transactionTemplate.execute(status -> acquireRow(name, effectiveLease)));
+        } catch (Exception e) {
+            log.warn("CLUSTER-LOCK: Không giành được khóa '{}' (lỗi CSDL): {}", name, e.getMessage());
+            acquired = false;
+        }
+
+        if (acquired) {
+            if (current == null) {
+                log.info("CLUSTER-LOCK: Node {} giữ khóa '{}'.", nodeId, name);
+            }
+            held.put(name, new Held(effectiveLease, now));
+            retryAfterNanos.remove(name);
+        } else {
+            held.remove(name);
+            retryAfterNanos.put(name, now + effectiveLease.toNanos() / 3);
+        }
+        return acquired;
+    }
+
+    private boolean acquireRow(String name, Duration lease) {
+        long leaseMicros = lease.toNanos() / 1000;
+        int inserted = jdbcTemplate.update(
+                "INSERT IGNORE INTO scheduler_lock (name, locked_by, locked_at, lock_until) " +
+                "VALUES (?, ?, NOW(6), TIMESTAMPADD(MICROSECOND, ?, NOW(6)))",
+                name, nodeId, leaseMicros);
+        if (inserted == 1) {
+            return true;
+        }
+        return jdbcTemplate.update(
+                "UPDATE scheduler_lock SET locked_by = ?, locked_at = NOW(6), " +
+                "lock_until = TIMESTAMPADD(MICROSECOND, ?, NOW(6)) " +
+                "WHERE name = ? AND (locked_by = ? OR lock_until <= NOW(6))",
+                nodeId, leaseMicros, name, nodeId) == 1;
+    }
+
+    @Override
+    public void release(String name) {
+        held.remove(name);
+    }
+
+    // Gia hạn mọi khóa đang giữ (kể cả khi tác vụ đang chạy dài như dọn thông báo)
+    @Scheduled(fixedDelay = RENEW_INTERVAL_MS)
+    public void renewHeld() {
+        held.forEach((name, lock) -> {
+            long now = System.nanoTime();
+            try {
+                int updated = transactionTemplate.execute(status -> jdbcTemplate.update(
+                        "UPDATE scheduler_lock SET lock_until = TIMESTAMPADD(MICROSECOND, ?, NOW(6)) " +
+                        "WHERE name = ? AND locked_by = ?",
+                        lock.lease.toNanos() / 1000, name, nodeId));
+                if (updated == 1) {
+                    lock.renewedAtNanos = now;
+                } else {
+                    // Khóa đã hết hạn và node khác giành mất (vd: pod bị treo lâu)
+                    held.remove(name, lock);
+                    log.warn("CLUSTER-LOCK: Node {} mất khóa '{}'.", nodeId, name);
+                }
+            } catch (Exception e) {
+                // Không gia hạn được: quá lease/2 thì tryAcquire tự hỏi lại CSDL
+                log.warn("CLUSTER-LOCK: Lỗi gia hạn khóa '{}': {}", name, e.getMessage());
+            }
+        });
+    }
+
+    // Tắt ứng dụng (rolling update): trả khóa ngay để replica khác tiếp quản không phải chờ hết hạn
+    @PreDestroy
+    public void releaseAllOnShutdown() {
+        for (String name : held.keySet()) {
+            try {
+                jdbcTemplate.update("UPDATE scheduler_lock SET lock_until = NOW(6) WHERE name = ? AND locked_by = ?",
+                        name, nodeId);
+            } catch (Exception e) {
+                log.debug("CLUSTER-LOCK: Không trả được khóa '{}': {}", name, e.getMessage());
+            }
+        }
+        held.clear();
+    }
+}
@@ -0,0 +1,58 @@
+package com.cmc.meeting.infrastructure.config;
+
+import com.cmc.meeting.infrastructure.async.BoundedVirtualThreadExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Mỗi loại công việc @Async có executor riêng: Google Calendar chậm không làm nghẽn email / thông báo
+ * và ngược lại. Dùng: @Async(AsyncExecutorConfig.EMAIL_EXECUTOR).
+ * calendarExecutor chạy các lô đồng bộ của CalendarSyncWorker (song song theo user).
+ * Số liệu từng executor: GET /api/v1/admin/executors.
+ */
+@Configuration
+public class AsyncExecutorConfig {
+
+    public static final String EMAIL_EXECUTOR = "emailExecutor";
+    public static final String CALENDAR_EXECUTOR = "calendarExecutor";
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+    public static final String UPLOAD_EXECUTOR = "uploadExecutor";
+
+    // @Async không ghi tên executor sẽ dùng bean tên "taskExecutor"
+    @Bean(name = "taskExecutor")
+    public BoundedVirtualThreadExecutor taskExecutor(
+            @Value("${app.executors.default.concurrency:8}") int concurrency,
+            @Value("${app.executors.default.queue-capacity:1000}") int queueCapacity) {
+        return new BoundedVirtualThreadExecutor("async", concurrency, queueCapacity);
+    }
+
+    @Bean(name = EMAIL_EXECUTOR)
+    public BoundedVirtualThreadExecutor emailExecutor(
+            @Value("${app.executors.email.concurrency:4}") int concurrency,
+            @Value("${app.executors.email.queue-capacity:1000}") int queueCapacity) {
+        return new BoundedVirtualThreadExecutor("email", concurrency, queueCapacity);
+    }
+
+    @Bean(name = CALENDAR_EXECUTOR)
+    public BoundedVirtualThreadExecutor calendarExecutor(
+            @Value("${app.executors.calendar.concurrency:8}") int concurrency,
+            @Value("${app.executors.calendar.queue-capacity:500}") int queueCapacity) {
+        return new BoundedVirtualThreadExecutor("calendar", concurrency, queueCapacity);
+    }
+
+    @Bean(name = NOTIFICATION_EXECUTOR)
+    public BoundedVirtualThreadExecutor notificationExecutor(
+            @Value("${app.executors.notification.concurrency:16}") int concurrency,
+            @Value("${app.executors.notification.queue-capacity:2000}") int queueCapacity) {
+        return new BoundedVirtualThreadExecutor("notification", concurrency, queueCapacity);
+    }
+
+    // Tải ảnh / file lên Cloudinary song song (CloudinaryAdapter.uploadFiles)
+    @Bean(name = UPLOAD_EXECUTOR)
+    public BoundedVirtualThreadExecutor uploadExecutor(
+            @Value("${app.executors.upload.concurrency:4}") int concurrency,
+            @Value("${app.executors.upload.queue-capacity:200}") int queueCapacity) {
+        return new BoundedVirtualThreadExecutor("upload", concurrency, queueCapacity);
+    }
+}
@@ -0,0 +1,74 @@
+package com.cmc.meeting.infrastructure.event;
+
+import com.cmc.meeting.application.port.service.NotificationService;
+import com.cmc.meeting.domain.event.MeetingApprovedEvent;
+import com.cmc.meeting.domain.model.Meeting;
+import com.cmc.meeting.domain.model.MeetingParticipant;
+import com.cmc.meeting.domain.model.Notification;
+import com.cmc.meeting.domain.model.ParticipantStatus;
+import com.cmc.meeting.domain.port.repository.MeetingRepository;
+import com.cmc.meeting.infrastructure.config.AsyncExecutorConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Gửi thông báo sau khi Admin duyệt phòng (trước đây làm đồng bộ trong request của Admin).
+ * Chạy nền sau khi trạng thái đã commit; mọi thông báo được ghi trong 1 transaction.
+ */
+@Component
+public class MeetingApprovalListener {
+
+    private static final Logger log = LoggerFactory.getLogger(MeetingApprovalListener.class);
+
+    private final MeetingRepository meetingRepository;
+    private final NotificationService notificationService;
+
+    public MeetingApprovalListener(MeetingRepository meetingRepository, NotificationService notificationService) {
+        this.meetingRepository = meetingRepository;
+        this.notificationService = notificationService;
+    }
+
+    @Async(AsyncExecutorConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void handleMeetingApproved(MeetingApprovedEvent event) {
+        Meeting meeting = meetingRepository.findById(event.getMeetingId()).orElse(null);
+        if (meeting == null) {
+            log.warn("EVENT: Không tìm thấy cuộc họp vừa duyệt (ID: {}), bỏ qua thông báo.", event.getMeetingId());
+            return;
+        }
+
+        // 1. Organizer của lịch được duyệt
+        notificationService.createNotification(meeting.getOrganizer(),
+                "Phòng họp '" + meeting.getRoom().getName() + "' đã được phê duyệt!", meeting);
+
+        // 2. Lời mời cho người tham gia
+        String inviteMsg = String.format("%s đã mời bạn tham gia cuộc họp: %s",
+                meeting.getOrganizer().getFullName(), meeting.getTitle());
+        notificationService.createNotifications(meeting.getParticipants().stream()
+                .filter(p -> p.getStatus() == ParticipantStatus.PENDING)
+                .map(MeetingParticipant::getUser)
+                .collect(Collectors.toList()), inviteMsg, meeting);
+
+        // 3. Organizer của các yêu cầu bị từ chối tự động
+        if (!event.getRejectedMeetingIds().isEmpty()) {
+            List<Meeting> rejected = meetingRepository.findAllByIds(event.getRejectedMeetingIds());
+            String rejectMsg = "Yêu cầu đặt phòng '" + meeting.getRoom().getName()
+                    + "' của bạn bị TỪ CHỐI TỰ ĐỘNG. Lý do: Đã duyệt cho người khác.";
+            // Cùng nội dung, mỗi dòng trỏ tới yêu cầu bị từ chối của chính người đó: 1 lệnh INSERT batch + 1 lần đẩy
+            notificationService.createNotifications(rejected.stream()
+                    .map(loser -> new Notification(rejectMsg, loser.getOrganizer(), loser))
+                    .collect(Collectors.toList()));
+        }
+        log.info("EVENT: Đã gửi thông báo duyệt cuộc họp {} ({} yêu cầu bị từ chối tự động).",
+                meeting.getId(), event.getRejectedMeetingIds().size());
+    }
+}
@@ -3,26 +3,35 @@ package com.cmc.meeting.infrastructure.event;
 import com.cmc.meeting.application.port.notification.EmailNotificationPort;
 import com.cmc.meeting.domain.event.MeetingCancelledEvent;
 import com.cmc.meeting.domain.event.MeetingCreatedEvent;
+import com.cmc.meeting.domain.event.MeetingSeriesCreatedEvent;
 import com.cmc.meeting.domain.event.MeetingUpdatedEvent;
+import com.cmc.meeting.domain.model.BookingStatus;
 import com.cmc.meeting.domain.model.Meeting;
 import com.cmc.meeting.domain.model.MeetingParticipant;
 import com.cmc.meeting.domain.model.ParticipantStatus;
 import com.cmc.meeting.domain.port.repository.MeetingRepository;
+import com.cmc.meeting.infrastructure.calendar.CalendarSyncOutboxAdapter;
+import com.cmc.meeting.infrastructure.calendar.CalendarSyncOutboxAdapter.SyncJob;
+import com.cmc.meeting.infrastructure.notification.SplicedEmailBody;
 import com.cmc.meeting.infrastructure.notification.ThymeleafEmailService;
-import com.cmc.meeting.infrastructure.persistence.jpa.adapter.GoogleCalendarAdapter;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.CalendarSyncJobEntity;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
+import org.thymeleaf.exceptions.TemplateEngineException;
 
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Component
 public class MeetingEventListener {
@@ -40,106 +49,113 @@ public class MeetingEventListener {
     private final EmailNotificationPort emailSender;
     private final MeetingRepository meetingRepository;
     private final ThymeleafEmailService thymeleafService;
-    private final GoogleCalendarAdapter googleCalendarAdapter;
+    private final CalendarSyncOutboxAdapter calendarSyncOutbox;
 
     public MeetingEventListener(EmailNotificationPort emailSender,
                                 MeetingRepository meetingRepository,
                                 ThymeleafEmailService thymeleafService,
-                                GoogleCalendarAdapter googleCalendarAdapter) {
+                                CalendarSyncOutboxAdapter calendarSyncOutbox) {
         this.emailSender = emailSender;
         this.meetingRepository = meetingRepository;
         this.thymeleafService = thymeleafService;
-        this.googleCalendarAdapter = googleCalendarAdapter;
+        this.calendarSyncOutbox = calendarSyncOutbox;
     }
 
-    // --- 1. XỬ LÝ TẠO MỚI ---
-    @Async
-    @TransactionalEventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void handleMeetingCreation(MeetingCreatedEvent event) {
-        log.info("EVENT RECEIVED [Async]: Xử lý sự kiện tạo cuộc họp (ID: {}).", event.getMeetingId());
+    // --- 1-3. GOOGLE CALENDAR: ghi việc vào hàng đợi calendar_sync_job NGAY TRONG transaction nghiệp vụ ---
+    // CalendarSyncWorker gọi Google sau commit (thử lại khi lỗi, gộp việc cùng cuộc họp, giới hạn tần suất).
+    // Lịch nằm trên Google Calendar của người tổ chức.
 
-        Meeting meeting;
-        try {
-            meeting = meetingRepository.findById(event.getMeetingId())
-                    .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy meeting ID: " + event.getMeetingId()));
-        } catch (Exception e) {
-            log.error("Lỗi Fatal: Không lấy được thông tin cuộc họp. Dừng xử lý.", e);
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void enqueueCalendarCreate(MeetingCreatedEvent event) {
+        meetingRepository.findById(event.getMeetingId())
+                .filter(meeting -> meeting.getStatus() == BookingStatus.CONFIRMED)
+                .ifPresent(meeting -> calendarSyncOutbox.enqueue(meeting.getId(),
+                        meeting.getOrganizer().getId(), CalendarSyncJobEntity.OP_CREATE, null));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void enqueueSeriesCalendarCreate(MeetingSeriesCreatedEvent event) {
+        List<SyncJob> jobs = meetingRepository.findAllByIds(event.getMeetingIds()).stream()
+                .filter(meeting -> meeting.getStatus() == BookingStatus.CONFIRMED)
+                .map(meeting -> new SyncJob(null, meeting.getId(), meeting.getOrganizer().getId(),
+                        CalendarSyncJobEntity.OP_CREATE, null, 0))
+                .toList();
+        calendarSyncOutbox.enqueueAll(jobs);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void enqueueCalendarUpdate(MeetingUpdatedEvent event) {
+        // Chỉ cuộc họp đã có trên Google (sự kiện sửa phát cho mọi cuộc họp)
+        if (event.getGoogleEventId() == null) {
             return;
         }
+        meetingRepository.findById(event.getMeetingId())
+                .filter(meeting -> meeting.getStatus() == BookingStatus.CONFIRMED)
+                .ifPresent(meeting -> calendarSyncOutbox.enqueue(meeting.getId(),
+                        meeting.getOrganizer().getId(), CalendarSyncJobEntity.OP_UPDATE, event.getGoogleEventId()));
+    }
 
-        // Gửi Email
-        try {
-            sendInvitationEmails(meeting);
-        } catch (Exception e) {
-            log.error("Lỗi khi gửi Email thông báo: ", e);
-        }
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void enqueueCalendarDelete(MeetingCancelledEvent event) {
+        // Luôn ghi việc xóa, kể cả khi chưa có Event ID: lệnh tạo có thể còn trong hàng đợi / đang chạy.
+        // Worker lấy Event ID đã lưu trên cuộc họp lúc chạy; không có thì bỏ qua.
+        Long ownerId = meetingRepository.findById(event.getMeetingId())
+                .map(meeting -> meeting.getOrganizer().getId())
+                .orElse(event.getUserId());
+        calendarSyncOutbox.enqueue(event.getMeetingId(), ownerId, CalendarSyncJobEntity.OP_DELETE,
+                event.getGoogleEventId());
+    }
 
-        // Đồng bộ Google Calendar
-        try {
-            String googleEventId = googleCalendarAdapter.pushMeetingToGoogle(
-                meeting.getOrganizer().getId(), 
-                meeting
-            );
-
-            if (googleEventId != null) {
-                meeting.setGoogleEventId(googleEventId);
-                meetingRepository.save(meeting); 
-                log.info(">>> Đã lưu Google Event ID '{}' vào Database cho Meeting {}", googleEventId, meeting.getId());
+    // --- 4. EMAIL: ghi vào outbox NGAY TRONG transaction nghiệp vụ ---
+    // Rollback thì không có email nào; commit rồi thì chắc chắn được gửi (EmailOutboxDispatcher).
+    // Chỉ render + INSERT (không chạm SMTP) nên không làm chậm request đáng kể.
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void enqueueInvitationEmails(MeetingCreatedEvent event) {
+        enqueue(event.getMeetingId(), this::sendInvitationEmails);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void enqueueSeriesInvitationEmails(MeetingSeriesCreatedEvent event) {
+        Set<Long> createdIds = new HashSet<>(event.getMeetingIds());
+        for (Meeting meeting : meetingRepository.findAllBySeriesId(event.getSeriesId())) {
+            if (createdIds.contains(meeting.getId()) && meeting.getStatus() == BookingStatus.CONFIRMED) {
+                renderAndEnqueue(meeting, this::sendInvitationEmails);
             }
-        } catch (Exception e) {
-            log.error("Lỗi khi đồng bộ Google Calendar: ", e);
         }
     }
 
-    // --- 2. XỬ LÝ CẬP NHẬT ---
-    @Async
-    @TransactionalEventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void handleMeetingUpdate(MeetingUpdatedEvent event) {
-        log.info("EVENT: Cập nhật cuộc họp ID {}, Google ID: {}", event.getMeetingId(), event.getGoogleEventId());
-        try {
-            Meeting meeting = meetingRepository.findById(event.getMeetingId())
-                    .orElseThrow(() -> new EntityNotFoundException("Meeting not found"));
-
-            // A. Đồng bộ Google
-            googleCalendarAdapter.updateMeetingOnGoogle(
-                event.getUserId(), 
-                event.getGoogleEventId(), 
-                meeting
-            );
-            
-            // B. Gửi Email thông báo cập nhật
-            sendUpdateEmails(meeting);
-
-        } catch (Exception e) {
-            log.error("Lỗi handle update event: ", e);
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void enqueueUpdateEmails(MeetingUpdatedEvent event) {
+        enqueue(event.getMeetingId(), meeting -> {
+            if (meeting.getStatus() == BookingStatus.CONFIRMED) {
+                sendUpdateEmails(meeting);
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void enqueueCancellationEmails(MeetingCancelledEvent event) {
+        // Lịch chờ duyệt chưa gửi thư mời nào -> không gửi thư hủy
+        if (event.getPreviousStatus() != BookingStatus.CONFIRMED) {
+            return;
         }
+        enqueue(event.getMeetingId(), this::sendCancellationEmails);
+    }
+
+    private void enqueue(Long meetingId, Consumer<Meeting> sender) {
+        Meeting meeting = meetingRepository.findById(meetingId)
+                .orElseThrow(() -> new EntityNotFoundException("Không tìm thấy meeting ID: " + meetingId));
+        renderAndEnqueue(meeting, sender);
     }
 
-    // --- 3. XỬ LÝ HỦY ---
-    @Async
-    @TransactionalEventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW) 
-    public void handleMeetingCancellation(MeetingCancelledEvent event) {
-        log.info("EVENT: Hủy cuộc họp ID {}, Google ID: {}", event.getMeetingId(), event.getGoogleEventId());
+    // Chỉ bỏ qua lỗi template (nội dung admin sửa sai...): không được làm hỏng nghiệp vụ chính.
+    // Lỗi ghi outbox thì để lan ra -> rollback cả transaction, không có lịch nào commit mà thiếu email.
+    private void renderAndEnqueue(Meeting meeting, Consumer<Meeting> sender) {
         try {
-            // A. Đồng bộ Google (Xóa)
-            if (event.getGoogleEventId() != null) {
-                googleCalendarAdapter.deleteMeetingFromGoogle(
-                    event.getUserId(), 
-                    event.getGoogleEventId()
-                );
-            }
-            
-            // B. Gửi Email thông báo hủy
-            Meeting meeting = meetingRepository.findById(event.getMeetingId())
-                    .orElseThrow(() -> new EntityNotFoundException("Meeting not found"));
-            
-            sendCancellationEmails(meeting);
-
-        } catch (Exception e) {
-            log.error("Lỗi handle cancel event: ", e);
+            sender.accept(meeting);
+        } catch (TemplateEngineException e) {
+            log.error("Lỗi template email cho meeting {}: ", meeting.getId(), e);
         }
     }
 
@@ -153,15 +169,30 @@ public class MeetingEventListener {
         // Sử dụng Backend URL (API) cho link xác nhận tham gia
         String baseUrl = backendBaseUrl + respondEndpoint;
 
-        if (meeting.getParticipants() != null) {
-            for (MeetingParticipant p : meeting.getParticipants()) {
-                if (p.getStatus() == ParticipantStatus.PENDING && p.getResponseToken() != null) {
-                    variables.put("acceptUrl", String.format("%s?token=%s&status=ACCEPTED", baseUrl, p.getResponseToken()));
-                    variables.put("declineUrl", String.format("%s?token=%s&status=DECLINED", baseUrl, p.getResponseToken()));
-                    String htmlBody = thymeleafService.processTemplate(internalTemplateKey, variables);
-                    emailSender.sendHtmlEmail(p.getUser().getUsername(), subject, htmlBody);
-                }
+        List<MeetingParticipant> invitees = meeting.getParticipants() == null ? List.of()
+                : meeting.getParticipants().stream()
+                        .filter(p -> p.getStatus() == ParticipantStatus.PENDING && p.getResponseToken() != null)
+                        .toList();
+        if (!invitees.isEmpty()) {
+            // Render 1 lần với placeholder cho 2 link, sau đó chỉ ghép chuỗi cho từng người
+            String acceptPlaceholder = SplicedEmailBody.newPlaceholder("accept");
+            String declinePlaceholder = SplicedEmailBody.newPlaceholder("decline");
+            variables.put("acceptUrl", acceptPlaceholder);
+            variables.put("declineUrl", declinePlaceholder);
+            SplicedEmailBody body = SplicedEmailBody.of(
+                    thymeleafService.processTemplate(internalTemplateKey, variables),
+                    List.of(acceptPlaceholder, declinePlaceholder));
+
+            Map<String, String> bodies = new LinkedHashMap<>();
+            for (MeetingParticipant p : invitees) {
+                bodies.put(p.getUser().getUsername(), body.fill(
+                        String.format("%s?token=%s&status=ACCEPTED", baseUrl, p.getResponseToken()),
+                        String.format("%s?token=%s&status=DECLINED", baseUrl, p.getResponseToken())));
             }
+            emailSender.sendHtmlEmails(bodies, subject);
+            // Link phản hồi là của riêng từng người: không để lọt sang email khách mời
+            variables.remove("acceptUrl");
+            variables.remove("declineUrl");
         }
         sendGuestEmails(meeting, subject, variables, "email.template.guest");
         log.info("Đã gửi email mời họp.");
@@ -181,11 +212,10 @@ public class MeetingEventListener {
 
         // Gửi cho tất cả (trừ người từ chối)
         if (meeting.getParticipants() != null) {
-            for (MeetingParticipant p : meeting.getParticipants()) {
-                if (p.getStatus() != ParticipantStatus.DECLINED) {
-                    emailSender.sendHtmlEmail(p.getUser().getUsername(), subject, htmlBody);
-                }
-            }
+            emailSender.sendHtmlEmail(meeting.getParticipants().stream()
+                    .filter(p -> p.getStatus() != ParticipantStatus.DECLINED)
+                    .map(p -> p.getUser().getUsername())
+                    .toList(), subject, htmlBody);
         }
         sendGuestEmails(meeting, subject, variables, templateKey);
         log.info("Đã gửi email cập nhật.");
@@ -201,9 +231,9 @@ public class MeetingEventListener {
         String htmlBody = thymeleafService.processTemplate(templateKey, variables);
 
         if (meeting.getParticipants() != null) {
-            for (MeetingParticipant p : meeting.getParticipants()) {
-                emailSender.sendHtmlEmail(p.getUser().getUsername(), subject, htmlBody);
-            }
+            emailSender.sendHtmlEmail(meeting.getParticipants().stream()
+                    .map(p -> p.getUser().getUsername())
+                    .toList(), subject, htmlBody);
         }
         sendGuestEmails(meeting, subject, variables, templateKey);
         log.info("Đã gửi email hủy họp.");
@@ -212,9 +242,7 @@ public class MeetingEventListener {
     private void sendGuestEmails(Meeting meeting, String subject, Map<String, Object> variables, String templateKey) {
         if (meeting.getGuestEmails() != null && !meeting.getGuestEmails().isEmpty()) {
             String htmlBody = thymeleafService.processTemplate(templateKey, variables);
-            for (String guestEmail : meeting.getGuestEmails()) {
-                emailSender.sendHtmlEmail(guestEmail, subject, htmlBody);
-            }
+            emailSender.sendHtmlEmail(meeting.getGuestEmails(), subject, htmlBody);
         }
     }
 
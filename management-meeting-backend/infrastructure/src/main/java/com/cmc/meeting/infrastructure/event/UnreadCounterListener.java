@@ -0,0 +1,40 @@
+package com.cmc.meeting.infrastructure.event;
+
+import com.cmc.meeting.application.port.notification.UnreadCounterPort;
+import com.cmc.meeting.domain.event.NotificationsCreatedEvent;
+import com.cmc.meeting.domain.event.NotificationsReadEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Cập nhật bộ đếm chưa đọc SAU KHI COMMIT (rollback thì không đụng tới Redis).
+ * Chạy đồng bộ (không @Async) để ngay request kế tiếp của user đã thấy số mới.
+ */
+@Component
+public class UnreadCounterListener {
+
+    private final UnreadCounterPort unreadCounter;
+
+    public UnreadCounterListener(UnreadCounterPort unreadCounter) {
+        this.unreadCounter = unreadCounter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationsCreated(NotificationsCreatedEvent event) {
+        Map<Long, Long> deltas = event.getNotifications().stream()
+                .collect(Collectors.groupingBy(n -> n.getUser().getId(), Collectors.counting()));
+        unreadCounter.increment(deltas);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationsRead(NotificationsReadEvent event) {
+        if (event.isAll()) {
+            unreadCounter.reset(event.getUserId());
+        } else {
+            unreadCounter.decrement(event.getUserId());
+        }
+    }
+}
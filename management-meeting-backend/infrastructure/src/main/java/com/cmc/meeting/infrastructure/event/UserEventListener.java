@@ -4,6 +4,7 @@ import com.cmc.meeting.application.port.notification.EmailNotificationPort;
 import com.cmc.meeting.domain.event.UserCreatedEvent;
 import com.cmc.meeting.domain.model.User;
 import com.cmc.meeting.domain.port.repository.UserRepository;
+import com.cmc.meeting.infrastructure.config.AsyncExecutorConfig;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,7 +29,7 @@ public class UserEventListener {
      * Lắng nghe sự kiện tạo User (Sau khi CSDL đã commit)
      * và gọi Port để gửi email chào mừng.
      */
-    @Async
+    @Async(AsyncExecutorConfig.EMAIL_EXECUTOR)
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void handleUserCreation(UserCreatedEvent event) {
         log.info("EVENT RECEIVED [Async, After Commit]: Xử lý sự kiện tạo user (ID: {}).", event.getUserId());
@@ -0,0 +1,110 @@
+package com.cmc.meeting.infrastructure.notification;
+
+import com.cmc.meeting.application.port.notification.EmailOutboxPort;
+import com.cmc.meeting.infrastructure.outbox.JdbcOutboxTable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static com.cmc.meeting.infrastructure.persistence.jpa.entity.EmailOutboxEntity.STATUS_FAILED;
+import static com.cmc.meeting.infrastructure.persistence.jpa.entity.EmailOutboxEntity.STATUS_PENDING;
+import static com.cmc.meeting.infrastructure.persistence.jpa.entity.EmailOutboxEntity.STATUS_SENT;
+
+/**
+ * Đọc/ghi bảng email_outbox bằng JDBC (cùng connection / transaction với JPA).
+ */
+@Component
+public class EmailOutboxAdapter implements EmailOutboxPort {
+
+    private static final String INSERT_SQL = "INSERT INTO email_outbox " +
+            "(recipient, subject, body, status, attempts, next_attempt_at, created_at) VALUES (?, ?, ?, ?, 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcOutboxTable table;
+
+    public EmailOutboxAdapter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = new JdbcOutboxTable(jdbcTemplate, transactionManager, "email_outbox",
+                STATUS_PENDING, STATUS_SENT, STATUS_FAILED, "sent_at");
+    }
+
+    /**
+     * 1 email đã được "thuê" để gửi.
+     */
+    public record OutboxEmail(Long id, String recipient, String subject, String body, int attempts) {
+    }
+
+    @Override
+    public void enqueue(String to, String subject, String htmlBody) {
+        enqueueAll(List.of(to), subject, htmlBody);
+    }
+
+    @Override
+    public void enqueueAll(Collection<String> recipients, String subject, String htmlBody) {
+        // Bỏ trùng (vd: khách mời trùng email nội bộ)
+        Map<String, String> bodies = new LinkedHashMap<>();
+        for (String recipient : new LinkedHashSet<>(recipients)) {
+            bodies.put(recipient, htmlBody);
+        }
+        enqueueAll(bodies, subject);
+    }
+
+    @Override
+    public void enqueueAll(Map<String, String> htmlBodyByRecipient, String subject) {
+        List<Object[]> rows = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        htmlBodyByRecipient.forEach((recipient, htmlBody) -> {
+            if (recipient != null && !recipient.isBlank()) {
+                rows.add(new Object[] { recipient.trim(), subject, htmlBody, STATUS_PENDING, now, now });
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    /**
+     * Lấy tối đa 'limit' email đến hạn và dời next_attempt_at thêm 'lease' (transaction riêng, rất ngắn).
+     * SKIP LOCKED: nhiều node cùng chạy dispatcher không lấy trùng; node chết giữa chừng thì
+     * hết hạn thuê email tự quay lại hàng đợi.
+     */
+    public List<OutboxEmail> claimDue(int limit, Duration lease) {
+        return table.claimDue("id, recipient, subject, body, attempts",
+                (rs, i) -> new OutboxEmail(rs.getLong("id"), rs.getString("recipient"),
+                        rs.getString("subject"), rs.getString("body"), rs.getInt("attempts") + 1),
+                OutboxEmail::id, limit, lease);
+    }
+
+    public void markSent(Collection<Long> ids) {
+        table.markDone(ids);
+    }
+
+    // Hết lượt thử -> FAILED (giữ lại để tra cứu), còn lượt -> hẹn lần sau
+    public void markFailed(Long id, String error, LocalDateTime retryAt) {
+        if (retryAt == null) {
+            table.markFailed(List.of(id), error);
+        } else {
+            table.markRetry(List.of(id), error, retryAt);
+        }
+    }
+
+    // Dọn email đã gửi quá hạn lưu, theo lô nhỏ
+    public int deleteSentBefore(LocalDateTime cutoff, int chunkSize) {
+        return table.deleteDoneBefore(cutoff, chunkSize);
+    }
+
+    @Override
+    public Map<String, Long> getQueueStats() {
+        return table.getQueueStats();
+    }
+}
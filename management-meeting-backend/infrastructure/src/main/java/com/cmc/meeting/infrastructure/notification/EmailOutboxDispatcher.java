@@ -0,0 +1,142 @@
+package com.cmc.meeting.infrastructure.notification;
+
+import com.cmc.meeting.application.port.cluster.ClusterLockPort;
+import com.cmc.meeting.infrastructure.notification.EmailOutboxAdapter.OutboxEmail;
+import com.cmc.meeting.infrastructure.outbox.JdbcOutboxTable.RetryBackoff;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gửi email từ hàng đợi email_outbox.
+ *
+ * - Mỗi lượt lấy 1 lô email đến hạn và gửi bằng JavaMailSender.send(MimeMessage...):
+ *   cả lô dùng CHUNG 1 kết nối SMTP (thay vì mở/đóng kết nối cho từng email).
+ * - Lỗi từng email: thử lại với backoff lũy thừa (30s, 1m, 2m... tối đa 1h), hết lượt -> FAILED.
+ * - Email đã gửi được giữ 7 ngày rồi xóa (chỉ 1 replica dọn, theo CLEANUP_LOCK).
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final RetryBackoff BACKOFF = new RetryBackoff(Duration.ofSeconds(30), Duration.ofHours(1));
+    private static final int MAX_BATCHES_PER_RUN = 20;
+    private static final String CLEANUP_LOCK = "email-outbox-cleanup";
+    private static final Duration CLEANUP_LEASE = Duration.ofMinutes(10);
+
+    private final EmailOutboxAdapter outbox;
+    private final JavaMailSender javaMailSender;
+    private final ClusterLockPort clusterLock;
+
+    @Value("${app.email-outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email-outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    public EmailOutboxDispatcher(EmailOutboxAdapter outbox, JavaMailSender javaMailSender,
+                                 ClusterLockPort clusterLock) {
+        this.outbox = outbox;
+        this.javaMailSender = javaMailSender;
+        this.clusterLock = clusterLock;
+    }
+
+    @Scheduled(fixedDelayString = "${app.email-outbox.poll-ms:2000}")
+    public void dispatch() {
+        for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+            List<OutboxEmail> batch;
+            try {
+                batch = outbox.claimDue(batchSize, LEASE);
+            } catch (Exception e) {
+                log.error("OUTBOX: Không đọc được hàng đợi email: {}", e.getMessage());
+                return;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            sendBatch(batch);
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(cron = "0 15 3 * * *")
+    public void cleanupSent() {
+        if (!clusterLock.tryAcquire(CLEANUP_LOCK, CLEANUP_LEASE)) {
+            return;
+        }
+        try {
+            int deleted = outbox.deleteSentBefore(LocalDateTime.now().minusDays(7), 1000);
+            log.info("OUTBOX: Đã xóa {} email đã gửi quá 7 ngày.", deleted);
+        } finally {
+            clusterLock.release(CLEANUP_LOCK);
+        }
+    }
+
+    private void sendBatch(List<OutboxEmail> batch) {
+        Map<MimeMessage, OutboxEmail> byMessage = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (OutboxEmail email : batch) {
+            try {
+                MimeMessage message = javaMailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+                helper.setTo(email.recipient());
+                helper.setSubject(email.subject());
+                helper.setText(email.body(), true);
+                byMessage.put(message, email);
+                messages.add(message);
+            } catch (Exception e) {
+                // Địa chỉ sai định dạng...: thử lại cũng vô ích
+                outbox.markFailed(email.id(), e.getMessage(), null);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        try {
+            javaMailSender.send(messages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures.putAll(e.getFailedMessages());
+            if (failures.isEmpty()) {
+                messages.forEach(m -> failures.put(m, e));
+            }
+        } catch (Exception e) {
+            // Không kết nối được SMTP: cả lô thử lại sau
+            messages.forEach(m -> failures.put(m, e));
+        }
+
+        List<Long> sent = new ArrayList<>();
+        for (MimeMessage message : messages) {
+            OutboxEmail email = byMessage.get(message);
+            Exception error = failures.get(message);
+            if (error == null) {
+                sent.add(email.id());
+            } else {
+                outbox.markFailed(email.id(), error.getMessage(), BACKOFF.retryAt(email.attempts(), maxAttempts));
+            }
+        }
+        outbox.markSent(sent);
+        if (!failures.isEmpty()) {
+            log.warn("OUTBOX: Gửi lỗi {}/{} email, sẽ thử lại.", failures.size(), messages.size());
+        }
+        log.debug("OUTBOX: Đã gửi {} email.", sent.size());
+    }
+}
@@ -0,0 +1,105 @@
+package com.cmc.meeting.infrastructure.notification;
+
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+import org.thymeleaf.templateresource.ITemplateResource;
+import org.thymeleaf.templateresource.StringTemplateResource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolver cho template email lưu trong CSDL, có cache bản đã parse.
+ *
+ * StringTemplateResolver mặc định nhận CẢ NỘI DUNG HTML làm tên template và không cache
+ * -> mỗi email đều parse lại toàn bộ HTML. Ở đây tên template là "{configKey}@{hash nội dung}":
+ * Thymeleaf cache bản đã parse theo tên đó, nội dung đổi thì hash đổi -> tự parse bản mới.
+ */
+public class EmailTemplateResolver extends StringTemplateResolver {
+
+    private static final char NAME_SEPARATOR = '@';
+
+    private record Registered(String content, String name) {
+    }
+
+    // configKey -> nội dung + tên template hiện tại
+    private final Map<String, Registered> byKey = new ConcurrentHashMap<>();
+    // tên template -> nội dung (để resolver trả về khi Thymeleaf cần parse); chỉ giữ phiên bản hiện tại.
+    // Luồng còn cầm tên cũ (đã bị thay) sẽ nhận nội dung hiện tại của key, xem computeTemplateResource.
+    private final Map<String, String> contentByName = new ConcurrentHashMap<>();
+
+    public EmailTemplateResolver() {
+        setCacheable(true);
+    }
+
+    /**
+     * Trả về tên template dùng cho engine.process(...). Nội dung không đổi thì không băm lại.
+     */
+    public String register(String configKey, String content) {
+        Registered current = byKey.get(configKey);
+        if (current != null && current.content().equals(content)) {
+            return current.name();
+        }
+        String name = configKey + NAME_SEPARATOR + hash(content);
+        contentByName.put(name, content);
+        Registered previous = byKey.put(configKey, new Registered(content, name));
+        if (previous != null && !previous.name().equals(name)) {
+            contentByName.remove(previous.name());
+        }
+        return name;
+    }
+
+    /**
+     * Tên template hiện tại của key (null nếu chưa đăng ký).
+     */
+    public String currentName(String configKey) {
+        Registered current = byKey.get(configKey);
+        return current != null ? current.name() : null;
+    }
+
+    /**
+     * Bỏ đăng ký 1 key; trả về tên template cũ (để xóa khỏi cache của engine) hoặc null.
+     */
+    public String unregister(String configKey) {
+        Registered removed = byKey.remove(configKey);
+        if (removed == null) {
+            return null;
+        }
+        contentByName.remove(removed.name());
+        return removed.name();
+    }
+
+    @Override
+    protected ITemplateResource computeTemplateResource(IEngineConfiguration configuration, String ownerTemplate,
+            String template, Map<String, Object> templateResolutionAttributes) {
+        String content = contentByName.get(template);
+        if (content == null) {
+            content = currentContentOf(template);
+        }
+        // Không phải tên đã đăng ký: coi chính chuỗi là nội dung (hành vi cũ của StringTemplateResolver)
+        return new StringTemplateResource(content != null ? content : template);
+    }
+
+    // Tên của phiên bản đã bị thay ("{configKey}@{hash cũ}") -> nội dung hiện tại của key
+    private String currentContentOf(String template) {
+        int separator = template.lastIndexOf(NAME_SEPARATOR);
+        if (separator <= 0) {
+            return null;
+        }
+        Registered current = byKey.get(template.substring(0, separator));
+        return current != null ? current.content() : null;
+    }
+
+    private static String hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(content.hashCode()) + Integer.toHexString(content.length());
+        }
+    }
+}
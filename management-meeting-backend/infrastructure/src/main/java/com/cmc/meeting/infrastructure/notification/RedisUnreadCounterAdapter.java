@@ -0,0 +1,196 @@
+package com.cmc.meeting.infrastructure.notification;
+
+import com.cmc.meeting.application.port.notification.UnreadCounterPort;
+import com.cmc.meeting.domain.port.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.function.Supplier;
+
+/**
+ * Bộ đếm thông báo chưa đọc trên Redis: key "notif:unread:{userId}" (có TTL).
+ *
+ * - Chỉ cộng/trừ khi key ĐÃ tồn tại (Lua script, nguyên tử): key thiếu nghĩa là lần đọc sau
+ *   sẽ đếm từ CSDL rồi seed lại, tránh tạo ra bộ đếm sai từ một delta lẻ.
+ * - Đối soát định kỳ: các key đang có được ghi đè bằng số đếm thật từ MySQL (1 câu GROUP BY / lô).
+ * - Redis lỗi: ngắt Redis trong 30s, mọi lời gọi trả về rỗng -> service đếm thẳng CSDL;
+ *   các delta bị bỏ lỡ khiến node này đếm từ CSDL cho tới khi đối soát xong.
+ */
+@Component
+public class RedisUnreadCounterAdapter implements UnreadCounterPort {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisUnreadCounterAdapter.class);
+
+    private static final String KEY_PREFIX = "notif:unread:";
+    private static final Duration TTL = Duration.ofDays(1);
+    private static final long BACKOFF_MS = 30_000;
+    private static final int RECONCILE_BATCH = 500;
+
+    // KEYS = các bộ đếm, ARGV[i] = delta của KEYS[i]
+    private static final RedisScript<Long> INCREMENT_IF_EXISTS = new DefaultRedisScript<>(
+            "for i, key in ipairs(KEYS) do " +
+            "  if redis.call('EXISTS', key) == 1 then redis.call('INCRBY', key, ARGV[i]) end " +
+            "end " +
+            "return #KEYS", Long.class);
+
+    // Không để bộ đếm âm (vd: đánh dấu đọc 1 thông báo tạo trước khi seed)
+    private static final RedisScript<Long> DECREMENT_IF_EXISTS = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "local v = redis.call('DECR', KEYS[1]) " +
+            "if v < 0 then redis.call('SET', KEYS[1], 0, 'KEEPTTL') v = 0 end " +
+            "return v", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final NotificationRepository notificationRepository;
+
+    @Value("${app.unread-counter.enabled:true}")
+    private boolean enabled;
+
+    private volatile long unavailableUntil = 0;
+    // Đã bỏ lỡ delta trong lúc Redis lỗi -> bộ đếm có thể lệch cho tới lần đối soát kế tiếp
+    private volatile boolean dirty = false;
+
+    public RedisUnreadCounterAdapter(StringRedisTemplate redisTemplate, NotificationRepository notificationRepository) {
+        this.redisTemplate = redisTemplate;
+        this.notificationRepository = notificationRepository;
+    }
+
+    @Override
+    public OptionalLong get(Long userId) {
+        if (dirty) {
+            return OptionalLong.empty(); // Có delta bị mất, chờ đối soát xong mới tin Redis
+        }
+        String value = call(() -> redisTemplate.opsForValue().get(key(userId)));
+        if (value == null) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    @Override
+    public void seed(Long userId, long count) {
+        call(() -> redisTemplate.opsForValue().setIfAbsent(key(userId), String.valueOf(count), TTL));
+    }
+
+    @Override
+    public void increment(Map<Long, Long> deltasByUser) {
+        if (deltasByUser.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(deltasByUser.size());
+        Object[] deltas = new Object[deltasByUser.size()];
+        int i = 0;
+        for (Map.Entry<Long, Long> entry : deltasByUser.entrySet()) {
+            keys.add(key(entry.getKey()));
+            deltas[i++] = String.valueOf(entry.getValue());
+        }
+        call(() -> redisTemplate.execute(INCREMENT_IF_EXISTS, keys, deltas));
+    }
+
+    @Override
+    public void decrement(Long userId) {
+        call(() -> redisTemplate.execute(DECREMENT_IF_EXISTS, List.of(key(userId))));
+    }
+
+    @Override
+    public void reset(Long userId) {
+        call(() -> {
+            redisTemplate.opsForValue().set(key(userId), "0", TTL);
+            return null;
+        });
+    }
+
+    /**
+     * Ghi đè các bộ đếm đang có trên Redis bằng số đếm thật từ CSDL
+     * (sửa sai lệch do delta bị mất khi Redis chập chờn hoặc seed chạy song song với ghi).
+     */
+    @Scheduled(initialDelayString = "${app.unread-counter.reconcile-ms:600000}",
+               fixedDelayString = "${app.unread-counter.reconcile-ms:600000}")
+    public void reconcile() {
+        if (!isAvailable()) {
+            return;
+        }
+        try (Cursor<String> cursor = redisTemplate.scan(
+                ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(RECONCILE_BATCH).build())) {
+            List<Long> batch = new ArrayList<>(RECONCILE_BATCH);
+            int total = 0;
+            while (cursor.hasNext()) {
+                batch.add(Long.valueOf(cursor.next().substring(KEY_PREFIX.length())));
+                if (batch.size() == RECONCILE_BATCH) {
+                    total += reconcileBatch(batch);
+                    batch.clear();
+                }
+            }
+            total += reconcileBatch(batch);
+            dirty = false;
+            log.debug("UNREAD: Đã đối soát {} bộ đếm với CSDL.", total);
+        } catch (Exception e) {
+            markUnavailable(e);
+        }
+    }
+
+    private int reconcileBatch(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Long> counts = notificationRepository.countUnreadByUserIds(userIds);
+        // 1 round-trip cho cả lô
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long userId : userIds) {
+                connection.stringCommands().setEx(key(userId).getBytes(StandardCharsets.UTF_8), TTL.getSeconds(),
+                        String.valueOf(counts.getOrDefault(userId, 0L)).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        return userIds.size();
+    }
+
+    private <T> T call(Supplier<T> action) {
+        if (!isAvailable()) {
+            if (enabled) {
+                dirty = true;
+            }
+            return null;
+        }
+        try {
+            return action.get();
+        } catch (Exception e) {
+            markUnavailable(e);
+            return null;
+        }
+    }
+
+    private boolean isAvailable() {
+        return enabled && System.currentTimeMillis() >= unavailableUntil;
+    }
+
+    private void markUnavailable(Exception e) {
+        unavailableUntil = System.currentTimeMillis() + BACKOFF_MS;
+        dirty = true;
+        log.warn("UNREAD: Redis không dùng được ({}), đếm trực tiếp từ CSDL trong {}s.", e.getMessage(),
+                BACKOFF_MS / 1000);
+    }
+
+    private static String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+}
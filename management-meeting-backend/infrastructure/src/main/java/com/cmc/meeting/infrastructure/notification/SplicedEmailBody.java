@@ -0,0 +1,64 @@
+package com.cmc.meeting.infrastructure.notification;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Email "render 1 lần, ghép N lần": template được render với các placeholder thay cho giá trị
+ * riêng từng người nhận (vd: link chấp nhận/từ chối), sau đó chỉ cần nối chuỗi cho mỗi người.
+ *
+ * Placeholder chỉ gồm chữ + số nên Thymeleaf không escape gì; giá trị ghép vào được escape HTML
+ * giống như Thymeleaf làm với th:href / th:text.
+ */
+public final class SplicedEmailBody {
+
+    private final List<String> segments = new ArrayList<>(); // segments.size() == slots.size() + 1
+    private final List<Integer> slots = new ArrayList<>();   // chỉ số placeholder tại mỗi chỗ nối
+
+    private SplicedEmailBody(String rendered, List<String> placeholders) {
+        int from = 0;
+        while (true) {
+            int nextPos = -1;
+            int nextSlot = -1;
+            for (int i = 0; i < placeholders.size(); i++) {
+                int pos = rendered.indexOf(placeholders.get(i), from);
+                if (pos >= 0 && (nextPos < 0 || pos < nextPos)) {
+                    nextPos = pos;
+                    nextSlot = i;
+                }
+            }
+            if (nextPos < 0) {
+                segments.add(rendered.substring(from));
+                return;
+            }
+            segments.add(rendered.substring(from, nextPos));
+            slots.add(nextSlot);
+            from = nextPos + placeholders.get(nextSlot).length();
+        }
+    }
+
+    /**
+     * Sinh placeholder khó trùng với nội dung thật (tiêu đề cuộc họp...).
+     */
+    public static String newPlaceholder(String name) {
+        return "SPLICE" + name.toUpperCase() + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    public static SplicedEmailBody of(String rendered, List<String> placeholders) {
+        return new SplicedEmailBody(rendered, placeholders);
+    }
+
+    /**
+     * Ghép giá trị (theo đúng thứ tự placeholder đã truyền vào of()).
+     */
+    public String fill(String... values) {
+        StringBuilder sb = new StringBuilder(segments.stream().mapToInt(String::length).sum() + 256);
+        for (int i = 0; i < slots.size(); i++) {
+            sb.append(segments.get(i)).append(HtmlUtils.htmlEscape(values[slots.get(i)]));
+        }
+        return sb.append(segments.get(segments.size() - 1)).toString();
+    }
+}
@@ -5,18 +5,23 @@ import org.springframework.context.annotation.Configuration;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 // import org.thymeleaf.templatemode.TemplateMode;
 // import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
-import org.thymeleaf.templateresolver.StringTemplateResolver;
 
 @Configuration
 public class ThymeleafConfig {
 
     @Bean
-    public SpringTemplateEngine emailTemplateEngine() {
+    public SpringTemplateEngine emailTemplateEngine(EmailTemplateResolver emailTemplateResolver) {
         SpringTemplateEngine templateEngine = new SpringTemplateEngine();
-        templateEngine.setTemplateResolver(new StringTemplateResolver());
+        // Template lấy từ CSDL (app_configuration) và được cache bản đã parse, xem EmailTemplateResolver
+        templateEngine.setTemplateResolver(emailTemplateResolver);
         return templateEngine;
     }
 
+    @Bean
+    public EmailTemplateResolver emailTemplateResolver() {
+        return new EmailTemplateResolver();
+    }
+
     // private ClassLoaderTemplateResolver emailTemplateResolver() {
     //     ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
     //     templateResolver.setPrefix("templates/"); // Thư mục (bước 2)
@@ -1,22 +1,29 @@
 package com.cmc.meeting.infrastructure.notification;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 
 import com.cmc.meeting.application.port.service.AppConfigService;
+import com.cmc.meeting.domain.event.AppConfigUpdatedEvent;
 
 import java.util.Map;
 
 @Service
 public class ThymeleafEmailService {
 
+    private static final String TEMPLATE_KEY_PREFIX = "email.template.";
+
     private final SpringTemplateEngine emailTemplateEngine;
+    private final EmailTemplateResolver emailTemplateResolver;
     private final AppConfigService appConfigService;
 
-    public ThymeleafEmailService(SpringTemplateEngine emailTemplateEngine, 
+    public ThymeleafEmailService(SpringTemplateEngine emailTemplateEngine,
+                                 EmailTemplateResolver emailTemplateResolver,
                                  AppConfigService appConfigService) {
         this.emailTemplateEngine = emailTemplateEngine;
+        this.emailTemplateResolver = emailTemplateResolver;
         this.appConfigService = appConfigService;
     }
 
@@ -34,9 +41,27 @@ public class ThymeleafEmailService {
             "<html><body>Lỗi: Không tìm thấy template.</body></html>" // Default
         );
         
-        // BƯỚC 2: "Vẽ"
+        // BƯỚC 2: "Vẽ" - template đã parse được cache theo (key, hash nội dung)
+        String previousName = emailTemplateResolver.currentName(templateKey);
+        String templateName = emailTemplateResolver.register(templateKey, htmlTemplate);
+        if (previousName != null && !previousName.equals(templateName)) {
+            // Nội dung đổi (vd: sửa thẳng trong CSDL): bỏ luôn bản đã parse của phiên bản cũ
+            emailTemplateEngine.clearTemplateCacheFor(previousName);
+        }
         Context context = new Context();
         context.setVariables(variables);
-        return emailTemplateEngine.process(htmlTemplate, context);
+        return emailTemplateEngine.process(templateName, context);
+    }
+
+    // Admin sửa template: bỏ bản đã parse ngay (không chờ bị đẩy khỏi cache)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConfigUpdated(AppConfigUpdatedEvent event) {
+        if (event.getConfigKey() == null || !event.getConfigKey().startsWith(TEMPLATE_KEY_PREFIX)) {
+            return;
+        }
+        String oldName = emailTemplateResolver.unregister(event.getConfigKey());
+        if (oldName != null) {
+            emailTemplateEngine.clearTemplateCacheFor(oldName);
+        }
     }
-}
\ No newline at end of file
+}
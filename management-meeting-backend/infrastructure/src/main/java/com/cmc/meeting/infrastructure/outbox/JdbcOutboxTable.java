@@ -0,0 +1,199 @@
+package com.cmc.meeting.infrastructure.outbox;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Phần dùng chung của các bảng hàng đợi (email_outbox, calendar_sync_job) đọc/ghi bằng JDBC.
+ * Bảng phải có các cột: id, status, attempts, next_attempt_at, last_error, created_at và 1 cột thời điểm xong.
+ *
+ * - claimDue: lấy việc đến hạn bằng FOR UPDATE SKIP LOCKED rồi "thuê" (dời next_attempt_at thêm 'lease'),
+ *   node chết giữa chừng thì hết hạn thuê việc tự quay lại hàng đợi.
+ * - Nếu khai báo GroupLease: mỗi nhóm (vd: cuộc họp) chỉ có 1 lượt thuê tại 1 thời điểm.
+ * - Dọn việc đã xong theo lô nhỏ, thống kê hàng đợi, backoff lũy thừa cho lần thử lại (RetryBackoff).
+ */
+public class JdbcOutboxTable {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    /**
+     * Thuê theo nhóm: không lấy việc của nhóm còn việc đang được thuê (cột leaseColumn chưa hết hạn).
+     * Các node lấy việc lần lượt qua dòng 'claimLock' trong scheduler_lock, để việc vừa được node khác thuê
+     * luôn đã commit khi node sau kiểm tra (NOT EXISTS của MySQL đọc theo snapshot).
+     */
+    public record GroupLease(String leaseColumn, String groupColumn, String claimLock) {
+    }
+
+    /**
+     * Backoff lũy thừa: base, 2*base, 4*base... tối đa max.
+     */
+    public record RetryBackoff(Duration base, Duration max) {
+
+        // null = hết lượt thử
+        public LocalDateTime retryAt(int attempts, int maxAttempts) {
+            if (attempts >= maxAttempts) {
+                return null;
+            }
+            long factor = 1L << Math.min(Math.max(attempts - 1, 0), 20);
+            Duration backoff = base.multipliedBy(factor);
+            return LocalDateTime.now().plus(backoff.compareTo(max) > 0 ? max : backoff);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String table;
+    private final String pendingStatus;
+    private final String doneStatus;
+    private final String failedStatus;
+    private final String doneAtColumn;
+    private final GroupLease groupLease;
+    // ", leased_until = NULL" khi có thuê theo nhóm: xong / hẹn lại / thất bại đều trả nhóm
+    private final String releaseLease;
+
+    public JdbcOutboxTable(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, String table,
+                           String pendingStatus, String doneStatus, String failedStatus, String doneAtColumn) {
+        this(jdbcTemplate, transactionManager, table, pendingStatus, doneStatus, failedStatus, doneAtColumn, null);
+    }
+
+    public JdbcOutboxTable(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, String table,
+                           String pendingStatus, String doneStatus, String failedStatus, String doneAtColumn,
+                           GroupLease groupLease) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.table = table;
+        this.pendingStatus = pendingStatus;
+        this.doneStatus = doneStatus;
+        this.failedStatus = failedStatus;
+        this.doneAtColumn = doneAtColumn;
+        this.groupLease = groupLease;
+        this.releaseLease = groupLease == null ? "" : ", " + groupLease.leaseColumn() + " = NULL";
+    }
+
+    /**
+     * Lấy tối đa 'limit' việc đến hạn và thuê chúng thêm 'lease' (transaction riêng, rất ngắn).
+     * 'columns' là các cột cần đọc của bảng; rowMapper tự cộng lần đang chạy vào attempts nếu cần.
+     */
+    public <T> List<T> claimDue(String columns, RowMapper<T> rowMapper, Function<T, Long> idOf,
+                                int limit, Duration lease) {
+        return transactionTemplate.execute(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            Timestamp leasedUntil = Timestamp.valueOf(now.toLocalDateTime().plus(lease));
+            List<Object> args = new ArrayList<>(List.of(pendingStatus, now));
+            StringBuilder sql = new StringBuilder("SELECT ").append(columns).append(" FROM ").append(table)
+                    .append(" j WHERE j.status = ? AND j.next_attempt_at <= ?");
+            if (groupLease != null) {
+                lockClaims();
+                String group = groupLease.groupColumn();
+                sql.append(" AND NOT EXISTS (SELECT 1 FROM ").append(table).append(" o WHERE o.").append(group)
+                        .append(" = j.").append(group).append(" AND o.status = ? AND o.")
+                        .append(groupLease.leaseColumn()).append(" > ?)");
+                args.add(pendingStatus);
+                args.add(now);
+            }
+            sql.append(" ORDER BY j.next_attempt_at, j.id LIMIT ? FOR UPDATE SKIP LOCKED");
+            args.add(limit);
+
+            List<T> claimed = jdbcTemplate.query(sql.toString(), rowMapper, args.toArray());
+            if (!claimed.isEmpty()) {
+                String leaseAssignment = groupLease == null ? "" : ", " + groupLease.leaseColumn() + " = ?";
+                jdbcTemplate.batchUpdate("UPDATE " + table + " SET attempts = attempts + 1, next_attempt_at = ?"
+                                + leaseAssignment + " WHERE id = ?",
+                        claimed.stream()
+                                .map(idOf)
+                                .map(id -> groupLease == null
+                                        ? new Object[] { leasedUntil, id }
+                                        : new Object[] { leasedUntil, leasedUntil, id })
+                                .toList());
+            }
+            return claimed;
+        });
+    }
+
+    // Dòng khóa dùng chung trong scheduler_lock, chỉ để xếp hàng các transaction lấy việc
+    private void lockClaims() {
+        String sql = "SELECT name FROM scheduler_lock WHERE name = ? FOR UPDATE";
+        if (jdbcTemplate.queryForList(sql, String.class, groupLease.claimLock()).isEmpty()) {
+            jdbcTemplate.update("INSERT IGNORE INTO scheduler_lock (name, locked_by, locked_at, lock_until) " +
+                    "VALUES (?, 'claim', NOW(6), NOW(6))", groupLease.claimLock());
+            jdbcTemplate.queryForList(sql, String.class, groupLease.claimLock());
+        }
+    }
+
+    public void markDone(Collection<Long> ids) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        update(ids, "status = ?, " + doneAtColumn + " = ?, last_error = NULL",
+                id -> new Object[] { doneStatus, now, id });
+    }
+
+    // Còn lượt -> hẹn lần sau
+    public void markRetry(Collection<Long> ids, String error, LocalDateTime retryAt) {
+        String message = truncate(error);
+        update(ids, "next_attempt_at = ?, last_error = ?",
+                id -> new Object[] { Timestamp.valueOf(retryAt), message, id });
+    }
+
+    // Hết lượt / lỗi không thể thử lại -> FAILED (giữ lại để tra cứu)
+    public void markFailed(Collection<Long> ids, String error) {
+        String message = truncate(error);
+        update(ids, "status = ?, last_error = ?", id -> new Object[] { failedStatus, message, id });
+    }
+
+    // Dời lịch không tính là 1 lần thử: trả lại lượt vừa tính khi claim
+    public void reschedule(Collection<Long> ids, LocalDateTime at) {
+        update(ids, "attempts = attempts - 1, next_attempt_at = ?",
+                id -> new Object[] { Timestamp.valueOf(at), id });
+    }
+
+    private void update(Collection<Long> ids, String assignments, Function<Long, Object[]> args) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("UPDATE " + table + " SET " + assignments + releaseLease + " WHERE id = ?",
+                ids.stream().map(args).toList());
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    // Dọn việc đã xong quá hạn lưu, theo lô nhỏ (không khóa cả bảng trong 1 lệnh DELETE dài)
+    public int deleteDoneBefore(LocalDateTime cutoff, int chunkSize) {
+        String sql = "DELETE FROM " + table + " WHERE status = ? AND " + doneAtColumn + " < ? LIMIT ?";
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(sql, doneStatus, Timestamp.valueOf(cutoff), chunkSize);
+            total += deleted;
+        } while (deleted == chunkSize);
+        return total;
+    }
+
+    // Số việc theo trạng thái (trừ đã xong) + tuổi của việc chờ lâu nhất
+    public Map<String, Long> getQueueStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put(pendingStatus, 0L);
+        stats.put(failedStatus, 0L);
+        jdbcTemplate.query("SELECT status, COUNT(*) FROM " + table + " WHERE status <> ? GROUP BY status",
+                rs -> {
+                    stats.put(rs.getString(1), rs.getLong(2));
+                }, doneStatus);
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(created_at) FROM " + table + " WHERE status = ?", Timestamp.class, pendingStatus);
+        stats.put("oldestPendingSeconds", oldest == null ? 0L
+                : Math.max(0, Duration.between(oldest.toLocalDateTime(), LocalDateTime.now()).getSeconds()));
+        return stats;
+    }
+}
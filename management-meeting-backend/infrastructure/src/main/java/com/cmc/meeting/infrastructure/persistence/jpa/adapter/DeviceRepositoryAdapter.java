@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Repository
@@ -36,6 +37,13 @@ public class DeviceRepositoryAdapter implements DeviceRepository {
                 .map(e -> modelMapper.map(e, Device.class));
     }
 
+    @Override
+    public List<Device> findAllById(Set<Long> ids) {
+        return jpaRepository.findAllById(ids).stream()
+                .map(e -> modelMapper.map(e, Device.class))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public Device save(Device device) {
         DeviceEntity entity = modelMapper.map(device, DeviceEntity.class);
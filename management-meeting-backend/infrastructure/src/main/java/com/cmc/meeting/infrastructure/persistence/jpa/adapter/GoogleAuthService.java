@@ -5,12 +5,12 @@ import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataUserR
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
 import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
 import com.google.api.client.googleapis.auth.oauth2.GoogleTokenResponse;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.services.calendar.CalendarScopes;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Collections;
 
@@ -18,6 +18,7 @@ import java.util.Collections;
 public class GoogleAuthService {
 
     private final SpringDataUserRepository userRepository;
+    private final GoogleCalendarClientPool clientPool;
 
     @Value("${google.client.id}")
     private String clientId;
@@ -26,20 +27,21 @@ public class GoogleAuthService {
     @Value("${google.redirect.uri}")
     private String redirectUri;
 
-    public GoogleAuthService(SpringDataUserRepository userRepository) {
+    public GoogleAuthService(SpringDataUserRepository userRepository, GoogleCalendarClientPool clientPool) {
         this.userRepository = userRepository;
+        this.clientPool = clientPool;
     }
 
-    // Tạo Flow
-    private GoogleAuthorizationCodeFlow getFlow() throws Exception {
+    // Tạo Flow (dùng chung HTTP transport với GoogleCalendarClientPool)
+    private GoogleAuthorizationCodeFlow getFlow() {
         GoogleClientSecrets.Details web = new GoogleClientSecrets.Details();
         web.setClientId(clientId);
         web.setClientSecret(clientSecret);
         GoogleClientSecrets secrets = new GoogleClientSecrets().setWeb(web);
 
         return new GoogleAuthorizationCodeFlow.Builder(
-                GoogleNetHttpTransport.newTrustedTransport(),
-                GsonFactory.getDefaultInstance(),
+                clientPool.getTransport(),
+                clientPool.getJsonFactory(),
                 secrets,
                 Collections.singletonList(CalendarScopes.CALENDAR))
                 .setAccessType("offline") // Quan trọng: offline để lấy Refresh Token
@@ -71,6 +73,13 @@ public class GoogleAuthService {
             user.setGoogleRefreshToken(refreshToken);
             user.setGoogleLinked(true);
             userRepository.save(user);
+            // Client cũ (token cũ) bỏ đi SAU commit: lần đồng bộ kế tiếp chắc chắn đọc được token mới
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clientPool.invalidate(userId);
+                }
+            });
 
         } catch (Exception e) {
             throw new RuntimeException("Lỗi xác thực Google", e);
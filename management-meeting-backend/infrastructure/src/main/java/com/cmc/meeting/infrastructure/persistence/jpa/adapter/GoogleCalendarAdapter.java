@@ -1,191 +1,187 @@
 package com.cmc.meeting.infrastructure.persistence.jpa.adapter;
 
 import com.cmc.meeting.domain.model.Meeting;
-import com.cmc.meeting.infrastructure.persistence.jpa.entity.UserEntity;
-import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataUserRepository;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpHeaders;
 import com.google.api.client.util.DateTime;
 import com.google.api.services.calendar.Calendar;
+import com.google.api.services.calendar.CalendarRequest;
 import com.google.api.services.calendar.model.Event;
 import com.google.api.services.calendar.model.EventDateTime;
-import com.google.auth.http.HttpCredentialsAdapter; // Adapter mới
-import com.google.auth.oauth2.UserCredentials; // Thay thế GoogleCredential
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.security.GeneralSecurityException;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
-
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Đồng bộ cuộc họp lên Google Calendar của người tổ chức.
+ * Client (transport + token) lấy từ GoogleCalendarClientPool, không tạo mới cho mỗi lần gọi.
+ * Các thao tác hàng loạt đi qua batch endpoint của Calendar API, tối đa BATCH_SIZE thao tác / 1 HTTP request,
+ * và trả kết quả TỪNG thao tác để CalendarSyncWorker quyết định thử lại hay bỏ.
+ */
 @Component
 public class GoogleCalendarAdapter {
 
     private static final Logger log = LoggerFactory.getLogger(GoogleCalendarAdapter.class);
-    private final SpringDataUserRepository userRepository;
 
-    @Value("${google.client.id}")
-    private String clientId;
+    // Giới hạn khuyến nghị của Google cho 1 batch request
+    public static final int BATCH_SIZE = 50;
 
-    @Value("${google.client.secret}")
-    private String clientSecret;
+    private final GoogleCalendarClientPool clientPool;
 
-    public GoogleCalendarAdapter(SpringDataUserRepository userRepository) {
-        this.userRepository = userRepository;
+    public GoogleCalendarAdapter(GoogleCalendarClientPool clientPool) {
+        this.clientPool = clientPool;
     }
 
-    public String pushMeetingToGoogle(Long userId, Meeting meeting) {
-        try {
-            // 1. Kiểm tra user có liên kết Google không
-            UserEntity user = userRepository.findById(userId).orElse(null);
-            if (user == null) {
-                log.warn("DEBUG: User ID {} không tồn tại.", userId);
-                return null;
-            }
+    /**
+     * Kết quả 1 thao tác: thành công (kèm Event ID khi tạo) hoặc lỗi.
+     * status = mã HTTP của lỗi, 0 = không có phản hồi (mất kết nối, làm mới token lỗi...).
+     */
+    public record SyncResult(String googleEventId, int status, String error, boolean retryable) {
 
-            log.info("DEBUG: User {} - Linked: {} - Token: {}",
-                    user.getUsername(),
-                    user.isGoogleLinked(),
-                    (user.getGoogleRefreshToken() != null ? "CÓ" : "KHÔNG"));
+        static SyncResult ok(String googleEventId) {
+            return new SyncResult(googleEventId, 200, null, false);
+        }
 
-            if (!user.isGoogleLinked() || user.getGoogleRefreshToken() == null) {
-                return null;
-            }
+        public boolean isOk() {
+            return error == null;
+        }
 
-            // 2. Tạo UserCredentials (thay thế GoogleCredential)
-            UserCredentials credentials = UserCredentials.newBuilder()
-                    .setClientId(clientId)
-                    .setClientSecret(clientSecret)
-                    .setRefreshToken(user.getGoogleRefreshToken())
-                    .build();
-
-            // 3. Khởi tạo Calendar Service
-            Calendar service = new Calendar.Builder(
-                    GoogleNetHttpTransport.newTrustedTransport(),
-                    GsonFactory.getDefaultInstance(),
-                    new HttpCredentialsAdapter(credentials))
-                    .setApplicationName("CMC Meeting App")
-                    .build();
-
-            // 4. Tạo Event
-            Event event = new Event()
-                    .setSummary(meeting.getTitle())
-                    .setLocation(meeting.getRoom().getName())
-                    .setDescription(meeting.getDescription());
-
-            DateTime start = new DateTime(meeting.getStartTime()
-                    .atZone(ZoneId.systemDefault())
-                    .toInstant().toEpochMilli());
-            event.setStart(new EventDateTime().setDateTime(start));
-
-            DateTime end = new DateTime(meeting.getEndTime()
-                    .atZone(ZoneId.systemDefault())
-                    .toInstant().toEpochMilli());
-            event.setEnd(new EventDateTime().setDateTime(end));
-
-            // 5. Gửi request → LẤY EVENT ID
-            Event executedEvent = service.events().insert("primary", event).execute();
-
-            String googleEventId = executedEvent.getId();
-            log.info("-> Đã đồng bộ Google Calendar cho user: {} - Event ID: {}",
-                    user.getUsername(),
-                    googleEventId);
-
-            return googleEventId;
-        } catch (IOException | GeneralSecurityException e) {
-            log.error("Lỗi đồng bộ Google Calendar: ", e);
-            return null;
+        // Sự kiện không còn trên Google (đã bị xóa tay)
+        public boolean isGone() {
+            return status == 404 || status == 410;
         }
     }
 
-    public void updateMeetingOnGoogle(Long userId, String googleEventId, Meeting meeting) {
+    public boolean isLinked(Long userId) {
+        return clientPool.clientFor(userId).isPresent();
+    }
+
+    // Đồng bộ 1 cuộc họp ngay (API thử nghiệm); luồng chính đi qua hàng đợi calendar_sync_job
+    public String pushMeetingToGoogle(Long userId, Meeting meeting) {
+        Optional<Calendar> service = clientPool.clientFor(userId);
+        if (service.isEmpty()) {
+            return null;
+        }
         try {
-            // 1. Check điều kiện
-            UserEntity user = userRepository.findById(userId).orElse(null);
-            if (user == null || !user.isGoogleLinked() || user.getGoogleRefreshToken() == null)
-                return;
-            if (googleEventId == null || googleEventId.isEmpty())
-                return;
-
-            // 2. Tạo Service (Auth)
-            UserCredentials credentials = UserCredentials.newBuilder()
-                    .setClientId(clientId)
-                    .setClientSecret(clientSecret)
-                    .setRefreshToken(user.getGoogleRefreshToken())
-                    .build();
-
-            Calendar service = new Calendar.Builder(
-                    GoogleNetHttpTransport.newTrustedTransport(),
-                    GsonFactory.getDefaultInstance(),
-                    new HttpCredentialsAdapter(credentials))
-                    .setApplicationName("CMC Meeting App")
-                    .build();
-
-            // 3. Lấy Event cũ về (để giữ các thông tin khác không đổi)
-            Event event;
-            try {
-                event = service.events().get("primary", googleEventId).execute();
-            } catch (Exception e) {
-                log.warn("Không tìm thấy sự kiện trên Google để update (ID: {}). Có thể đã bị xóa.", googleEventId);
-                return;
-            }
+            Event executedEvent = service.get().events().insert("primary", toEvent(meeting)).execute();
+            log.info("-> Đã đồng bộ Google Calendar cho user ID: {} - Event ID: {}", userId, executedEvent.getId());
+            return executedEvent.getId();
+        } catch (IOException e) {
+            clientPool.onRequestFailed(userId, e);
+            log.error("Lỗi đồng bộ Google Calendar: ", e);
+            return null;
+        }
+    }
 
-            // 4. Cập nhật thông tin mới từ App
-            event.setSummary(meeting.getTitle());
-            event.setDescription(meeting.getDescription());
-            event.setLocation(meeting.getRoom().getName());
+    // meetingId -> kết quả
+    public Map<Long, SyncResult> createEvents(Long userId, List<Meeting> meetings) {
+        return executeBatched(userId, meetings, Meeting::getId,
+                (service, meeting) -> service.events().insert("primary", toEvent(meeting)), Event::getId);
+    }
 
-            // Update thời gian
-            DateTime start = new DateTime(
-                    meeting.getStartTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
-            event.setStart(new EventDateTime().setDateTime(start));
+    // PATCH chỉ ghi đè các trường gửi lên, thông tin khác trên Google giữ nguyên. meetingId -> kết quả
+    public Map<Long, SyncResult> updateEvents(Long userId, List<Meeting> meetings) {
+        return executeBatched(userId, meetings, Meeting::getId,
+                (service, meeting) -> service.events().patch("primary", meeting.getGoogleEventId(), toEvent(meeting)),
+                Event::getId);
+    }
 
-            DateTime end = new DateTime(meeting.getEndTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
-            event.setEnd(new EventDateTime().setDateTime(end));
+    // googleEventId -> kết quả
+    public Map<String, SyncResult> deleteEvents(Long userId, List<String> googleEventIds) {
+        return executeBatched(userId, googleEventIds, Function.identity(),
+                (service, googleEventId) -> service.events().delete("primary", googleEventId), content -> null);
+    }
 
-            // 5. Gửi lệnh Update
-            service.events().update("primary", googleEventId, event).execute();
+    @FunctionalInterface
+    private interface RequestFactory<I, T> {
+        CalendarRequest<T> create(Calendar service, I item) throws IOException;
+    }
 
-            log.info("-> Đã cập nhật Google Calendar thành công. Google ID: {}", googleEventId);
+    private <I, K, T> Map<K, SyncResult> executeBatched(Long userId, List<I> items, Function<I, K> keyOf,
+            RequestFactory<I, T> requestFactory, Function<T, String> eventIdOf) {
+        Map<K, SyncResult> results = new HashMap<>();
+        Optional<Calendar> service = clientPool.clientFor(userId);
+        if (service.isEmpty()) {
+            items.forEach(item -> results.put(keyOf.apply(item),
+                    new SyncResult(null, 401, "User chưa liên kết Google Calendar", false)));
+            return results;
+        }
 
-        } catch (Exception e) {
-            log.error("Lỗi cập nhật Google Calendar: ", e);
+        for (int from = 0; from < items.size(); from += BATCH_SIZE) {
+            List<I> chunk = items.subList(from, Math.min(from + BATCH_SIZE, items.size()));
+            try {
+                BatchRequest batch = service.get().batch();
+                for (I item : chunk) {
+                    K key = keyOf.apply(item);
+                    requestFactory.create(service.get(), item).queue(batch, new JsonBatchCallback<T>() {
+                        @Override
+                        public void onSuccess(T content, HttpHeaders responseHeaders) {
+                            results.put(key, SyncResult.ok(content == null ? null : eventIdOf.apply(content)));
+                        }
+
+                        @Override
+                        public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                            results.put(key, failure(error.getCode(), error));
+                        }
+                    });
+                }
+                batch.execute();
+            } catch (IOException e) {
+                // Cả lô không đi được (mạng, token...): mọi thao tác chưa có kết quả coi như lỗi tạm thời
+                clientPool.onRequestFailed(userId, e);
+                SyncResult failed = e instanceof GoogleJsonResponseException response
+                        ? failure(response.getStatusCode(), response.getDetails())
+                        : new SyncResult(null, 0, e.getMessage(), true);
+                for (I item : chunk) {
+                    results.putIfAbsent(keyOf.apply(item), failed);
+                }
+            }
         }
+        return results;
     }
 
-    public void deleteMeetingFromGoogle(Long userId, String googleEventId) {
-        try {
-            UserEntity user = userRepository.findById(userId).orElse(null);
-            if (user == null || !user.isGoogleLinked() || user.getGoogleRefreshToken() == null)
-                return;
-            if (googleEventId == null || googleEventId.isEmpty())
-                return;
-
-            // Tạo Service (Auth) - Code lặp lại, nên tách private method nếu muốn gọn
-            UserCredentials credentials = UserCredentials.newBuilder()
-                    .setClientId(clientId)
-                    .setClientSecret(clientSecret)
-                    .setRefreshToken(user.getGoogleRefreshToken())
-                    .build();
-
-            Calendar service = new Calendar.Builder(
-                    GoogleNetHttpTransport.newTrustedTransport(),
-                    GsonFactory.getDefaultInstance(),
-                    new HttpCredentialsAdapter(credentials))
-                    .setApplicationName("CMC Meeting App")
-                    .build();
-
-            // Gửi lệnh Xóa
-            service.events().delete("primary", googleEventId).execute();
-
-            log.info("-> Đã xóa sự kiện trên Google Calendar: {}", googleEventId);
-
-        } catch (Exception e) {
-            // 404 Not Found (Đã xóa rồi) -> Bỏ qua
-            // 410 Gone (Đã xóa hẳn) -> Bỏ qua
-            log.warn("Lỗi khi xóa lịch Google (có thể đã xóa trước đó): " + e.getMessage());
+    private static SyncResult failure(int status, GoogleJsonError error) {
+        String message = error != null ? error.getMessage() : "HTTP " + status;
+        return new SyncResult(null, status, message, isRetryable(status, error));
+    }
+
+    // 429 / 5xx / 401 (token vừa bị bỏ, lần sau tạo lại) / 403 do vượt hạn mức -> thử lại sau
+    private static boolean isRetryable(int status, GoogleJsonError error) {
+        if (status == 401 || status == 408 || status == 429 || status >= 500) {
+            return true;
+        }
+        if (status == 403 && error != null && error.getErrors() != null) {
+            return error.getErrors().stream()
+                    .anyMatch(e -> e.getReason() != null
+                            && (e.getReason().contains("RateLimit") || e.getReason().contains("rateLimit")
+                                || e.getReason().equals("quotaExceeded")));
         }
+        return false;
+    }
+
+    private Event toEvent(Meeting meeting) {
+        return new Event()
+                .setSummary(meeting.getTitle())
+                .setLocation(meeting.getRoom().getName())
+                .setDescription(meeting.getDescription())
+                .setStart(toEventDateTime(meeting.getStartTime()))
+                .setEnd(toEventDateTime(meeting.getEndTime()));
+    }
+
+    private EventDateTime toEventDateTime(LocalDateTime time) {
+        return new EventDateTime().setDateTime(
+                new DateTime(time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.adapter;
+
+import com.cmc.meeting.infrastructure.calendar.CalendarChangeFeed;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.Calendar;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.EventDateTime;
+import com.google.api.services.calendar.model.Events;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Đọc thay đổi trên lịch "primary" bằng syncToken của Calendar API (events.list): chỉ trả các sự kiện
+ * đổi từ lần trước (kể cả đã xóa), không đọc lại toàn bộ lịch.
+ */
+@Component
+public class GoogleCalendarChangeFeed implements CalendarChangeFeed {
+
+    // Lấy mốc: chỉ cần token, không tải nội dung sự kiện
+    private static final String BASELINE_FIELDS = "nextPageToken,nextSyncToken";
+    private static final String DELTA_FIELDS = "nextPageToken,nextSyncToken,items(id,status,start,end)";
+    private static final int PAGE_SIZE = 2500;
+
+    private final GoogleCalendarClientPool clientPool;
+
+    public GoogleCalendarChangeFeed(GoogleCalendarClientPool clientPool) {
+        this.clientPool = clientPool;
+    }
+
+    @Override
+    public ChangePage fetchChanges(Long userId, String syncToken) throws IOException, SyncTokenExpiredException {
+        Optional<Calendar> service = clientPool.clientFor(userId);
+        if (service.isEmpty()) {
+            return new ChangePage(List.of(), null);
+        }
+
+        List<EventChange> changes = new ArrayList<>();
+        String pageToken = null;
+        try {
+            while (true) {
+                Calendar.Events.List request = service.get().events().list("primary")
+                        .setMaxResults(PAGE_SIZE)
+                        .setPageToken(pageToken);
+                if (syncToken == null) {
+                    request.setFields(BASELINE_FIELDS);
+                } else {
+                    request.setSyncToken(syncToken).setFields(DELTA_FIELDS);
+                }
+                Events page = request.execute();
+                if (syncToken != null && page.getItems() != null) {
+                    page.getItems().forEach(event -> changes.add(toChange(event)));
+                }
+                pageToken = page.getNextPageToken();
+                if (pageToken == null) {
+                    return new ChangePage(changes, page.getNextSyncToken());
+                }
+            }
+        } catch (GoogleJsonResponseException e) {
+            if (e.getStatusCode() == 410) {
+                throw new SyncTokenExpiredException("syncToken của user " + userId + " đã hết hiệu lực");
+            }
+            clientPool.onRequestFailed(userId, e);
+            throw e;
+        } catch (IOException e) {
+            clientPool.onRequestFailed(userId, e);
+            throw e;
+        }
+    }
+
+    private static EventChange toChange(Event event) {
+        boolean cancelled = "cancelled".equals(event.getStatus());
+        return new EventChange(event.getId(), cancelled,
+                cancelled ? null : toLocal(event.getStart()),
+                cancelled ? null : toLocal(event.getEnd()));
+    }
+
+    // Cùng múi giờ với lúc đẩy lên (GoogleCalendarAdapter.toEventDateTime)
+    private static LocalDateTime toLocal(EventDateTime time) {
+        DateTime dateTime = time != null ? time.getDateTime() : null;
+        if (dateTime == null) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(dateTime.getValue()), ZoneId.systemDefault());
+    }
+}
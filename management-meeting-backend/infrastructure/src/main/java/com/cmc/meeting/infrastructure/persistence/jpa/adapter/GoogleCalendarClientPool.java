@@ -0,0 +1,155 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.adapter;
+
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.UserEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataUserRepository;
+import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.calendar.Calendar;
+import com.google.auth.http.HttpCredentialsAdapter;
+import com.google.auth.oauth2.UserCredentials;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Client Google Calendar dùng lại giữa các lần đồng bộ.
+ *
+ * - 1 HTTP transport chung cho cả ứng dụng (trước đây mỗi lần gọi đều nạp keystore + bắt tay TLS mới).
+ * - Cache LRU (tối đa 'max-clients') Calendar client theo user. UserCredentials bên trong tự giữ
+ *   access token tới khi hết hạn -> không phải đổi refresh token lấy access token cho mỗi lần đồng bộ.
+ * - User chưa liên kết Google cũng được cache (client rỗng) để khỏi truy vấn user mỗi lần.
+ * - Bị xóa khỏi cache khi: GoogleAuthService lưu refresh token mới, Google trả 401 / làm mới token lỗi,
+ *   hoặc quá ENTRY_TTL (giới hạn độ trễ khi user liên kết/đổi token trên replica khác).
+ */
+@Component
+public class GoogleCalendarClientPool {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleCalendarClientPool.class);
+
+    static final String APPLICATION_NAME = "CMC Meeting App";
+    private static final Duration ENTRY_TTL = Duration.ofMinutes(30);
+
+    private final SpringDataUserRepository userRepository;
+    private final NetHttpTransport transport;
+    private final JsonFactory jsonFactory = GsonFactory.getDefaultInstance();
+
+    @Value("${google.client.id}")
+    private String clientId;
+
+    @Value("${google.client.secret}")
+    private String clientSecret;
+
+    // Để trống = API thật của Google; đặt URL khác để chạy với server Calendar giả lập (kiểm thử cục bộ)
+    @Value("${app.google-calendar.root-url:}")
+    private String rootUrl;
+
+    @Value("${app.google-calendar.token-url:}")
+    private String tokenUrl;
+
+    // --- Được bảo vệ bởi 'this' --- (accessOrder = true: LRU)
+    private final Map<Long, CachedClient> clients;
+    // Tăng mỗi lần invalidate: client tạo từ dữ liệu đọc TRƯỚC lần invalidate thì không đưa vào cache
+    private long generation;
+
+    private record CachedClient(Calendar client, long loadedAtNanos) {
+    }
+
+    public GoogleCalendarClientPool(SpringDataUserRepository userRepository,
+                                    @Value("${app.google-calendar.max-clients:500}") int maxClients) {
+        this.userRepository = userRepository;
+        this.transport = newTransport();
+        this.clients = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedClient> eldest) {
+                return size() > maxClients;
+            }
+        };
+    }
+
+    private static NetHttpTransport newTransport() {
+        try {
+            return GoogleNetHttpTransport.newTrustedTransport();
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException("Không khởi tạo được HTTP transport cho Google API", e);
+        }
+    }
+
+    public NetHttpTransport getTransport() {
+        return transport;
+    }
+
+    public JsonFactory getJsonFactory() {
+        return jsonFactory;
+    }
+
+    /**
+     * Client của user; rỗng nếu user không tồn tại hoặc chưa liên kết Google.
+     */
+    public Optional<Calendar> clientFor(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        long loadGeneration;
+        synchronized (this) {
+            CachedClient cached = clients.get(userId);
+            if (cached != null && System.nanoTime() - cached.loadedAtNanos() < ENTRY_TTL.toNanos()) {
+                return Optional.ofNullable(cached.client());
+            }
+            loadGeneration = generation;
+        }
+
+        // Tạo ngoài khóa (truy vấn CSDL); 2 luồng cùng tạo cho 1 user thì bản sau ghi đè, vô hại
+        UserEntity user = userRepository.findById(userId).orElse(null);
+        Calendar client = null;
+        if (user != null && user.isGoogleLinked() && user.getGoogleRefreshToken() != null) {
+            UserCredentials credentials = UserCredentials.newBuilder()
+                    .setClientId(clientId)
+                    .setClientSecret(clientSecret)
+                    .setRefreshToken(user.getGoogleRefreshToken())
+                    .setHttpTransportFactory(() -> transport)
+                    .setTokenServerUri(tokenUrl.isBlank() ? null : URI.create(tokenUrl))
+                    .build();
+            Calendar.Builder builder = new Calendar.Builder(transport, jsonFactory, new HttpCredentialsAdapter(credentials))
+                    .setApplicationName(APPLICATION_NAME);
+            if (!rootUrl.isBlank()) {
+                builder.setRootUrl(rootUrl);
+            }
+            client = builder.build();
+        }
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                clients.put(userId, new CachedClient(client, System.nanoTime()));
+            }
+        }
+        return Optional.ofNullable(client);
+    }
+
+    public synchronized void invalidate(Long userId) {
+        generation++;
+        clients.remove(userId);
+    }
+
+    /**
+     * Gọi khi 1 request tới Google lỗi: 401 hoặc lỗi không phải phản hồi HTTP của Calendar API
+     * (thường là làm mới token thất bại, vd: refresh token bị thu hồi) -> bỏ client để lần sau tạo lại.
+     */
+    public void onRequestFailed(Long userId, Exception e) {
+        if (e instanceof GoogleJsonResponseException response && response.getStatusCode() != 401) {
+            return;
+        }
+        log.debug("GOOGLE: Bỏ client đã cache của user {}: {}", userId, e.getMessage());
+        invalidate(userId);
+    }
+}
@@ -0,0 +1,35 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.adapter;
+
+import com.cmc.meeting.domain.port.repository.MeetingReminderRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+@Repository
+public class MeetingReminderRepositoryAdapter implements MeetingReminderRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MeetingReminderRepositoryAdapter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * INSERT IGNORE trên khóa chính: node nào chèn được dòng thì node đó gửi. Chạy trong transaction
+     * của việc gửi nhắc (thông báo + outbox email), rollback thì dòng này cũng mất -> lần sau gửi lại.
+     */
+    @Override
+    public boolean markSent(Long meetingId, int offsetMinutes, LocalDateTime startTime) {
+        return jdbcTemplate.update(
+                "INSERT IGNORE INTO meeting_reminder_log (meeting_id, offset_minutes, start_time, sent_at) " +
+                "VALUES (?, ?, ?, ?)",
+                meetingId, offsetMinutes, Timestamp.valueOf(startTime), Timestamp.valueOf(LocalDateTime.now())) == 1;
+    }
+
+    @Override
+    public int deleteSentBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM meeting_reminder_log WHERE sent_at < ?", Timestamp.valueOf(cutoff));
+    }
+}
@@ -1,28 +1,38 @@
 package com.cmc.meeting.infrastructure.persistence.jpa.adapter;
 
+import com.cmc.meeting.domain.model.BookingStatus;
+import com.cmc.meeting.domain.model.BusySlot;
+import com.cmc.meeting.domain.model.ConfirmedBooking;
 import com.cmc.meeting.domain.model.Device;
 import com.cmc.meeting.domain.model.Meeting;
 import com.cmc.meeting.domain.model.MeetingParticipant;
 import com.cmc.meeting.domain.model.User;
 import com.cmc.meeting.domain.port.repository.MeetingRepository;
 
+import com.cmc.meeting.infrastructure.booking.ConfirmedBookingIndex;
 import com.cmc.meeting.infrastructure.persistence.jpa.entity.DeviceEntity;
 import com.cmc.meeting.infrastructure.persistence.jpa.entity.MeetingEntity;
 import com.cmc.meeting.infrastructure.persistence.jpa.entity.MeetingParticipantEntity;
 import com.cmc.meeting.infrastructure.persistence.jpa.entity.UserEntity;
 import com.cmc.meeting.infrastructure.persistence.jpa.repository.*;
+import com.cmc.meeting.infrastructure.persistence.jpa.mapper.JpaEntityMapper;
+import com.cmc.meeting.infrastructure.timeline.UserMeetingTimelineProjector;
 import jakarta.annotation.PostConstruct;
 
 import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeMap;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Repository
@@ -30,23 +40,79 @@ public class MeetingRepositoryAdapter implements MeetingRepository {
 
     private final SpringDataMeetingRepository jpaRepository;
     private final ModelMapper modelMapper;
+    private final ConfirmedBookingIndex bookingIndex;
+    private final JpaEntityMapper entityMapper;
+    private final SpringDataUserMeetingTimelineRepository timelineRepository;
+    private final UserMeetingTimelineProjector timelineProjector;
+    private final SpringDataRoomRepository roomJpaRepository;
+    private final SpringDataUserRepository userJpaRepository;
+    private final SpringDataDeviceRepository deviceJpaRepository;
+
+    // Các cột của user_meeting_timeline cho phép sắp xếp (tham số sort từ client)
+    private static final Set<String> TIMELINE_SORTABLE = Set.of("startTime", "endTime", "title", "status");
+
+    // Tắt để quay về kiểm tra trùng lịch trực tiếp bằng CSDL
+    @Value("${app.booking-index.enabled:true}")
+    private boolean bookingIndexEnabled;
 
     public MeetingRepositoryAdapter(SpringDataMeetingRepository jpaRepository,
-            ModelMapper modelMapper) {
+            ModelMapper modelMapper,
+            ConfirmedBookingIndex bookingIndex,
+            JpaEntityMapper entityMapper,
+            SpringDataUserMeetingTimelineRepository timelineRepository,
+            UserMeetingTimelineProjector timelineProjector,
+            SpringDataRoomRepository roomJpaRepository,
+            SpringDataUserRepository userJpaRepository,
+            SpringDataDeviceRepository deviceJpaRepository) {
         this.jpaRepository = jpaRepository;
         this.modelMapper = modelMapper;
+        this.bookingIndex = bookingIndex;
+        this.entityMapper = entityMapper;
+        this.timelineRepository = timelineRepository;
+        this.timelineProjector = timelineProjector;
+        this.roomJpaRepository = roomJpaRepository;
+        this.userJpaRepository = userJpaRepository;
+        this.deviceJpaRepository = deviceJpaRepository;
     }
 
     @Override
     public Meeting save(Meeting meeting) {
+        boolean isNew = meeting.getId() == null;
         MeetingEntity entity = toEntity(meeting);
         if (meeting.getGoogleEventId() != null) {
             entity.setGoogleEventId(meeting.getGoogleEventId());
         }
         MeetingEntity savedEntity = jpaRepository.save(entity);
+        bumpBookingVersions(List.of(savedEntity));
+        bookingIndex.stage(savedEntity);
+        timelineProjector.project(List.of(savedEntity), isNew);
         return toDomain(savedEntity);
     }
 
+    @Override
+    public List<Meeting> saveAll(List<Meeting> meetings) {
+        boolean allNew = meetings.stream().allMatch(m -> m.getId() == null);
+        List<MeetingEntity> entities = meetings.stream()
+                .map(this::toEntity)
+                .collect(Collectors.toList());
+        // ID lấy từ id_generators (không phải IDENTITY) nên persist chưa bắn SQL;
+        // khi flush Hibernate gộp meetings / participants / devices / guests thành các lệnh batch
+        List<MeetingEntity> savedEntities = jpaRepository.saveAll(entities);
+        bumpBookingVersions(savedEntities);
+        savedEntities.forEach(bookingIndex::stage);
+        timelineProjector.project(savedEntities, allNew);
+        return savedEntities.stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void updateGoogleEventIds(Map<Long, String> googleEventIdByMeetingId) {
+        // Google Event ID không nằm trong chỉ mục lịch / timeline nên không cần chiếu lại
+        googleEventIdByMeetingId.forEach(jpaRepository::updateGoogleEventId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<Meeting> findById(Long id) {
@@ -55,12 +121,18 @@ public class MeetingRepositoryAdapter implements MeetingRepository {
 
     @Override
     public boolean isRoomBusy(Long roomId, LocalDateTime startTime, LocalDateTime endTime, Long meetingIdToIgnore) {
+        if (useBookingIndex()) {
+            return !bookingIndex.findRoomConflicts(roomId, startTime, endTime, meetingIdToIgnore).isEmpty();
+        }
         return jpaRepository.findRoomOverlap(roomId, startTime, endTime, meetingIdToIgnore);
     }
 
     @Override
     public List<Meeting> findConfirmedMeetingsInTimeRange(Long roomId, LocalDateTime startTime, LocalDateTime endTime,
             Long meetingIdToIgnore) {
+        if (useBookingIndex()) {
+            return loadConflicts(bookingIndex.findRoomConflicts(roomId, startTime, endTime, meetingIdToIgnore));
+        }
         // Gọi hàm Query đã viết trong SpringDataMeetingRepository
         List<MeetingEntity> entities = jpaRepository.findConfirmedMeetingsInTimeRange(roomId, startTime, endTime, meetingIdToIgnore);
         return entities.stream()
@@ -68,6 +140,63 @@ public class MeetingRepositoryAdapter implements MeetingRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<BusySlot> findUserBusySlots(Set<Long> userIds, LocalDateTime from, LocalDateTime to) {
+        if (userIds == null || userIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return toBusySlots(jpaRepository.findUserBusySlots(userIds, from, to));
+    }
+
+    @Override
+    public List<BusySlot> findRoomBusySlots(Set<Long> roomIds, LocalDateTime from, LocalDateTime to) {
+        if (roomIds == null || roomIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return toBusySlots(jpaRepository.findRoomBusySlots(roomIds, from, to));
+    }
+
+    // [ownerId, startTime, endTime, status]
+    private List<BusySlot> toBusySlots(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> new BusySlot((Long) row[0], (LocalDateTime) row[1], (LocalDateTime) row[2],
+                        row[3] == BookingStatus.PENDING_APPROVAL))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Long> rejectPendingConflicts(Long roomId, LocalDateTime startTime, LocalDateTime endTime,
+            Long excludedMeetingId, String reason) {
+        List<Long> ids = jpaRepository.findPendingConflictIds(roomId, startTime, endTime, excludedMeetingId);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        jpaRepository.rejectPendingByIds(ids, reason);
+        // Lịch PENDING không có trong chỉ mục CONFIRMED, chỉ cần cập nhật timeline
+        timelineProjector.updateStatus(ids, BookingStatus.REJECTED);
+        return ids;
+    }
+
+    @Override
+    public List<Meeting> findAllByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jpaRepository.findAllWithDetailsByIdIn(ids).stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Meeting> findAllByGoogleEventIds(Collection<String> googleEventIds) {
+        if (googleEventIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jpaRepository.findAllWithDetailsByGoogleEventIdIn(googleEventIds).stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<Meeting> findPendingConflicts(Long roomId, LocalDateTime startTime, LocalDateTime endTime,
             Long excludedMeetingId) {
@@ -81,6 +210,115 @@ public class MeetingRepositoryAdapter implements MeetingRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<ConfirmedBooking> lockRoomAndFindConfirmedBookings(Long roomId, LocalDateTime from, LocalDateTime to) {
+        // Thứ tự cố định: khóa phòng trước, rồi mới khóa các lịch của phòng (tránh deadlock)
+        roomJpaRepository.lockById(roomId);
+        return jpaRepository.findConfirmedInRoomForUpdate(roomId, from, to).stream()
+                .map(m -> new ConfirmedBooking(m.getId(), roomId, m.getStartTime(), m.getEndTime(),
+                        new HashSet<>(), new HashSet<>()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void lockUsersAndDevices(Set<Long> userIds, Set<Long> deviceIds) {
+        // Thứ tự cố định: phòng (lockRoomAndFindConfirmedBookings) -> người -> thiết bị, mỗi loại theo id tăng dần
+        // Phiên bản đọc được dưới khóa cho biết chỉ mục có đủ lịch của các khóa này không (ConfirmedBookingIndex)
+        Map<Long, Long> userVersions = (userIds == null || userIds.isEmpty()) ? Map.of()
+                : toVersions(userJpaRepository.lockBookingVersions(userIds));
+        Map<Long, Long> deviceVersions = (deviceIds == null || deviceIds.isEmpty()) ? Map.of()
+                : toVersions(deviceJpaRepository.lockBookingVersions(deviceIds));
+        bookingIndex.recordLockedVersions(userVersions, deviceVersions);
+    }
+
+    // Lịch CONFIRMED mới / đổi giờ / đổi người / đổi thiết bị: tăng booking_version của các user / thiết bị
+    // liên quan (giữ khóa dòng tới hết transaction) -> chỉ mục của các node khác biết mình đã cũ
+    private void bumpBookingVersions(List<MeetingEntity> saved) {
+        Set<Long> userIds = new TreeSet<>();
+        Set<Long> deviceIds = new TreeSet<>();
+        for (MeetingEntity m : saved) {
+            if (bookingIndex.changesConfirmedBooking(m)) {
+                m.getParticipants().stream().filter(p -> p.getUser() != null)
+                        .forEach(p -> userIds.add(p.getUser().getId()));
+                m.getDevices().forEach(d -> deviceIds.add(d.getId()));
+            }
+        }
+        Map<Long, Long> userVersions = Map.of();
+        if (!userIds.isEmpty()) {
+            userJpaRepository.incrementBookingVersions(userIds);
+            userVersions = toVersions(userJpaRepository.findBookingVersions(userIds));
+        }
+        Map<Long, Long> deviceVersions = Map.of();
+        if (!deviceIds.isEmpty()) {
+            deviceJpaRepository.incrementBookingVersions(deviceIds);
+            deviceVersions = toVersions(deviceJpaRepository.findBookingVersions(deviceIds));
+        }
+        if (!userVersions.isEmpty() || !deviceVersions.isEmpty()) {
+            bookingIndex.recordBumpedVersions(userVersions, deviceVersions);
+        }
+    }
+
+    private static Map<Long, Long> toVersions(List<Object[]> rows) {
+        Map<Long, Long> versions = new HashMap<>();
+        for (Object[] row : rows) {
+            versions.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return versions;
+    }
+
+    @Override
+    public List<ConfirmedBooking> findConfirmedBookingsInWindow(Long roomId, Set<Long> userIds, Set<Long> deviceIds,
+            LocalDateTime from, LocalDateTime to) {
+        Map<Long, ConfirmedBooking> result = new LinkedHashMap<>();
+
+        // Phòng: chỉ mục đủ dùng (phòng luôn được kiểm tra lại dưới khóa phòng / khi duyệt)
+        if (useBookingIndex()) {
+            bookingIndex.findRoomBookings(roomId, from, to, null).values()
+                    .forEach(b -> bookingOf(result, b.meetingId(), b.roomId(), b.startTime(), b.endTime()));
+        } else {
+            for (Object[] row : jpaRepository.findConfirmedRoomSlotsInWindow(roomId, from, to)) {
+                bookingOf(result, (Long) row[0], roomId, (LocalDateTime) row[1], (LocalDateTime) row[2]);
+            }
+        }
+
+        // Người / thiết bị: chỉ mục trả lời khi đã theo kịp các khóa vừa khóa dòng (lockUsersAndDevices),
+        // không thì đọc CSDL (vd: vừa có lịch chốt ở node khác)
+        if (userIds != null && !userIds.isEmpty()) {
+            if (useBookingIndex() && bookingIndex.isCurrentForUsers(userIds)) {
+                for (MeetingEntity m : confirmConflicts(bookingIndex.findUserConflicts(userIds, from, to, null),
+                        from, to, m -> true)) {
+                    Set<Long> matched = bookingOf(result, m.getId(), m.getRoom().getId(), m.getStartTime(),
+                            m.getEndTime()).getUserIds();
+                    m.getParticipants().stream().map(p -> p.getUser().getId()).filter(userIds::contains)
+                            .forEach(matched::add);
+                }
+            } else {
+                for (MeetingParticipantEntity p : jpaRepository.findConfirmedParticipationsInWindow(userIds, from, to)) {
+                    MeetingEntity m = p.getMeeting();
+                    bookingOf(result, m.getId(), m.getRoom().getId(), m.getStartTime(), m.getEndTime())
+                            .getUserIds().add(p.getUser().getId());
+                }
+            }
+        }
+        if (deviceIds != null && !deviceIds.isEmpty()) {
+            List<MeetingEntity> deviceBookings = (useBookingIndex() && bookingIndex.isCurrentForDevices(deviceIds))
+                    ? confirmConflicts(bookingIndex.findDeviceConflicts(deviceIds, from, to, null), from, to, m -> true)
+                    : jpaRepository.findConflictingMeetingsForDevices(deviceIds, from, to, null);
+            for (MeetingEntity m : deviceBookings) {
+                Set<Long> matched = bookingOf(result, m.getId(), m.getRoom().getId(), m.getStartTime(), m.getEndTime())
+                        .getDeviceIds();
+                m.getDevices().stream().map(DeviceEntity::getId).filter(deviceIds::contains).forEach(matched::add);
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    private ConfirmedBooking bookingOf(Map<Long, ConfirmedBooking> result, Long meetingId, Long roomId,
+            LocalDateTime startTime, LocalDateTime endTime) {
+        return result.computeIfAbsent(meetingId,
+                id -> new ConfirmedBooking(id, roomId, startTime, endTime, new HashSet<>(), new HashSet<>()));
+    }
+
     @Override
     public List<Meeting> findAllByUserId(Long userId) {
         return jpaRepository.findAllByUserId(userId).stream()
@@ -97,67 +335,42 @@ public class MeetingRepositoryAdapter implements MeetingRepository {
 
     // --- CÁC HÀM HELPER (ĐÃ SỬA LỖI MAPPING) ---
 
-    private Meeting toDomain(MeetingEntity entity) {
-        if (entity == null)
-            return null;
-
-        // 1. Map các trường đơn giản
-        Meeting meeting = modelMapper.map(entity, Meeting.class);
-
-        // 2. Map 'participants' - GIỜ ĐÂY DỄ DÀNG HƠN VÌ ĐÃ LÀ ENTITY
-        if (entity.getParticipants() != null && !entity.getParticipants().isEmpty()) {
-
-            Set<MeetingParticipant> participants = entity.getParticipants().stream()
-                    .map(partEntity -> {
-                        // User đã có sẵn trong Entity
-                        User user = modelMapper.map(partEntity.getUser(), User.class);
-
-                        MeetingParticipant p = new MeetingParticipant(user, partEntity.getStatus(),
-                                partEntity.getResponseToken());
-                        p.setId(partEntity.getId());
-                        p.setCheckedInAt(partEntity.getCheckedInAt());
-                        p.setMeeting(meeting);
-                        return p;
-                    })
-                    .collect(Collectors.toSet());
-
-            meeting.setParticipants(participants);
+    private boolean useBookingIndex() {
+        return bookingIndexEnabled && bookingIndex.isReady();
+    }
+
+    // Xác nhận lại bằng CSDL các xung đột chỉ mục báo (chỉ mục có thể cũ: lịch đã hủy / dời ở node khác)
+    private List<MeetingEntity> confirmConflicts(Set<Long> meetingIds, LocalDateTime startTime, LocalDateTime endTime,
+            Predicate<MeetingEntity> involved) {
+        if (meetingIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jpaRepository.findAllById(meetingIds).stream()
+                .filter(m -> m.getStatus() == BookingStatus.CONFIRMED
+                        && m.getStartTime().isBefore(endTime) && m.getEndTime().isAfter(startTime))
+                .filter(involved)
+                .sorted(Comparator.comparing(MeetingEntity::getStartTime))
+                .collect(Collectors.toList());
+    }
+
+    // Chỉ chạm CSDL khi chỉ mục báo có xung đột (để lấy chi tiết hiển thị thông báo lỗi)
+    private List<Meeting> loadConflicts(Set<Long> meetingIds) {
+        if (meetingIds.isEmpty()) {
+            return new ArrayList<>();
         }
+        return jpaRepository.findAllById(meetingIds).stream()
+                .sorted(Comparator.comparing(MeetingEntity::getStartTime))
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
 
-        return meeting;
+    // Mapper viết tay (thay ModelMapper) - đường nóng của mọi danh sách cuộc họp
+    private Meeting toDomain(MeetingEntity entity) {
+        return entityMapper.toDomain(entity);
     }
 
     private MeetingEntity toEntity(Meeting meeting) {
-        if (meeting == null)
-            return null;
-        MeetingEntity entity = modelMapper.map(meeting, MeetingEntity.class);
-
-        if (meeting.getParticipants() != null) {
-            Set<MeetingParticipantEntity> participantEntities = meeting.getParticipants().stream()
-                    .map(participant -> {
-                        MeetingParticipantEntity partEntity = new MeetingParticipantEntity();
-                        if (participant.getId() != null) {
-                            partEntity.setId(participant.getId());
-                        }
-
-                        // Set User Entity (Giả định Hibernate sẽ xử lý reference nếu chỉ có ID, hoặc
-                        // phải fetch)
-                        // Tốt nhất là fetch UserEntity từ DB nếu đây là update, hoặc tạo reference
-                        UserEntity userEntity = new UserEntity();
-                        userEntity.setId(participant.getUser().getId());
-                        partEntity.setUser(userEntity);
-
-                        partEntity.setStatus(participant.getStatus());
-                        partEntity.setResponseToken(participant.getResponseToken());
-                        partEntity.setCheckedInAt(participant.getCheckedInAt());
-                        partEntity.setMeeting(entity); // Liên kết 2 chiều
-
-                        return partEntity;
-                    })
-                    .collect(Collectors.toSet());
-            entity.setParticipants(participantEntities);
-        }
-        return entity;
+        return entityMapper.toEntity(meeting);
     }
 
     @Override
@@ -198,13 +411,7 @@ public class MeetingRepositoryAdapter implements MeetingRepository {
 
     @PostConstruct
     public void configureMapper() {
-        TypeMap<MeetingEntity, Meeting> entityToDomainMap = modelMapper.typeMap(MeetingEntity.class, Meeting.class);
-        // Skip để map thủ công trong toDomain()
-        entityToDomainMap.addMappings(mapper -> mapper.skip(Meeting::setParticipants));
-
-        TypeMap<Meeting, MeetingEntity> domainToEntityMap = modelMapper.typeMap(Meeting.class, MeetingEntity.class);
-        domainToEntityMap.addMappings(mapper -> mapper.skip(MeetingEntity::setParticipants));
-
+        // Meeting <-> MeetingEntity đi qua JpaEntityMapper; ModelMapper chỉ còn cho Device (DeviceRepositoryAdapter)
         modelMapper.createTypeMap(DeviceEntity.class, Device.class);
         modelMapper.createTypeMap(Device.class, DeviceEntity.class);
     }
@@ -230,16 +437,84 @@ public class MeetingRepositoryAdapter implements MeetingRepository {
 
     @Override
     public Page<Meeting> findAllByUserId(Long userId, Pageable pageable) {
-        Page<MeetingEntity> page = jpaRepository.findMyMeetings(userId, pageable);
-        return page.map(this::toDomain);
+        if (!timelineProjector.isReady()) {
+            // Timeline chưa backfill xong: dùng truy vấn JOIN + DISTINCT cũ
+            Page<MeetingEntity> page = jpaRepository.findMyMeetings(userId, pageable);
+            return page.map(this::toDomain);
+        }
+
+        // 1. Quét khoảng trên user_meeting_timeline (user_id, start_time) -> 1 trang ID
+        Page<Long> idPage = timelineRepository.findMeetingIdsByUserId(userId, toTimelinePageable(pageable));
+        if (idPage.isEmpty()) {
+            return new PageImpl<>(new ArrayList<>(), pageable, idPage.getTotalElements());
+        }
+
+        // 2. Nạp chi tiết trang đó theo khóa chính, giữ nguyên thứ tự của timeline
+        List<Meeting> content = loadInOrder(idPage.getContent());
+        return new PageImpl<>(content, pageable, idPage.getTotalElements());
+    }
+
+    @Override
+    public List<Meeting> findMyMeetingsAfter(Long userId, LocalDateTime cursorStartTime, Long cursorId, int limit) {
+        if (!timelineProjector.isReady()) {
+            return jpaRepository.findMyMeetingsAfter(userId, cursorStartTime, cursorId, PageRequest.of(0, limit))
+                    .stream()
+                    .map(this::toDomain)
+                    .collect(Collectors.toList());
+        }
+        List<Long> ids = timelineRepository.findMeetingIdsByUserIdAfter(userId, cursorStartTime, cursorId,
+                PageRequest.of(0, limit));
+        return loadInOrder(ids);
+    }
+
+    @Override
+    public List<Meeting> findAllMeetingsAfter(LocalDateTime cursorStartTime, Long cursorId, int limit) {
+        return jpaRepository.findAllMeetingsAfter(cursorStartTime, cursorId, PageRequest.of(0, limit)).stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    // Nạp chi tiết theo khóa chính, giữ thứ tự của danh sách ID
+    private List<Meeting> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, MeetingEntity> byId = jpaRepository.findAllWithDetailsByIdIn(ids).stream()
+                .collect(Collectors.toMap(MeetingEntity::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    private Pageable toTimelinePageable(Pageable pageable) {
+        List<Sort.Order> orders = pageable.getSort().stream()
+                .filter(order -> TIMELINE_SORTABLE.contains(order.getProperty()))
+                .collect(Collectors.toList());
+        Sort sort = orders.isEmpty() ? Sort.by(Sort.Direction.DESC, "startTime") : Sort.by(orders);
+        // Thêm meetingId để thứ tự ổn định giữa các trang
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                sort.and(Sort.by(Sort.Direction.DESC, "meetingId")));
     }
 
     @Override
     public List<Meeting> findConflictingMeetingsForUsers(Set<Long> userIds, LocalDateTime startTime,
             LocalDateTime endTime, Long meetingIdToIgnore) {
+        if (useBookingIndex()) {
+            // Xung đột chỉ mục báo luôn được xác nhận theo khóa chính (lịch có thể đã hủy / dời ở node khác).
+            // Không thấy xung đột: chỉ mục đã theo kịp (isCurrentForUsers) thì tin luôn, không thì hỏi CSDL
+            List<MeetingEntity> confirmed = confirmConflicts(
+                    bookingIndex.findUserConflicts(userIds, startTime, endTime, meetingIdToIgnore), startTime, endTime,
+                    m -> m.getParticipants().stream().anyMatch(p -> userIds.contains(p.getUser().getId())));
+            if (!confirmed.isEmpty() || bookingIndex.isCurrentForUsers(userIds)) {
+                return confirmed.stream().map(this::toDomain).collect(Collectors.toList());
+            }
+        }
         List<MeetingEntity> entities = jpaRepository.findConflictingMeetingsForUsers(userIds, startTime, endTime,
                 meetingIdToIgnore);
         return entities.stream()
+                .distinct()
                 .map(this::toDomain)
                 .collect(Collectors.toList());
     }
@@ -260,7 +535,17 @@ public class MeetingRepositoryAdapter implements MeetingRepository {
             Long meetingIdToIgnore) {
         if (deviceIds == null || deviceIds.isEmpty())
             return false;
-        return jpaRepository.existsConflictingDevice(deviceIds, startTime, endTime, meetingIdToIgnore);
+        if (useBookingIndex()) {
+            // Như findConflictingMeetingsForUsers
+            boolean busy = !confirmConflicts(
+                    bookingIndex.findDeviceConflicts(deviceIds, startTime, endTime, meetingIdToIgnore), startTime,
+                    endTime, m -> m.getDevices().stream().anyMatch(d -> deviceIds.contains(d.getId()))).isEmpty();
+            if (busy || bookingIndex.isCurrentForDevices(deviceIds)) {
+                return busy;
+            }
+        }
+        return !jpaRepository.findConflictingMeetingsForDevices(deviceIds, startTime, endTime, meetingIdToIgnore)
+                .isEmpty();
     }
 
     @Override
@@ -297,6 +582,27 @@ public class MeetingRepositoryAdapter implements MeetingRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, LocalDateTime> findConfirmedStartTimes(LocalDateTime from, LocalDateTime to) {
+        return toStartTimeMap(jpaRepository.findConfirmedStartTimes(from, to));
+    }
+
+    @Override
+    public Map<Long, LocalDateTime> findConfirmedStartTimesByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        return toStartTimeMap(jpaRepository.findConfirmedStartTimesByIds(ids));
+    }
+
+    private static Map<Long, LocalDateTime> toStartTimeMap(List<Object[]> rows) {
+        Map<Long, LocalDateTime> result = new HashMap<>();
+        for (Object[] row : rows) {
+            result.put((Long) row[0], (LocalDateTime) row[1]);
+        }
+        return result;
+    }
+
     @Override
     public Optional<Meeting> findCurrentMeetingAtRoom(Long roomId, LocalDateTime checkTime) {
         // Gọi hàm findActiveMeetingInRoom vừa thêm ở Bước 1
@@ -0,0 +1,126 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.adapter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Phân vùng theo tháng (RANGE TO_DAYS(created_at)) cho bảng notifications_archive (chỉ MySQL).
+ *
+ * - Khi khởi động: chuyển bảng sang dạng phân vùng nếu chưa có (bảng mới tạo / còn nhỏ nên ALTER nhanh).
+ * - Luôn giữ sẵn phân vùng cho tháng hiện tại + MONTHS_AHEAD tháng tới, tách ra từ pmax.
+ * - Dọn dữ liệu cũ: DROP PARTITION các tháng đã nằm trọn trước mốc (tức thời, không quét dòng).
+ *
+ * Không dùng được (CSDL khác MySQL, thiếu quyền...) thì tắt đi; việc dọn dẹp quay về DELETE theo lô.
+ * Bảng notifications (nóng) KHÔNG phân vùng: MySQL không cho phân vùng bảng có khóa ngoại.
+ */
+@Component
+public class NotificationArchivePartitions {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationArchivePartitions.class);
+
+    static final String TABLE = "notifications_archive";
+    private static final int MONTHS_AHEAD = 3;
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile boolean enabled = false;
+
+    public NotificationArchivePartitions(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (listPartitions().isEmpty()) {
+                partitionTable();
+            }
+            enabled = true;
+            ensureFuturePartitions();
+        } catch (Exception e) {
+            enabled = false;
+            log.warn("RETENTION: Không phân vùng được {} ({}), dùng DELETE theo lô.", TABLE, e.getMessage());
+        }
+    }
+
+    /**
+     * Tách pmax để luôn có sẵn phân vùng cho các tháng sắp tới (gọi mỗi lần chạy job dọn dẹp).
+     */
+    public void ensureFuturePartitions() {
+        if (!enabled) {
+            return;
+        }
+        List<String> existing = listPartitions();
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= MONTHS_AHEAD; i++, month = month.plusMonths(1)) {
+            String name = month.atDay(1).format(NAME_FORMAT);
+            if (!existing.contains(name)) {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION pmax INTO ("
+                        + partitionClause(month) + ", PARTITION pmax VALUES LESS THAN MAXVALUE)");
+                log.info("RETENTION: Đã tạo phân vùng {}.{}", TABLE, name);
+            }
+        }
+    }
+
+    /**
+     * Xóa các phân vùng tháng có toàn bộ dữ liệu trước 'cutoff'. Trả về số phân vùng đã xóa.
+     */
+    public int dropPartitionsBefore(LocalDateTime cutoff) {
+        if (!enabled) {
+            return 0;
+        }
+        List<String> expired = jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                "AND PARTITION_DESCRIPTION <> 'MAXVALUE' " +
+                "AND CAST(PARTITION_DESCRIPTION AS UNSIGNED) <= TO_DAYS(?)",
+                String.class, TABLE, cutoff.toLocalDate());
+        if (!expired.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + String.join(", ", expired));
+            log.info("RETENTION: Đã xóa phân vùng {}: {}", TABLE, expired);
+        }
+        return expired.size();
+    }
+
+    private void partitionTable() {
+        YearMonth current = YearMonth.now();
+        String partitions = IntStream.rangeClosed(0, MONTHS_AHEAD)
+                .mapToObj(i -> partitionClause(current.plusMonths(i)))
+                .collect(Collectors.joining(", "));
+        // p_old: mọi dữ liệu trước tháng hiện tại (lần đầu chuyển đổi)
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " PARTITION BY RANGE (TO_DAYS(created_at)) ("
+                + "PARTITION p_old VALUES LESS THAN (TO_DAYS('" + current.atDay(1) + "')), "
+                + partitions + ", PARTITION pmax VALUES LESS THAN MAXVALUE)");
+        log.info("RETENTION: Đã phân vùng bảng {} theo tháng.", TABLE);
+    }
+
+    // Phân vùng của tháng 'month' chứa các dòng có created_at < ngày 1 tháng kế tiếp
+    private static String partitionClause(YearMonth month) {
+        LocalDate upper = month.plusMonths(1).atDay(1);
+        return "PARTITION " + month.atDay(1).format(NAME_FORMAT) + " VALUES LESS THAN (TO_DAYS('" + upper + "'))";
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+                String.class, TABLE);
+    }
+}
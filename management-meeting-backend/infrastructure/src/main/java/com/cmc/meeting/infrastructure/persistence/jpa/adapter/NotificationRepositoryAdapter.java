@@ -3,14 +3,31 @@ package com.cmc.meeting.infrastructure.persistence.jpa.adapter;
 import com.cmc.meeting.domain.model.Notification;
 import com.cmc.meeting.domain.port.repository.NotificationRepository;
 import com.cmc.meeting.infrastructure.persistence.jpa.entity.NotificationEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.mapper.JpaEntityMapper;
 import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataNotificationRepository;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -18,41 +35,194 @@ import java.util.stream.Collectors;
 public class NotificationRepositoryAdapter implements NotificationRepository {
 
     private final SpringDataNotificationRepository jpaRepository;
-    private final ModelMapper modelMapper;
+    private final JpaEntityMapper entityMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final String INSERT_SQL = "INSERT INTO notifications " +
+            "(message, is_read, created_at, user_id, meeting_id) VALUES (?, ?, ?, ?, ?)";
+
+    // Nghỉ giữa các lô lưu trữ để nhường I/O và khóa cho request thật
+    private static final long ARCHIVE_PAUSE_MS = 50;
 
-    public NotificationRepositoryAdapter(SpringDataNotificationRepository jpaRepository, ModelMapper modelMapper) {
+    private static final String ARCHIVE_COPY_SQL = "INSERT IGNORE INTO " + NotificationArchivePartitions.TABLE +
+            " (id, created_at, message, is_read, user_id, meeting_id, archived_at) " +
+            "SELECT id, created_at, message, is_read, user_id, meeting_id, ? FROM notifications WHERE id IN (%s)";
+
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationArchivePartitions archivePartitions;
+
+    public NotificationRepositoryAdapter(SpringDataNotificationRepository jpaRepository, JpaEntityMapper entityMapper,
+            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            NotificationArchivePartitions archivePartitions) {
         this.jpaRepository = jpaRepository;
-        this.modelMapper = modelMapper;
+        this.entityMapper = entityMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivePartitions = archivePartitions;
     }
 
     @Override
     public Notification save(Notification notification) {
-        NotificationEntity entity = modelMapper.map(notification, NotificationEntity.class);
+        NotificationEntity entity = entityMapper.toEntity(notification);
         NotificationEntity saved = jpaRepository.save(entity);
-        return modelMapper.map(saved, Notification.class);
+        return entityMapper.toDomain(saved);
+    }
+
+    /**
+     * notifications dùng IDENTITY nên Hibernate không batch được INSERT -> ghi thẳng bằng JDBC batch
+     * (cùng connection / transaction với JPA).
+     */
+    @Override
+    public List<Notification> saveAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return notifications;
+        }
+        // Cuộc họp vừa tạo có thể chưa được flush: đẩy xuống trước để khóa ngoại meeting_id hợp lệ
+        jpaRepository.flush();
+        for (int from = 0; from < notifications.size(); from += BATCH_SIZE) {
+            List<Notification> chunk = notifications.subList(from, Math.min(from + BATCH_SIZE, notifications.size()));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Notification n = chunk.get(i);
+                            if (n.getCreatedAt() == null) {
+                                n.setCreatedAt(LocalDateTime.now());
+                            }
+                            ps.setString(1, n.getMessage());
+                            ps.setBoolean(2, n.isRead());
+                            ps.setTimestamp(3, Timestamp.valueOf(n.getCreatedAt()));
+                            ps.setLong(4, n.getUser().getId());
+                            ps.setObject(5, n.getMeeting() != null ? n.getMeeting().getId() : null, Types.BIGINT);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunk.size();
+                        }
+                    },
+                    keyHolder);
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < chunk.size() && i < keys.size(); i++) {
+                chunk.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            }
+        }
+        return notifications;
     }
 
     @Override
     public Optional<Notification> findById(Long id) {
-        return jpaRepository.findById(id).map(e -> modelMapper.map(e, Notification.class));
+        return jpaRepository.findById(id).map(entityMapper::toDomain);
     }
 
     @Override
     public Page<Notification> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable) {
         Page<NotificationEntity> page = jpaRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
         List<Notification> list = page.getContent().stream()
-                .map(e -> modelMapper.map(e, Notification.class))
+                .map(entityMapper::toDomain)
                 .collect(Collectors.toList());
         return new PageImpl<>(list, pageable, page.getTotalElements());
     }
 
+    @Override
+    public List<Notification> findByUserIdAfter(Long userId, LocalDateTime cursorCreatedAt, Long cursorId, int limit) {
+        return jpaRepository.findByUserIdAfter(userId, cursorCreatedAt, cursorId, PageRequest.of(0, limit)).stream()
+                .map(entityMapper::toDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public long countByUserIdAndIsRead(Long userId, boolean isRead) {
         return jpaRepository.countByUserIdAndIsRead(userId, isRead);
     }
 
+    @Override
+    public Map<Long, Long> countUnreadByUserIds(Collection<Long> userIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return counts;
+        }
+        for (Object[] row : jpaRepository.countUnreadGroupByUser(userIds)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
     @Override
     public void markAllAsReadByUserId(Long userId) {
         jpaRepository.markAllAsReadByUserId(userId);
     }
+
+    /**
+     * Quét theo khóa chính tăng dần (keyset id > lastId), chặn trên bởi ID đầu tiên mới hơn 'cutoff'
+     * (ID tăng theo thời gian tạo) nên không bao giờ quét vào vùng dữ liệu nóng.
+     * Mỗi lô: SELECT id -> INSERT ... SELECT sang archive -> DELETE, trong 1 transaction ngắn,
+     * chỉ khóa đúng các dòng của lô.
+     */
+    @Override
+    public int archiveReadBefore(LocalDateTime cutoff, int chunkSize, int maxRows) {
+        Long upperId = jdbcTemplate.query(
+                "SELECT id FROM notifications WHERE created_at >= ? ORDER BY created_at LIMIT 1",
+                rs -> rs.next() ? rs.getLong(1) : null, Timestamp.valueOf(cutoff));
+        long lastId = 0;
+        int moved = 0;
+        while (moved < maxRows) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM notifications WHERE id > ? AND id < ? AND is_read = true AND created_at < ? " +
+                    "ORDER BY id LIMIT ?",
+                    Long.class, lastId, upperId != null ? upperId : Long.MAX_VALUE, Timestamp.valueOf(cutoff),
+                    Math.min(chunkSize, maxRows - moved));
+            if (ids.isEmpty()) {
+                break;
+            }
+            lastId = ids.get(ids.size() - 1);
+            Integer count = transactionTemplate.execute(status -> moveToArchive(ids));
+            moved += count != null ? count : 0;
+            pause();
+        }
+        return moved;
+    }
+
+    private int moveToArchive(List<Long> ids) {
+        String placeholders = ids.stream().map(id -> "?").collect(Collectors.joining(","));
+        Object[] copyArgs = new Object[ids.size() + 1];
+        copyArgs[0] = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < ids.size(); i++) {
+            copyArgs[i + 1] = ids.get(i);
+        }
+        jdbcTemplate.update(String.format(ARCHIVE_COPY_SQL, placeholders), copyArgs);
+        // Điều kiện is_read lặp lại: dòng vừa bị đổi trạng thái thì giữ lại ở bảng nóng
+        return jdbcTemplate.update("DELETE FROM notifications WHERE is_read = true AND id IN (" + placeholders + ")",
+                ids.toArray());
+    }
+
+    @Override
+    public int purgeArchivedBefore(LocalDateTime cutoff, int chunkSize) {
+        int purged = 0;
+        if (archivePartitions.isEnabled()) {
+            archivePartitions.ensureFuturePartitions();
+            archivePartitions.dropPartitionsBefore(cutoff); // Tức thời, số phân vùng được ghi log
+        }
+        // Phần còn lại (tháng chưa trọn, hoặc không phân vùng): DELETE theo lô nhỏ
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM " + NotificationArchivePartitions.TABLE +
+                    " WHERE created_at < ? LIMIT ?", Timestamp.valueOf(cutoff), chunkSize);
+            purged += deleted;
+            pause();
+        } while (deleted == chunkSize);
+        return purged;
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(ARCHIVE_PAUSE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.cmc.meeting.domain.model.Room;
 import com.cmc.meeting.domain.port.repository.RoomRepository;
 import com.cmc.meeting.infrastructure.persistence.jpa.entity.RoomEntity;
 import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataRoomRepository;
+import com.cmc.meeting.infrastructure.timeline.UserMeetingTimelineProjector;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Repository;
 
@@ -19,10 +20,13 @@ public class RoomRepositoryAdapter implements RoomRepository {
 
     private final SpringDataRoomRepository jpaRepository;
     private final ModelMapper modelMapper;
+    private final UserMeetingTimelineProjector timelineProjector;
 
-    public RoomRepositoryAdapter(SpringDataRoomRepository jpaRepository, ModelMapper modelMapper) {
+    public RoomRepositoryAdapter(SpringDataRoomRepository jpaRepository, ModelMapper modelMapper,
+            UserMeetingTimelineProjector timelineProjector) {
         this.jpaRepository = jpaRepository;
         this.modelMapper = modelMapper;
+        this.timelineProjector = timelineProjector;
     }
 
     @Override
@@ -43,6 +47,10 @@ public class RoomRepositoryAdapter implements RoomRepository {
     public Room save(Room room) {
         RoomEntity entity = modelMapper.map(room, RoomEntity.class);
         RoomEntity savedEntity = jpaRepository.save(entity);
+        if (room.getId() != null) {
+            // Đổi tên phòng -> cập nhật tên phòng trong read model user_meeting_timeline
+            timelineProjector.updateRoomName(savedEntity.getId(), savedEntity.getName());
+        }
         return modelMapper.map(savedEntity, Room.class);
     }
 
@@ -3,8 +3,8 @@ package com.cmc.meeting.infrastructure.persistence.jpa.adapter;
 import com.cmc.meeting.domain.model.User;
 import com.cmc.meeting.domain.port.repository.UserRepository;
 import com.cmc.meeting.infrastructure.persistence.jpa.entity.UserEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.mapper.JpaEntityMapper;
 import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataUserRepository;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,11 +16,12 @@ import java.util.stream.Collectors;
 public class UserRepositoryAdapter implements UserRepository {
 
     private final SpringDataUserRepository jpaRepository;
-    private final ModelMapper modelMapper;
+    // Mapper viết tay: User được map ở hầu hết mọi request, không dùng ModelMapper (reflection)
+    private final JpaEntityMapper entityMapper;
 
-    public UserRepositoryAdapter(SpringDataUserRepository jpaRepository, ModelMapper modelMapper) {
+    public UserRepositoryAdapter(SpringDataUserRepository jpaRepository, JpaEntityMapper entityMapper) {
         this.jpaRepository = jpaRepository;
-        this.modelMapper = modelMapper;
+        this.entityMapper = entityMapper;
     }
 
     @Override
@@ -28,7 +29,7 @@ public class UserRepositoryAdapter implements UserRepository {
         // Lấy UserEntity từ DB
         // Map nó sang User (domain model)
         return jpaRepository.findById(id)
-                .map(entity -> modelMapper.map(entity, User.class));
+                .map(entityMapper::toDomain);
     }
 
     @Override
@@ -36,31 +37,31 @@ public class UserRepositoryAdapter implements UserRepository {
         // Lấy UserEntity từ DB
         // Map nó sang User (domain model)
         return jpaRepository.findByUsername(username)
-                .map(entity -> modelMapper.map(entity, User.class));
+                .map(entityMapper::toDomain);
     }
 
     @Override
     public User save(User user) {
         // 1. Map từ Domain Model (User) -> JPA Entity (UserEntity)
-        UserEntity userEntity = modelMapper.map(user, UserEntity.class);
+        UserEntity userEntity = entityMapper.toEntity(user);
 
         // 2. Lưu Entity bằng JpaRepository
         UserEntity savedEntity = jpaRepository.save(userEntity);
 
         // 3. Map ngược từ Entity đã lưu -> Domain Model để trả về
-        return modelMapper.map(savedEntity, User.class);
+        return entityMapper.toDomain(savedEntity);
     }
 
     @Override
     public List<User> findAll() {
         return jpaRepository.findAll().stream()
-                .map(entity -> modelMapper.map(entity, User.class))
+                .map(entityMapper::toDomain)
                 .collect(Collectors.toList());
     }
     @Override
     public List<User> findAllById(Set<Long> ids) {
         return jpaRepository.findAllById(ids).stream()
-                .map(entity -> modelMapper.map(entity, User.class))
+                .map(entityMapper::toDomain)
                 .collect(Collectors.toList());
     }
 
@@ -71,7 +72,7 @@ public class UserRepositoryAdapter implements UserRepository {
         // (Hiện tại, chúng ta sẽ giả định CSDL tự xử lý
         // hoặc chúng ta sẽ xử lý ở Service)
 
-        UserEntity entity = modelMapper.map(user, UserEntity.class);
+        UserEntity entity = entityMapper.toEntity(user);
         jpaRepository.delete(entity);
     }
 
@@ -81,7 +82,7 @@ public class UserRepositoryAdapter implements UserRepository {
 
         // Map từ List<Entity> sang List<Domain Model>
         return entities.stream()
-                .map(entity -> modelMapper.map(entity, User.class))
+                .map(entityMapper::toDomain)
                 .collect(Collectors.toList());
     }
 
@@ -89,7 +90,7 @@ public class UserRepositoryAdapter implements UserRepository {
     public List<User> findAllAdmins() {
         List<UserEntity> entities = jpaRepository.findAllAdmins();
         return entities.stream()
-                .map(entity -> modelMapper.map(entity, User.class))
+                .map(entityMapper::toDomain)
                 .collect(Collectors.toList());
     }
     @Override 
@@ -97,6 +98,6 @@ public class UserRepositoryAdapter implements UserRepository {
         // 1. Tìm UserEntity bằng Auth Service ID
         // 2. Map Entity sang Domain Model (User) để trả về
         return jpaRepository.findByAuthServiceId(authServiceId)
-                .map(entity -> modelMapper.map(entity, User.class));
+                .map(entityMapper::toDomain);
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Đồng bộ bảng id_generators với MAX(id) hiện có.
+ * Bảng meetings / meeting_participants trước đây dùng AUTO_INCREMENT, nên khi chuyển sang
+ * @TableGenerator phải đẩy bộ đếm lên trên dữ liệu cũ, nếu không sẽ cấp trùng ID.
+ * Chỉ TĂNG (GREATEST), nên chạy lại ở mọi lần khởi động / nhiều replica đều an toàn.
+ */
+@Component
+public class IdGeneratorAligner {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorAligner.class);
+
+    // Phải khớp allocationSize trong @TableGenerator của entity
+    private static final int ALLOCATION_SIZE = 50;
+
+    // pkColumnValue -> bảng dữ liệu
+    private static final Map<String, String> GENERATORS = Map.of(
+            "meetings", "meetings",
+            "meeting_participants", "meeting_participants");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Inject EntityManagerFactory để chắc chắn Hibernate đã tạo/cập nhật schema (ddl-auto) trước khi chạy
+    public IdGeneratorAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        GENERATORS.forEach((sequenceName, table) -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            // Optimizer "pooled" cấp khối (next_val - 50, next_val] -> cộng thêm 1 khối để không chạm ID cũ
+            long nextVal = (maxId == null ? 0 : maxId) + ALLOCATION_SIZE;
+            jdbcTemplate.update(
+                    "INSERT INTO id_generators (sequence_name, next_val) VALUES (?, ?) " +
+                            "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))",
+                    sequenceName, nextVal);
+            log.info("id_generators[{}] >= {} (MAX(id) hiện tại = {})", sequenceName, nextVal, maxId);
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mốc đồng bộ chiều Google -> hệ thống (xem CalendarPullJob). Mỗi user đã liên kết Google 1 dòng.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "calendar_pull_state")
+public class CalendarPullStateEntity {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // nextSyncToken của lần kéo gần nhất; null = chưa có mốc (lần sau lấy mốc mới)
+    @Column(name = "sync_token", columnDefinition = "TEXT")
+    private String syncToken;
+
+    @Column(name = "last_pulled_at")
+    private LocalDateTime lastPulledAt;
+
+    public CalendarPullStateEntity(Long userId) {
+        this.userId = userId;
+    }
+}
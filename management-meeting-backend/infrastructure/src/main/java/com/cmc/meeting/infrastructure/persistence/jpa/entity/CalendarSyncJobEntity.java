@@ -0,0 +1,67 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Hàng đợi đồng bộ Google Calendar: ghi cùng transaction với nghiệp vụ, CalendarSyncWorker đọc ra và gọi Google.
+ * Bảng chỉ được đọc/ghi bằng SQL thuần (xem CalendarSyncOutboxAdapter).
+ */
+@Data
+@Entity
+@Table(name = "calendar_sync_job", indexes = {
+        @Index(name = "idx_calendar_sync_status_next", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_calendar_sync_meeting", columnList = "meeting_id")
+})
+public class CalendarSyncJobEntity {
+
+    public static final String OP_CREATE = "CREATE";
+    public static final String OP_UPDATE = "UPDATE";
+    public static final String OP_DELETE = "DELETE";
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_DONE = "DONE";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "meeting_id", nullable = false)
+    private Long meetingId;
+
+    // Chủ lịch Google (người tổ chức)
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 10)
+    private String operation; // CREATE | UPDATE | DELETE
+
+    // Bắt buộc với DELETE (cuộc họp có thể đã đổi / không còn)
+    @Column(name = "google_event_id")
+    private String googleEventId;
+
+    @Column(nullable = false, length = 20)
+    private String status; // PENDING | DONE | FAILED
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // Thời điểm được phép chạy (lần kế tiếp)
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Hạn thuê khi 1 node đang xử lý (null = không ai giữ); còn hạn thì cả cuộc họp không được lấy thêm việc
+    @Column(name = "leased_until")
+    private LocalDateTime leasedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "done_at")
+    private LocalDateTime doneAt;
+}
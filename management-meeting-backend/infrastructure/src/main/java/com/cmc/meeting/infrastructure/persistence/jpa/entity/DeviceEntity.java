@@ -32,4 +32,9 @@ public class DeviceEntity {
     @CollectionTable(name = "device_images", joinColumns = @JoinColumn(name = "device_id"))
     @Column(name = "image_url")
     private java.util.List<String> images;
+
+    // Như UserEntity.bookingVersion
+    @Column(name = "booking_version", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "BIGINT DEFAULT 0")
+    private long bookingVersion;
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Hàng đợi email (transactional outbox): ghi cùng transaction với nghiệp vụ,
+ * EmailOutboxDispatcher đọc ra và gửi theo lô. Bảng chỉ được đọc/ghi bằng SQL thuần (xem EmailOutboxAdapter).
+ */
+@Data
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next", columnList = "status, next_attempt_at")
+})
+public class EmailOutboxEntity {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_SENT = "SENT";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false, length = 500)
+    private String subject;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String body;
+
+    @Column(nullable = false, length = 20)
+    private String status; // PENDING | SENT | FAILED
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // Thời điểm được phép gửi (lần kế tiếp); cũng là "hạn thuê" khi 1 node đang gửi
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
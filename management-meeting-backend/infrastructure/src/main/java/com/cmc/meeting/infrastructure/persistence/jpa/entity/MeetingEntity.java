@@ -15,11 +15,18 @@ import com.cmc.meeting.domain.model.Role;
 @Getter
 @Setter
 @Entity
-@Table(name = "meetings")
+@Table(name = "meetings", indexes = {
+        @Index(name = "idx_meetings_start_time", columnList = "start_time"),
+        // Đối chiếu thay đổi kéo về từ Google Calendar
+        @Index(name = "idx_meetings_google_event_id", columnList = "google_event_id")
+})
 public class MeetingEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Không dùng IDENTITY: Hibernate cần tự cấp ID (theo khối 50) thì mới gộp INSERT thành JDBC batch
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "meeting_id_gen")
+    @TableGenerator(name = "meeting_id_gen", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "meetings", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -18,7 +18,10 @@ import java.time.LocalDateTime;
 public class MeetingParticipantEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Giống MeetingEntity: ID cấp theo khối để INSERT người tham dự được gộp lô
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "meeting_participant_id_gen")
+    @TableGenerator(name = "meeting_participant_id_gen", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "meeting_participants", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
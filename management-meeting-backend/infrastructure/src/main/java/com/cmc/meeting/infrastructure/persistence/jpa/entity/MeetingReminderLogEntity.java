@@ -0,0 +1,48 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Sổ nhắc nhở đã gửi (xem MeetingReminderRepository). Khóa chính ghép = khóa chống gửi trùng.
+ */
+@Getter
+@Setter
+@Entity
+@IdClass(MeetingReminderLogEntity.ReminderId.class)
+@Table(name = "meeting_reminder_log", indexes = {
+        @Index(name = "idx_reminder_log_sent_at", columnList = "sent_at")
+})
+public class MeetingReminderLogEntity {
+
+    @Id
+    @Column(name = "meeting_id")
+    private Long meetingId;
+
+    @Id
+    @Column(name = "offset_minutes")
+    private Integer offsetMinutes;
+
+    @Id
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "sent_at", nullable = false)
+    private LocalDateTime sentAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReminderId implements Serializable {
+        private Long meetingId;
+        private Integer offsetMinutes;
+        private LocalDateTime startTime;
+    }
+}
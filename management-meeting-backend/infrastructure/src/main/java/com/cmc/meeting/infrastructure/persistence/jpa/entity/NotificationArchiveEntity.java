@@ -0,0 +1,59 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Kho lưu trữ thông báo ĐÃ ĐỌC quá hạn (chuyển từ bảng notifications, xem NotificationRepositoryAdapter).
+ * Chỉ dùng để tra cứu / kiểm toán: không khóa ngoại, giữ nguyên ID gốc.
+ *
+ * Khóa chính gồm cả created_at để bảng có thể phân vùng theo tháng (MySQL yêu cầu cột phân vùng
+ * nằm trong mọi khóa unique) - dọn dữ liệu cũ = DROP PARTITION thay vì DELETE hàng loạt.
+ * Bảng này chỉ được ghi bằng SQL thuần, entity tồn tại để Hibernate tạo bảng (ddl-auto).
+ */
+@Getter
+@Setter
+@Entity
+@IdClass(NotificationArchiveEntity.ArchiveId.class)
+@Table(name = "notifications_archive", indexes = {
+        @Index(name = "idx_notifications_archive_user_created", columnList = "user_id, created_at")
+})
+public class NotificationArchiveEntity {
+
+    @Id
+    private Long id;
+
+    @Id
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private String message;
+
+    @Column(name = "is_read", nullable = false)
+    private boolean isRead;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "meeting_id")
+    private Long meetingId;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ArchiveId implements Serializable {
+        private Long id;
+        private LocalDateTime createdAt;
+    }
+}
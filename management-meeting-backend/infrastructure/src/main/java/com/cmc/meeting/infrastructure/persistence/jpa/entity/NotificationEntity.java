@@ -6,7 +6,13 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at"),
+        // COUNT chưa đọc / "đánh dấu tất cả đã đọc" chỉ quét các dòng chưa đọc của user
+        @Index(name = "idx_notifications_user_read", columnList = "user_id, is_read"),
+        // Job lưu trữ: tìm nhanh ranh giới "cũ hơn N ngày"
+        @Index(name = "idx_notifications_created", columnList = "created_at")
+})
 public class NotificationEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
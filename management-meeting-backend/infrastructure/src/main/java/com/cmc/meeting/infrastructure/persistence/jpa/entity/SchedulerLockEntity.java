@@ -0,0 +1,33 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Khóa tác vụ định kỳ giữa các replica (xem JdbcClusterLockAdapter). Mỗi tác vụ 1 dòng.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "scheduler_lock")
+public class SchedulerLockEntity {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "locked_by", nullable = false)
+    private String lockedBy;
+
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(name = "lock_until", nullable = false)
+    private LocalDateTime lockUntil;
+}
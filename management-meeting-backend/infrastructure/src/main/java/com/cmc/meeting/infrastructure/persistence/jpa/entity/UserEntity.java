@@ -50,4 +50,10 @@ public class UserEntity {
 
     @Column(name = "avatar_url")
     private String avatarUrl;
+
+    // Tăng mỗi khi ghi 1 lịch CONFIRMED có user này (ConfirmedBookingIndex dùng để biết mình còn mới không).
+    // Chỉ đổi bằng câu UPDATE riêng, không bao giờ ghi từ Entity
+    @Column(name = "booking_version", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "BIGINT DEFAULT 0")
+    private long bookingVersion;
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.entity;
+
+import com.cmc.meeting.domain.model.BookingStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Read model "Lịch họp của tôi": mỗi dòng = 1 (user, cuộc họp) mà user là người tổ chức hoặc người tham dự.
+ * Được ghi cùng transaction với meetings (xem UserMeetingTimelineProjector), nên "my meetings"
+ * chỉ còn là 1 lần quét khoảng trên (user_id, start_time) - không JOIN, không DISTINCT.
+ */
+@Getter
+@Setter
+@Entity
+@IdClass(UserMeetingTimelineEntity.TimelineId.class)
+@Table(name = "user_meeting_timeline", indexes = {
+        @Index(name = "idx_timeline_user_start", columnList = "user_id, start_time"),
+        @Index(name = "idx_timeline_meeting", columnList = "meeting_id"),
+        @Index(name = "idx_timeline_room", columnList = "room_id")
+})
+public class UserMeetingTimelineEntity {
+
+    public static final String ROLE_ORGANIZER = "ORGANIZER";
+    public static final String ROLE_PARTICIPANT = "PARTICIPANT";
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "meeting_id")
+    private Long meetingId;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 50)
+    private BookingStatus status;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(name = "room_id")
+    private Long roomId;
+
+    @Column(name = "room_name")
+    private String roomName;
+
+    @Column(name = "role", nullable = false, length = 20)
+    private String role; // ORGANIZER | PARTICIPANT
+
+    // Khóa chính ghép (user_id, meeting_id): ID do ta gán nên INSERT được gộp lô
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TimelineId implements Serializable {
+        private Long userId;
+        private Long meetingId;
+    }
+}
@@ -0,0 +1,261 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.mapper;
+
+import com.cmc.meeting.domain.model.Device;
+import com.cmc.meeting.domain.model.Meeting;
+import com.cmc.meeting.domain.model.MeetingParticipant;
+import com.cmc.meeting.domain.model.Notification;
+import com.cmc.meeting.domain.model.Room;
+import com.cmc.meeting.domain.model.User;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.DeviceEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.MeetingEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.MeetingParticipantEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.NotificationEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.RoomEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.UserEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Mapper viết tay (không reflection) cho các đường nóng: Meeting, User, Notification.
+ * ModelMapper vẫn dùng cho các màn hình admin ít gọi (Room, Device, AppConfig...).
+ *
+ * Lưu ý khi map Meeting: phòng chỉ lấy các trường đơn, KHÔNG chạm room.devices / room.images
+ * (là collection LAZY, trước đây bị ModelMapper tải cho từng cuộc họp mà không ai dùng).
+ */
+@Component
+public class JpaEntityMapper {
+
+    // ==================== USER ====================
+
+    public User toDomain(UserEntity entity) {
+        if (entity == null) return null;
+        User user = new User();
+        user.setId(entity.getId());
+        user.setUsername(entity.getUsername());
+        user.setFullName(entity.getFullName());
+        user.setPassword(entity.getPassword());
+        user.setRoles(entity.getRoles() != null ? new HashSet<>(entity.getRoles()) : new HashSet<>());
+        user.setActive(entity.isActive());
+        user.setGoogleRefreshToken(entity.getGoogleRefreshToken());
+        user.setGoogleLinked(entity.isGoogleLinked());
+        user.setAuthServiceId(entity.getAuthServiceId());
+        user.setAvatarUrl(entity.getAvatarUrl());
+        return user;
+    }
+
+    public UserEntity toEntity(User user) {
+        if (user == null) return null;
+        UserEntity entity = new UserEntity();
+        entity.setId(user.getId());
+        entity.setUsername(user.getUsername());
+        entity.setFullName(user.getFullName());
+        entity.setPassword(user.getPassword());
+        entity.setRoles(user.getRoles() != null ? new HashSet<>(user.getRoles()) : new HashSet<>());
+        entity.setActive(user.isActive());
+        entity.setGoogleRefreshToken(user.getGoogleRefreshToken());
+        entity.setGoogleLinked(user.isGoogleLinked());
+        entity.setAuthServiceId(user.getAuthServiceId());
+        entity.setAvatarUrl(user.getAvatarUrl());
+        return entity;
+    }
+
+    // ==================== ROOM / DEVICE (trong ngữ cảnh cuộc họp) ====================
+
+    public Room toDomain(RoomEntity entity) {
+        if (entity == null) return null;
+        Room room = new Room();
+        room.setId(entity.getId());
+        room.setName(entity.getName());
+        room.setCapacity(entity.getCapacity());
+        room.setLocation(entity.getLocation());
+        room.setBuildingName(entity.getBuildingName());
+        room.setFloor(entity.getFloor());
+        room.setStatus(entity.getStatus());
+        room.setRequiresApproval(entity.isRequiresApproval());
+        return room;
+    }
+
+    public RoomEntity toEntity(Room room) {
+        if (room == null) return null;
+        RoomEntity entity = new RoomEntity();
+        entity.setId(room.getId());
+        entity.setName(room.getName());
+        entity.setCapacity(room.getCapacity());
+        entity.setLocation(room.getLocation());
+        entity.setBuildingName(room.getBuildingName());
+        entity.setFloor(room.getFloor());
+        entity.setStatus(room.getStatus());
+        entity.setRequiresApproval(room.isRequiresApproval());
+        return entity;
+    }
+
+    public Device toDomain(DeviceEntity entity) {
+        if (entity == null) return null;
+        Device device = new Device();
+        device.setId(entity.getId());
+        device.setName(entity.getName());
+        device.setDescription(entity.getDescription());
+        device.setStatus(entity.getStatus());
+        device.setImages(entity.getImages() != null ? new ArrayList<>(entity.getImages()) : null);
+        // room.getId() trên proxy LAZY không kích hoạt truy vấn
+        device.setRoomId(entity.getRoom() != null ? entity.getRoom().getId() : null);
+        return device;
+    }
+
+    public DeviceEntity toEntity(Device device) {
+        if (device == null) return null;
+        DeviceEntity entity = new DeviceEntity();
+        entity.setId(device.getId());
+        entity.setName(device.getName());
+        entity.setDescription(device.getDescription());
+        entity.setStatus(device.getStatus());
+        entity.setImages(device.getImages() != null ? new ArrayList<>(device.getImages()) : null);
+        if (device.getRoomId() != null) {
+            RoomEntity roomRef = new RoomEntity();
+            roomRef.setId(device.getRoomId());
+            entity.setRoom(roomRef);
+        }
+        return entity;
+    }
+
+    // ==================== MEETING ====================
+
+    public Meeting toDomain(MeetingEntity entity) {
+        if (entity == null) return null;
+        Meeting meeting = new Meeting();
+        meeting.setId(entity.getId());
+        meeting.setTitle(entity.getTitle());
+        meeting.setDescription(entity.getDescription());
+        meeting.setStartTime(entity.getStartTime());
+        meeting.setEndTime(entity.getEndTime());
+        meeting.setStatus(entity.getStatus());
+        meeting.setRoom(toDomain(entity.getRoom()));
+        meeting.setCreator(toDomain(entity.getCreator()));
+        meeting.setOrganizer(toDomain(entity.getOrganizer()));
+        meeting.setSeriesId(entity.getSeriesId());
+        meeting.setCheckedIn(entity.isCheckedIn());
+        meeting.setCancelReason(entity.getCancelReason());
+        meeting.setCancelledAt(entity.getCancelledAt());
+        meeting.setCheckinCode(entity.getCheckinCode());
+        meeting.setGoogleEventId(entity.getGoogleEventId());
+
+        Set<Device> devices = new HashSet<>();
+        if (entity.getDevices() != null) {
+            entity.getDevices().forEach(d -> devices.add(toDomain(d)));
+        }
+        meeting.setDevices(devices);
+        meeting.setGuestEmails(entity.getGuestEmails() != null
+                ? new HashSet<>(entity.getGuestEmails()) : new HashSet<>());
+
+        Set<MeetingParticipant> participants = new HashSet<>();
+        if (entity.getParticipants() != null) {
+            for (MeetingParticipantEntity partEntity : entity.getParticipants()) {
+                MeetingParticipant p = new MeetingParticipant(toDomain(partEntity.getUser()),
+                        partEntity.getStatus(), partEntity.getResponseToken());
+                p.setId(partEntity.getId());
+                p.setCheckedInAt(partEntity.getCheckedInAt());
+                p.setMeeting(meeting);
+                participants.add(p);
+            }
+        }
+        meeting.setParticipants(participants);
+        return meeting;
+    }
+
+    public MeetingEntity toEntity(Meeting meeting) {
+        if (meeting == null) return null;
+        MeetingEntity entity = new MeetingEntity();
+        entity.setId(meeting.getId());
+        entity.setTitle(meeting.getTitle());
+        entity.setDescription(meeting.getDescription());
+        entity.setStartTime(meeting.getStartTime());
+        entity.setEndTime(meeting.getEndTime());
+        entity.setStatus(meeting.getStatus());
+        entity.setRoom(toEntity(meeting.getRoom()));
+        entity.setCreator(toEntity(meeting.getCreator()));
+        entity.setOrganizer(toEntity(meeting.getOrganizer()));
+        entity.setSeriesId(meeting.getSeriesId());
+        entity.setCheckedIn(meeting.isCheckedIn());
+        entity.setCancelReason(meeting.getCancelReason());
+        entity.setCancelledAt(meeting.getCancelledAt());
+        entity.setCheckinCode(meeting.getCheckinCode());
+        entity.setGoogleEventId(meeting.getGoogleEventId());
+
+        Set<DeviceEntity> devices = new HashSet<>();
+        if (meeting.getDevices() != null) {
+            meeting.getDevices().forEach(d -> devices.add(toEntity(d)));
+        }
+        entity.setDevices(devices);
+        entity.setGuestEmails(meeting.getGuestEmails() != null
+                ? new HashSet<>(meeting.getGuestEmails()) : new HashSet<>());
+
+        Set<MeetingParticipantEntity> participants = new HashSet<>();
+        if (meeting.getParticipants() != null) {
+            for (MeetingParticipant participant : meeting.getParticipants()) {
+                MeetingParticipantEntity partEntity = new MeetingParticipantEntity();
+                partEntity.setId(participant.getId());
+                // Chỉ cần tham chiếu theo ID (quan hệ không cascade)
+                UserEntity userRef = new UserEntity();
+                userRef.setId(participant.getUser().getId());
+                partEntity.setUser(userRef);
+                partEntity.setStatus(participant.getStatus());
+                partEntity.setResponseToken(participant.getResponseToken());
+                partEntity.setCheckedInAt(participant.getCheckedInAt());
+                partEntity.setMeeting(entity); // Liên kết 2 chiều
+                participants.add(partEntity);
+            }
+        }
+        entity.setParticipants(participants);
+        return entity;
+    }
+
+    // ==================== NOTIFICATION ====================
+
+    /**
+     * User / Meeting của thông báo chỉ map ở dạng rút gọn (ID, trạng thái cuộc họp):
+     * đủ cho kiểm tra quyền sở hữu và NotificationDTO, không kéo cả cây Meeting cho từng dòng.
+     */
+    public Notification toDomain(NotificationEntity entity) {
+        if (entity == null) return null;
+        Notification notification = new Notification();
+        notification.setId(entity.getId());
+        notification.setMessage(entity.getMessage());
+        notification.setRead(entity.isRead());
+        notification.setCreatedAt(entity.getCreatedAt());
+        if (entity.getUser() != null) {
+            User user = new User();
+            user.setId(entity.getUser().getId());
+            notification.setUser(user);
+        }
+        if (entity.getMeeting() != null) {
+            Meeting meeting = new Meeting();
+            meeting.setId(entity.getMeeting().getId());
+            meeting.setStatus(entity.getMeeting().getStatus());
+            notification.setMeeting(meeting);
+        }
+        return notification;
+    }
+
+    public NotificationEntity toEntity(Notification notification) {
+        if (notification == null) return null;
+        NotificationEntity entity = new NotificationEntity();
+        entity.setId(notification.getId());
+        entity.setMessage(notification.getMessage());
+        entity.setRead(notification.isRead());
+        entity.setCreatedAt(notification.getCreatedAt());
+        if (notification.getUser() != null) {
+            UserEntity userRef = new UserEntity();
+            userRef.setId(notification.getUser().getId());
+            entity.setUser(userRef);
+        }
+        if (notification.getMeeting() != null && notification.getMeeting().getId() != null) {
+            MeetingEntity meetingRef = new MeetingEntity();
+            meetingRef.setId(notification.getMeeting().getId());
+            entity.setMeeting(meetingRef);
+        }
+        return entity;
+    }
+}
@@ -0,0 +1,7 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.repository;
+
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.CalendarPullStateEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SpringDataCalendarPullStateRepository extends JpaRepository<CalendarPullStateEntity, Long> {
+}
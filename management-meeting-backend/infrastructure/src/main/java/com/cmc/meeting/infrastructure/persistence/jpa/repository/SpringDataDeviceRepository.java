@@ -2,7 +2,13 @@ package com.cmc.meeting.infrastructure.persistence.jpa.repository;
 
 import com.cmc.meeting.infrastructure.persistence.jpa.entity.DeviceEntity;
 import com.cmc.meeting.domain.model.DeviceStatus; // Import enum
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface SpringDataDeviceRepository extends JpaRepository<DeviceEntity, Long> {
@@ -11,4 +17,21 @@ public interface SpringDataDeviceRepository extends JpaRepository<DeviceEntity,
     List<DeviceEntity> findAllByStatus(DeviceStatus status);
 
     List<DeviceEntity> findAllByRoomId(Long roomId);
-}
\ No newline at end of file
+
+    // Khóa dòng thiết bị (SELECT ... FOR UPDATE, theo thứ tự id) tới hết transaction, trả về [id, bookingVersion]
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d.id, d.bookingVersion FROM DeviceEntity d WHERE d.id IN ?1 ORDER BY d.id")
+    List<Object[]> lockBookingVersions(Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE DeviceEntity d SET d.bookingVersion = d.bookingVersion + 1 WHERE d.id IN ?1")
+    int incrementBookingVersions(Collection<Long> ids);
+
+    // [id, bookingVersion]
+    @Query("SELECT d.id, d.bookingVersion FROM DeviceEntity d WHERE d.id IN ?1")
+    List<Object[]> findBookingVersions(Collection<Long> ids);
+
+    // Nạp chỉ mục lịch: [id, bookingVersion] của các thiết bị đã từng có lịch CONFIRMED
+    @Query("SELECT d.id, d.bookingVersion FROM DeviceEntity d WHERE d.bookingVersion > 0")
+    List<Object[]> findAllBookingVersions();
+}
@@ -1,16 +1,21 @@
 package com.cmc.meeting.infrastructure.persistence.jpa.repository;
 
 import com.cmc.meeting.infrastructure.persistence.jpa.entity.MeetingEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.MeetingParticipantEntity;
 // (Import UserEntity nếu bạn có)
 // import com.cmc.meeting.infrastructure.persistence.jpa.entity.UserEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -24,7 +29,18 @@ public interface SpringDataMeetingRepository extends JpaRepository<MeetingEntity
                         "ORDER BY m.startTime DESC")
         Page<MeetingEntity> findMyMeetings(@Param("userId") Long userId, Pageable pageable);
 
+        // (US-6) Nạp chi tiết cho 1 trang ID lấy từ user_meeting_timeline (tra theo khóa chính)
+        @EntityGraph(attributePaths = { "room", "organizer", "creator", "participants", "participants.user" })
+        @Query("SELECT m FROM MeetingEntity m WHERE m.id IN :ids")
+        List<MeetingEntity> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+        @EntityGraph(attributePaths = { "room", "organizer", "creator", "participants", "participants.user" })
+        @Query("SELECT m FROM MeetingEntity m WHERE m.googleEventId IN :googleEventIds")
+        List<MeetingEntity> findAllWithDetailsByGoogleEventIdIn(@Param("googleEventIds") Collection<String> googleEventIds);
+
         // (US-5) Kiểm tra xung đột người tham gia
+        // Đọc có khóa (current read, không theo snapshot) - dùng sau khi đã khóa dòng user (lockBookingVersions)
+        @Lock(LockModeType.PESSIMISTIC_READ)
         @Query("SELECT m FROM MeetingEntity m JOIN m.participants p " +
                         "WHERE p.user.id IN :userIds " +
                         "AND m.status = 'CONFIRMED' " + // Chặn lịch user nếu đã confirm
@@ -96,6 +112,25 @@ public interface SpringDataMeetingRepository extends JpaRepository<MeetingEntity
                         @Param("from") LocalDateTime from,
                         @Param("to") LocalDateTime to);
 
+        // Gợi ý giờ họp: [userId, startTime, endTime, status]
+        @Query("SELECT p.user.id, m.startTime, m.endTime, m.status FROM MeetingParticipantEntity p JOIN p.meeting m " +
+                        "WHERE p.user.id IN :userIds " +
+                        "AND p.status <> 'DECLINED' " +
+                        "AND m.status IN ('CONFIRMED', 'PENDING_APPROVAL') " +
+                        "AND m.startTime < :to AND m.endTime > :from")
+        List<Object[]> findUserBusySlots(@Param("userIds") Set<Long> userIds,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to);
+
+        // [roomId, startTime, endTime, status]
+        @Query("SELECT m.room.id, m.startTime, m.endTime, m.status FROM MeetingEntity m " +
+                        "WHERE m.room.id IN :roomIds " +
+                        "AND m.status IN ('CONFIRMED', 'PENDING_APPROVAL') " +
+                        "AND m.startTime < :to AND m.endTime > :from")
+        List<Object[]> findRoomBusySlots(@Param("roomIds") Set<Long> roomIds,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to);
+
         // (US-23) Báo cáo hủy họp
         @Query("SELECT m FROM MeetingEntity m " +
                         "WHERE m.status = 'CANCELLED' " +
@@ -130,13 +165,35 @@ public interface SpringDataMeetingRepository extends JpaRepository<MeetingEntity
         // (API Admin) Lấy tất cả (phân trang)
         Page<MeetingEntity> findAllByOrderByStartTimeDesc(Pageable pageable);
 
-        // Kiểm tra xung đột thiết bị
-        @Query("SELECT COUNT(m) > 0 FROM MeetingEntity m JOIN m.devices d " +
+        // (API Admin) Keyset theo (startTime DESC, id DESC) - không COUNT, không OFFSET
+        @Query("SELECT m FROM MeetingEntity m " +
+                        "WHERE (:cursorStart IS NULL OR m.startTime < :cursorStart " +
+                        "OR (m.startTime = :cursorStart AND m.id < :cursorId)) " +
+                        "ORDER BY m.startTime DESC, m.id DESC")
+        List<MeetingEntity> findAllMeetingsAfter(@Param("cursorStart") LocalDateTime cursorStart,
+                        @Param("cursorId") Long cursorId,
+                        Pageable limit);
+
+        // (US-6) Keyset cho "lịch của tôi" khi user_meeting_timeline chưa sẵn sàng
+        @Query("SELECT DISTINCT m FROM MeetingEntity m " +
+                        "LEFT JOIN m.participants p " +
+                        "WHERE (m.organizer.id = :userId OR p.user.id = :userId) " +
+                        "AND (:cursorStart IS NULL OR m.startTime < :cursorStart " +
+                        "OR (m.startTime = :cursorStart AND m.id < :cursorId)) " +
+                        "ORDER BY m.startTime DESC, m.id DESC")
+        List<MeetingEntity> findMyMeetingsAfter(@Param("userId") Long userId,
+                        @Param("cursorStart") LocalDateTime cursorStart,
+                        @Param("cursorId") Long cursorId,
+                        Pageable limit);
+
+        // Kiểm tra xung đột thiết bị (đọc có khóa như trên, dùng sau khi đã khóa dòng device)
+        @Lock(LockModeType.PESSIMISTIC_READ)
+        @Query("SELECT m FROM MeetingEntity m JOIN m.devices d " +
                         "WHERE d.id IN :deviceIds " +
                         "AND m.status = 'CONFIRMED' " + // Chặn đụng thiết bị nếu đã được admin confirm
                         "AND m.startTime < :endTime AND m.endTime > :startTime " +
-                        "AND (:ignoreId IS NULL OR m.id != :ignoreId)") // SỬA LỖI 2: Thêm dấu cách
-        boolean existsConflictingDevice(
+                        "AND (:ignoreId IS NULL OR m.id != :ignoreId)")
+        List<MeetingEntity> findConflictingMeetingsForDevices(
                         @Param("deviceIds") Set<Long> deviceIds,
                         @Param("startTime") LocalDateTime startTime,
                         @Param("endTime") LocalDateTime endTime,
@@ -175,6 +232,14 @@ public interface SpringDataMeetingRepository extends JpaRepository<MeetingEntity
         List<MeetingEntity> findAllByStartTimeBetween(@Param("start") LocalDateTime start,
                         @Param("end") LocalDateTime end);
 
+        // [id, startTime] - dùng idx_meetings_start_time
+        @Query("SELECT m.id, m.startTime FROM MeetingEntity m WHERE m.status = 'CONFIRMED' " +
+               "AND m.startTime >= :from AND m.startTime < :to")
+        List<Object[]> findConfirmedStartTimes(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+        @Query("SELECT m.id, m.startTime FROM MeetingEntity m WHERE m.status = 'CONFIRMED' AND m.id IN :ids")
+        List<Object[]> findConfirmedStartTimesByIds(@Param("ids") List<Long> ids);
+
         @EntityGraph(attributePaths = { "room", "participants" })
         @Query("SELECT m FROM MeetingEntity m WHERE m.room.id = :roomId AND :checkTime BETWEEN m.startTime AND m.endTime AND m.status = 'CONFIRMED'")
         Optional<MeetingEntity> findActiveMeetingInRoom(@Param("roomId") Long roomId,
@@ -191,6 +256,16 @@ public interface SpringDataMeetingRepository extends JpaRepository<MeetingEntity
         List<MeetingEntity> findConfirmedMeetingsInTimeRange(Long roomId, LocalDateTime startTime, LocalDateTime endTime,
                         Long meetingIdToIgnore);
 
+        // Đọc có khóa (current read, không theo snapshot của transaction) - dùng sau khi đã khóa dòng phòng
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("SELECT m FROM MeetingEntity m " +
+                        "WHERE m.room.id = :roomId " +
+                        "AND m.status = 'CONFIRMED' " +
+                        "AND m.startTime < :to AND m.endTime > :from")
+        List<MeetingEntity> findConfirmedInRoomForUpdate(@Param("roomId") Long roomId,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to);
+
         // 2. Tìm các lịch đang CHỜ DUYỆT (PENDING) bị trùng với khung giờ này (để hủy
         // đi)
         @Query("SELECT m FROM MeetingEntity m " +
@@ -200,4 +275,63 @@ public interface SpringDataMeetingRepository extends JpaRepository<MeetingEntity
                         "AND ((m.startTime < :endTime) AND (m.endTime > :startTime))")
         List<MeetingEntity> findPendingConflicts(Long roomId, LocalDateTime startTime, LocalDateTime endTime,
                         Long excludedMeetingId);
-}
\ No newline at end of file
+
+        @Query("SELECT m.id FROM MeetingEntity m " +
+                        "WHERE m.room.id = :roomId " +
+                        "AND m.status = 'PENDING_APPROVAL' " +
+                        "AND m.id <> :excludedMeetingId " +
+                        "AND m.startTime < :endTime AND m.endTime > :startTime")
+        List<Long> findPendingConflictIds(@Param("roomId") Long roomId,
+                        @Param("startTime") LocalDateTime startTime,
+                        @Param("endTime") LocalDateTime endTime,
+                        @Param("excludedMeetingId") Long excludedMeetingId);
+
+        // Không clear persistence context: cuộc họp vừa duyệt (đang managed) vẫn phải được flush
+        @Modifying(flushAutomatically = true)
+        @Query("UPDATE MeetingEntity m SET m.status = 'REJECTED', m.cancelReason = :reason " +
+                        "WHERE m.id IN :ids AND m.status = 'PENDING_APPROVAL'")
+        int rejectPendingByIds(@Param("ids") Collection<Long> ids, @Param("reason") String reason);
+
+        @Modifying
+        @Query("UPDATE MeetingEntity m SET m.googleEventId = :googleEventId WHERE m.id = :id")
+        int updateGoogleEventId(@Param("id") Long id, @Param("googleEventId") String googleEventId);
+
+        // --- Nạp chỉ mục lịch CONFIRMED (chỉ lấy cột cần thiết, không load Entity) ---
+        // [meetingId, roomId, startTime, endTime]
+        @Query("SELECT m.id, m.room.id, m.startTime, m.endTime FROM MeetingEntity m " +
+                        "WHERE m.status = 'CONFIRMED' AND m.endTime > :from")
+        List<Object[]> findConfirmedBookingSlots(@Param("from") LocalDateTime from);
+
+        // [meetingId, userId]
+        @Query("SELECT p.meeting.id, p.user.id FROM MeetingParticipantEntity p " +
+                        "WHERE p.meeting.status = 'CONFIRMED' AND p.meeting.endTime > :from")
+        List<Object[]> findConfirmedBookingParticipants(@Param("from") LocalDateTime from);
+
+        // [meetingId, deviceId]
+        @Query("SELECT m.id, d.id FROM MeetingEntity m JOIN m.devices d " +
+                        "WHERE m.status = 'CONFIRMED' AND m.endTime > :from")
+        List<Object[]> findConfirmedBookingDevices(@Param("from") LocalDateTime from);
+
+        // --- Kiểm tra trùng cho cả chuỗi định kỳ: 1 truy vấn cho mỗi chiều (phòng/người/thiết bị) ---
+        // [meetingId, startTime, endTime]
+        @Query("SELECT m.id, m.startTime, m.endTime FROM MeetingEntity m " +
+                        "WHERE m.room.id = :roomId " +
+                        "AND m.status = 'CONFIRMED' " +
+                        "AND m.startTime < :to AND m.endTime > :from")
+        List<Object[]> findConfirmedRoomSlotsInWindow(
+                        @Param("roomId") Long roomId,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to);
+
+        // Người / thiết bị: đọc có khóa (current read) sau khi đã khóa dòng user / device.
+        // Trả về entity thay vì cột rời để Hibernate gắn được FOR SHARE cho câu truy vấn.
+        @Lock(LockModeType.PESSIMISTIC_READ)
+        @Query("SELECT p FROM MeetingParticipantEntity p JOIN FETCH p.meeting m " +
+                        "WHERE p.user.id IN :userIds " +
+                        "AND m.status = 'CONFIRMED' " +
+                        "AND m.startTime < :to AND m.endTime > :from")
+        List<MeetingParticipantEntity> findConfirmedParticipationsInWindow(
+                        @Param("userIds") Set<Long> userIds,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to);
+}
@@ -8,12 +8,31 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 public interface SpringDataNotificationRepository extends JpaRepository<NotificationEntity, Long> {
 
     Page<NotificationEntity> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
 
     long countByUserIdAndIsRead(Long userId, boolean isRead);
 
+    // [userId, count] - dùng idx_notifications_user_read
+    @Query("SELECT n.user.id, COUNT(n) FROM NotificationEntity n " +
+           "WHERE n.user.id IN :userIds AND n.isRead = false GROUP BY n.user.id")
+    List<Object[]> countUnreadGroupByUser(@Param("userIds") Collection<Long> userIds);
+
+    // Keyset theo (createdAt DESC, id DESC) - dùng idx_notifications_user_created
+    @Query("SELECT n FROM NotificationEntity n WHERE n.user.id = :userId " +
+            "AND (:cursorCreatedAt IS NULL OR n.createdAt < :cursorCreatedAt " +
+            "OR (n.createdAt = :cursorCreatedAt AND n.id < :cursorId)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationEntity> findByUserIdAfter(@Param("userId") Long userId,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable limit);
+
     @Modifying // Báo cho Spring đây là query Cập nhật/Xóa
     @Query("UPDATE NotificationEntity n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
     void markAllAsReadByUserId(@Param("userId") Long userId);
@@ -6,11 +6,19 @@ import io.lettuce.core.dynamic.annotation.Param;
 
 import java.time.LocalDateTime;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import java.util.List; // Đảm bảo đã import
+import java.util.Optional;
 
 public interface SpringDataRoomRepository extends JpaRepository<RoomEntity, Long> {
+       // Khóa dòng phòng (SELECT ... FOR UPDATE) tới hết transaction: tuần tự hóa việc chốt lịch cùng phòng
+       @Lock(LockModeType.PESSIMISTIC_WRITE)
+       @Query("SELECT r FROM RoomEntity r WHERE r.id = ?1")
+       Optional<RoomEntity> lockById(Long roomId);
+
        @Query("SELECT r FROM RoomEntity r " +
                      "WHERE r.capacity >= :capacity " +
                      "AND r.id NOT IN (" +
@@ -0,0 +1,31 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.repository;
+
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.UserMeetingTimelineEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SpringDataUserMeetingTimelineRepository
+        extends JpaRepository<UserMeetingTimelineEntity, UserMeetingTimelineEntity.TimelineId> {
+
+    // Ghi (xóa / upsert) do UserMeetingTimelineProjector làm bằng JDBC batch
+
+    // (US-6) Lịch họp của tôi: quét khoảng trên idx_timeline_user_start
+    @Query("SELECT t.meetingId FROM UserMeetingTimelineEntity t WHERE t.userId = :userId")
+    Page<Long> findMeetingIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Keyset: không COUNT, không OFFSET (Pageable chỉ dùng làm LIMIT)
+    @Query("SELECT t.meetingId FROM UserMeetingTimelineEntity t WHERE t.userId = :userId " +
+            "AND (:cursorStart IS NULL OR t.startTime < :cursorStart " +
+            "OR (t.startTime = :cursorStart AND t.meetingId < :cursorId)) " +
+            "ORDER BY t.startTime DESC, t.meetingId DESC")
+    List<Long> findMeetingIdsByUserIdAfter(@Param("userId") Long userId,
+            @Param("cursorStart") LocalDateTime cursorStart,
+            @Param("cursorId") Long cursorId,
+            Pageable limit);
+}
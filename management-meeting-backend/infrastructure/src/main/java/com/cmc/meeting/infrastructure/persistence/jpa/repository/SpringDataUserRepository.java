@@ -4,9 +4,13 @@ import com.cmc.meeting.infrastructure.persistence.jpa.entity.UserEntity;
 
 import io.lettuce.core.dynamic.annotation.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 public interface SpringDataUserRepository extends JpaRepository<UserEntity, Long> {
@@ -24,4 +28,26 @@ public interface SpringDataUserRepository extends JpaRepository<UserEntity, Long
 
     @Query("SELECT u FROM UserEntity u JOIN u.roles r WHERE r = 'ROLE_ADMIN' AND u.isActive = true")
     List<UserEntity> findAllAdmins();
-}
\ No newline at end of file
+
+    @Query("SELECT u.id FROM UserEntity u WHERE u.isGoogleLinked = true AND u.googleRefreshToken IS NOT NULL")
+    List<Long> findGoogleLinkedUserIds();
+
+    // Khóa dòng user (SELECT ... FOR UPDATE, theo thứ tự id) tới hết transaction, trả về [id, bookingVersion]:
+    // tuần tự hóa việc chốt lịch có chung người tham dự giữa các instance.
+    // Chỉ lấy cột (không lấy Entity): Entity đã nằm trong persistence context sẽ không được đọc lại
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.id, u.bookingVersion FROM UserEntity u WHERE u.id IN ?1 ORDER BY u.id")
+    List<Object[]> lockBookingVersions(Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.bookingVersion = u.bookingVersion + 1 WHERE u.id IN ?1")
+    int incrementBookingVersions(Collection<Long> ids);
+
+    // [id, bookingVersion]
+    @Query("SELECT u.id, u.bookingVersion FROM UserEntity u WHERE u.id IN ?1")
+    List<Object[]> findBookingVersions(Collection<Long> ids);
+
+    // Nạp chỉ mục lịch: [id, bookingVersion] của các user đã từng có lịch CONFIRMED
+    @Query("SELECT u.id, u.bookingVersion FROM UserEntity u WHERE u.bookingVersion > 0")
+    List<Object[]> findAllBookingVersions();
+}
@@ -3,40 +3,96 @@ package com.cmc.meeting.infrastructure.storage;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 import com.cmc.meeting.application.port.storage.FileStoragePort;
+import com.cmc.meeting.infrastructure.config.AsyncExecutorConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.Map;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+/**
+ * Lưu file trên Cloudinary.
+ * - Không đọc cả file vào heap: phần multipart được chuyển thẳng ra 1 file tạm tên ngẫu nhiên
+ *   (Tomcat đã lưu phần upload trên đĩa thì chỉ là đổi tên), HTTP client gửi lên theo luồng từ file đó.
+ * - uploadFiles: nhiều file tải song song trên uploadExecutor (giới hạn số lời gọi đồng thời).
+ */
 @Component
 public class CloudinaryAdapter implements FileStoragePort {
 
+    private static final Logger log = LoggerFactory.getLogger(CloudinaryAdapter.class);
+
     private final Cloudinary cloudinary;
+    private final TaskExecutor uploadExecutor;
 
-    public CloudinaryAdapter(Cloudinary cloudinary) {
+    public CloudinaryAdapter(Cloudinary cloudinary,
+                             @Qualifier(AsyncExecutorConfig.UPLOAD_EXECUTOR) TaskExecutor uploadExecutor) {
         this.cloudinary = cloudinary;
+        this.uploadExecutor = uploadExecutor;
     }
 
     @Override
     public Map<String, String> uploadFile(MultipartFile multipartFile) throws IOException {
-        File file = convertMultiPartToFile(multipartFile);
+        Path tempFile = Files.createTempFile("upload-", extensionOf(multipartFile.getOriginalFilename()));
+        try {
+            File file = tempFile.toFile();
+            multipartFile.transferTo(file);
 
-        // Upload lên Cloudinary
-        Map uploadResult = cloudinary.uploader().upload(file, ObjectUtils.emptyMap());
+            // Upload lên Cloudinary
+            Map uploadResult = cloudinary.uploader().upload(file, ObjectUtils.emptyMap());
 
-        // Xóa file tạm
-        file.delete();
+            // Lấy URL và Public ID
+            Map<String, String> result = new HashMap<>();
+            result.put("url", uploadResult.get("url").toString());
+            result.put("public_id", uploadResult.get("public_id").toString());
+            return result;
+        } finally {
+            // Xóa file tạm
+            Files.deleteIfExists(tempFile);
+        }
+    }
 
-        // Lấy URL và Public ID
-        Map<String, String> result = new HashMap<>();
-        result.put("url", uploadResult.get("url").toString());
-        result.put("public_id", uploadResult.get("public_id").toString());
+    @Override
+    public List<Map<String, String>> uploadFiles(List<MultipartFile> files) throws IOException {
+        if (files.size() <= 1) {
+            return files.isEmpty() ? List.of() : List.of(uploadFile(files.get(0)));
+        }
 
-        return result;
+        List<CompletableFuture<Map<String, String>>> uploads = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return uploadFile(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, uploadExecutor))
+                .toList();
+        try {
+            CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            // Không để lại file "mồ côi": xóa các file đã tải thành công
+            deleteFilesQuietly(uploads.stream()
+                    .filter(upload -> !upload.isCompletedExceptionally())
+                    .map(upload -> upload.join().get("public_id"))
+                    .toList());
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IOException("Upload failed: " + cause.getMessage(), cause);
+        }
+        return uploads.stream().map(CompletableFuture::join).toList();
     }
 
     @Override
@@ -44,12 +100,30 @@ public class CloudinaryAdapter implements FileStoragePort {
         cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
     }
 
-    // Helper chuyển đổi MultipartFile sang File
-    private File convertMultiPartToFile(MultipartFile file) throws IOException {
-        File convFile = new File(System.getProperty("java.io.tmpdir") + "/" + file.getOriginalFilename());
-        try (FileOutputStream fos = new FileOutputStream(convFile)) {
-            fos.write(file.getBytes());
+    @Override
+    public void deleteFilesQuietly(List<String> publicIds) {
+        if (publicIds.isEmpty()) {
+            return;
+        }
+        try {
+            cloudinary.api().deleteResources(publicIds, ObjectUtils.emptyMap());
+        } catch (Exception e) {
+            log.warn("CLOUDINARY: Không xóa được {} file: {}", publicIds, e.getMessage());
+        }
+    }
+
+    // Giữ phần mở rộng (chỉ chữ/số) cho file tạm; tên gốc của người dùng không dùng làm đường dẫn
+    private static String extensionOf(String originalFilename) {
+        if (originalFilename == null) {
+            return null;
+        }
+        int dot = originalFilename.lastIndexOf('.');
+        if (dot < 0 || dot == originalFilename.length() - 1) {
+            return null;
         }
-        return convFile;
+        String extension = originalFilename.substring(dot + 1);
+        return extension.length() <= 10 && extension.chars().allMatch(Character::isLetterOrDigit)
+                ? "." + extension
+                : null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,164 @@
+package com.cmc.meeting.infrastructure.timeline;
+
+import com.cmc.meeting.domain.model.BookingStatus;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.MeetingEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.MeetingParticipantEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.UserMeetingTimelineEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Duy trì read model user_meeting_timeline.
+ *
+ * Ghi ngay trong transaction lưu cuộc họp (gọi từ MeetingRepositoryAdapter), không chờ event:
+ * hủy "ma" (ghost meeting), duyệt / từ chối hàng loạt... không phát MeetingUpdatedEvent / MeetingCancelledEvent
+ * - dựa vào event sẽ làm timeline lệch.
+ */
+@Component
+public class UserMeetingTimelineProjector {
+
+    private static final Logger log = LoggerFactory.getLogger(UserMeetingTimelineProjector.class);
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final String UPSERT_SQL = "INSERT INTO user_meeting_timeline " +
+            "(user_id, meeting_id, start_time, end_time, status, title, room_id, room_name, role) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE start_time = VALUES(start_time), end_time = VALUES(end_time), " +
+            "status = VALUES(status), title = VALUES(title), room_id = VALUES(room_id), " +
+            "room_name = VALUES(room_name), role = VALUES(role)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Chỉ đọc từ timeline khi đã backfill xong dữ liệu cũ
+    private volatile boolean ready = false;
+
+    // Inject EntityManagerFactory để chắc chắn bảng đã được Hibernate tạo (ddl-auto) trước khi dùng
+    public UserMeetingTimelineProjector(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ghi lại các dòng timeline cho những cuộc họp vừa lưu (cùng connection / transaction với JPA).
+     * @param fresh true nếu tất cả là cuộc họp mới tạo (bỏ qua bước xóa dòng cũ)
+     */
+    public void project(List<MeetingEntity> meetings, boolean fresh) {
+        if (meetings.isEmpty()) {
+            return;
+        }
+        if (!fresh) {
+            // Xóa hết rồi ghi lại: xử lý luôn trường hợp người tham dự bị bỏ khỏi cuộc họp
+            List<Long> meetingIds = meetings.stream().map(MeetingEntity::getId).collect(Collectors.toList());
+            String placeholders = String.join(",", Collections.nCopies(meetingIds.size(), "?"));
+            jdbcTemplate.update("DELETE FROM user_meeting_timeline WHERE meeting_id IN (" + placeholders + ")",
+                    meetingIds.toArray());
+        }
+
+        List<UserMeetingTimelineEntity> rows = new ArrayList<>();
+        for (MeetingEntity meeting : meetings) {
+            // Organizer trước để vai trò ORGANIZER không bị dòng PARTICIPANT ghi đè
+            Map<Long, String> roles = new LinkedHashMap<>();
+            if (meeting.getOrganizer() != null) {
+                roles.put(meeting.getOrganizer().getId(), UserMeetingTimelineEntity.ROLE_ORGANIZER);
+            }
+            if (meeting.getParticipants() != null) {
+                for (MeetingParticipantEntity p : meeting.getParticipants()) {
+                    roles.putIfAbsent(p.getUser().getId(), UserMeetingTimelineEntity.ROLE_PARTICIPANT);
+                }
+            }
+            roles.forEach((userId, role) -> rows.add(toRow(meeting, userId, role)));
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, row.getUserId());
+            ps.setLong(2, row.getMeetingId());
+            ps.setTimestamp(3, Timestamp.valueOf(row.getStartTime()));
+            ps.setTimestamp(4, Timestamp.valueOf(row.getEndTime()));
+            ps.setString(5, row.getStatus() != null ? row.getStatus().name() : null);
+            ps.setString(6, row.getTitle());
+            ps.setObject(7, row.getRoomId());
+            ps.setString(8, row.getRoomName());
+            ps.setString(9, row.getRole());
+        });
+    }
+
+    // Đổi trạng thái hàng loạt (vd: từ chối tự động các yêu cầu trùng giờ bằng 1 câu UPDATE)
+    public void updateStatus(List<Long> meetingIds, BookingStatus status) {
+        if (meetingIds.isEmpty()) {
+            return;
+        }
+        List<Object> args = new ArrayList<>();
+        args.add(status.name());
+        args.addAll(meetingIds);
+        String placeholders = String.join(",", Collections.nCopies(meetingIds.size(), "?"));
+        jdbcTemplate.update("UPDATE user_meeting_timeline SET status = ? WHERE meeting_id IN (" + placeholders + ")",
+                args.toArray());
+    }
+
+    public void updateRoomName(Long roomId, String roomName) {
+        jdbcTemplate.update("UPDATE user_meeting_timeline SET room_name = ? WHERE room_id = ?", roomName, roomId);
+    }
+
+    /**
+     * Lần đầu chạy (bảng rỗng): dựng timeline từ dữ liệu meetings hiện có bằng 2 câu INSERT ... SELECT.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            if (jdbcTemplate.queryForList("SELECT 1 FROM user_meeting_timeline LIMIT 1").isEmpty()) {
+                long start = System.currentTimeMillis();
+                int participants = jdbcTemplate.update(
+                        "INSERT IGNORE INTO user_meeting_timeline " +
+                                "(user_id, meeting_id, start_time, end_time, status, title, room_id, room_name, role) " +
+                                "SELECT p.user_id, m.id, m.start_time, m.end_time, m.status, m.title, r.id, r.name, " +
+                                "CASE WHEN p.user_id = m.organizer_id THEN 'ORGANIZER' ELSE 'PARTICIPANT' END " +
+                                "FROM meetings m JOIN rooms r ON r.id = m.room_id " +
+                                "JOIN meeting_participants p ON p.meeting_id = m.id");
+                int organizers = jdbcTemplate.update(
+                        "INSERT IGNORE INTO user_meeting_timeline " +
+                                "(user_id, meeting_id, start_time, end_time, status, title, room_id, room_name, role) " +
+                                "SELECT m.organizer_id, m.id, m.start_time, m.end_time, m.status, m.title, r.id, r.name, 'ORGANIZER' " +
+                                "FROM meetings m JOIN rooms r ON r.id = m.room_id");
+                log.info("Timeline: đã backfill {} dòng trong {} ms.", participants + organizers,
+                        System.currentTimeMillis() - start);
+            }
+            ready = true;
+        } catch (Exception e) {
+            // Giữ ready = false: "my meetings" tiếp tục dùng truy vấn JOIN cũ
+            log.error("Timeline: backfill thất bại, tạm dùng truy vấn cũ.", e);
+        }
+    }
+
+    private UserMeetingTimelineEntity toRow(MeetingEntity meeting, Long userId, String role) {
+        UserMeetingTimelineEntity row = new UserMeetingTimelineEntity();
+        row.setUserId(userId);
+        row.setMeetingId(meeting.getId());
+        row.setStartTime(meeting.getStartTime());
+        row.setEndTime(meeting.getEndTime());
+        row.setStatus(meeting.getStatus());
+        row.setTitle(meeting.getTitle());
+        if (meeting.getRoom() != null) {
+            row.setRoomId(meeting.getRoom().getId());
+            row.setRoomName(meeting.getRoom().getName());
+        }
+        row.setRole(role);
+        return row;
+    }
+}
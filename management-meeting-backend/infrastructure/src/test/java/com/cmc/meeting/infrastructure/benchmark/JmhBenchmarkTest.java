@@ -0,0 +1,29 @@
+package com.cmc.meeting.infrastructure.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Chạy các benchmark JMH (lớp *Benchmark trong src/test) qua surefire.
+ * Mặc định bỏ qua; bật bằng: mvn test -Dbenchmark=true [-Dbenchmark.include=TênBenchmark]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JmhBenchmarkTest {
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(System.getProperty("benchmark.include", "Benchmark"))
+                .shouldFailOnError(true)
+                .build())
+                .run();
+        assertThat(results).isNotEmpty();
+    }
+}
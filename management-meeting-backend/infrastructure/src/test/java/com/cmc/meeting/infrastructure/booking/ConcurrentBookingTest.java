@@ -0,0 +1,280 @@
+package com.cmc.meeting.infrastructure.booking;
+
+import com.cmc.meeting.application.dto.request.MeetingCreationRequest;
+import com.cmc.meeting.application.mapper.MeetingDtoMapper;
+import com.cmc.meeting.application.mapper.ModelMapperConfig;
+import com.cmc.meeting.application.port.service.NotificationService;
+import com.cmc.meeting.application.service.EntityResolver;
+import com.cmc.meeting.application.service.MeetingServiceImpl;
+import com.cmc.meeting.application.service.RoomBookingLock;
+import com.cmc.meeting.domain.exception.MeetingConflictException;
+import com.cmc.meeting.infrastructure.persistence.jpa.adapter.DeviceRepositoryAdapter;
+import com.cmc.meeting.infrastructure.persistence.jpa.adapter.MeetingRepositoryAdapter;
+import com.cmc.meeting.infrastructure.persistence.jpa.adapter.RoomRepositoryAdapter;
+import com.cmc.meeting.infrastructure.persistence.jpa.adapter.UserRepositoryAdapter;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.DeviceEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.MeetingEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.RoomEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.UserEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.mapper.JpaEntityMapper;
+import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataDeviceRepository;
+import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataMeetingRepository;
+import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataRoomRepository;
+import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataUserMeetingTimelineRepository;
+import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataUserRepository;
+import com.cmc.meeting.infrastructure.timeline.UserMeetingTimelineProjector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Đặt phòng song song trên CSDL thật (H2, chế độ MySQL), qua 2 "node" dùng chung CSDL:
+ * mỗi node có RoomBookingLock và ConfirmedBookingIndex riêng, nên giữa 2 node chỉ còn khóa dòng
+ * (phòng / người / thiết bị) ngăn đặt trùng. Mọi trường hợp phải ra đúng 1 lịch CONFIRMED, mọi request còn lại
+ * bị từ chối vì TRÙNG LỊCH (không phải vì chờ khóa quá lâu / hết kết nối).
+ * Số request (200) gấp nhiều lần pool kết nối (10): request đang chờ khóa không được giữ kết nối,
+ * request giữ khóa vẫn phải lấy được kết nối thứ 2 để cấp khối ID.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking;MODE=MySQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=30000;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.hikari.maximum-pool-size=10"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ConcurrentBookingTest {
+
+    private static final int REQUESTS = 200;
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = MeetingEntity.class)
+    @EnableJpaRepositories(basePackageClasses = SpringDataMeetingRepository.class)
+    static class Config {
+    }
+
+    @Autowired
+    private SpringDataMeetingRepository meetingJpa;
+    @Autowired
+    private SpringDataRoomRepository roomJpa;
+    @Autowired
+    private SpringDataUserRepository userJpa;
+    @Autowired
+    private SpringDataDeviceRepository deviceJpa;
+    @Autowired
+    private SpringDataUserMeetingTimelineRepository timelineJpa;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService executor;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(REQUESTS);
+        // Mỗi test 1 khung giờ riêng (CSDL dùng chung cho cả lớp)
+        start = LocalDateTime.now().plusDays(1 + SEQUENCE.incrementAndGet()).withHour(9).withMinute(0)
+                .withSecond(0).withNano(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void sameRoomSameSlotConfirmsExactlyOne() throws Exception {
+        RoomEntity room = room();
+        List<UserEntity> organizers = users(REQUESTS);
+
+        Outcome outcome = race(i -> request(room.getId(), Set.of(), Set.of()), organizers);
+
+        assertOneWinner(outcome, "đã có lịch CHÍNH THỨC (CONFIRMED) bị trùng");
+        assertThat(confirmedInRoom(room.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void sameParticipantInDifferentRoomsConfirmsExactlyOne() throws Exception {
+        UserEntity participant = users(1).get(0);
+        List<RoomEntity> rooms = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            rooms.add(room());
+        }
+        List<UserEntity> organizers = users(REQUESTS);
+
+        Outcome outcome = race(i -> request(rooms.get(i).getId(), Set.of(participant.getId()), Set.of()),
+                organizers);
+
+        assertOneWinner(outcome, "bị trùng lịch");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM meetings m JOIN meeting_participants p ON p.meeting_id = m.id " +
+                "WHERE p.user_id = ? AND m.status = 'CONFIRMED' AND m.start_time = ?",
+                Integer.class, participant.getId(), start)).isEqualTo(1);
+    }
+
+    @Test
+    void sameDeviceInDifferentRoomsConfirmsExactlyOne() throws Exception {
+        DeviceEntity device = device();
+        List<RoomEntity> rooms = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            rooms.add(room());
+        }
+        List<UserEntity> organizers = users(REQUESTS);
+
+        Outcome outcome = race(i -> request(rooms.get(i).getId(), Set.of(), Set.of(device.getId())), organizers);
+
+        assertOneWinner(outcome, "đã bị đặt");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM meetings m JOIN meeting_devices d ON d.meeting_id = m.id " +
+                "WHERE d.device_id = ? AND m.status = 'CONFIRMED' AND m.start_time = ?",
+                Integer.class, device.getId(), start)).isEqualTo(1);
+    }
+
+    // ==================== HARNESS ====================
+
+    // conflicts: thông báo lỗi của từng request bị từ chối vì trùng lịch
+    private record Outcome(int confirmed, List<String> conflicts) {
+    }
+
+    private static void assertOneWinner(Outcome outcome, String overlapMessage) {
+        assertThat(outcome.confirmed()).isEqualTo(1);
+        assertThat(outcome.conflicts()).hasSize(REQUESTS - 1)
+                .allSatisfy(message -> assertThat(message).contains(overlapMessage));
+    }
+
+    // Request i do organizers[i] gửi, xen kẽ qua 2 node, cùng xuất phát sau 1 chốt
+    private Outcome race(IntFunction<MeetingCreationRequest> requests, List<UserEntity> organizers)
+            throws Exception {
+        List<MeetingServiceImpl> nodes = List.of(node(), node());
+        CountDownLatch ready = new CountDownLatch(REQUESTS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            MeetingServiceImpl node = nodes.get(i % nodes.size());
+            MeetingCreationRequest request = requests.apply(i);
+            Long organizerId = organizers.get(i).getId();
+            results.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                try {
+                    node.createMeeting(request, organizerId);
+                    return null;
+                } catch (MeetingConflictException e) {
+                    return e.getMessage();
+                }
+            }));
+        }
+        assertThat(ready.await(10, TimeUnit.SECONDS)).isTrue();
+        go.countDown();
+
+        int confirmed = 0;
+        List<String> conflicts = new ArrayList<>();
+        for (Future<String> result : results) {
+            // Lỗi khác (deadlock, BookingLockTimeoutException, hết kết nối...) làm test thất bại tại đây
+            String conflict = result.get(60, TimeUnit.SECONDS);
+            if (conflict == null) {
+                confirmed++;
+            } else {
+                conflicts.add(conflict);
+            }
+        }
+        return new Outcome(confirmed, conflicts);
+    }
+
+    // 1 "node": chỉ mục và khóa JVM riêng, dùng chung CSDL
+    private MeetingServiceImpl node() {
+        ModelMapper modelMapper = new ModelMapperConfig().modelMapper();
+        JpaEntityMapper entityMapper = new JpaEntityMapper();
+        UserMeetingTimelineProjector timelineProjector = mock(UserMeetingTimelineProjector.class);
+        ConfirmedBookingIndex bookingIndex = new ConfirmedBookingIndex(meetingJpa, userJpa, deviceJpa);
+
+        MeetingRepositoryAdapter meetings = new MeetingRepositoryAdapter(meetingJpa, modelMapper, bookingIndex,
+                entityMapper, timelineJpa, timelineProjector, roomJpa, userJpa, deviceJpa);
+        ReflectionTestUtils.setField(meetings, "bookingIndexEnabled", true);
+        meetings.configureMapper();
+        bookingIndex.reload();
+
+        UserRepositoryAdapter users = new UserRepositoryAdapter(userJpa, entityMapper);
+        DeviceRepositoryAdapter devices = new DeviceRepositoryAdapter(deviceJpa, modelMapper);
+        return new MeetingServiceImpl(meetings, new RoomRepositoryAdapter(roomJpa, modelMapper, timelineProjector),
+                users, new MeetingDtoMapper(), mock(ApplicationEventPublisher.class), devices,
+                mock(NotificationService.class), new EntityResolver(users, devices),
+                new RoomBookingLock(transactionManager));
+    }
+
+    private MeetingCreationRequest request(Long roomId, Set<Long> participantIds, Set<Long> deviceIds) {
+        MeetingCreationRequest request = new MeetingCreationRequest();
+        request.setTitle("Họp song song");
+        request.setStartTime(start);
+        request.setEndTime(start.plusHours(1));
+        request.setRoomId(roomId);
+        request.setParticipantIds(new HashSet<>(participantIds));
+        request.setDeviceIds(new HashSet<>(deviceIds));
+        return request;
+    }
+
+    private int confirmedInRoom(Long roomId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM meetings WHERE room_id = ? AND status = 'CONFIRMED' AND start_time = ?",
+                Integer.class, roomId, start);
+    }
+
+    // ==================== DỮ LIỆU ====================
+
+    private RoomEntity room() {
+        RoomEntity room = new RoomEntity();
+        room.setName("Phòng " + SEQUENCE.incrementAndGet());
+        room.setCapacity(20);
+        return roomJpa.save(room);
+    }
+
+    private DeviceEntity device() {
+        DeviceEntity device = new DeviceEntity();
+        device.setName("Máy chiếu " + SEQUENCE.incrementAndGet());
+        return deviceJpa.save(device);
+    }
+
+    private List<UserEntity> users(int count) {
+        List<UserEntity> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int n = SEQUENCE.incrementAndGet();
+            UserEntity user = new UserEntity();
+            user.setUsername("user" + n + "@cmc.com.vn");
+            user.setFullName("Người dùng " + n);
+            user.setPassword("x");
+            users.add(userJpa.save(user));
+        }
+        return users;
+    }
+}
@@ -0,0 +1,168 @@
+package com.cmc.meeting.infrastructure.calendar;
+
+import com.cmc.meeting.application.port.cluster.ClusterLockPort;
+import com.cmc.meeting.domain.model.BookingStatus;
+import com.cmc.meeting.domain.model.Meeting;
+import com.cmc.meeting.domain.model.Room;
+import com.cmc.meeting.domain.model.User;
+import com.cmc.meeting.domain.port.repository.MeetingRepository;
+import com.cmc.meeting.infrastructure.calendar.CalendarSyncOutboxAdapter.SyncJob;
+import com.cmc.meeting.infrastructure.persistence.jpa.adapter.FakeGoogleCalendarServer;
+import com.cmc.meeting.infrastructure.persistence.jpa.adapter.GoogleCalendarAdapter;
+import com.cmc.meeting.infrastructure.persistence.jpa.adapter.GoogleCalendarClientPool;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.UserEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.cmc.meeting.infrastructure.persistence.jpa.entity.CalendarSyncJobEntity.OP_CREATE;
+import static com.cmc.meeting.infrastructure.persistence.jpa.entity.CalendarSyncJobEntity.OP_DELETE;
+import static com.cmc.meeting.infrastructure.persistence.jpa.entity.CalendarSyncJobEntity.OP_UPDATE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * CalendarSyncWorker + GoogleCalendarAdapter chạy thật với server Calendar giả lập
+ * (app.google-calendar.root-url / token-url); hàng đợi và CSDL được giả lập.
+ */
+class CalendarSyncWorkerTest {
+
+    private static final Long ORGANIZER_ID = 7L;
+    private static final Long MEETING_ID = 42L;
+
+    private FakeGoogleCalendarServer server;
+    private CalendarSyncOutboxAdapter outbox;
+    private MeetingRepository meetingRepository;
+    private CalendarSyncWorker worker;
+    private Meeting meeting;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FakeGoogleCalendarServer();
+
+        SpringDataUserRepository userRepository = mock(SpringDataUserRepository.class);
+        UserEntity organizer = new UserEntity();
+        organizer.setId(ORGANIZER_ID);
+        organizer.setGoogleLinked(true);
+        organizer.setGoogleRefreshToken("refresh-token");
+        when(userRepository.findById(ORGANIZER_ID)).thenReturn(Optional.of(organizer));
+
+        GoogleCalendarClientPool clientPool = new GoogleCalendarClientPool(userRepository, 10);
+        ReflectionTestUtils.setField(clientPool, "clientId", "client-id");
+        ReflectionTestUtils.setField(clientPool, "clientSecret", "client-secret");
+        ReflectionTestUtils.setField(clientPool, "rootUrl", server.rootUrl());
+        ReflectionTestUtils.setField(clientPool, "tokenUrl", server.tokenUrl());
+
+        outbox = mock(CalendarSyncOutboxAdapter.class);
+        meetingRepository = mock(MeetingRepository.class);
+        meeting = meeting();
+        when(meetingRepository.findAllByIds(anyList())).thenAnswer(invocation -> List.of(meeting));
+
+        worker = new CalendarSyncWorker(outbox, new GoogleCalendarAdapter(clientPool), meetingRepository,
+                new SyncTaskExecutor(), mock(ClusterLockPort.class), mock(PlatformTransactionManager.class), 5, 20);
+        ReflectionTestUtils.setField(worker, "batchSize", 200);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void createStoresEventIdThenDeleteWithoutEventIdUsesStoredOne() {
+        claim(job(1L, OP_CREATE, null));
+        worker.drain();
+
+        verify(meetingRepository).updateGoogleEventIds(Map.of(MEETING_ID, "evt-1"));
+        verify(outbox).markDone(List.of(1L));
+        assertThat(server.events()).containsOnlyKeys("evt-1");
+
+        // Hủy khi lệnh tạo chưa chạy: việc DELETE không có Event ID, worker lấy ID đã lưu trên cuộc họp
+        meeting.setGoogleEventId("evt-1");
+        meeting.setStatus(BookingStatus.CANCELLED);
+        claim(job(2L, OP_DELETE, null));
+        worker.drain();
+
+        verify(outbox).markDone(List.of(2L));
+        assertThat(server.events()).isEmpty();
+        assertThat(server.calls()).extracting(FakeGoogleCalendarServer.Call::method)
+                .containsExactly("POST", "DELETE");
+    }
+
+    @Test
+    void createAndDeleteInSameBatchNeverReachGoogle() {
+        meeting.setStatus(BookingStatus.CANCELLED);
+        claim(job(1L, OP_CREATE, null), job(2L, OP_DELETE, null));
+        worker.drain();
+
+        verify(outbox).markDone(List.of(1L, 2L));
+        verify(meetingRepository, never()).updateGoogleEventIds(anyMap());
+        assertThat(server.apiRequests()).isZero();
+    }
+
+    @Test
+    void updatesAreCoalescedIntoOnePatch() {
+        server.putEvent("evt-9", "Cũ");
+        meeting.setGoogleEventId("evt-9");
+        claim(job(1L, OP_UPDATE, "evt-9"), job(2L, OP_UPDATE, "evt-9"));
+        worker.drain();
+
+        verify(outbox).markDone(List.of(1L, 2L));
+        assertThat(server.calls()).containsExactly(new FakeGoogleCalendarServer.Call("PATCH", "evt-9", "token-1"));
+        assertThat(server.events()).containsEntry("evt-9", meeting.getTitle());
+    }
+
+    @Test
+    void deleteOfEventRemovedOnGoogleIsDone() {
+        claim(job(1L, OP_DELETE, "evt-gone"));
+        worker.drain();
+
+        verify(outbox).markDone(List.of(1L));
+        verify(outbox, never()).markRetry(anyList(), any(), any());
+        verify(outbox, never()).markFailed(anyList(), any());
+    }
+
+    private void claim(SyncJob... jobs) {
+        when(outbox.claimDue(anyInt(), any())).thenReturn(List.of(jobs)).thenReturn(List.of());
+    }
+
+    private static SyncJob job(Long id, String operation, String googleEventId) {
+        return new SyncJob(id, MEETING_ID, ORGANIZER_ID, operation, googleEventId, 1);
+    }
+
+    private static Meeting meeting() {
+        User organizer = new User();
+        organizer.setId(ORGANIZER_ID);
+        Room room = new Room();
+        room.setId(1L);
+        room.setName("Phòng họp A");
+
+        Meeting meeting = new Meeting();
+        meeting.setId(MEETING_ID);
+        meeting.setTitle("Họp giao ban");
+        meeting.setDescription("Tuần 1");
+        meeting.setStartTime(LocalDateTime.now().plusDays(1).withNano(0));
+        meeting.setEndTime(LocalDateTime.now().plusDays(1).plusHours(1).withNano(0));
+        meeting.setRoom(room);
+        meeting.setOrganizer(organizer);
+        meeting.setStatus(BookingStatus.CONFIRMED);
+        return meeting;
+    }
+}
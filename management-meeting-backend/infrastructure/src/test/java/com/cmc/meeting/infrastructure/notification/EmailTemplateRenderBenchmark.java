@@ -0,0 +1,141 @@
+package com.cmc.meeting.infrastructure.notification;
+
+import com.cmc.meeting.application.dto.admin.AppConfigUpdateRequest;
+import com.cmc.meeting.application.port.service.AppConfigService;
+import com.cmc.meeting.domain.model.AppConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tốc độ render 1 email từ template lưu trong CSDL:
+ * - stringResolver: cách cũ, StringTemplateResolver parse lại toàn bộ HTML mỗi lần
+ * - cachedResolver: ThymeleafEmailService + EmailTemplateResolver (cache bản đã parse theo key + hash)
+ *
+ * Chạy: mvn test -Dbenchmark=true -Dbenchmark.include=EmailTemplateRenderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateRenderBenchmark {
+
+    private static final String TEMPLATE_KEY = "email.template.internal";
+
+    // Cỡ và cấu trúc tương tự template seed (style + th:text + th:each)
+    private static final String TEMPLATE = """
+            <!DOCTYPE html><html xmlns:th="http://www.thymeleaf.org">
+              <head>
+                <meta charset="UTF-8" />
+                <style>
+                  body { font-family: Arial, sans-serif; line-height: 1.6; }
+                  .container { width: 90%; margin: auto; padding: 20px; border: 1px solid #ddd; border-radius: 5px; }
+                  .header { font-size: 24px; color: #333; }
+                  .details { margin-top: 20px; }
+                  .details p { margin: 5px 0; }
+                  .button { display: inline-block; padding: 10px 15px; color: white; border-radius: 5px; text-decoration: none; }
+                  .accept { background-color: #28a745; }
+                  .decline { background-color: #dc3545; }
+                </style>
+              </head>
+              <body>
+                <div class="container">
+                  <div class="header">Thư mời họp</div>
+                  <p>Xin chào,</p>
+                  <p>Bạn được <strong th:text="${organizerName}">Người tổ chức</strong> mời tham gia cuộc họp:</p>
+                  <div class="details">
+                    <p><strong>Chủ đề:</strong> <span th:text="${meetingTitle}">Tiêu đề</span></p>
+                    <p><strong>Thời gian:</strong> <span th:text="${startTime}">Bắt đầu</span> - <span th:text="${endTime}">Kết thúc</span></p>
+                    <p><strong>Địa điểm:</strong> <span th:text="${roomName}">Phòng họp</span></p>
+                    <p th:if="${description}"><strong>Mô tả:</strong> <span th:text="${description}">Mô tả</span></p>
+                    <p><strong>Thành phần:</strong></p>
+                    <ul><li th:each="name : ${participantNames}" th:text="${name}">Tên</li></ul>
+                  </div>
+                  <p>
+                    <a th:href="${acceptUrl}" class="button accept">Chấp nhận</a>
+                    <a th:href="${declineUrl}" class="button decline">Từ chối</a>
+                  </p>
+                  <p>Trân trọng,<br/>Hệ thống đặt phòng họp CMC</p>
+                </div>
+              </body>
+            </html>
+            """;
+
+    private SpringTemplateEngine stringEngine;
+    private ThymeleafEmailService emailService;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setUp() {
+        stringEngine = new SpringTemplateEngine();
+        stringEngine.setTemplateResolver(new StringTemplateResolver());
+
+        ThymeleafConfig config = new ThymeleafConfig();
+        EmailTemplateResolver resolver = config.emailTemplateResolver();
+        emailService = new ThymeleafEmailService(config.emailTemplateEngine(resolver), resolver,
+                new FixedAppConfigService(Map.of(TEMPLATE_KEY, TEMPLATE)));
+
+        variables = new HashMap<>();
+        variables.put("organizerName", "Nguyễn Văn A");
+        variables.put("meetingTitle", "Họp giao ban tuần");
+        variables.put("startTime", "09:00 05/01/2026");
+        variables.put("endTime", "10:00 05/01/2026");
+        variables.put("roomName", "Phòng họp A - Tầng 3");
+        variables.put("description", "Tổng kết công việc tuần trước và kế hoạch tuần này");
+        variables.put("participantNames", List.of("Trần Thị B", "Lê Văn C", "Phạm Thị D", "Hoàng Văn E"));
+        variables.put("acceptUrl", "https://meeting.cmc.com.vn/meetings/respond-by-link?token=abc&status=ACCEPTED");
+        variables.put("declineUrl", "https://meeting.cmc.com.vn/meetings/respond-by-link?token=abc&status=DECLINED");
+    }
+
+    @Benchmark
+    public String stringResolver() {
+        Context context = new Context();
+        context.setVariables(variables);
+        return stringEngine.process(TEMPLATE, context);
+    }
+
+    @Benchmark
+    public String cachedResolver() {
+        return emailService.processTemplate(TEMPLATE_KEY, variables);
+    }
+
+    private record FixedAppConfigService(Map<String, String> values) implements AppConfigService {
+
+        @Override
+        public String getValue(String key, String defaultValue) {
+            return values.getOrDefault(key, defaultValue);
+        }
+
+        @Override
+        public int getIntValue(String key, int defaultValue) {
+            return defaultValue;
+        }
+
+        @Override
+        public List<AppConfig> getAllConfigs() {
+            return List.of();
+        }
+
+        @Override
+        public AppConfig updateConfig(String key, AppConfigUpdateRequest request) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
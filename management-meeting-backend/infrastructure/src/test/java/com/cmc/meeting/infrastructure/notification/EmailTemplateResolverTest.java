@@ -0,0 +1,52 @@
+package com.cmc.meeting.infrastructure.notification;
+
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailTemplateResolverTest {
+
+    private static final String KEY = "email.template.internal";
+
+    private final EmailTemplateResolver resolver = new EmailTemplateResolver();
+    private final SpringTemplateEngine engine = new SpringTemplateEngine();
+
+    EmailTemplateResolverTest() {
+        engine.setTemplateResolver(resolver);
+    }
+
+    @Test
+    void sameContentKeepsName() {
+        String name = resolver.register(KEY, "<p>v1</p>");
+
+        assertThat(resolver.register(KEY, "<p>v1</p>")).isEqualTo(name);
+        assertThat(render(name)).isEqualTo("<p>v1</p>");
+    }
+
+    @Test
+    void changedContentReplacesSupersededName() {
+        String oldName = resolver.register(KEY, "<p>v1</p>");
+        String newName = resolver.register(KEY, "<p>v2</p>");
+
+        assertThat(newName).isNotEqualTo(oldName);
+        assertThat(resolver.currentName(KEY)).isEqualTo(newName);
+        assertThat(render(newName)).isEqualTo("<p>v2</p>");
+        // Luồng còn cầm tên cũ nhận nội dung hiện tại, không render chính cái tên
+        assertThat(render(oldName)).isEqualTo("<p>v2</p>");
+    }
+
+    @Test
+    void unregisterForgetsKey() {
+        String name = resolver.register(KEY, "<p>v1</p>");
+
+        assertThat(resolver.unregister(KEY)).isEqualTo(name);
+        assertThat(resolver.currentName(KEY)).isNull();
+        assertThat(resolver.unregister(KEY)).isNull();
+    }
+
+    private String render(String templateName) {
+        return engine.process(templateName, new Context());
+    }
+}
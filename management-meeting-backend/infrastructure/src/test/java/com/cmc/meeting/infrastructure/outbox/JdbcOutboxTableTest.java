@@ -0,0 +1,146 @@
+package com.cmc.meeting.infrastructure.outbox;
+
+import com.cmc.meeting.infrastructure.calendar.CalendarSyncOutboxAdapter;
+import com.cmc.meeting.infrastructure.calendar.CalendarSyncOutboxAdapter.SyncJob;
+import com.cmc.meeting.infrastructure.notification.EmailOutboxAdapter;
+import com.cmc.meeting.infrastructure.notification.EmailOutboxAdapter.OutboxEmail;
+import com.cmc.meeting.infrastructure.outbox.JdbcOutboxTable.RetryBackoff;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.MeetingEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataMeetingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.cmc.meeting.infrastructure.persistence.jpa.entity.CalendarSyncJobEntity.OP_CREATE;
+import static com.cmc.meeting.infrastructure.persistence.jpa.entity.CalendarSyncJobEntity.OP_UPDATE;
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * JdbcOutboxTable qua 2 hàng đợi dùng nó (email_outbox, calendar_sync_job) trên H2 (chế độ MySQL).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JdbcOutboxTableTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = MeetingEntity.class)
+    @EnableJpaRepositories(basePackageClasses = SpringDataMeetingRepository.class)
+    static class Config {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private EmailOutboxAdapter emails;
+    private CalendarSyncOutboxAdapter calendarJobs;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM email_outbox");
+        jdbcTemplate.update("DELETE FROM calendar_sync_job");
+        emails = new EmailOutboxAdapter(jdbcTemplate, transactionManager);
+        calendarJobs = new CalendarSyncOutboxAdapter(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    void claimedRowsAreLeasedUntilExpiry() {
+        emails.enqueueAll(List.of("a@cmc.com.vn", "b@cmc.com.vn", "c@cmc.com.vn"), "Họp", "<p>x</p>");
+
+        List<OutboxEmail> first = emails.claimDue(2, LEASE);
+        List<OutboxEmail> second = emails.claimDue(10, LEASE);
+
+        assertThat(first).extracting(OutboxEmail::recipient).containsExactly("a@cmc.com.vn", "b@cmc.com.vn");
+        assertThat(first).allSatisfy(e -> assertThat(e.attempts()).isEqualTo(1));
+        assertThat(second).extracting(OutboxEmail::recipient).containsExactly("c@cmc.com.vn");
+        assertThat(emails.claimDue(10, LEASE)).isEmpty();
+
+        // Hết hạn thuê (node chết giữa chừng): email quay lại hàng đợi, tính thêm 1 lượt thử
+        jdbcTemplate.update("UPDATE email_outbox SET next_attempt_at = ?", LocalDateTime.now().minusSeconds(1));
+        assertThat(emails.claimDue(10, LEASE)).extracting(OutboxEmail::attempts).containsOnly(2);
+    }
+
+    @Test
+    void meetingWithLeasedJobIsNotClaimedAgain() {
+        calendarJobs.enqueueAll(List.of(
+                new SyncJob(null, 1L, 7L, OP_CREATE, null, 0),
+                new SyncJob(null, 1L, 7L, OP_UPDATE, null, 0),
+                new SyncJob(null, 2L, 7L, OP_CREATE, null, 0)));
+        List<SyncJob> claimed = calendarJobs.claimDue(10, LEASE);
+        assertThat(claimed).extracting(SyncJob::meetingId).containsExactly(1L, 1L, 2L);
+
+        // Việc mới của cuộc họp 1 chờ tới khi lượt đang thuê xong
+        calendarJobs.enqueue(1L, 7L, OP_UPDATE, null);
+        assertThat(calendarJobs.claimDue(10, LEASE)).isEmpty();
+
+        calendarJobs.markDone(claimed.stream().map(SyncJob::id).toList());
+        assertThat(calendarJobs.claimDue(10, LEASE)).extracting(SyncJob::meetingId, SyncJob::operation)
+                .containsExactly(tuple(1L, OP_UPDATE));
+    }
+
+    @Test
+    void retryFailAndRescheduleUpdateQueueStats() {
+        emails.enqueueAll(List.of("a@cmc.com.vn", "b@cmc.com.vn"), "Họp", "<p>x</p>");
+        List<OutboxEmail> claimed = emails.claimDue(10, LEASE);
+
+        emails.markFailed(claimed.get(0).id(), "x".repeat(2000), LocalDateTime.now().minusSeconds(1));
+        emails.markFailed(claimed.get(1).id(), "550 mailbox unavailable", null);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT LENGTH(last_error) FROM email_outbox WHERE id = ?",
+                Integer.class, claimed.get(0).id())).isEqualTo(1000);
+        Map<String, Long> stats = emails.getQueueStats();
+        assertThat(stats).containsEntry("PENDING", 1L).containsEntry("FAILED", 1L).containsKey("oldestPendingSeconds");
+        assertThat(emails.claimDue(10, LEASE)).extracting(OutboxEmail::attempts).containsExactly(2);
+
+        // Dời lịch (giới hạn tần suất) trả lại lượt thử và nhả thuê của cuộc họp
+        calendarJobs.enqueue(3L, 7L, OP_CREATE, null);
+        SyncJob job = calendarJobs.claimDue(10, LEASE).get(0);
+        calendarJobs.reschedule(List.of(job.id()), LocalDateTime.now().minusSeconds(1));
+        assertThat(calendarJobs.claimDue(10, LEASE)).extracting(SyncJob::attempts).containsExactly(1);
+    }
+
+    @Test
+    void doneRowsAreDeletedInChunks() {
+        emails.enqueueAll(List.of("a@x.vn", "b@x.vn", "c@x.vn", "d@x.vn", "e@x.vn"), "Họp", "<p>x</p>");
+        List<OutboxEmail> claimed = emails.claimDue(10, LEASE);
+        emails.markSent(claimed.subList(0, 4).stream().map(OutboxEmail::id).toList());
+
+        assertThat(emails.deleteSentBefore(LocalDateTime.now().plusMinutes(1), 3)).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void backoffDoublesUpToMaxThenStops() {
+        RetryBackoff backoff = new RetryBackoff(Duration.ofSeconds(30), Duration.ofHours(1));
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(backoff.retryAt(1, 8)).isCloseTo(now.plusSeconds(30), within(2, SECONDS));
+        assertThat(backoff.retryAt(3, 8)).isCloseTo(now.plusMinutes(2), within(2, SECONDS));
+        assertThat(backoff.retryAt(30, 40)).isCloseTo(now.plusHours(1), within(2, SECONDS));
+        assertThat(backoff.retryAt(8, 8)).isNull();
+    }
+}
@@ -0,0 +1,229 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.adapter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Server giả lập OAuth token + Calendar API (chỉ phần hệ thống dùng: insert / patch / delete qua batch endpoint
+ * và từng request lẻ), để chạy GoogleCalendarClientPool / GoogleCalendarAdapter với
+ * app.google-calendar.root-url và app.google-calendar.token-url trỏ vào đây.
+ */
+public class FakeGoogleCalendarServer implements AutoCloseable {
+
+    private static final Pattern REQUEST_LINE = Pattern.compile("^(GET|POST|PATCH|PUT|DELETE) (\\S+) HTTP/1\\.1",
+            Pattern.MULTILINE);
+    private static final Pattern PART_AUTHORIZATION = Pattern.compile("(?im)^authorization:\\s*(.+)$");
+    private static final Pattern PART_METHOD_OVERRIDE = Pattern.compile("(?im)^x-http-method-override:\\s*(\\S+)");
+    private static final Pattern EVENT_PATH = Pattern.compile("/calendar/v3/calendars/primary/events(?:/([^/?\\s]+))?");
+
+    /**
+     * 1 thao tác Calendar mà server nhận được (kể cả thao tác nằm trong batch).
+     */
+    public record Call(String method, String eventId, String accessToken) {
+    }
+
+    private final HttpServer server;
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private final AtomicInteger httpRequests = new AtomicInteger();
+    private final AtomicInteger eventSequence = new AtomicInteger();
+    private final List<Call> calls = Collections.synchronizedList(new ArrayList<>());
+    // eventId -> tiêu đề; sự kiện đã xóa thì không còn
+    private final Map<String, String> events = new ConcurrentHashMap<>();
+
+    public FakeGoogleCalendarServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/token", this::handleToken);
+        server.createContext("/batch/calendar/v3", this::handleBatch);
+        server.createContext("/calendar/v3/", this::handleSingle);
+        server.start();
+    }
+
+    public String rootUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    public String tokenUrl() {
+        return rootUrl() + "token";
+    }
+
+    public int tokenRequests() {
+        return tokenRequests.get();
+    }
+
+    // Số HTTP request tới Calendar API (1 batch = 1 request)
+    public int apiRequests() {
+        return httpRequests.get();
+    }
+
+    public List<Call> calls() {
+        synchronized (calls) {
+            return List.copyOf(calls);
+        }
+    }
+
+    public Map<String, String> events() {
+        return Map.copyOf(events);
+    }
+
+    public void putEvent(String eventId, String summary) {
+        events.put(eventId, summary);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    // ==================== HANDLERS ====================
+
+    private void handleToken(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        int n = tokenRequests.incrementAndGet();
+        respond(exchange, 200, "application/json",
+                "{\"access_token\":\"token-" + n + "\",\"expires_in\":3600,\"token_type\":\"Bearer\"}");
+    }
+
+    private void handleSingle(HttpExchange exchange) throws IOException {
+        httpRequests.incrementAndGet();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String override = exchange.getRequestHeaders().getFirst("X-HTTP-Method-Override");
+        Response response = apply(override != null ? override : exchange.getRequestMethod(),
+                exchange.getRequestURI().getPath(), body,
+                accessToken(exchange.getRequestHeaders().getFirst("Authorization")));
+        respond(exchange, response.status(), "application/json", response.body());
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        httpRequests.incrementAndGet();
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        String boundary = contentType.substring(contentType.indexOf("boundary=") + "boundary=".length());
+        String token = accessToken(exchange.getRequestHeaders().getFirst("Authorization"));
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+        String responseBoundary = "batch_fake";
+        StringBuilder out = new StringBuilder();
+        int part = 0;
+        for (String chunk : body.split("--" + Pattern.quote(boundary))) {
+            Matcher line = REQUEST_LINE.matcher(chunk);
+            if (!line.find()) {
+                continue;
+            }
+            int bodyStart = chunk.indexOf("\r\n\r\n", line.end());
+            String partBody = bodyStart < 0 ? "" : chunk.substring(bodyStart + 4).trim();
+            String path = line.group(2).replaceFirst("^https?://[^/]+", "");
+            // Mỗi request trong batch mang header riêng (Authorization, PATCH đi dưới dạng POST + method override)
+            String headers = chunk.substring(line.end(), bodyStart < 0 ? chunk.length() : bodyStart);
+            Matcher authorization = PART_AUTHORIZATION.matcher(headers);
+            Matcher override = PART_METHOD_OVERRIDE.matcher(headers);
+            Response response = apply(override.find() ? override.group(1).trim() : line.group(1), path, partBody,
+                    authorization.find() ? accessToken(authorization.group(1).trim()) : token);
+
+            out.append("--").append(responseBoundary).append("\r\n")
+                    .append("Content-Type: application/http\r\n")
+                    .append("Content-ID: <response-").append(++part).append(">\r\n\r\n")
+                    .append("HTTP/1.1 ").append(response.status()).append(' ').append(reason(response.status()))
+                    .append("\r\n");
+            if (response.body().isEmpty()) {
+                out.append("Content-Length: 0\r\n\r\n\r\n");
+            } else {
+                byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
+                out.append("Content-Type: application/json; charset=UTF-8\r\n")
+                        .append("Content-Length: ").append(bytes.length).append("\r\n\r\n")
+                        .append(response.body()).append("\r\n");
+            }
+        }
+        out.append("--").append(responseBoundary).append("--\r\n");
+        respond(exchange, 200, "multipart/mixed; boundary=" + responseBoundary, out.toString());
+    }
+
+    private record Response(int status, String body) {
+    }
+
+    private Response apply(String method, String path, String body, String token) {
+        Matcher matcher = EVENT_PATH.matcher(path);
+        if (!matcher.find()) {
+            return new Response(404, error(404, "notFound"));
+        }
+        String eventId = matcher.group(1);
+        if (token == null) {
+            return new Response(401, error(401, "authError"));
+        }
+        switch (method) {
+            case "POST" -> {
+                String id = "evt-" + eventSequence.incrementAndGet();
+                calls.add(new Call(method, id, token));
+                events.put(id, summaryOf(body));
+                return new Response(200, "{\"id\":\"" + id + "\"}");
+            }
+            case "PATCH" -> {
+                calls.add(new Call(method, eventId, token));
+                if (events.replace(eventId, summaryOf(body)) == null) {
+                    return new Response(404, error(404, "notFound"));
+                }
+                return new Response(200, "{\"id\":\"" + eventId + "\"}");
+            }
+            case "DELETE" -> {
+                calls.add(new Call(method, eventId, token));
+                return events.remove(eventId) == null
+                        ? new Response(410, error(410, "deleted"))
+                        : new Response(204, "");
+            }
+            default -> {
+                return new Response(405, error(405, "methodNotAllowed"));
+            }
+        }
+    }
+
+    private static String summaryOf(String json) {
+        Matcher matcher = Pattern.compile("\"summary\"\\s*:\\s*\"([^\"]*)\"").matcher(json);
+        return matcher.find() ? matcher.group(1) : "";
+    }
+
+    private static String accessToken(String authorization) {
+        return authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring("Bearer ".length())
+                : null;
+    }
+
+    private static String error(int code, String reason) {
+        return "{\"error\":{\"code\":" + code + ",\"message\":\"" + reason + "\",\"errors\":[{\"reason\":\""
+                + reason + "\",\"message\":\"" + reason + "\"}]}}";
+    }
+
+    private static String reason(int status) {
+        return switch (status) {
+            case 200 -> "OK";
+            case 204 -> "No Content";
+            case 401 -> "Unauthorized";
+            case 404 -> "Not Found";
+            case 410 -> "Gone";
+            default -> "Error";
+        };
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+}
@@ -0,0 +1,144 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.adapter;
+
+import com.cmc.meeting.domain.model.Meeting;
+import com.cmc.meeting.domain.model.Room;
+import com.cmc.meeting.infrastructure.persistence.jpa.adapter.GoogleCalendarAdapter.SyncResult;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.UserEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.repository.SpringDataUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Số lời gọi token / Calendar API cho mỗi lần đồng bộ, đo trên server giả lập
+ * (app.google-calendar.root-url / token-url).
+ */
+class GoogleCalendarClientPoolTest {
+
+    private static final int SYNCS = 5;
+
+    private FakeGoogleCalendarServer server;
+    private SpringDataUserRepository userRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FakeGoogleCalendarServer();
+        userRepository = mock(SpringDataUserRepository.class);
+        when(userRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.of(linkedUser(invocation.getArgument(0))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void accessTokenAndClientAreReusedAcrossSyncs() {
+        GoogleCalendarAdapter adapter = new GoogleCalendarAdapter(pool(10));
+
+        for (int i = 0; i < SYNCS; i++) {
+            assertThat(adapter.pushMeetingToGoogle(1L, meeting(i))).isNotNull();
+        }
+
+        assertThat(server.apiRequests()).isEqualTo(SYNCS);
+        assertThat(server.tokenRequests()).isEqualTo(1);
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void invalidatedClientFetchesNewToken() {
+        // Mỗi lần đồng bộ 1 client mới (như trước khi có pool): mỗi lần 1 lời gọi token
+        GoogleCalendarClientPool pool = pool(10);
+        GoogleCalendarAdapter adapter = new GoogleCalendarAdapter(pool);
+
+        for (int i = 0; i < SYNCS; i++) {
+            pool.invalidate(1L);
+            adapter.pushMeetingToGoogle(1L, meeting(i));
+        }
+
+        assertThat(server.tokenRequests()).isEqualTo(SYNCS);
+        assertThat(server.calls()).last().extracting(FakeGoogleCalendarServer.Call::accessToken)
+                .isEqualTo("token-" + SYNCS);
+    }
+
+    @Test
+    void batchSyncUsesOneRequestPerBatch() {
+        GoogleCalendarAdapter adapter = new GoogleCalendarAdapter(pool(10));
+        int meetings = GoogleCalendarAdapter.BATCH_SIZE + 10;
+
+        Map<Long, SyncResult> results = adapter.createEvents(1L,
+                LongStream.range(0, meetings).mapToObj(i -> meeting((int) i)).toList());
+
+        assertThat(results).hasSize(meetings).allSatisfy((id, result) -> assertThat(result.isOk()).isTrue());
+        assertThat(server.apiRequests()).isEqualTo(2);
+        assertThat(server.tokenRequests()).isEqualTo(1);
+        assertThat(server.calls()).hasSize(meetings);
+    }
+
+    @Test
+    void leastRecentlyUsedClientIsEvicted() {
+        GoogleCalendarAdapter adapter = new GoogleCalendarAdapter(pool(1));
+
+        adapter.pushMeetingToGoogle(1L, meeting(0));
+        adapter.pushMeetingToGoogle(2L, meeting(1));
+        adapter.pushMeetingToGoogle(1L, meeting(2));
+
+        assertThat(server.tokenRequests()).isEqualTo(3);
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void unlinkedUserIsCachedAsEmpty() {
+        when(userRepository.findById(3L)).thenReturn(Optional.of(new UserEntity()));
+        GoogleCalendarClientPool pool = pool(10);
+
+        assertThat(pool.clientFor(3L)).isEmpty();
+        assertThat(pool.clientFor(3L)).isEmpty();
+
+        verify(userRepository, times(1)).findById(3L);
+        assertThat(server.tokenRequests()).isZero();
+    }
+
+    private GoogleCalendarClientPool pool(int maxClients) {
+        GoogleCalendarClientPool pool = new GoogleCalendarClientPool(userRepository, maxClients);
+        ReflectionTestUtils.setField(pool, "clientId", "client-id");
+        ReflectionTestUtils.setField(pool, "clientSecret", "client-secret");
+        ReflectionTestUtils.setField(pool, "rootUrl", server.rootUrl());
+        ReflectionTestUtils.setField(pool, "tokenUrl", server.tokenUrl());
+        return pool;
+    }
+
+    private static UserEntity linkedUser(Long id) {
+        UserEntity user = new UserEntity();
+        user.setId(id);
+        user.setGoogleLinked(true);
+        user.setGoogleRefreshToken("refresh-" + id);
+        return user;
+    }
+
+    private static Meeting meeting(int i) {
+        Room room = new Room();
+        room.setName("Phòng họp A");
+        Meeting meeting = new Meeting();
+        meeting.setId((long) i + 1);
+        meeting.setTitle("Cuộc họp " + i);
+        meeting.setRoom(room);
+        meeting.setStartTime(LocalDateTime.now().plusDays(1).withNano(0));
+        meeting.setEndTime(LocalDateTime.now().plusDays(1).plusHours(1).withNano(0));
+        return meeting;
+    }
+}
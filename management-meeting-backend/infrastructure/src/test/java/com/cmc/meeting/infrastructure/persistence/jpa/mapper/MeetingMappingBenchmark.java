@@ -0,0 +1,179 @@
+package com.cmc.meeting.infrastructure.persistence.jpa.mapper;
+
+import com.cmc.meeting.application.dto.response.MeetingDTO;
+import com.cmc.meeting.application.dto.response.MeetingParticipantDTO;
+import com.cmc.meeting.application.mapper.MeetingDtoMapper;
+import com.cmc.meeting.application.mapper.ModelMapperConfig;
+import com.cmc.meeting.domain.model.BookingStatus;
+import com.cmc.meeting.domain.model.Device;
+import com.cmc.meeting.domain.model.Meeting;
+import com.cmc.meeting.domain.model.MeetingParticipant;
+import com.cmc.meeting.domain.model.ParticipantStatus;
+import com.cmc.meeting.domain.model.User;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.DeviceEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.MeetingEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.MeetingParticipantEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.RoomEntity;
+import com.cmc.meeting.infrastructure.persistence.jpa.entity.UserEntity;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * So sánh 1 trang danh sách cuộc họp (MeetingEntity -> Meeting -> MeetingDTO):
+ * - modelMapper: cách cũ (ModelMapper reflection, cấu hình như MeetingRepositoryAdapter / MeetingServiceImpl trước đây)
+ * - handWritten: JpaEntityMapper + MeetingDtoMapper
+ *
+ * Chạy: mvn test -Dbenchmark=true -Dbenchmark.include=MeetingMappingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeetingMappingBenchmark {
+
+    // Cỡ trang của các API danh sách (my-meetings, báo cáo)
+    private static final int PAGE_SIZE = 100;
+    private static final int PARTICIPANTS = 8;
+    private static final int DEVICES = 2;
+
+    private List<MeetingEntity> page;
+    private ModelMapper modelMapper;
+    private JpaEntityMapper entityMapper;
+    private MeetingDtoMapper dtoMapper;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapperConfig().modelMapper();
+        modelMapper.typeMap(MeetingEntity.class, Meeting.class)
+                .addMappings(mapper -> mapper.skip(Meeting::setParticipants));
+        modelMapper.createTypeMap(DeviceEntity.class, Device.class);
+        entityMapper = new JpaEntityMapper();
+        dtoMapper = new MeetingDtoMapper();
+        page = fixtures();
+    }
+
+    @Benchmark
+    public List<MeetingDTO> modelMapper() {
+        List<MeetingDTO> result = new ArrayList<>(page.size());
+        for (MeetingEntity entity : page) {
+            result.add(legacyToDTO(legacyToDomain(entity)));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<MeetingDTO> handWritten() {
+        List<MeetingDTO> result = new ArrayList<>(page.size());
+        for (MeetingEntity entity : page) {
+            result.add(dtoMapper.toDTO(entityMapper.toDomain(entity)));
+        }
+        return result;
+    }
+
+    // MeetingRepositoryAdapter.toDomain() trước khi có JpaEntityMapper
+    private Meeting legacyToDomain(MeetingEntity entity) {
+        Meeting meeting = modelMapper.map(entity, Meeting.class);
+        Set<MeetingParticipant> participants = entity.getParticipants().stream()
+                .map(partEntity -> {
+                    User user = modelMapper.map(partEntity.getUser(), User.class);
+                    MeetingParticipant p = new MeetingParticipant(user, partEntity.getStatus(),
+                            partEntity.getResponseToken());
+                    p.setId(partEntity.getId());
+                    p.setCheckedInAt(partEntity.getCheckedInAt());
+                    p.setMeeting(meeting);
+                    return p;
+                })
+                .collect(Collectors.toSet());
+        meeting.setParticipants(participants);
+        return meeting;
+    }
+
+    // MeetingServiceImpl.convertMeetingToDTO() trước khi có MeetingDtoMapper
+    private MeetingDTO legacyToDTO(Meeting meeting) {
+        MeetingDTO dto = modelMapper.map(meeting, MeetingDTO.class);
+        dto.setParticipants(meeting.getParticipants().stream()
+                .map(participant -> {
+                    MeetingParticipantDTO p = new MeetingParticipantDTO();
+                    p.setStatus(participant.getStatus());
+                    p.setId(participant.getUser().getId());
+                    p.setFullName(participant.getUser().getFullName());
+                    return p;
+                })
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
+    private static List<MeetingEntity> fixtures() {
+        RoomEntity room = new RoomEntity();
+        room.setId(1L);
+        room.setName("Phòng họp A");
+        room.setCapacity(20);
+        room.setLocation("Tầng 3");
+        room.setDevices(new ArrayList<>());
+        room.setImages(new ArrayList<>());
+
+        List<DeviceEntity> devices = new ArrayList<>();
+        for (long d = 1; d <= DEVICES; d++) {
+            DeviceEntity device = new DeviceEntity();
+            device.setId(d);
+            device.setName("Thiết bị " + d);
+            device.setRoom(room);
+            devices.add(device);
+        }
+
+        List<MeetingEntity> meetings = new ArrayList<>(PAGE_SIZE);
+        LocalDateTime start = LocalDateTime.of(2026, 1, 5, 9, 0);
+        for (long m = 1; m <= PAGE_SIZE; m++) {
+            UserEntity organizer = user(1000 + m);
+            MeetingEntity meeting = new MeetingEntity();
+            meeting.setId(m);
+            meeting.setTitle("Cuộc họp " + m);
+            meeting.setDescription("Mô tả cuộc họp " + m);
+            meeting.setStartTime(start.plusHours(m));
+            meeting.setEndTime(start.plusHours(m).plusMinutes(45));
+            meeting.setStatus(BookingStatus.CONFIRMED);
+            meeting.setRoom(room);
+            meeting.setOrganizer(organizer);
+            meeting.setCreator(organizer);
+            meeting.setDevices(new java.util.HashSet<>(devices));
+            meeting.setGuestEmails(new java.util.HashSet<>(Set.of("guest" + m + "@example.com")));
+            for (long p = 1; p <= PARTICIPANTS; p++) {
+                MeetingParticipantEntity participant = new MeetingParticipantEntity();
+                participant.setId(m * 100 + p);
+                participant.setMeeting(meeting);
+                participant.setUser(user(p));
+                participant.setStatus(p == 1 ? ParticipantStatus.ACCEPTED : ParticipantStatus.PENDING);
+                participant.setResponseToken("token-" + m + "-" + p);
+                meeting.getParticipants().add(participant);
+            }
+            meetings.add(meeting);
+        }
+        return meetings;
+    }
+
+    private static UserEntity user(long id) {
+        UserEntity user = new UserEntity();
+        user.setId(id);
+        user.setUsername("user" + id + "@cmc.com.vn");
+        user.setFullName("Người dùng " + id);
+        return user;
+    }
+}
@@ -0,0 +1,24 @@
+package com.cmc.meeting.web.config;
+
+import com.cmc.meeting.web.push.NotificationPushRelay;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Đăng ký nhận kênh Redis của thông báo realtime (mỗi node 1 subscriber).
+ */
+@Configuration
+public class NotificationPushConfig {
+
+    @Bean
+    public RedisMessageListenerContainer notificationPushListenerContainer(RedisConnectionFactory connectionFactory,
+            NotificationPushRelay relay) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(relay, new ChannelTopic(relay.getChannel()));
+        return container;
+    }
+}
@@ -0,0 +1,31 @@
+package com.cmc.meeting.web.controller;
+
+import com.cmc.meeting.infrastructure.calendar.CalendarSyncOutboxAdapter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin/calendar-sync")
+@Tag(name = "Admin: Calendar Sync API", description = "Theo dõi hàng đợi đồng bộ Google Calendar")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminCalendarSyncController {
+
+    private final CalendarSyncOutboxAdapter calendarSyncOutbox;
+
+    public AdminCalendarSyncController(CalendarSyncOutboxAdapter calendarSyncOutbox) {
+        this.calendarSyncOutbox = calendarSyncOutbox;
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Độ sâu hàng đợi đồng bộ lịch (PENDING / FAILED, tuổi việc chờ lâu nhất)")
+    public ResponseEntity<Map<String, Long>> getStats() {
+        return ResponseEntity.ok(calendarSyncOutbox.getQueueStats());
+    }
+}
@@ -0,0 +1,31 @@
+package com.cmc.meeting.web.controller;
+
+import com.cmc.meeting.application.port.notification.EmailOutboxPort;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin/email-outbox")
+@Tag(name = "Admin: Email Outbox API", description = "Theo dõi hàng đợi gửi email")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminEmailOutboxController {
+
+    private final EmailOutboxPort emailOutbox;
+
+    public AdminEmailOutboxController(EmailOutboxPort emailOutbox) {
+        this.emailOutbox = emailOutbox;
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Độ sâu hàng đợi email (PENDING / FAILED, tuổi email chờ lâu nhất)")
+    public ResponseEntity<Map<String, Long>> getStats() {
+        return ResponseEntity.ok(emailOutbox.getQueueStats());
+    }
+}
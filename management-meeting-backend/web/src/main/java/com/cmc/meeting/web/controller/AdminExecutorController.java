@@ -0,0 +1,31 @@
+package com.cmc.meeting.web.controller;
+
+import com.cmc.meeting.infrastructure.async.BoundedVirtualThreadExecutor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/executors")
+@Tag(name = "Admin: Async Executors API", description = "Theo dõi các executor chạy tác vụ nền")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminExecutorController {
+
+    private final List<BoundedVirtualThreadExecutor> executors;
+
+    public AdminExecutorController(List<BoundedVirtualThreadExecutor> executors) {
+        this.executors = executors;
+    }
+
+    @GetMapping
+    @Operation(summary = "Số task đang chạy / đang chờ / bị đẩy về luồng gọi của từng executor")
+    public ResponseEntity<List<BoundedVirtualThreadExecutor.Stats>> getStats() {
+        return ResponseEntity.ok(executors.stream().map(BoundedVirtualThreadExecutor::getStats).toList());
+    }
+}
@@ -3,8 +3,10 @@ package com.cmc.meeting.web.controller;
 import com.cmc.meeting.application.dto.meeting.*;
 import com.cmc.meeting.application.dto.request.MeetingCreationRequest;
 import com.cmc.meeting.application.dto.request.MeetingUpdateRequest;
+import com.cmc.meeting.application.dto.response.CursorPageDTO;
 import com.cmc.meeting.application.dto.response.MeetingDTO;
 import com.cmc.meeting.application.dto.timeslot.TimeSlotDTO;
+import com.cmc.meeting.application.dto.timeslot.TimeSuggestionDTO;
 import com.cmc.meeting.application.dto.timeslot.TimeSuggestionRequest;
 import com.cmc.meeting.application.port.service.MeetingService;
 import com.cmc.meeting.application.port.service.TimeSuggestionService;
@@ -113,6 +115,16 @@ public class MeetingController {
         return ResponseEntity.ok(meetings);
     }
 
+    // Phân trang theo con trỏ (không COUNT / OFFSET): ?cursor=<nextCursor của trang trước>&size=20
+    @GetMapping("/my-meetings/cursor")
+    public ResponseEntity<CursorPageDTO<MeetingDTO>> getMyMeetingsByCursor(
+            @AuthenticationPrincipal Object principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size) {
+        Long userId = getUserId(principal);
+        return ResponseEntity.ok(meetingService.getMyMeetingsByCursor(userId, cursor, size));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<MeetingDTO> updateMeeting(
             @PathVariable Long id,
@@ -149,6 +161,13 @@ public class MeetingController {
         return ResponseEntity.ok(suggestions);
     }
 
+    // Gợi ý có xếp hạng: đúng thời lượng, kèm phòng phù hợp, theo giờ làm việc / thời gian đệm
+    @PostMapping("/suggest-time/ranked")
+    public ResponseEntity<List<TimeSuggestionDTO>> suggestRankedTime(
+            @Valid @RequestBody TimeSuggestionRequest request) {
+        return ResponseEntity.ok(timeSuggestionService.suggestRankedSlots(request));
+    }
+
     @DeleteMapping("/series/{seriesId}")
     public ResponseEntity<?> cancelMeetingSeries(
             @PathVariable String seriesId,
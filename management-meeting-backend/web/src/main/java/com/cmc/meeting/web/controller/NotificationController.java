@@ -1,20 +1,24 @@
 package com.cmc.meeting.web.controller;
 
 import com.cmc.meeting.application.dto.notification.NotificationDTO;
+import com.cmc.meeting.application.dto.response.CursorPageDTO;
 import com.cmc.meeting.application.port.service.NotificationService;
 import com.cmc.meeting.domain.port.repository.UserRepository;
+import com.cmc.meeting.web.push.NotificationSseRegistry;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.Map;
 
 @RestController
@@ -26,10 +30,13 @@ public class NotificationController {
 
     private final NotificationService notificationService;
     private final UserRepository userRepository;
+    private final NotificationSseRegistry sseRegistry;
 
-    public NotificationController(NotificationService notificationService, UserRepository userRepository) {
+    public NotificationController(NotificationService notificationService, UserRepository userRepository,
+            NotificationSseRegistry sseRegistry) {
         this.notificationService = notificationService;
         this.userRepository = userRepository;
+        this.sseRegistry = sseRegistry;
     }
 
     // Helper
@@ -55,6 +62,24 @@ public class NotificationController {
         return ResponseEntity.ok(page);
     }
 
+    // Phân trang theo con trỏ: ?cursor=<nextCursor của trang trước>&size=10
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageDTO<NotificationDTO>> getMyNotificationsByCursor(
+            @AuthenticationPrincipal Object principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size) {
+        Long currentUserId = getUserId(principal);
+        return ResponseEntity.ok(notificationService.getMyNotificationsByCursor(currentUserId, cursor, size));
+    }
+
+    // Kênh đẩy realtime (SSE) thay cho polling: sự kiện "notification" và "unread-count"
+    // EventSource không gửi được header -> cho phép ?access_token=... riêng cho endpoint này
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal Object principal) {
+        Long currentUserId = getUserId(principal);
+        return sseRegistry.register(currentUserId);
+    }
+
     @GetMapping("/unread-count")
     public ResponseEntity<Map<String, Long>> getUnreadCount(@AuthenticationPrincipal Object principal) {
         Long currentUserId = getUserId(principal);
@@ -3,6 +3,7 @@ package com.cmc.meeting.web.controller;
 import com.cmc.meeting.application.dto.report.CancelationReportDTO;
 import com.cmc.meeting.application.dto.report.RoomUsageReportDTO;
 import com.cmc.meeting.application.dto.report.VisitorReportDTO;
+import com.cmc.meeting.application.dto.response.CursorPageDTO;
 import com.cmc.meeting.application.dto.response.MeetingDTO;
 import com.cmc.meeting.application.port.service.ExcelExportService;
 import com.cmc.meeting.application.port.service.MeetingService;
@@ -116,4 +117,12 @@ public class ReportController {
         Page<MeetingDTO> meetings = meetingService.getAllMeetings(pageable);
         return ResponseEntity.ok(meetings);
     }
+
+    // Phân trang theo con trỏ cho lịch sử nhiều năm (không COUNT / OFFSET)
+    @GetMapping("/all-meetings/cursor")
+    public ResponseEntity<CursorPageDTO<MeetingDTO>> getAllMeetingsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size) {
+        return ResponseEntity.ok(meetingService.getAllMeetingsByCursor(cursor, size));
+    }
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.cmc.meeting.web.exception;
 
+import com.cmc.meeting.domain.exception.BookingLockTimeoutException;
+import com.cmc.meeting.domain.exception.InvalidCursorException;
 import com.cmc.meeting.domain.exception.MeetingConflictException;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -34,7 +37,26 @@ public class GlobalExceptionHandler {
     // 3. Xử lý lỗi "Trùng lịch" (Nghiệp vụ tùy chỉnh của chúng ta)
     @ExceptionHandler(MeetingConflictException.class)
     public ResponseEntity<Object> handleMeetingConflict(MeetingConflictException ex) {
-        return new ResponseEntity<>(Map.of("error", ex.getMessage()), HttpStatus.CONFLICT); // 409
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", ex.getMessage());
+        if (!ex.getConflicts().isEmpty()) {
+            body.put("conflicts", ex.getConflicts()); // Chi tiết từng buổi bị trùng (chuỗi định kỳ)
+        }
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT); // 409
+    }
+
+    // Chờ khóa đặt phòng quá lâu: chưa trùng gì cả, client thử lại sau ít giây -> 503 + Retry-After
+    @ExceptionHandler(BookingLockTimeoutException.class)
+    public ResponseEntity<Object> handleBookingLockTimeout(BookingLockTimeoutException ex) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(Map.of("error", ex.getMessage()), headers, HttpStatus.SERVICE_UNAVAILABLE); // 503
+    }
+
+    // Cursor phân trang bị sửa / hỏng -> 400
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Object> handleInvalidCursor(InvalidCursorException ex) {
+        return new ResponseEntity<>(Map.of("error", ex.getMessage()), HttpStatus.BAD_REQUEST); // 400
     }
 
     // 4. Xử lý tất cả các lỗi khác (500)
@@ -0,0 +1,101 @@
+package com.cmc.meeting.web.push;
+
+import com.cmc.meeting.application.mapper.MeetingDtoMapper;
+import com.cmc.meeting.domain.event.NotificationsCreatedEvent;
+import com.cmc.meeting.domain.event.NotificationsReadEvent;
+import com.cmc.meeting.domain.model.Notification;
+import com.cmc.meeting.infrastructure.config.AsyncExecutorConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Đẩy thông báo mới / thay đổi số chưa đọc tới trình duyệt thay cho việc polling.
+ *
+ * Sau khi commit: publish 1 bản tin JSON lên kênh Redis -> MỌI node (kể cả node này) nhận qua onMessage()
+ * và gửi cho các kết nối SSE của user đó trên node mình. Redis lỗi thì ít nhất vẫn đẩy được cho node hiện tại.
+ *
+ * Sự kiện SSE gửi cho client:
+ *  - "notification": NotificationDTO mới
+ *  - "unread-count": {"delta": +1 / -1} hoặc {"unreadCount": 0} (đánh dấu tất cả đã đọc)
+ */
+@Component
+public class NotificationPushRelay implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPushRelay.class);
+
+    public static final String EVENT_NOTIFICATION = "notification";
+    public static final String EVENT_UNREAD_COUNT = "unread-count";
+
+    private final NotificationSseRegistry registry;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeetingDtoMapper meetingDtoMapper;
+
+    @Value("${app.notification-push.channel:meeting:notification-push}")
+    private String channel;
+
+    public NotificationPushRelay(NotificationSseRegistry registry, StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper, MeetingDtoMapper meetingDtoMapper) {
+        this.registry = registry;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meetingDtoMapper = meetingDtoMapper;
+    }
+
+    // Bản tin trao đổi giữa các node
+    public record PushMessage(Long userId, String event, Object data) {
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    @Async(AsyncExecutorConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationsCreated(NotificationsCreatedEvent event) {
+        for (Notification notification : event.getNotifications()) {
+            Long userId = notification.getUser().getId();
+            publish(new PushMessage(userId, EVENT_NOTIFICATION, meetingDtoMapper.toDTO(notification)));
+            publish(new PushMessage(userId, EVENT_UNREAD_COUNT, Map.of("delta", 1)));
+        }
+    }
+
+    @Async(AsyncExecutorConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationsRead(NotificationsReadEvent event) {
+        Object data = event.isAll() ? Map.of("unreadCount", 0) : Map.of("delta", -1);
+        publish(new PushMessage(event.getUserId(), EVENT_UNREAD_COUNT, data));
+    }
+
+    // Nhận từ Redis (mọi node, kể cả node đã publish)
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            PushMessage push = objectMapper.readValue(
+                    new String(message.getBody(), StandardCharsets.UTF_8), PushMessage.class);
+            registry.send(push.userId(), push.event(), push.data());
+        } catch (Exception e) {
+            log.warn("PUSH: Bản tin Redis không hợp lệ, bỏ qua.", e);
+        }
+    }
+
+    private void publish(PushMessage push) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(push));
+        } catch (Exception e) {
+            log.warn("PUSH: Không publish được lên Redis ({}), chỉ gửi cho kết nối trên node này.", e.getMessage());
+            registry.send(push.userId(), push.event(), push.data());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.cmc.meeting.web.push;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Danh sách kết nối SSE đang mở trên NODE NÀY (mỗi tab trình duyệt = 1 emitter).
+ * Các node khác nhận bản tin qua Redis pub/sub (NotificationPushRelay) rồi tự đẩy cho kết nối của mình.
+ */
+@Component
+public class NotificationSseRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationSseRegistry.class);
+
+    private static final long TIMEOUT_MS = 30 * 60 * 1000L; // Trình duyệt (EventSource) tự kết nối lại khi hết hạn
+    private static final int MAX_CONNECTIONS_PER_USER = 10;
+
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    public SseEmitter register(Long userId) {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MS);
+        List<SseEmitter> userEmitters = emitters.computeIfAbsent(userId, k -> new CopyOnWriteArrayList<>());
+        userEmitters.add(emitter);
+        // Quá nhiều tab: đóng kết nối cũ nhất
+        while (userEmitters.size() > MAX_CONNECTIONS_PER_USER) {
+            userEmitters.remove(0).complete();
+        }
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+        return emitter;
+    }
+
+    public boolean hasConnections(Long userId) {
+        List<SseEmitter> userEmitters = emitters.get(userId);
+        return userEmitters != null && !userEmitters.isEmpty();
+    }
+
+    public void send(Long userId, String eventName, Object data) {
+        List<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : userEmitters) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(data, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                // Client đã đóng tab
+                remove(userId, emitter);
+            }
+        }
+    }
+
+    // Giữ kết nối qua proxy / load balancer (thường cắt kết nối im lặng sau 60s)
+    @Scheduled(fixedRate = 25_000)
+    public void heartbeat() {
+        emitters.forEach((userId, userEmitters) -> {
+            for (SseEmitter emitter : userEmitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                } catch (IOException | IllegalStateException e) {
+                    remove(userId, emitter);
+                }
+            }
+        });
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (k, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+        log.debug("SSE: đóng kết nối của user {}", userId);
+    }
+}
@@ -15,11 +15,15 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import jakarta.servlet.DispatcherType;
+
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
@@ -96,6 +100,16 @@ public class SecurityConfig {
         };
     }
 
+    // Token qua query (?access_token=) CHỈ cho kênh SSE (EventSource không gửi được header Authorization)
+    private BearerTokenResolver bearerTokenResolver() {
+        DefaultBearerTokenResolver headerResolver = new DefaultBearerTokenResolver();
+        DefaultBearerTokenResolver queryResolver = new DefaultBearerTokenResolver();
+        queryResolver.setAllowUriQueryParameter(true);
+        return request -> "/api/v1/notifications/stream".equals(request.getRequestURI())
+                ? queryResolver.resolve(request)
+                : headerResolver.resolve(request);
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -105,6 +119,8 @@ public class SecurityConfig {
             .formLogin(login -> login.disable())
             .httpBasic(basic -> basic.disable())
             .authorizeHttpRequests(auth -> auth
+                // SSE: request gốc đã xác thực; lượt dispatch ASYNC (khi emitter đóng) không mang token
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(
                     "/api/v1/video-call/**",
                     "/api/v1/auth/**",
@@ -119,6 +135,7 @@ public class SecurityConfig {
                 .authenticationEntryPoint(jwtAuthenticationEntryPoint)
             )
             .oauth2ResourceServer(oauth2 -> oauth2
+                .bearerTokenResolver(bearerTokenResolver())
                 .jwt(jwt -> jwt
                     .decoder(jwtDecoder())
                     .jwtAuthenticationConverter(customJwtAuthenticationConverter)